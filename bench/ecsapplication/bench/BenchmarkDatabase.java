@@ -0,0 +1,191 @@
+/**
+ * BenchmarkDatabase.java
+ * Builds an embedded H2 database shaped like the ECS MySQL database and
+ * fills it with a realistic volume of data, for the benchmarks and the
+ * load generator.
+ *
+ * The tables are created as in the MySQL dump in the sql folder (with
+ * its foreign key indexes), filled, and then brought up to date by
+ * SchemaMigrator, the same way DBConnect migrates a real database.
+ * The default volumes are 1,000 employees, 10,000 pieces of equipment
+ * and 1,000,000 transactions:
+ *   -Equipment: 30% Loaned, 10% Ordered, the rest Available.
+ *   -Transactions: spread over the last five years, oldest first. Each
+ *    Loaned item's latest transaction is still Borrowed (an open loan);
+ *    every other transaction is Returned, one in ten of them Damaged.
+ *   -Orders: one per 50 transactions, one in four Cancelled; each
+ *    confirmed order was picked up and became a transaction.
+ *   -Reminders: one per open loan.
+ * The data is generated by SQL (no random numbers), so every run
+ * measures the same database.
+ */
+
+package ecsapplication.bench;
+
+// Import JDBC classes used to build the database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Import ECS classes used to migrate the schema
+import ecsapplication.SchemaMigrator;
+
+public class BenchmarkDatabase {
+
+	// Default volumes
+	public static final int DEFAULT_EMPLOYEES = 1_000;
+	public static final int DEFAULT_EQUIPMENT = 10_000;
+	public static final int DEFAULT_TRANSACTIONS = 1_000_000;
+
+	// H2 settings shared by every connection to the database
+	public static final String USERNAME = "sa";
+	public static final String PASSWORD = "";
+
+	private final String url;            // JDBC URL of the database
+	private final int employees;         // Rows in employee
+	private final int equipment;         // Rows in equipment
+	private final int transactions;      // Rows in transaction
+
+	// Creates a description of a database; call create() to build it
+	public BenchmarkDatabase(String url, int employees, int equipment, int transactions) {
+		if (transactions < equipment) {
+			throw new IllegalArgumentException("Need at least one transaction per piece of equipment");
+		}
+		this.url = url;
+		this.employees = employees;
+		this.equipment = equipment;
+		this.transactions = transactions;
+	}
+
+	// In-memory database with the given name and volumes
+	public static BenchmarkDatabase inMemory(String name, int employees, int equipment, int transactions) {
+		return new BenchmarkDatabase("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", employees, equipment, transactions);
+	}
+
+	// ========================= METHOD: create ========================= //
+	// Creates the tables, fills them and applies the schema migrations.
+	// Any existing ECS tables in the database are dropped first.
+	// Returns the time taken in milliseconds.
+	// ================================================================== //
+	public long create() throws SQLException {
+		long start = System.nanoTime();
+		try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+
+			// Start from an empty database
+			for (String table : new String[] { "event_outbox", "reminder", "transaction", "`order`", "equipment",
+					"employee", SchemaMigrator.VERSION_TABLE, SchemaMigrator.LOCK_TABLE }) {
+				stmt.execute("DROP TABLE IF EXISTS " + table);
+			}
+
+			// Tables and foreign key indexes as created by the MySQL dump
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20) NOT NULL, "
+					+ "skillClassification VARCHAR(20) NOT NULL)");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY AUTO_INCREMENT, equipmentName VARCHAR(20) NOT NULL, "
+					+ "equipmentCondition VARCHAR(15) NOT NULL, requiredSkill VARCHAR(20) NOT NULL, "
+					+ "equipStatus VARCHAR(20) NOT NULL DEFAULT 'Available')");
+			stmt.execute("CREATE TABLE `order` (orderID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+					+ "equipmentID INT NOT NULL, orderDate DATE NOT NULL, pickUpDate DATE, orderStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+					+ "equipmentID INT NOT NULL, orderID INT, borrowDate DATE NOT NULL, expectedReturnDate DATE, "
+					+ "transactionStatus VARCHAR(20), returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+			stmt.execute("CREATE TABLE reminder (reminderID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+					+ "transactionID INT NOT NULL, reminderDate DATE NOT NULL, reminderMSG TEXT)");
+			stmt.execute("CREATE INDEX order_empID ON `order` (empID)");
+			stmt.execute("CREATE INDEX order_ibfk_2 ON `order` (equipmentID)");
+			stmt.execute("CREATE INDEX transaction_empID ON transaction (empID)");
+			stmt.execute("CREATE INDEX transaction_orderID ON transaction (orderID)");
+			stmt.execute("CREATE INDEX transaction_ibfk_2 ON transaction (equipmentID)");
+			stmt.execute("CREATE INDEX reminder_empID ON reminder (empID)");
+			stmt.execute("CREATE INDEX reminder_transactionID ON reminder (transactionID)");
+
+			// Employees over the five skills
+			stmt.execute("INSERT INTO employee SELECT X, 'Emp' || X, " + skillOf("X") + " FROM SYSTEM_RANGE(1, " + employees + ")");
+
+			// Equipment over the five skills: 30% Loaned, 10% Ordered, the rest Available
+			stmt.execute("INSERT INTO equipment SELECT X, 'Item' || X, 'Good', " + skillOf("X") + ", "
+					+ "CASE WHEN MOD(X, 10) < 3 THEN 'Loaned' WHEN MOD(X, 10) = 3 THEN 'Ordered' ELSE 'Available' END "
+					+ "FROM SYSTEM_RANGE(1, " + equipment + ")");
+
+			// Orders, one per 50 transactions. Confirmed orders were picked up
+			// three days after they were placed; cancelled ones never were.
+			String orderDate = "DATEADD('DAY', -MOD(X, 1825), CURRENT_DATE)";
+			stmt.execute("INSERT INTO `order` SELECT X, MOD(X, " + employees + ") + 1, MOD(X, " + equipment + ") + 1, "
+					+ orderDate + ", CASEWHEN(MOD(X, 4) = 0, NULL, DATEADD('DAY', 3, " + orderDate + ")), "
+					+ "CASEWHEN(MOD(X, 4) = 0, 'Cancelled', 'Confirmed') FROM SYSTEM_RANGE(1, " + getOrders() + ")");
+
+			// Transactions, oldest first over the last five years. Every 50th one
+			// came from a confirmed order. The last one for each item is its open
+			// loan if the item is Loaned.
+			long firstOfLast = (long) transactions - equipment;   // Transactions after this are each item's latest
+			String borrowDate = "DATEADD('DAY', CAST(X * 1825 / " + transactions + " AS INT) - 1830, CURRENT_DATE)";
+			String open = "(X > " + firstOfLast + " AND MOD(MOD(X - 1, " + equipment + ") + 1, 10) < 3)";
+			stmt.execute("INSERT INTO transaction SELECT X, MOD(X * 7, " + employees + ") + 1, MOD(X - 1, " + equipment + ") + 1, "
+					+ "CASEWHEN(MOD(X, 50) = 0 AND MOD(X / 50, 4) <> 0, X / 50, NULL), " + borrowDate + ", DATEADD('DAY', 49, " + borrowDate + "), "
+					+ "CASEWHEN(" + open + ", 'Borrowed', 'Returned'), "
+					+ "CASEWHEN(" + open + ", NULL, DATEADD('DAY', MOD(X, 60), " + borrowDate + ")), "
+					+ "CASEWHEN(" + open + ", NULL, CASEWHEN(MOD(X, 10) = 0, 'Damaged', 'Good')), 'Good' "
+					+ "FROM SYSTEM_RANGE(1, " + transactions + ")");
+
+			// Rows were inserted with their IDs, so move the generators past them
+			restartIdentity(stmt, "equipment", "equipmentID", equipment);
+			restartIdentity(stmt, "`order`", "orderID", getOrders());
+			restartIdentity(stmt, "transaction", "transactionID", transactions);
+
+			// A reminder for every open loan
+			stmt.execute("INSERT INTO reminder (empID, transactionID, reminderDate, reminderMSG) "
+					+ "SELECT empID, transactionID, CURRENT_DATE, 'Seeded reminder' FROM transaction "
+					+ "WHERE transactionStatus = 'Borrowed'");
+
+			// Bring the schema up to date, as DBConnect does on a real database
+			SchemaMigrator.migrate(conn);
+			stmt.execute("ANALYZE");
+		}
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	// Makes the next generated ID of a table's auto-increment column lastID + 1
+	private static void restartIdentity(Statement stmt, String table, String column, long lastID) throws SQLException {
+		stmt.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + (lastID + 1));
+	}
+
+	// SQL expression that spreads rows over the five skills by an ID column
+	private static String skillOf(String column) {
+		return "CASE MOD(" + column + ", 5) WHEN 0 THEN 'Electrician' WHEN 1 THEN 'Plumber' WHEN 2 THEN 'Painter' "
+				+ "WHEN 3 THEN 'Welder' ELSE 'Carpenter' END";
+	}
+
+	// Opens a new connection to the database
+	public Connection getConnection() throws SQLException {
+		return DriverManager.getConnection(url, USERNAME, PASSWORD);
+	}
+
+	// Runs one query that returns a single number
+	public int queryInt(String sql) throws SQLException {
+		try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public int getEmployees() {
+		return employees;
+	}
+
+	public int getEquipment() {
+		return equipment;
+	}
+
+	public int getTransactions() {
+		return transactions;
+	}
+
+	// Number of orders create() inserts
+	public int getOrders() {
+		return Math.max(transactions / 50, 1);
+	}
+}
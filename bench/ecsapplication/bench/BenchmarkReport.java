@@ -0,0 +1,196 @@
+/**
+ * BenchmarkReport.java
+ * Writes benchmark results as JSON and compares them with the results
+ * of an earlier build.
+ *
+ * The JSON has the same layout as JMH's JSON result format (an array
+ * with one object per benchmark, each with a "primaryMetric" holding
+ * score, scoreError, scorePercentiles and rawData), so the files can be
+ * loaded by the usual JMH tools and charts. A later run is compared
+ * with a saved file by benchmark name; a benchmark whose score (us/op)
+ * grew by more than the threshold is reported as a regression.
+ */
+
+package ecsapplication.bench;
+
+// Import file I/O used to write and read result files
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Import collections and the pattern used to read a saved file
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class BenchmarkReport {
+
+	// Unit of every score
+	public static final String SCORE_UNIT = "us/op";
+
+	// Name of a benchmark and the score of its primary metric in a result file
+	private static final Pattern BENCHMARK_SCORE = Pattern.compile(
+			"\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*\"?([-+0-9.Ee]+|NaN)",
+			Pattern.DOTALL);
+
+	// ========================= METHOD: toJson ========================= //
+	// Formats results as a JMH-style JSON array
+	// ================================================================== //
+	public static String toJson(List<BenchmarkRunner.Result> results) {
+		StringBuilder json = new StringBuilder("[\n");
+		for (int i = 0; i < results.size(); i++) {
+			BenchmarkRunner.Result result = results.get(i);
+			json.append("    {\n");
+			json.append("        \"benchmark\" : \"").append(result.getName()).append("\",\n");
+			json.append("        \"mode\" : \"avgt\",\n");
+			json.append("        \"threads\" : 1,\n");
+			json.append("        \"forks\" : 1,\n");
+			json.append("        \"jvm\" : \"").append(escape(System.getProperty("java.home"))).append("\",\n");
+			json.append("        \"jdkVersion\" : \"").append(System.getProperty("java.version")).append("\",\n");
+			json.append("        \"warmupIterations\" : ").append(result.getWarmupIterations()).append(",\n");
+			json.append("        \"warmupTime\" : \"").append(result.getIterationMillis()).append(" ms\",\n");
+			json.append("        \"measurementIterations\" : ").append(result.getIterationScores().size()).append(",\n");
+			json.append("        \"measurementTime\" : \"").append(result.getIterationMillis()).append(" ms\",\n");
+			json.append("        \"primaryMetric\" : {\n");
+			json.append("            \"score\" : ").append(number(result.getScore())).append(",\n");
+			json.append("            \"scoreError\" : ").append(number(result.getScoreError())).append(",\n");
+			json.append("            \"scoreConfidence\" : [\n");
+			json.append("                ").append(number(result.getScore() - result.getScoreError())).append(",\n");
+			json.append("                ").append(number(result.getScore() + result.getScoreError())).append("\n");
+			json.append("            ],\n");
+			json.append("            \"scorePercentiles\" : {\n");
+			int p = 0;
+			Map<Double, Double> percentiles = result.getPercentiles();
+			for (Map.Entry<Double, Double> entry : percentiles.entrySet()) {
+				json.append("                \"").append(entry.getKey()).append("\" : ").append(number(entry.getValue()));
+				json.append(++p < percentiles.size() ? ",\n" : "\n");
+			}
+			json.append("            },\n");
+			json.append("            \"scoreUnit\" : \"").append(SCORE_UNIT).append("\",\n");
+			json.append("            \"rawData\" : [\n");
+			json.append("                [\n");
+			List<Double> scores = result.getIterationScores();
+			for (int s = 0; s < scores.size(); s++) {
+				json.append("                    ").append(number(scores.get(s)));
+				json.append(s + 1 < scores.size() ? ",\n" : "\n");
+			}
+			json.append("                ]\n");
+			json.append("            ]\n");
+			json.append("        },\n");
+			json.append("        \"secondaryMetrics\" : {\n");
+			json.append("        }\n");
+			json.append(i + 1 < results.size() ? "    },\n" : "    }\n");
+		}
+		return json.append("]\n").toString();
+	}
+
+	// Writes the results to a JSON file, creating its folder if needed
+	public static void write(Path file, List<BenchmarkRunner.Result> results) throws IOException {
+		if (file.toAbsolutePath().getParent() != null) {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+		}
+		Files.writeString(file, toJson(results), StandardCharsets.UTF_8);
+	}
+
+	// ========================= METHOD: readScores ===================== //
+	// Reads the score of every benchmark in a JSON result file written
+	// by write() (or by JMH), keyed by benchmark name in file order
+	// ================================================================== //
+	public static Map<String, Double> readScores(Path file) throws IOException {
+		Map<String, Double> scores = new LinkedHashMap<>();
+		Matcher matcher = BENCHMARK_SCORE.matcher(Files.readString(file, StandardCharsets.UTF_8));
+		while (matcher.find()) {
+			scores.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+		}
+		return scores;
+	}
+
+	// ========================= METHOD: compare ======================== //
+	// Compares results with the scores of an earlier run. Returns one
+	// line per benchmark found in both, in result order; benchmarks
+	// missing from the baseline are skipped.
+	// ================================================================== //
+	public static List<Comparison> compare(List<BenchmarkRunner.Result> results, Map<String, Double> baseline,
+			double thresholdPercent) {
+		List<Comparison> comparisons = new ArrayList<>();
+		for (BenchmarkRunner.Result result : results) {
+			Double before = baseline.get(result.getName());
+			if (before != null) {
+				comparisons.add(new Comparison(result.getName(), before, result.getScore(), thresholdPercent));
+			}
+		}
+		return comparisons;
+	}
+
+	// Formats results as a text table (one line per benchmark)
+	public static String toTable(List<BenchmarkRunner.Result> results) {
+		StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-55s %6s %14s %12s %12s %12s%n",
+				"Benchmark", "Mode", "Score", "Error", "p50", "p99"));
+		for (BenchmarkRunner.Result result : results) {
+			table.append(String.format(Locale.ROOT, "%-55s %6s %14.3f %12.3f %12.3f %12.3f  %s%n", result.getName(), "avgt",
+					result.getScore(), result.getScoreError(), result.getPercentile(50), result.getPercentile(99), SCORE_UNIT));
+		}
+		return table.toString();
+	}
+
+	// Formats a number for JSON (JMH writes NaN as a string)
+	private static String number(double value) {
+		return Double.isNaN(value) || Double.isInfinite(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	// Escapes backslashes and quotes in a JSON string value
+	private static String escape(String value) {
+		return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	// ====================== CLASS: Comparison ======================= //
+	// Score of one benchmark before and after, in us/op
+	// ================================================================ //
+	public static final class Comparison {
+
+		private final String name;              // Benchmark name
+		private final double baselineScore;     // Score in the earlier run
+		private final double score;             // Score in this run
+		private final double thresholdPercent;  // Allowed growth before it counts as a regression
+
+		Comparison(String name, double baselineScore, double score, double thresholdPercent) {
+			this.name = name;
+			this.baselineScore = baselineScore;
+			this.score = score;
+			this.thresholdPercent = thresholdPercent;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public double getBaselineScore() {
+			return baselineScore;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		// Change from the baseline in percent (positive means slower)
+		public double getChangePercent() {
+			return (score - baselineScore) / baselineScore * 100.0;
+		}
+
+		// True if the score grew by more than the threshold
+		public boolean isRegression() {
+			return getChangePercent() > thresholdPercent;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-55s %14.3f -> %14.3f %s  %+8.1f%%%s", name, baselineScore, score,
+					SCORE_UNIT, getChangePercent(), isRegression() ? "  REGRESSION" : "");
+		}
+	}
+}
@@ -0,0 +1,221 @@
+/**
+ * BenchmarkRunner.java
+ * Runs benchmarks the way JMH does in average time mode: a number of
+ * warmup iterations whose results are thrown away, then measurement
+ * iterations of a fixed length. Each iteration calls the operation
+ * until its time is up and scores the mean time per call in
+ * microseconds (us/op). The result is the mean of the iteration scores
+ * with a 99.9% confidence error, plus percentiles of the individual
+ * calls.
+ *
+ * Only the operation is timed. Work that has to happen between calls
+ * (e.g., rolling back a change so the next call sees the same data)
+ * goes in the benchmark's reset step, which runs untimed after every
+ * call, like a JMH @TearDown(Level.Invocation) method.
+ */
+
+package ecsapplication.bench;
+
+// Import collections used to keep the samples
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BenchmarkRunner {
+
+	// Percentiles reported for every benchmark (as in the JMH JSON output)
+	public static final double[] PERCENTILES = { 0.0, 50.0, 90.0, 95.0, 99.0, 99.9, 99.99, 100.0 };
+
+	// Two-sided Student's t values at 99.9% confidence for 1 to 10 degrees of freedom
+	private static final double[] T_999 = { 636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587 };
+
+	private final int warmupIterations;      // Iterations run before measuring
+	private final int measurementIterations; // Iterations measured
+	private final long iterationMillis;      // Length of each iteration
+
+	// Creates a runner with the given iteration counts and length
+	public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+		if (measurementIterations < 1) {
+			throw new IllegalArgumentException("At least one measurement iteration is needed");
+		}
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+		this.iterationMillis = iterationMillis;
+	}
+
+	// ========================= METHOD: run ============================ //
+	// Runs one benchmark through its warmup and measurement iterations
+	// and returns its result. An operation that throws stops the run.
+	// ================================================================== //
+	public Result run(Benchmark benchmark) throws Exception {
+		List<Double> iterationScores = new ArrayList<>();   // us/op of each measured iteration
+		long[] samples = new long[1024];                    // Nanoseconds of each measured call
+		int sampleCount = 0;
+
+		for (int iteration = 0; iteration < warmupIterations + measurementIterations; iteration++) {
+			boolean measured = iteration >= warmupIterations;
+			long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+			long totalNanos = 0;
+			long calls = 0;
+
+			// At least one call per iteration, however slow the operation is
+			do {
+				long start = System.nanoTime();
+				benchmark.operation.run();
+				long elapsed = System.nanoTime() - start;
+				benchmark.reset.run();
+
+				totalNanos += elapsed;
+				calls++;
+				if (measured) {
+					if (sampleCount == samples.length) {
+						samples = Arrays.copyOf(samples, sampleCount * 2);
+					}
+					samples[sampleCount++] = elapsed;
+				}
+			} while (System.nanoTime() < deadline);
+
+			if (measured) {
+				iterationScores.add(totalNanos / 1_000.0 / calls);
+			}
+		}
+		return new Result(benchmark.name, iterationScores, Arrays.copyOf(samples, sampleCount),
+				warmupIterations, iterationMillis);
+	}
+
+	// Two-sided t value at 99.9% confidence for the given degrees of freedom
+	static double tValue(int degreesOfFreedom) {
+		if (degreesOfFreedom <= T_999.length) {
+			return T_999[degreesOfFreedom - 1];
+		}
+		if (degreesOfFreedom <= 20) {
+			return 3.850;
+		}
+		if (degreesOfFreedom <= 30) {
+			return 3.646;
+		}
+		if (degreesOfFreedom <= 60) {
+			return 3.460;
+		}
+		return 3.291;
+	}
+
+	// ======================================================================
+	// Benchmarks and results
+	// ======================================================================
+
+	// Code a benchmark runs; may throw any exception
+	public interface Operation {
+		void run() throws Exception;
+	}
+
+	// ====================== CLASS: Benchmark ======================== //
+	// A named operation and the untimed step that runs after each call
+	// ================================================================ //
+	public static final class Benchmark {
+
+		private final String name;          // Name in the results (e.g., "TransactionDAO.countTransactions")
+		private final Operation operation;  // Timed call
+		private final Operation reset;      // Untimed step after each call
+
+		public Benchmark(String name, Operation operation) {
+			this(name, operation, () -> { });
+		}
+
+		public Benchmark(String name, Operation operation, Operation reset) {
+			this.name = name;
+			this.operation = operation;
+			this.reset = reset;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	// ======================== CLASS: Result ========================= //
+	// Score, error and percentiles of one benchmark, in us/op
+	// ================================================================ //
+	public static final class Result {
+
+		private final String name;                   // Benchmark name
+		private final List<Double> iterationScores;  // Mean us/op of each measured iteration
+		private final long[] sampleNanos;            // Time of each measured call, sorted
+		private final int warmupIterations;          // Warmup iterations that were run
+		private final long iterationMillis;          // Length of each iteration
+
+		Result(String name, List<Double> iterationScores, long[] sampleNanos, int warmupIterations, long iterationMillis) {
+			this.name = name;
+			this.iterationScores = iterationScores;
+			this.sampleNanos = sampleNanos;
+			this.warmupIterations = warmupIterations;
+			this.iterationMillis = iterationMillis;
+			Arrays.sort(this.sampleNanos);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		// Mean of the iteration scores (us/op)
+		public double getScore() {
+			double sum = 0;
+			for (double score : iterationScores) {
+				sum += score;
+			}
+			return sum / iterationScores.size();
+		}
+
+		// Half-width of the 99.9% confidence interval of the score (NaN with one iteration, as in JMH)
+		public double getScoreError() {
+			int n = iterationScores.size();
+			if (n < 2) {
+				return Double.NaN;
+			}
+			double mean = getScore();
+			double squares = 0;
+			for (double score : iterationScores) {
+				squares += (score - mean) * (score - mean);
+			}
+			return tValue(n - 1) * Math.sqrt(squares / (n - 1)) / Math.sqrt(n);
+		}
+
+		// Time of the call at the given percentile (0 to 100), in us
+		public double getPercentile(double percentile) {
+			if (sampleNanos.length == 0) {
+				return Double.NaN;
+			}
+			int index = (int) Math.ceil(percentile / 100.0 * sampleNanos.length) - 1;
+			index = Math.max(0, Math.min(sampleNanos.length - 1, index));
+			return sampleNanos[index] / 1_000.0;
+		}
+
+		// Percentiles listed in PERCENTILES, in order
+		public Map<Double, Double> getPercentiles() {
+			Map<Double, Double> percentiles = new LinkedHashMap<>();
+			for (double percentile : PERCENTILES) {
+				percentiles.put(percentile, getPercentile(percentile));
+			}
+			return percentiles;
+		}
+
+		public List<Double> getIterationScores() {
+			return iterationScores;
+		}
+
+		// Number of calls measured
+		public int getSampleCount() {
+			return sampleNanos.length;
+		}
+
+		public int getWarmupIterations() {
+			return warmupIterations;
+		}
+
+		public long getIterationMillis() {
+			return iterationMillis;
+		}
+	}
+}
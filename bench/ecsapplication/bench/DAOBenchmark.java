@@ -0,0 +1,477 @@
+/**
+ * DAOBenchmark.java
+ * Benchmarks every public query and update method of TransactionDAO,
+ * EquipmentDAO, OrderDAO, ReminderDAO and EmployeeDAO against an
+ * embedded H2 database filled by BenchmarkDatabase (by default 10,000
+ * pieces of equipment, 1,000 employees and 1,000,000 transactions),
+ * and writes the results as JSON so builds can be compared.
+ *
+ * Usage (with the lib jars and the compiled src and bench folders on
+ * the class path; give the JVM about 2 GB for the full data set):
+ *   java -Xmx2g ecsapplication.bench.DAOBenchmark [options]
+ *     --out <file.json>        Results file (default bench-results/dao-benchmark.json)
+ *     --baseline <file.json>   Earlier results to compare with
+ *     --threshold <percent>    Slowdown reported as a regression (default 10)
+ *     --fail-on-regression     Exit with status 1 if anything regressed
+ *     --filter <text>          Only run benchmarks whose name contains the text
+ *     --warmup <n>, --iterations <n>, --time <ms>   Iterations and their length
+ *     --employees <n>, --equipment <n>, --transactions <n>   Data set size
+ *     --quick                  Small data set and short iterations (smoke run)
+ *
+ * Updates run on their own connection with auto-commit off and are
+ * rolled back after every call, so each call sees the seeded data.
+ * The overloads that borrow a connection from DBConnect run against the
+ * same database (see DBConnect.configure()); their changes are undone
+ * after each call.
+ *
+ * Not benchmarked: the cache and directory accessors (setCache, getCache,
+ * setDirectory, getDirectory), the row mappers (mapResultSetToEquipment,
+ * mapResultSetToEmployee, mapJoinedTransaction), which are measured by
+ * the queries that call them, and TransactionDAO.returnEquipment(),
+ * which is written for the unit test schema and not the real one.
+ */
+
+package ecsapplication.bench;
+
+// Import JDBC and file classes
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Import date/time for new loans and due dates
+import java.time.LocalDate;
+
+// Import collections
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Import the ECS classes under test
+import ecsapplication.DBConnect;
+import ecsapplication.Employee;
+import ecsapplication.EmployeeDAO;
+import ecsapplication.EmployeeDirectory;
+import ecsapplication.Equipment;
+import ecsapplication.EquipmentCache;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.Keyset;
+import ecsapplication.Order;
+import ecsapplication.OrderDAO;
+import ecsapplication.Reminder;
+import ecsapplication.ReminderDAO;
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.OrderStatus;
+import ecsapplication.enums.SkillClassification;
+import ecsapplication.enums.TransactionStatus;
+
+// Import the runner types
+import ecsapplication.bench.BenchmarkRunner.Benchmark;
+
+public class DAOBenchmark {
+
+	// Default run settings
+	public static final int DEFAULT_WARMUP_ITERATIONS = 3;
+	public static final int DEFAULT_MEASUREMENT_ITERATIONS = 5;
+	public static final long DEFAULT_ITERATION_MILLIS = 1_000;
+	public static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+	public static final String DEFAULT_OUTPUT = "bench-results/dao-benchmark.json";
+
+	// Rows passed to each batch method and rows per page
+	private static final int BATCH = 10;
+	private static final int PAGE_SIZE = 100;
+
+	private final Connection conn;        // Connection for queries (auto-commit on)
+	private final Connection tx;          // Connection for updates (auto-commit off, rolled back)
+
+	// Sample rows read from the database before the benchmarks run
+	private final List<Transaction> openLoans = new ArrayList<>();   // Borrowed transactions
+	private final List<int[]> available = new ArrayList<>();         // Available equipment: {equipmentID, rowVersion}
+	private final int employees;          // Number of employees
+	private final int equipment;          // Number of pieces of equipment
+	private final int transactions;       // Number of transactions
+	private final int lastOrderID;        // Highest orderID before the benchmarks run
+	private final Keyset middleTransaction;   // Halfway through the transactions sorted by employee name
+	private final Keyset middleOrder;         // Halfway through the orders sorted by equipment name
+
+	private int next;                     // Rotates the IDs used by successive calls
+
+	// Reads the sample rows the benchmarks use
+	public DAOBenchmark(Connection conn, Connection tx) throws SQLException {
+		this.conn = conn;
+		this.tx = tx;
+		this.employees = queryInt("SELECT COUNT(*) FROM employee");
+		this.equipment = queryInt("SELECT COUNT(*) FROM equipment");
+		this.transactions = queryInt("SELECT COUNT(*) FROM transaction");
+		this.lastOrderID = queryInt("SELECT COALESCE(MAX(orderID), 0) FROM `order`");
+		this.middleTransaction = middle(TransactionDAO.seekTransactions(conn, TransactionDAO.SortColumn.EMPLOYEE_NAME, true,
+				null, transactions / 2, Math.max(transactions / 2, 1)));
+		this.middleOrder = middle(OrderDAO.seekOrders(conn, OrderDAO.SortColumn.EQUIPMENT_NAME, true,
+				null, lastOrderID / 2, Math.max(lastOrderID / 2, 1)));
+
+		String loansSQL = "SELECT transactionID, empID, equipmentID, borrowDate, expectedReturnDate FROM transaction "
+				+ "WHERE transactionStatus = 'Borrowed' ORDER BY transactionID LIMIT 100";
+		try (PreparedStatement stmt = conn.prepareStatement(loansSQL); ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				Employee emp = new Employee(rs.getInt("empID"), "Emp" + rs.getInt("empID"));
+				Equipment eq = new Equipment(rs.getInt("equipmentID"), "Item" + rs.getInt("equipmentID"));
+				openLoans.add(new Transaction(rs.getInt("transactionID"), emp, eq, null, null,
+						rs.getDate("borrowDate").toLocalDate(), rs.getDate("expectedReturnDate").toLocalDate(),
+						TransactionStatus.Borrowed, null, EquipmentCondition.Good));
+			}
+		}
+		String availableSQL = "SELECT equipmentID, rowVersion FROM equipment WHERE equipStatus = 'Available' "
+				+ "ORDER BY equipmentID LIMIT 100";
+		try (PreparedStatement stmt = conn.prepareStatement(availableSQL); ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				available.add(new int[] { rs.getInt(1), rs.getInt(2) });
+			}
+		}
+		if (openLoans.size() < BATCH || available.size() < BATCH) {
+			throw new IllegalStateException("The database needs at least " + BATCH + " open loans and available items");
+		}
+	}
+
+	// ====================== METHOD: benchmarks ======================== //
+	// Returns one benchmark per public DAO method (and per variant of
+	// the paged queries), named "<DAO>.<method>"
+	// ================================================================== //
+	public List<Benchmark> benchmarks() {
+		List<Benchmark> list = new ArrayList<>();
+		BenchmarkRunner.Operation undo = tx::rollback;   // Untimed after each update call
+
+		// ---------------------------- TransactionDAO ---------------------------- //
+		list.add(new Benchmark("TransactionDAO.getTransactionByID",
+				() -> TransactionDAO.getTransactionByID(conn, nextID(transactions))));
+		list.add(new Benchmark("TransactionDAO.getAllTransactions",
+				() -> TransactionDAO.getAllTransactions(conn)));
+		list.add(new Benchmark("TransactionDAO.getTransactionsPage",
+				() -> TransactionDAO.getTransactionsPage(conn, nextID(transactions - PAGE_SIZE), PAGE_SIZE)));
+		list.add(new Benchmark("TransactionDAO.getTransactionsPage.descending",
+				() -> TransactionDAO.getTransactionsPage(conn, nextID(transactions) + PAGE_SIZE, PAGE_SIZE, false)));
+		list.add(new Benchmark("TransactionDAO.getTransactionsPage.sorted",
+				() -> TransactionDAO.getTransactionsPage(conn, TransactionDAO.SortColumn.EMPLOYEE_NAME, true,
+						middleTransaction, PAGE_SIZE)));
+		list.add(new Benchmark("TransactionDAO.seekTransactions",
+				() -> TransactionDAO.seekTransactions(conn, TransactionDAO.SortColumn.EMPLOYEE_NAME, true,
+						null, transactions / 2, PAGE_SIZE)));
+		list.add(new Benchmark("TransactionDAO.countTransactions",
+				() -> TransactionDAO.countTransactions(conn)));
+		list.add(new Benchmark("TransactionDAO.streamAllTransactions", () -> {
+			try (Stream<Transaction> txns = TransactionDAO.streamAllTransactions(conn)) {
+				txns.count();
+			}
+		}));
+		list.add(new Benchmark("TransactionDAO.forEachTransaction",
+				() -> TransactionDAO.forEachTransaction(conn, txn -> { })));
+		list.add(new Benchmark("TransactionDAO.insertTransaction",
+				() -> TransactionDAO.insertTransaction(tx, newLoan(nextAvailable()[0])), undo));
+		list.add(new Benchmark("TransactionDAO.insertTransactions", () -> {
+			List<Transaction> loans = new ArrayList<>();
+			for (int i = 0; i < BATCH; i++) {
+				loans.add(newLoan(available.get(i)[0]));
+			}
+			TransactionDAO.insertTransactions(tx, loans);
+		}, undo));
+		list.add(new Benchmark("TransactionDAO.updateTransactionReturn",
+				() -> TransactionDAO.updateTransactionReturn(tx, returned(nextOpenLoan())), undo));
+		list.add(new Benchmark("TransactionDAO.updateTransactionReturns",
+				() -> TransactionDAO.updateTransactionReturns(tx, returnedBatch()), undo));
+		list.add(new Benchmark("TransactionDAO.getTransactionsByEmployeeID",
+				() -> TransactionDAO.getTransactionsByEmployeeID(conn, nextID(employees))));
+		list.add(new Benchmark("TransactionDAO.getBorrowedTransactionsByEmployee",
+				() -> TransactionDAO.getBorrowedTransactionsByEmployee(nextOpenLoan().getEmployee().getEmpID(), conn)));
+		list.add(new Benchmark("TransactionDAO.getBorrowedTransactionsDueBy",
+				() -> TransactionDAO.getBorrowedTransactionsDueBy(conn, LocalDate.now())));
+
+		// ----------------------------- EquipmentDAO ----------------------------- //
+		list.add(new Benchmark("EquipmentDAO.getAllEquipment",
+				() -> EquipmentDAO.getAllEquipment(conn)));
+		list.add(new Benchmark("EquipmentDAO.getAvailableEquipmentBySkill",
+				() -> EquipmentDAO.getAvailableEquipmentBySkill(conn, nextSkill())));
+		list.add(new Benchmark("EquipmentDAO.updateEquipment", () -> {
+			Equipment eq = new Equipment(nextAvailable()[0], "Item", EquipmentCondition.Damaged, EquipmentStatus.Available);
+			EquipmentDAO.updateEquipment(tx, eq);
+		}, undo));
+		list.add(new Benchmark("EquipmentDAO.updateEquipmentStatus.pooled",
+				() -> EquipmentDAO.updateEquipmentStatus(nextAvailable()[0], EquipmentStatus.Available)));
+		list.add(new Benchmark("EquipmentDAO.updateEquipmentStatus",
+				() -> EquipmentDAO.updateEquipmentStatus(tx, nextAvailable()[0], EquipmentStatus.Lost), undo));
+		list.add(new Benchmark("EquipmentDAO.getStatusAndVersion",
+				() -> EquipmentDAO.getStatusAndVersion(conn, nextID(equipment))));
+		list.add(new Benchmark("EquipmentDAO.loanIfAvailable", () -> {
+			int[] item = nextAvailable();
+			EquipmentDAO.loanIfAvailable(tx, item[0], item[1]);
+		}, undo));
+		list.add(new Benchmark("EquipmentDAO.loanAllIfAvailable", () -> {
+			List<Integer> ids = new ArrayList<>();
+			for (int i = 0; i < BATCH; i++) {
+				ids.add(available.get(i)[0]);
+			}
+			EquipmentDAO.loanAllIfAvailable(tx, ids);
+		}, undo));
+		list.add(new Benchmark("EquipmentDAO.orderIfAvailable",
+				() -> EquipmentDAO.orderIfAvailable(tx, nextAvailable()[0]), undo));
+		list.add(new Benchmark("EquipmentDAO.releaseIfOrdered", () -> {
+			// Nothing is ordered in the fixture, so hold an item first and release it in the same transaction
+			int equipmentID = nextAvailable()[0];
+			EquipmentDAO.orderIfAvailable(tx, equipmentID);
+			EquipmentDAO.releaseIfOrdered(tx, equipmentID);
+		}, undo));
+		list.add(new Benchmark("EquipmentDAO.getEquipmentByID",
+				() -> EquipmentDAO.getEquipmentByID(conn, nextID(equipment))));
+		list.add(new Benchmark("EquipmentDAO.getOrderableEquipmentBySkill",
+				() -> EquipmentDAO.getOrderableEquipmentBySkill(conn, nextSkill())));
+		list.add(new Benchmark("EquipmentDAO.updateLastReturnCondition",
+				() -> EquipmentDAO.updateLastReturnCondition(tx, nextID(equipment), EquipmentCondition.Damaged), undo));
+		list.add(new Benchmark("EquipmentDAO.markReturnedEquipment",
+				() -> EquipmentDAO.markReturnedEquipment(tx, returnedBatch()), undo));
+		list.add(new Benchmark("EquipmentDAO.backfillLastReturnCondition",
+				() -> EquipmentDAO.backfillLastReturnCondition(tx), undo));
+		list.add(new Benchmark("EquipmentDAO.markLoanedFromOpenTransactions",
+				() -> EquipmentDAO.markLoanedFromOpenTransactions(tx), undo));
+		list.add(new Benchmark("EquipmentDAO.markAllLoaned",
+				() -> EquipmentDAO.markAllLoaned(tx, nextSkill()), undo));
+
+		// ------------------------------- OrderDAO ------------------------------- //
+		list.add(new Benchmark("OrderDAO.updateOrderStatus",
+				() -> OrderDAO.updateOrderStatus(tx, nextID(lastOrderID), OrderStatus.Cancelled), undo));
+		list.add(new Benchmark("OrderDAO.insertOrder.pooled",
+				() -> OrderDAO.insertOrder(newOrder()), this::deleteNewOrders));
+		list.add(new Benchmark("OrderDAO.insertOrder",
+				() -> OrderDAO.insertOrder(tx, newOrder()), undo));
+		list.add(new Benchmark("OrderDAO.getAllOrders",
+				() -> OrderDAO.getAllOrders(conn)));
+		list.add(new Benchmark("OrderDAO.getOrdersPage",
+				() -> OrderDAO.getOrdersPage(conn, nextID(Math.max(lastOrderID - PAGE_SIZE, 1)), PAGE_SIZE, true)));
+		list.add(new Benchmark("OrderDAO.getOrdersPage.descending",
+				() -> OrderDAO.getOrdersPage(conn, nextID(lastOrderID) + PAGE_SIZE, PAGE_SIZE, false)));
+		list.add(new Benchmark("OrderDAO.getOrdersPage.sorted",
+				() -> OrderDAO.getOrdersPage(conn, OrderDAO.SortColumn.EQUIPMENT_NAME, true, middleOrder, PAGE_SIZE)));
+		list.add(new Benchmark("OrderDAO.seekOrders",
+				() -> OrderDAO.seekOrders(conn, OrderDAO.SortColumn.EQUIPMENT_NAME, true, null, lastOrderID / 2, PAGE_SIZE)));
+		list.add(new Benchmark("OrderDAO.countOrders",
+				() -> OrderDAO.countOrders(conn)));
+		list.add(new Benchmark("OrderDAO.getOrderByID",
+				() -> OrderDAO.getOrderByID(conn, nextID(lastOrderID))));
+
+		// ------------------------------ ReminderDAO ----------------------------- //
+		list.add(new Benchmark("ReminderDAO.saveReminder",
+				() -> ReminderDAO.saveReminder(reminderFor(nextOpenLoan()), tx), undo));
+		list.add(new Benchmark("ReminderDAO.saveReminders", () -> {
+			List<Reminder> reminders = new ArrayList<>();
+			for (Transaction loan : openLoans) {
+				reminders.add(reminderFor(loan));
+			}
+			ReminderDAO.saveReminders(tx, reminders);
+		}, undo));
+
+		// ------------------------------ EmployeeDAO ----------------------------- //
+		list.add(new Benchmark("EmployeeDAO.getAllEmployees",
+				() -> EmployeeDAO.getAllEmployees(conn)));
+		list.add(new Benchmark("EmployeeDAO.getEmployeeByID",
+				() -> EmployeeDAO.getEmployeeByID(conn, nextID(employees))));
+		list.add(new Benchmark("EmployeeDAO.getEmployeeSummaries",
+				() -> EmployeeDAO.getEmployeeSummaries(conn)));
+		list.add(new Benchmark("EmployeeDAO.lookupEmployee",
+				() -> EmployeeDAO.lookupEmployee(conn, nextID(employees))));
+		return list;
+	}
+
+	// ======================================================================
+	// Sample data for the calls
+	// ======================================================================
+
+	// Next ID from 1 to max, spread over the range so calls do not repeat one row
+	private int nextID(int max) {
+		next++;
+		return (int) ((next * 7_919L) % Math.max(max, 1)) + 1;
+	}
+
+	private SkillClassification nextSkill() {
+		SkillClassification[] skills = SkillClassification.values();
+		return skills[++next % skills.length];
+	}
+
+	private int[] nextAvailable() {
+		return available.get(++next % available.size());
+	}
+
+	private Transaction nextOpenLoan() {
+		return openLoans.get(++next % openLoans.size());
+	}
+
+	// New loan of an item to the next employee
+	private Transaction newLoan(int equipmentID) {
+		LocalDate today = LocalDate.now();
+		return new Transaction(0, new Employee(nextID(employees), "Emp"), new Equipment(equipmentID, "Item"), null, null,
+				today, today.plusWeeks(7), TransactionStatus.Borrowed, null, EquipmentCondition.Good);
+	}
+
+	// New order of an item by the next employee
+	private Order newOrder() {
+		return new Order(0, new Employee(nextID(employees), "Emp"), new Equipment(nextID(equipment), "Item"),
+				LocalDate.now(), OrderStatus.Confirmed);
+	}
+
+	// Copy of an open loan marked returned today in good condition
+	private static Transaction returned(Transaction loan) {
+		Transaction txn = new Transaction(loan.getTransactionID(), loan.getEmployee(), loan.getEquipment(), null, null,
+				loan.getBorrowDate(), loan.getExpectedReturnDate(), TransactionStatus.Returned, EquipmentCondition.Good,
+				EquipmentCondition.Good);
+		txn.setReturnDate(LocalDate.now());
+		return txn;
+	}
+
+	// The first BATCH open loans, returned
+	private List<Transaction> returnedBatch() {
+		List<Transaction> batch = new ArrayList<>();
+		for (int i = 0; i < BATCH; i++) {
+			batch.add(returned(openLoans.get(i)));
+		}
+		return batch;
+	}
+
+	// Reminder for an open loan, as ReminderEngine writes it
+	private static Reminder reminderFor(Transaction loan) {
+		return new Reminder(loan.getEmployee(), loan, LocalDate.now());
+	}
+
+	// Deletes the orders inserted through DBConnect by OrderDAO.insertOrder(Order)
+	private void deleteNewOrders() throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM `order` WHERE orderID > ?")) {
+			stmt.setInt(1, lastOrderID);
+			stmt.executeUpdate();
+		}
+	}
+
+	// Position found by a seek, or null (the first page) if there were too few rows
+	private static Keyset middle(List<Keyset> positions) {
+		return positions.isEmpty() ? null : positions.get(positions.size() - 1);
+	}
+
+	private int queryInt(String sql) throws SQLException {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+
+	// ======================================================================
+	// Command line
+	// ======================================================================
+
+	// ========================== METHOD: run =========================== //
+	// Builds the database, runs the benchmarks, writes the JSON file and
+	// compares it with the baseline if one is given. Returns the exit
+	// status: 1 if --fail-on-regression is set and something regressed,
+	// otherwise 0.
+	// ================================================================== //
+	public static int run(String... args) throws Exception {
+		int employees = BenchmarkDatabase.DEFAULT_EMPLOYEES;
+		int equipment = BenchmarkDatabase.DEFAULT_EQUIPMENT;
+		int transactions = BenchmarkDatabase.DEFAULT_TRANSACTIONS;
+		int warmup = DEFAULT_WARMUP_ITERATIONS;
+		int iterations = DEFAULT_MEASUREMENT_ITERATIONS;
+		long iterationMillis = DEFAULT_ITERATION_MILLIS;
+		double threshold = DEFAULT_THRESHOLD_PERCENT;
+		boolean failOnRegression = false;
+		String out = DEFAULT_OUTPUT;
+		String baseline = null;
+		String filter = "";
+
+		// Read the options (a later option overrides an earlier one, so --quick can be refined)
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--quick" -> {
+				employees = 100;
+				equipment = 1_000;
+				transactions = 20_000;
+				warmup = 1;
+				iterations = 3;
+				iterationMillis = 200;
+			}
+			case "--employees" -> employees = Integer.parseInt(args[++i]);
+			case "--equipment" -> equipment = Integer.parseInt(args[++i]);
+			case "--transactions" -> transactions = Integer.parseInt(args[++i]);
+			case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+			case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+			case "--time" -> iterationMillis = Long.parseLong(args[++i]);
+			case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+			case "--fail-on-regression" -> failOnRegression = true;
+			case "--out" -> out = args[++i];
+			case "--baseline" -> baseline = args[++i];
+			case "--filter" -> filter = args[++i];
+			default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		// Build and fill the database
+		BenchmarkDatabase db = BenchmarkDatabase.inMemory("daobenchmark", employees, equipment, transactions);
+		System.out.println("Creating benchmark database: " + employees + " employees, " + equipment
+				+ " equipment, " + transactions + " transactions");
+		System.out.println("Database ready in " + db.create() + " ms");
+
+		// Measure the database, not the in-memory caches, and point DBConnect at the same database
+		EquipmentCache savedCache = EquipmentDAO.getCache();
+		EmployeeDirectory savedDirectory = EmployeeDAO.getDirectory();
+		EquipmentDAO.setCache(null);
+		EmployeeDAO.setDirectory(null);
+		DBConnect.configure(db.getUrl(), BenchmarkDatabase.USERNAME, BenchmarkDatabase.PASSWORD);
+
+		List<BenchmarkRunner.Result> results = new ArrayList<>();
+		BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, iterationMillis);
+		try (Connection conn = db.getConnection(); Connection tx = db.getConnection()) {
+			tx.setAutoCommit(false);
+			DAOBenchmark benchmark = new DAOBenchmark(conn, tx);
+			for (Benchmark b : benchmark.benchmarks()) {
+				if (!b.getName().contains(filter)) {
+					continue;
+				}
+				BenchmarkRunner.Result result = runner.run(b);
+				System.out.printf("%-55s %14.3f us/op%n", result.getName(), result.getScore());
+				results.add(result);
+			}
+		} finally {
+			EquipmentDAO.setCache(savedCache);
+			EmployeeDAO.setDirectory(savedDirectory);
+		}
+
+		// Save the results
+		System.out.println();
+		System.out.print(BenchmarkReport.toTable(results));
+		Path outFile = Paths.get(out);
+		BenchmarkReport.write(outFile, results);
+		System.out.println("Results written to " + outFile.toAbsolutePath());
+
+		// Compare with the earlier run
+		if (baseline == null) {
+			return 0;
+		}
+		Map<String, Double> before = BenchmarkReport.readScores(Paths.get(baseline));
+		int regressions = 0;
+		System.out.println();
+		System.out.println("Compared with " + baseline + " (threshold " + threshold + "%):");
+		for (BenchmarkReport.Comparison comparison : BenchmarkReport.compare(results, before, threshold)) {
+			System.out.println(comparison);
+			if (comparison.isRegression()) {
+				regressions++;
+			}
+		}
+		System.out.println(regressions + " regression(s)");
+		return failOnRegression && regressions > 0 ? 1 : 0;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int status = run(args);
+		if (status != 0) {
+			System.exit(status);
+		}
+	}
+}
@@ -0,0 +1,677 @@
+/**
+ * LoadGenerator.java
+ * Headless load driver that plays many clerks using the ECS system at
+ * once, to see how it behaves under load (by default 200 clerks).
+ *
+ * Each clerk runs on its own thread and repeats: wait a random think
+ * time, serve a random employee, and carry out one action picked from
+ * the configured mix, through the same code paths as the MainApp
+ * buttons:
+ *   -CHECKOUT: pick an available item of the employee's skill from the
+ *    EquipmentCache, Employee.checkOut() and CheckoutService.checkOut().
+ *   -RETURN: load the employee's record (Employee.viewRecord()) and
+ *    return one to three of their open loans with
+ *    Employee.returnEquipment(Map).
+ *   -ORDER: pick an orderable item from the EquipmentCache and
+ *    Employee.orderEquipment().
+ *   -CANCEL: pick a confirmed order from the newest page of the Orders
+ *    table and Employee.cancelOrder().
+ *   -REMINDER: the Check Reminder button: read the employee's borrowed
+ *    transactions and notify a Reminder for each (saved by the EventBus).
+ * Only the save that follows the clerk's confirmation is timed; the
+ * lookups that fill a dialog are part of the think time.
+ *
+ * Every action ends as OK, CONFLICT (another clerk changed the same
+ * row first, e.g., the item was checked out or ordered, or the order cancelled in
+ * the meantime), FAILED (an error) or SKIPPED (nothing to act on, e.g.,
+ * no open loans; not timed or counted as an attempt). After a warmup,
+ * the report gives the throughput, p50/p99 latency and conflict rate of
+ * each action, plus the checkout retries, connection pool waits and
+ * reminder event bus counts of the run.
+ *
+ * Usage (with the lib jars and the compiled src and bench folders on
+ * the class path):
+ *   java ecsapplication.bench.LoadGenerator [options]
+ *     --clerks <n>             Concurrent clerks (default 200)
+ *     --think <ms>             Mean think time between actions (default 500)
+ *     --warmup <s>, --duration <s>   Unmeasured and measured run time (default 5 and 60)
+ *     --mix <list>             Weights, e.g. checkout=35,return=30,order=15,cancel=5,reminder=15
+ *     --seed <n>               Seed of the clerks' random choices
+ *     --employees <n>, --equipment <n>, --transactions <n>   Size of the seeded H2 database
+ *     --url <jdbc url> --user <name> --password <pw>   Use this database (e.g., a local
+ *                              MySQL copy) as it is instead of a seeded H2 one
+ *     --query-stats <file>     Write the QueryMonitor summary of the run's SQL
+ *                              statements (JSON for a .json file, otherwise text)
+ * The run writes real checkouts, returns, orders and cancellations, so
+ * never point --url at a database in use.
+ */
+
+package ecsapplication.bench;
+
+// Import file classes for the query statistics
+import java.nio.file.Path;
+
+// Import JDBC classes
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Import date/time for reminders
+import java.time.LocalDate;
+
+// Import collections and concurrency utilities for the clerk threads
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Import the ECS classes whose paths are replayed
+import ecsapplication.CheckoutService;
+import ecsapplication.ConnectionPool;
+import ecsapplication.DBConnect;
+import ecsapplication.Employee;
+import ecsapplication.EmployeeDirectory;
+import ecsapplication.Equipment;
+import ecsapplication.EquipmentCache;
+import ecsapplication.EventBus;
+import ecsapplication.Order;
+import ecsapplication.OrderDAO;
+import ecsapplication.QueryMonitor;
+import ecsapplication.Reminder;
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.OrderStatus;
+import ecsapplication.enums.TransactionStatus;
+
+public class LoadGenerator {
+
+	// Default run settings
+	public static final int DEFAULT_CLERKS = 200;
+	public static final long DEFAULT_THINK_MS = 500;
+	public static final long DEFAULT_WARMUP_MS = 5_000;
+	public static final long DEFAULT_DURATION_MS = 60_000;
+	public static final String DEFAULT_MIX = "checkout=35,return=30,order=15,cancel=5,reminder=15";
+
+	// Most loans returned together, and orders shown on the first page of the Orders table
+	private static final int MAX_RETURN_BATCH = 3;
+	private static final int ORDER_PAGE_SIZE = 100;
+
+	// Time allowed for the clerks and the reminder saves to finish after the run
+	private static final long FINISH_TIMEOUT_MS = 60_000;
+
+	// Actions a clerk can carry out
+	public enum Action {
+		CHECKOUT, RETURN, ORDER, CANCEL, REMINDER;
+
+		// Action named in a --mix list (case-insensitive)
+		public static Action fromString(String value) {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		}
+	}
+
+	// How an action ended
+	public enum Outcome {
+		OK,         // Saved
+		CONFLICT,   // Another clerk changed the same row first; nothing saved
+		FAILED,     // Error
+		SKIPPED     // Nothing to act on (not an attempt)
+	}
+
+	private final int clerks;                      // Concurrent clerk threads
+	private final Map<Action, Integer> mix;        // Weight of each action
+	private final int totalWeight;                 // Sum of the weights
+	private final long thinkMillis;                // Mean think time
+	private final long warmupMillis;               // Run time before measuring
+	private final long durationMillis;             // Measured run time
+	private final long seed;                       // Seed of clerk 0 (clerk n uses seed + n)
+
+	private final Map<Action, ActionStats> stats = new EnumMap<>(Action.class);
+	private volatile long measureFrom;             // System.nanoTime() when measuring starts
+	private List<Employee> employees;              // Employees the clerks serve
+
+	// Creates a load run; call run() to carry it out
+	public LoadGenerator(int clerks, Map<Action, Integer> mix, long thinkMillis, long warmupMillis,
+			long durationMillis, long seed) {
+		int total = 0;
+		for (int weight : mix.values()) {
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight in mix " + mix);
+			}
+			total += weight;
+		}
+		if (clerks < 1 || total == 0) {
+			throw new IllegalArgumentException("Need at least one clerk and one action with a weight");
+		}
+		this.clerks = clerks;
+		this.mix = new EnumMap<>(mix);
+		this.totalWeight = total;
+		this.thinkMillis = thinkMillis;
+		this.warmupMillis = warmupMillis;
+		this.durationMillis = durationMillis;
+		this.seed = seed;
+		for (Action action : Action.values()) {
+			stats.put(action, new ActionStats());
+		}
+	}
+
+	// Parses a mix such as "checkout=35,return=30"; actions not listed get weight 0
+	public static Map<Action, Integer> parseMix(String text) {
+		Map<Action, Integer> parsed = new EnumMap<>(Action.class);
+		for (String part : text.split(",")) {
+			String[] pair = part.split("=");
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Bad mix entry '" + part + "' (expected action=weight)");
+			}
+			parsed.put(Action.fromString(pair[0]), Integer.parseInt(pair[1].trim()));
+		}
+		return parsed;
+	}
+
+	// ========================== METHOD: run =========================== //
+	// Runs the clerks against the database DBConnect is connected to
+	// and returns the report once they have stopped and the reminder
+	// saves have finished.
+	// ================================================================== //
+	public Report run() throws SQLException, InterruptedException {
+
+		// Start from the database's current state, as a newly opened MainApp does
+		employees = EmployeeDirectory.getInstance().refresh().getAllEmployees();
+		if (employees.isEmpty()) {
+			throw new IllegalStateException("The database has no employees to serve");
+		}
+		EquipmentCache.getInstance().invalidate();
+
+		// Counters of the shared services, read again at the end
+		CheckoutService checkout = CheckoutService.getInstance();
+		ConnectionPool pool = DBConnect.getInstance().getPool();
+		EventBus bus = EventBus.getInstance();
+		long retriesBefore = checkout.getRetryCount();
+		long borrowsBefore = pool.getBorrowCount();
+		long waitBefore = pool.getTotalWaitMillis();
+		long timeoutsBefore = pool.getTimeoutCount();
+		long publishedBefore = bus.getPublishedCount();
+		long deadLettersBefore = bus.getDeadLetterCount();
+
+		// Start the clerks
+		long start = System.nanoTime();
+		measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+		long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < clerks; i++) {
+			Random random = new Random(seed + i);
+			Thread thread = new Thread(() -> clerkLoop(random, end), "ecs-load-clerk-" + i);
+			thread.setDaemon(true);
+			threads.add(thread);
+			thread.start();
+		}
+
+		// Wait for them to stop, then for the reminders they queued to be saved
+		for (Thread thread : threads) {
+			thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + FINISH_TIMEOUT_MS));
+		}
+		long measuredNanos = Math.min(System.nanoTime(), end) - measureFrom;
+		bus.awaitIdle(FINISH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+		long borrows = pool.getBorrowCount() - borrowsBefore;
+		return new Report(clerks, thinkMillis, Math.max(measuredNanos, 1), stats,
+				checkout.getRetryCount() - retriesBefore,
+				borrows, borrows == 0 ? 0.0 : (double) (pool.getTotalWaitMillis() - waitBefore) / borrows,
+				pool.getMaxWaitMillis(), pool.getTimeoutCount() - timeoutsBefore,
+				bus.getPublishedCount() - publishedBefore, bus.getDeadLetterCount() - deadLettersBefore);
+	}
+
+	// One clerk: think, serve a random employee, repeat until the end
+	private void clerkLoop(Random random, long end) {
+		while (true) {
+			long remaining = end - System.nanoTime();
+			if (remaining <= 0) {
+				return;
+			}
+			try {
+				think(random, TimeUnit.NANOSECONDS.toMillis(remaining));
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (System.nanoTime() >= end) {
+				return;
+			}
+
+			// A new Employee object per action, like a clerk selecting the employee in their own MainApp
+			Employee listed = employees.get(random.nextInt(employees.size()));
+			Employee employee = new Employee(listed.getEmpID(), listed.getEmpName(), listed.getSkillClassification());
+			Action action = pickAction(random);
+
+			Outcome outcome;
+			long elapsed;
+			long started = System.nanoTime();
+			try {
+				Timer timer = new Timer();
+				outcome = perform(action, employee, random, timer);
+				elapsed = timer.elapsed();
+			} catch (Exception e) {
+				stats.get(action).recordError(e);
+				outcome = Outcome.FAILED;
+				elapsed = System.nanoTime() - started;
+			}
+			if (started >= measureFrom) {
+				stats.get(action).record(outcome, elapsed);
+			}
+		}
+	}
+
+	// Sleeps for an exponentially distributed think time with the configured mean
+	private void think(Random random, long maxMillis) throws InterruptedException {
+		if (thinkMillis > 0) {
+			long millis = (long) (-Math.log(1.0 - random.nextDouble()) * thinkMillis);
+			Thread.sleep(Math.min(millis, maxMillis));
+		}
+	}
+
+	// Picks an action according to the mix weights
+	private Action pickAction(Random random) {
+		int ticket = random.nextInt(totalWeight);
+		for (Map.Entry<Action, Integer> entry : mix.entrySet()) {
+			ticket -= entry.getValue();
+			if (ticket < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Mix weights changed during the run");
+	}
+
+	// ======================== METHOD: perform ========================= //
+	// Carries out one action for an employee the way MainApp does. The
+	// timer is started when the clerk confirms (just before the save).
+	// ================================================================== //
+	private Outcome perform(Action action, Employee employee, Random random, Timer timer) throws Exception {
+		switch (action) {
+
+		case CHECKOUT: {
+			List<Equipment> available = EquipmentCache.getInstance().getAvailableEquipmentBySkill(employee.getSkillClassification());
+			if (available.isEmpty()) {
+				return Outcome.SKIPPED;
+			}
+			Equipment selected = available.get(random.nextInt(available.size()));
+			timer.start();
+			Transaction txn = employee.checkOut(selected);
+			CheckoutService.CheckoutResult result = CheckoutService.getInstance().checkOut(txn);
+			timer.stop();
+			switch (result.getOutcome()) {
+			case CHECKED_OUT:
+				return Outcome.OK;
+			case UNAVAILABLE:
+			case CONFLICT:
+				return Outcome.CONFLICT;
+			default:
+				return Outcome.FAILED;
+			}
+		}
+
+		case RETURN: {
+			employee.setEmpTransaction(employee.viewRecord());
+			List<Transaction> borrowed = new ArrayList<>();
+			for (Transaction txn : employee.getEmpTransaction()) {
+				if (txn.getTransactionStatus() == TransactionStatus.Borrowed) {
+					borrowed.add(txn);
+				}
+			}
+			if (borrowed.isEmpty()) {
+				return Outcome.SKIPPED;
+			}
+			Map<Integer, EquipmentCondition> returns = new LinkedHashMap<>();
+			int count = 1 + random.nextInt(Math.min(MAX_RETURN_BATCH, borrowed.size()));
+			while (returns.size() < count) {
+				Transaction txn = borrowed.get(random.nextInt(borrowed.size()));
+				returns.put(txn.getTransactionID(), random.nextInt(10) == 0 ? EquipmentCondition.Damaged : EquipmentCondition.Good);
+			}
+			timer.start();
+			boolean returned = !employee.returnEquipment(returns).isEmpty();
+			timer.stop();
+
+			// Nothing is saved if another clerk returned one of the loans first
+			return returned ? Outcome.OK : Outcome.CONFLICT;
+		}
+
+		case ORDER: {
+			List<Equipment> orderable = EquipmentCache.getInstance().getOrderableEquipmentBySkill(employee.getSkillClassification());
+			if (orderable.isEmpty()) {
+				return Outcome.SKIPPED;
+			}
+			Equipment selected = orderable.get(random.nextInt(orderable.size()));
+			timer.start();
+			String message = employee.orderEquipment(selected);
+			timer.stop();
+			if (Employee.ORDER_CONFIRMED.equals(message)) {
+				return Outcome.OK;
+			}
+			return Employee.ORDER_CONFLICT.equals(message) ? Outcome.CONFLICT : Outcome.FAILED;
+		}
+
+		case CANCEL: {
+			List<Order> confirmed = new ArrayList<>();
+			try (Connection conn = DBConnect.getInstance().getConnection()) {
+				for (Order order : OrderDAO.getOrdersPage(conn, Integer.MAX_VALUE, ORDER_PAGE_SIZE, false)) {
+					if (order.getOrderStatus() == OrderStatus.Confirmed) {
+						confirmed.add(order);
+					}
+				}
+			}
+			if (confirmed.isEmpty()) {
+				return Outcome.SKIPPED;
+			}
+			int orderID = confirmed.get(random.nextInt(confirmed.size())).getOrderID();
+			timer.start();
+			String message = employee.cancelOrder(orderID);
+			timer.stop();
+			if ("Order successfully cancelled".equals(message)) {
+				return Outcome.OK;
+			}
+			if ("Order is already cancelled".equals(message)
+					|| "Failed to cancel order: the equipment is no longer ordered".equals(message)) {
+				return Outcome.CONFLICT;
+			}
+			return Outcome.FAILED;
+		}
+
+		case REMINDER: {
+			timer.start();
+			try (Connection conn = DBConnect.getInstance().getConnection()) {
+				for (Transaction txn : TransactionDAO.getBorrowedTransactionsByEmployee(employee.getEmpID(), conn)) {
+					Reminder reminder = new Reminder(txn.getEmployee(), txn, LocalDate.now());
+					txn.registerObserver(reminder);
+					txn.notifyObservers();
+				}
+			}
+			timer.stop();
+			return Outcome.OK;
+		}
+
+		default:
+			throw new IllegalArgumentException("Unknown action " + action);
+		}
+	}
+
+	// ======================================================================
+	// Measurements
+	// ======================================================================
+
+	// Times the save of one action (started and stopped inside perform())
+	private static final class Timer {
+		private long startedAt;
+		private long stoppedAt;
+
+		void start() {
+			startedAt = System.nanoTime();
+		}
+
+		void stop() {
+			stoppedAt = System.nanoTime();
+		}
+
+		// Time between start() and stop(); 0 for an action skipped before start()
+		long elapsed() {
+			return startedAt == 0 ? 0 : Math.max(stoppedAt, startedAt) - startedAt;
+		}
+	}
+
+	// ===================== CLASS: ActionStats ======================= //
+	// Outcome counts and save times of one action, shared by the clerks
+	// ================================================================ //
+	static final class ActionStats {
+
+		private final Map<Outcome, AtomicLong> counts = new EnumMap<>(Outcome.class);
+		private long[] latencies = new long[256];   // Nanoseconds of each measured attempt
+		private int latencyCount;
+		private volatile String firstError;         // Message of the first exception
+
+		ActionStats() {
+			for (Outcome outcome : Outcome.values()) {
+				counts.put(outcome, new AtomicLong());
+			}
+		}
+
+		void record(Outcome outcome, long nanos) {
+			counts.get(outcome).incrementAndGet();
+			if (outcome != Outcome.SKIPPED) {
+				synchronized (this) {
+					if (latencyCount == latencies.length) {
+						latencies = Arrays.copyOf(latencies, latencyCount * 2);
+					}
+					latencies[latencyCount++] = nanos;
+				}
+			}
+		}
+
+		void recordError(Exception e) {
+			if (firstError == null) {
+				firstError = e.toString();
+			}
+		}
+
+		synchronized long[] sortedLatencies() {
+			long[] sorted = Arrays.copyOf(latencies, latencyCount);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+	}
+
+	// ======================== CLASS: Report ========================= //
+	// Results of one load run
+	// ================================================================ //
+	public static final class Report {
+
+		private final int clerks;                             // Clerks that ran
+		private final long thinkMillis;                       // Mean think time
+		private final long measuredNanos;                     // Measured run time
+		private final Map<Action, Map<Outcome, Long>> counts = new EnumMap<>(Action.class);
+		private final Map<Action, long[]> latencies = new EnumMap<>(Action.class);
+		private final Map<Action, String> firstErrors = new EnumMap<>(Action.class);
+		private final long checkoutRetries;                   // CheckoutService attempts retried
+		private final long poolBorrows;                       // Connections borrowed from the pool
+		private final double averagePoolWaitMillis;           // Mean wait for a connection
+		private final long maxPoolWaitMillis;                 // Longest wait for a connection (pool lifetime)
+		private final long poolTimeouts;                      // Borrows that timed out
+		private final long remindersPublished;                // Reminder notifications queued on the EventBus
+		private final long reminderDeadLetters;               // Notifications that failed
+
+		Report(int clerks, long thinkMillis, long measuredNanos, Map<Action, ActionStats> stats, long checkoutRetries,
+				long poolBorrows, double averagePoolWaitMillis, long maxPoolWaitMillis, long poolTimeouts,
+				long remindersPublished, long reminderDeadLetters) {
+			this.clerks = clerks;
+			this.thinkMillis = thinkMillis;
+			this.measuredNanos = measuredNanos;
+			for (Map.Entry<Action, ActionStats> entry : stats.entrySet()) {
+				Map<Outcome, Long> byOutcome = new EnumMap<>(Outcome.class);
+				for (Outcome outcome : Outcome.values()) {
+					byOutcome.put(outcome, entry.getValue().counts.get(outcome).get());
+				}
+				counts.put(entry.getKey(), byOutcome);
+				latencies.put(entry.getKey(), entry.getValue().sortedLatencies());
+				if (entry.getValue().firstError != null) {
+					firstErrors.put(entry.getKey(), entry.getValue().firstError);
+				}
+			}
+			this.checkoutRetries = checkoutRetries;
+			this.poolBorrows = poolBorrows;
+			this.averagePoolWaitMillis = averagePoolWaitMillis;
+			this.maxPoolWaitMillis = maxPoolWaitMillis;
+			this.poolTimeouts = poolTimeouts;
+			this.remindersPublished = remindersPublished;
+			this.reminderDeadLetters = reminderDeadLetters;
+		}
+
+		// Number of measured actions with the given outcome
+		public long getCount(Action action, Outcome outcome) {
+			return counts.get(action).get(outcome);
+		}
+
+		// Measured attempts of an action (every outcome except SKIPPED)
+		public long getAttempts(Action action) {
+			Map<Outcome, Long> c = counts.get(action);
+			return c.get(Outcome.OK) + c.get(Outcome.CONFLICT) + c.get(Outcome.FAILED);
+		}
+
+		// Measured attempts of every action
+		public long getTotalAttempts() {
+			long total = 0;
+			for (Action action : Action.values()) {
+				total += getAttempts(action);
+			}
+			return total;
+		}
+
+		// Attempts per second of an action
+		public double getThroughput(Action action) {
+			return getAttempts(action) * 1_000_000_000.0 / measuredNanos;
+		}
+
+		// Attempts per second of every action
+		public double getTotalThroughput() {
+			return getTotalAttempts() * 1_000_000_000.0 / measuredNanos;
+		}
+
+		// Share of an action's attempts that ended in a conflict (0 to 1)
+		public double getConflictRate(Action action) {
+			long attempts = getAttempts(action);
+			return attempts == 0 ? 0.0 : (double) getCount(action, Outcome.CONFLICT) / attempts;
+		}
+
+		// Save time of an action at the given percentile (0 to 100), in ms; NaN without attempts
+		public double getLatencyMillis(Action action, double percentile) {
+			long[] sorted = latencies.get(action);
+			if (sorted.length == 0) {
+				return Double.NaN;
+			}
+			int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+		}
+
+		// Message of the first exception an action threw, or null
+		public String getFirstError(Action action) {
+			return firstErrors.get(action);
+		}
+
+		public long getCheckoutRetries() {
+			return checkoutRetries;
+		}
+
+		public long getPoolTimeouts() {
+			return poolTimeouts;
+		}
+
+		public long getRemindersPublished() {
+			return remindersPublished;
+		}
+
+		public long getReminderDeadLetters() {
+			return reminderDeadLetters;
+		}
+
+		public double getMeasuredSeconds() {
+			return measuredNanos / 1_000_000_000.0;
+		}
+
+		// Formats the report as a text table
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder();
+			text.append(String.format(Locale.ROOT, "%d clerks, %d ms mean think time, %.1f s measured%n",
+					clerks, thinkMillis, getMeasuredSeconds()));
+			text.append(String.format(Locale.ROOT, "%-9s %9s %9s %9s %9s %9s %10s %10s %10s %10s%n", "Action",
+					"Attempts", "OK", "Conflict", "Failed", "Skipped", "ops/s", "p50 ms", "p99 ms", "Conflict%"));
+			for (Action action : Action.values()) {
+				text.append(String.format(Locale.ROOT, "%-9s %9d %9d %9d %9d %9d %10.1f %10.2f %10.2f %9.2f%%%n", action,
+						getAttempts(action), getCount(action, Outcome.OK), getCount(action, Outcome.CONFLICT),
+						getCount(action, Outcome.FAILED), getCount(action, Outcome.SKIPPED), getThroughput(action),
+						getLatencyMillis(action, 50), getLatencyMillis(action, 99), getConflictRate(action) * 100));
+			}
+			text.append(String.format(Locale.ROOT, "%-9s %9d %50.1f%n", "Total", getTotalAttempts(), getTotalThroughput()));
+			text.append(String.format(Locale.ROOT, "Checkout retries: %d%n", checkoutRetries));
+			text.append(String.format(Locale.ROOT, "Connection pool: %d borrows, %.2f ms mean wait, %d ms max wait, %d timeouts%n",
+					poolBorrows, averagePoolWaitMillis, maxPoolWaitMillis, poolTimeouts));
+			text.append(String.format(Locale.ROOT, "Reminder notifications: %d queued, %d dead letters%n",
+					remindersPublished, reminderDeadLetters));
+			for (Map.Entry<Action, String> error : firstErrors.entrySet()) {
+				text.append("First ").append(error.getKey()).append(" error: ").append(error.getValue()).append('\n');
+			}
+			return text.toString();
+		}
+	}
+
+	// ======================================================================
+	// Command line
+	// ======================================================================
+
+	// ========================== METHOD: run =========================== //
+	// Reads the options, prepares the database (a seeded H2 database
+	// unless --url is given), runs the load and returns the report.
+	// ================================================================== //
+	public static Report run(String... args) throws Exception {
+		int clerks = DEFAULT_CLERKS;
+		long think = DEFAULT_THINK_MS;
+		long warmup = DEFAULT_WARMUP_MS;
+		long duration = DEFAULT_DURATION_MS;
+		String mix = DEFAULT_MIX;
+		long seed = 42;
+		int employees = BenchmarkDatabase.DEFAULT_EMPLOYEES;
+		int equipment = BenchmarkDatabase.DEFAULT_EQUIPMENT;
+		int transactions = BenchmarkDatabase.DEFAULT_TRANSACTIONS;
+		String url = null;
+		String user = "root";
+		String password = "";
+		String queryStats = null;
+
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--clerks" -> clerks = Integer.parseInt(args[++i]);
+			case "--think" -> think = Long.parseLong(args[++i]);
+			case "--warmup" -> warmup = (long) (Double.parseDouble(args[++i]) * 1000);
+			case "--duration" -> duration = (long) (Double.parseDouble(args[++i]) * 1000);
+			case "--mix" -> mix = args[++i];
+			case "--seed" -> seed = Long.parseLong(args[++i]);
+			case "--employees" -> employees = Integer.parseInt(args[++i]);
+			case "--equipment" -> equipment = Integer.parseInt(args[++i]);
+			case "--transactions" -> transactions = Integer.parseInt(args[++i]);
+			case "--url" -> url = args[++i];
+			case "--user" -> user = args[++i];
+			case "--password" -> password = args[++i];
+			case "--query-stats" -> queryStats = args[++i];
+			default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		// Point the application at the database under load
+		if (url == null) {
+			BenchmarkDatabase db = BenchmarkDatabase.inMemory("loadgenerator", employees, equipment, transactions);
+			System.out.println("Creating load database: " + employees + " employees, " + equipment
+					+ " equipment, " + transactions + " transactions");
+			System.out.println("Database ready in " + db.create() + " ms");
+			url = db.getUrl();
+			user = BenchmarkDatabase.USERNAME;
+			password = BenchmarkDatabase.PASSWORD;
+		}
+		DBConnect.configure(url, user, password);
+
+		System.out.println("Running " + clerks + " clerks for " + warmup / 1000.0 + " s warmup + "
+				+ duration / 1000.0 + " s, mix " + mix);
+		QueryMonitor.getInstance().reset();
+		Report report = new LoadGenerator(clerks, parseMix(mix), think, warmup, duration, seed).run();
+		System.out.print(report);
+		if (queryStats != null) {
+			QueryMonitor.getInstance().writeSummary(Path.of(queryStats));
+			System.out.println("Query statistics written to " + queryStats);
+		}
+		return report;
+	}
+
+	public static void main(String[] args) throws Exception {
+		run(args);
+		System.exit(0);   // Stop the background services (cache, directory, event bus)
+	}
+}
@@ -0,0 +1,380 @@
+/**
+ * AsyncService.java
+ * Runs database work off the Swing Event Dispatch Thread (EDT).
+ * MainApp hands every DAO call to this service instead of running JDBC
+ * on the EDT, so the window keeps repainting and responding to clicks
+ * while the database is slow or a query takes seconds.
+ *
+ * Each task returns a CompletableFuture. Results are usually handled
+ * with whenCompleteAsync(..., AsyncService.EDT) so Swing components are
+ * only touched on the EDT.
+ *
+ * The service supports:
+ *   -Cancellation: cancelling a returned future interrupts the worker
+ *    thread and the result is discarded (see cancelAll()). Saves started
+ *    with save() cannot be cancelled, so their outcome is always known.
+ *   -Busy indicator: busy listeners are told on the EDT when the first
+ *    task starts and when the last running task finishes. A cancelled
+ *    task counts as running until its work has actually stopped, since
+ *    it may still hold a connection.
+ *   -Coalescing: at most one task per key runs at a time. A call made
+ *    while the task for its key runs queues one follow-up task behind
+ *    it, and later calls share that follow-up (or the running task, if
+ *    it is still waiting to start), so repeated refresh requests run at
+ *    most twice and never hold two connections.
+ *
+ * Tasks run on virtual threads when the JVM supports them (Java 21+),
+ * otherwise on a pool of daemon threads.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect, so the whole UI shares one executor and one busy state.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used by database tasks
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Import concurrency utilities for executors, futures and counters
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Import Swing utility used to run callbacks on the EDT
+import javax.swing.SwingUtilities;
+
+public class AsyncService {
+
+	// Executor that runs callbacks on the Swing Event Dispatch Thread
+	public static final Executor EDT = SwingUtilities::invokeLater;
+
+	// Number of platform threads used when virtual threads are not available
+	private static final int FALLBACK_POOL_SIZE = 4;
+
+	private static AsyncService instance;   // Singular instance
+
+	// A unit of database work that runs on a borrowed connection
+	@FunctionalInterface
+	public interface DbTask<T> {
+		T run(Connection conn) throws Exception;
+	}
+
+	// Source of connections for DbTasks (the DBConnect pool by default)
+	@FunctionalInterface
+	public interface ConnectionSource {
+		Connection getConnection() throws SQLException;
+	}
+
+	private final ExecutorService executor;        // Runs the tasks
+	private final ConnectionSource connections;    // Connections for DbTasks
+
+	// Tasks that have been submitted and whose work has not ended yet
+	private final Set<Task<?>> running = ConcurrentHashMap.newKeySet();
+
+	// Running and queued follow-up task for each key (used for coalescing);
+	// also guards the started and ended flags of every task
+	private final Map<Object, KeySlot> slots = new HashMap<>();
+
+	// Busy state
+	private final AtomicInteger active = new AtomicInteger();
+	private final List<Consumer<Boolean>> busyListeners = new CopyOnWriteArrayList<>();
+
+	// Constructor for a service with its own executor and connection source (used by tests)
+	public AsyncService(ExecutorService executor, ConnectionSource connections) {
+		this.executor = executor;
+		this.connections = connections;
+	}
+
+	// Public method to obtain the single instance used by the UI
+	public static synchronized AsyncService getInstance() {
+		if (instance == null) {
+			instance = new AsyncService(defaultExecutor(), () -> DBConnect.getInstance().getConnection());
+		}
+		return instance;
+	}
+
+	// ========================= METHOD: submit ========================= //
+	// Runs a task on a pooled connection in the background. The
+	// connection is returned to the pool when the task finishes.
+	// ================================================================== //
+	public <T> CompletableFuture<T> submit(DbTask<T> task) {
+		return call(() -> {
+			try (Connection conn = connections.getConnection()) {
+				return task.run(conn);
+			}
+		});
+	}
+
+	// Runs a task on a pooled connection, coalesced with the other tasks
+	// submitted with the same key (see call(key, work))
+	public <T> CompletableFuture<T> submit(Object key, DbTask<T> task) {
+		return call(key, () -> {
+			try (Connection conn = connections.getConnection()) {
+				return task.run(conn);
+			}
+		});
+	}
+
+	// ========================== METHOD: save ========================== //
+	// Runs a write in the background that cannot be cancelled, neither
+	// through its future nor by cancelAll(), so the caller always learns
+	// whether it was committed or failed and rolled back.
+	// ================================================================== //
+	public <T> CompletableFuture<T> save(Callable<T> work) {
+		return start(new Task<T>(null, work, false));
+	}
+
+	// ========================== METHOD: call ========================== //
+	// Runs a task that manages its own connections (e.g., Employee
+	// methods that borrow one from DBConnect) in the background.
+	// ================================================================== //
+	public <T> CompletableFuture<T> call(Callable<T> work) {
+		return start(new Task<T>(null, work, true));
+	}
+
+	// Coalescing variant of call(): only one task per key runs at a time.
+	// While the task for this key is still waiting to start, later calls
+	// return that same future. Once it has started, the next call queues
+	// one follow-up task that starts when the running work ends, so a
+	// refresh requested mid-query still sees new data; later calls share
+	// that follow-up until it starts.
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> call(Object key, Callable<T> work) {
+		Task<T> task;
+		boolean queued;
+		synchronized (slots) {
+			KeySlot slot = slots.computeIfAbsent(key, k -> new KeySlot());
+			if (slot.queued != null && !slot.queued.isDone()) {
+				return (CompletableFuture<T>) slot.queued;
+			}
+			if (slot.running != null && !slot.running.started && !slot.running.isDone()) {
+				return (CompletableFuture<T>) slot.running;
+			}
+			task = new Task<>(key, work, true);
+			queued = slot.running != null;
+			if (queued) {
+				slot.queued = task;
+			} else {
+				slot.running = task;
+			}
+		}
+
+		// A follow-up is handed to the executor by finish() once the running task ends
+		track(task);
+		if (!queued) {
+			dispatch(task);
+		}
+		return task;
+	}
+
+	// ======================== METHOD: cancelAll ======================= //
+	// Cancels every task that has not finished, apart from saves (e.g.,
+	// from the Cancel button next to the busy indicator). Returns the
+	// number cancelled.
+	// ================================================================== //
+	public int cancelAll() {
+		int count = 0;
+		for (Task<?> task : new ArrayList<>(running)) {
+			if (task.cancel(true)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Returns true while at least one task is running or queued
+	public boolean isBusy() {
+		return active.get() > 0;
+	}
+
+	// Number of tasks that are running or queued
+	public int getActiveCount() {
+		return active.get();
+	}
+
+	// Registers a listener that is called on the EDT with true when the
+	// service becomes busy and false when it becomes idle
+	public void addBusyListener(Consumer<Boolean> listener) {
+		busyListeners.add(listener);
+	}
+
+	// Stops accepting tasks and interrupts running ones
+	public void shutdown() {
+		cancelAll();
+		executor.shutdownNow();
+	}
+
+	// Tracks a task and hands it to the executor
+	private <T> Task<T> start(Task<T> task) {
+		track(task);
+		dispatch(task);
+		return task;
+	}
+
+	// Counts a task as running until finish() is called for it
+	private void track(Task<?> task) {
+		running.add(task);
+		if (active.incrementAndGet() == 1) {
+			fireBusy(true);
+		}
+	}
+
+	// Hands a tracked task to the executor
+	private void dispatch(Task<?> task) {
+		try {
+			task.future = executor.submit(task::execute);
+		} catch (RuntimeException e) {
+			// Executor was shut down
+			task.completeExceptionally(e);
+			finish(task, false);
+		}
+	}
+
+	// ========================= METHOD: finish ========================= //
+	// Stops tracking a task once its work has ended (fromWorker) or can
+	// no longer start (cancelled or rejected before it ran), updates the
+	// busy state and starts the follow-up queued behind it, if any. Runs
+	// once per task; later calls are ignored.
+	// ================================================================== //
+	private void finish(Task<?> task, boolean fromWorker) {
+		Task<?> next = null;
+		synchronized (slots) {
+			if (task.ended || (task.started && !fromWorker)) {
+				return;
+			}
+			task.ended = true;
+			KeySlot slot = task.key == null ? null : slots.get(task.key);
+			if (slot != null && slot.running == task) {
+				next = slot.queued;
+				slot.queued = null;
+				slot.running = next;
+			} else if (slot != null && slot.queued == task) {
+				slot.queued = null;
+			}
+			if (slot != null && slot.running == null) {
+				slots.remove(task.key);
+			}
+		}
+
+		running.remove(task);
+		if (active.decrementAndGet() == 0) {
+			fireBusy(false);
+		}
+		if (next != null) {
+			dispatch(next);
+		}
+	}
+
+	// Notifies busy listeners on the EDT
+	private void fireBusy(boolean busy) {
+		EDT.execute(() -> {
+			// Skip stale notifications if the state changed again in the meantime
+			if (busy != isBusy()) {
+				return;
+			}
+			for (Consumer<Boolean> listener : busyListeners) {
+				listener.accept(busy);
+			}
+		});
+	}
+
+	// Creates a virtual-thread-per-task executor on Java 21+, or a small
+	// pool of daemon threads on older runtimes
+	static ExecutorService defaultExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger threadNumber = new AtomicInteger();
+			return Executors.newFixedThreadPool(FALLBACK_POOL_SIZE, r -> {
+				Thread t = new Thread(r, "ecs-async-" + threadNumber.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			});
+		}
+	}
+
+	// Tasks for one coalescing key (guarded by slots)
+	private static final class KeySlot {
+		private Task<?> running;   // Task that runs, or waits in the executor, for this key
+		private Task<?> queued;    // Follow-up that starts when the running task ends
+	}
+
+	// ========================== CLASS: Task ========================== //
+	// Future for one submitted task. Cancelling it also interrupts the
+	// worker thread running the task, unless it is a save.
+	// ================================================================= //
+	private final class Task<T> extends CompletableFuture<T> {
+
+		private final Object key;             // Coalescing key (null if none)
+		private final Callable<T> work;       // Work to run
+		private final boolean cancellable;    // False for saves
+		private volatile Future<?> future;    // Executor handle used to interrupt the worker
+		private boolean started;              // Set once the work begins (guarded by slots)
+		private boolean ended;                // Set once finish() has run (guarded by slots)
+
+		Task(Object key, Callable<T> work, boolean cancellable) {
+			this.key = key;
+			this.work = work;
+			this.cancellable = cancellable;
+		}
+
+		// Runs the work on the worker thread and completes this future.
+		// The task is finished before its future completes, so callers
+		// see the busy state and any follow-up already updated.
+		void execute() {
+			synchronized (slots) {
+				if (ended) {
+					return;
+				}
+				started = true;
+			}
+			T result = null;
+			Throwable failure = null;
+			try {
+				if (!isDone()) {
+					result = work.call();
+				}
+			} catch (Throwable e) {
+				failure = e;
+			}
+			finish(this, true);
+			if (failure != null) {
+				completeExceptionally(failure);
+			} else {
+				complete(result);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (!cancellable) {
+				return false;
+			}
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				Future<?> handle = future;
+				if (handle != null) {
+					handle.cancel(true);
+				}
+
+				// Work that never started is finished here; running work
+				// stays tracked until it notices the interrupt and returns
+				finish(this, false);
+			}
+			return cancelled;
+		}
+	}
+}
@@ -3,65 +3,400 @@
  * This is a utility class in the ECS system used to export data from
  * the JTable component into a .csv file format. This supportive role
  * it plays enables employees to save data related to transaction records or order history.
+ * The table is captured on the EDT with snapshot() and the file is
+ * written from the snapshot, so the writing can run in the background.
+ *
+ * exportQuery() and exportTransactions() export straight from the
+ * database instead: rows are streamed from a forward-only ResultSet
+ * through a buffered writer on a FileChannel, so the memory used does
+ * not grow with the number of rows. These exports follow RFC 4180
+ * (CRLF line endings; fields containing commas, quotes or line breaks
+ * are quoted) and are meant to run in the background: they report
+ * progress and stop when the thread is interrupted (e.g., the task is
+ * cancelled), deleting the partial file.
+ *
+ * The streamed exports can also be written gzip-compressed, or in the
+ * compact columnar format of ColumnarWriter (read back with
+ * ColumnarReader), in the same single pass over the rows.
  */
 
 package ecsapplication;
 
 // Imports needed to write JTable data to a CSV file and handle I/O exceptions
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.zip.GZIPOutputStream;
+
+// Imports needed to stream database rows to a file channel
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.JTable;
 import javax.swing.table.TableModel;
 
 public class CSVExporter {
 
+	// Size of the write buffer for streamed exports
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// Rows between progress reports for streamed exports
+	public static final int PROGRESS_INTERVAL = 10_000;
+
+	// Column headers of the streamed transaction export (same as the Transactions table)
+	private static final String[] TRANSACTION_HEADERS = {
+			"Transaction ID", "Employee Name", "Employee Skill",
+			"Equipment Name", "Required Skill",
+			"Checkout Condition", "Return Condition",
+			"Borrow Date", "Expected Return Date",
+			"Transaction Status"
+	};
+
+	// Query for the streamed transaction export, one column per header
+	private static final String TRANSACTION_EXPORT_SQL =
+			"SELECT t.transactionID, e.empName, e.skillClassification, eq.equipmentName, eq.requiredSkill, " +
+			"COALESCE(t.checkoutCondition, 'N/A'), COALESCE(t.returnCondition, 'N/A'), " +
+			"t.borrowDate, t.expectedReturnDate, t.transactionStatus " +
+			"FROM transaction t " +
+			"JOIN employee e ON t.empID = e.empID " +
+			"JOIN equipment eq ON t.equipmentID = eq.equipmentID " +
+			"ORDER BY t.transactionID ASC";
+
+	// Receives the number of rows written so far during a streamed export
+	public interface ProgressListener {
+		void onProgress(long rowsWritten);
+	}
+
+	// Writes the rows of a streamed export in one output format
+	interface RowWriter extends Closeable {
+		void writeRow(ResultSet rs) throws IOException, SQLException;
+	}
+
+	// Output formats of the streamed exports
+	public enum ExportFormat {
+		CSV("CSV Files", ".csv"),
+		CSV_GZIP("Gzip-compressed CSV Files", ".csv.gz"),
+		COLUMNAR("ECS Columnar Files", ".ecsc");
+
+		private final String description;   // Shown in the save dialog
+		private final String extension;     // File name suffix, with the dot
+
+		ExportFormat(String description, String extension) {
+			this.description = description;
+			this.extension = extension;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+
+		// Picks the format from a file name's extension; plain CSV if none matches
+		public static ExportFormat fromFileName(String fileName) {
+			String name = fileName.toLowerCase();
+			for (ExportFormat format : values()) {
+				if (format != CSV && name.endsWith(format.extension)) {
+					return format;
+				}
+			}
+			return CSV;
+		}
+
+		// Opens a writer for this format on the file stream and writes the header
+		RowWriter open(OutputStream file, String[] headers, ResultSetMetaData meta) throws IOException, SQLException {
+			String[] names = columnNames(headers, meta);
+			switch (this) {
+			case CSV_GZIP:
+				return new CsvRowWriter(file, true, names);
+			case COLUMNAR:
+				return new ColumnarWriter(new BufferedOutputStream(file, BUFFER_SIZE), names, meta);
+			default:
+				return new CsvRowWriter(file, false, names);
+			}
+		}
+	}
+
+	// Writes the rows of a JTable to a CSV file. Reads the table, so it
+	// must run on the EDT; use snapshot() to write the file in the background.
 	public static void exportToCSV(JTable table, String filePath) throws IOException {
+		snapshot(table).writeTo(filePath);
+	}
+
+	// ========================= METHOD: snapshot ========================= //
+	// Captures what exportToCSV() writes from a JTable: the column names,
+	// and either a copy of the rows or, for a lazily loaded table, its
+	// current sort order. Call it on the EDT (Swing models are not safe to
+	// read from other threads); the returned snapshot can then be written
+	// with writeTo() on a background thread.
+	// ==================================================================== //
+	public static TableSnapshot snapshot(JTable table) {
 		
 		// Retrieves the table model containing data and column names
-        TableModel model = table.getModel();
-        
-        // Open a FileWriter in try-with-resources to automatically close the stream
-        try (FileWriter csv = new FileWriter(filePath)) {
-
-        	// Writes the column headers to CSV and separates them with commas
-            for (int i = 0; i < model.getColumnCount(); i++) {
-                csv.write(model.getColumnName(i));    // Write column name
-                if (i < model.getColumnCount() - 1) {
-                    csv.write(",");  // Add comma expect for the last column
-                }
-            }
-            csv.write("\n");  // Move to the next line after column headers
-
-            // Iterate over each row in the table model
-            for (int row = 0; row < model.getRowCount(); row++) {
-            	
-            	// Iterate over each column in the current row
-                for (int col = 0; col < model.getColumnCount(); col++) {
-                	
-                	// Retrieve the cell value at the current row and column
-                    Object value = model.getValueAt(row, col);
-              
-                    // Convert the value to a string; empty if null
-                    String cell = value != null ? value.toString() : "";
-                    
-                    // Handle special characters (commas or quotes) in CSV
-                    if (cell.contains(",") || cell.contains("\"")) {
-                    	
-                    	// Escape existing double quotes by doubling them
-                        cell = cell.replace("\"", "\"\""); 
-                        
-                        // Wrap entire cell in double quotes to preserve commas or quotes
-                        cell = "\"" + cell + "\"";         
-                    }
-                    csv.write(cell);  // Write the cell value
-                    
-                    // Add a comma if not the last column in the row
-                    if (col < model.getColumnCount() - 1) {
-                        csv.write(",");
-                    }
-                }
-                csv.write("\n");  // Move to the next line after finishing the row
-            }
-        }
-    }
+		TableModel model = table.getModel();
+		String[] columnNames = new String[model.getColumnCount()];
+		for (int col = 0; col < columnNames.length; col++) {
+			columnNames[col] = model.getColumnName(col);
+		}
+		
+		// Lazily loaded tables only hold the pages on screen; their rows are read from the database later
+		if (model instanceof PagedTableModel) {
+			PagedTableModel<?> paged = (PagedTableModel<?>) model;
+			return new TableSnapshot(columnNames, null, paged, paged.getSortColumn(), paged.isAscending());
+		}
+		
+		// Copy the cell values of each row in the table model
+		List<Object[]> rows = new ArrayList<>(model.getRowCount());
+		for (int row = 0; row < model.getRowCount(); row++) {
+			Object[] values = new Object[columnNames.length];
+			for (int col = 0; col < values.length; col++) {
+				values[col] = model.getValueAt(row, col);
+			}
+			rows.add(values);
+		}
+		return new TableSnapshot(columnNames, rows, null, 0, true);
+	}
+
+	// ======================= CLASS: TableSnapshot ======================= //
+	// Contents of a JTable captured on the EDT by snapshot(), written to a
+	// CSV file by writeTo() on any thread.
+	// ==================================================================== //
+	public static final class TableSnapshot {
+
+		private final String[] columnNames;      // Column headers
+		private final List<Object[]> rows;       // Copied rows (null for a lazily loaded table)
+		private final PagedTableModel<?> paged;  // Lazily loaded model (null for copied rows)
+		private final int sortColumn;            // Sort order of the lazily loaded model
+		private final boolean ascending;
+
+		private TableSnapshot(String[] columnNames, List<Object[]> rows, PagedTableModel<?> paged,
+				int sortColumn, boolean ascending) {
+			this.columnNames = columnNames;
+			this.rows = rows;
+			this.paged = paged;
+			this.sortColumn = sortColumn;
+			this.ascending = ascending;
+		}
+
+		// Writes the captured rows to a CSV file; a lazily loaded table is
+		// read from the database in the order it was shown
+		public void writeTo(String filePath) throws IOException {
+			
+			// Open a FileWriter in try-with-resources to automatically close the stream
+			try (FileWriter csv = new FileWriter(filePath)) {
+				
+				// Writes the column headers to CSV and separates them with commas
+				for (int i = 0; i < columnNames.length; i++) {
+					csv.write(columnNames[i]);    // Write column name
+					if (i < columnNames.length - 1) {
+						csv.write(",");  // Add comma expect for the last column
+					}
+				}
+				csv.write("\n");  // Move to the next line after column headers
+				
+				if (paged == null) {
+					for (Object[] values : rows) {
+						writeRow(csv, values);
+					}
+					return;
+				}
+				try {
+					paged.forEachRow(sortColumn, ascending, values -> {
+						try {
+							writeRow(csv, values);
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+				} catch (SQLException e) {
+					throw new IOException("Failed to read rows for export", e);
+				} catch (UncheckedIOException e) {
+					throw e.getCause();
+				}
+			}
+		}
+	}
+
+	// Writes one row of cell values as a CSV line
+	private static void writeRow(FileWriter csv, Object[] values) throws IOException {
+		for (int col = 0; col < values.length; col++) {
+			
+			// Convert the value to a string; empty if null
+			Object value = values[col];
+			csv.write(quote(value != null ? value.toString() : ""));  // Write the cell value
+			
+			// Add a comma if not the last column in the row
+			if (col < values.length - 1) {
+				csv.write(",");
+			}
+		}
+		csv.write("\n");  // Move to the next line after finishing the row
+	}
+
+	// ======================== METHOD: exportTransactions ==================== //
+	// Streams the whole transaction history from the database to a CSV file
+	// with the same columns as the Transactions table. Returns the number of
+	// rows written.
+	// ======================================================================== //
+	public static long exportTransactions(Connection conn, Path file, ProgressListener listener)
+			throws IOException, SQLException {
+		return exportTransactions(conn, file, ExportFormat.CSV, listener);
+	}
+
+	// Same as above, written in the chosen output format
+	public static long exportTransactions(Connection conn, Path file, ExportFormat format, ProgressListener listener)
+			throws IOException, SQLException {
+		return exportQuery(conn, TRANSACTION_EXPORT_SQL, TRANSACTION_HEADERS, file, format, listener);
+	}
+
+	// Streams the rows of a query to a CSV file (see below)
+	public static long exportQuery(Connection conn, String sql, String[] headers, Path file, ProgressListener listener)
+			throws IOException, SQLException {
+		return exportQuery(conn, sql, headers, file, ExportFormat.CSV, listener);
+	}
+
+	// ========================== METHOD: exportQuery ========================= //
+	// Streams the rows of a query to a file in the given format, in one pass.
+	// The header row is 'headers', or the query's column labels if null. Rows
+	// are read from a forward-only, read-only ResultSet and written through a
+	// 64 KB buffer on a FileChannel, so only one row (or, for the columnar
+	// format, one block of rows) is in memory at a time. The listener (may be
+	// null) is told the row count every PROGRESS_INTERVAL rows and at the end.
+	// If the thread is interrupted, or anything fails, the partial file is deleted.
+	// ======================================================================== //
+	public static long exportQuery(Connection conn, String sql, String[] headers, Path file, ExportFormat format,
+			ProgressListener listener) throws IOException, SQLException {
+		long rows = 0;
+		boolean complete = false;
+
+		// Forward-only, read-only statement so the driver can stream rows
+		try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			stmt.setFetchSize(TransactionDAO.streamingFetchSize(conn));
+
+			try (ResultSet rs = stmt.executeQuery();
+					FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+							StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+					RowWriter out = format.open(Channels.newOutputStream(channel), headers, rs.getMetaData())) {
+
+				// One record per row
+				while (rs.next()) {
+					out.writeRow(rs);
+					rows++;
+
+					// Report progress and stop if the export was cancelled
+					if (rows % PROGRESS_INTERVAL == 0) {
+						if (Thread.currentThread().isInterrupted()) {
+							throw new InterruptedIOException("Export cancelled after " + rows + " rows");
+						}
+						if (listener != null) {
+							listener.onProgress(rows);
+						}
+					}
+				}
+			}
+			complete = true;
+		} catch (ClosedByInterruptException e) {
+			// The interrupt closed the channel in the middle of a write
+			throw new InterruptedIOException("Export cancelled after " + rows + " rows");
+		} finally {
+			if (!complete) {
+				Files.deleteIfExists(file);
+			}
+		}
+
+		if (listener != null) {
+			listener.onProgress(rows);
+		}
+		return rows;
+	}
+
+	// Returns the header of each column: 'headers' if given, otherwise the query's column labels
+	static String[] columnNames(String[] headers, ResultSetMetaData meta) throws SQLException {
+		String[] names = new String[meta.getColumnCount()];
+		for (int col = 1; col <= names.length; col++) {
+			names[col - 1] = headers != null ? headers[col - 1] : meta.getColumnLabel(col);
+		}
+		return names;
+	}
+
+	// ============================ CLASS: CsvRowWriter ======================= //
+	// Writes rows as RFC 4180 CSV text (UTF-8, CRLF line endings), optionally
+	// gzip-compressed on the way to the file.
+	// ======================================================================== //
+	private static class CsvRowWriter implements RowWriter {
+
+		private final Writer out;      // Buffered text writer on the file (or on the gzip stream)
+		private final int columns;     // Number of columns per row
+
+		CsvRowWriter(OutputStream file, boolean gzip, String[] names) throws IOException {
+			OutputStream target = gzip ? new GZIPOutputStream(file, BUFFER_SIZE) : file;
+			this.out = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+			this.columns = names.length;
+
+			// Header row
+			writeLine(names);
+		}
+
+		@Override
+		public void writeRow(ResultSet rs) throws IOException, SQLException {
+
+			// Values are read as text (dates come back as yyyy-MM-dd)
+			for (int col = 1; col <= columns; col++) {
+				if (col > 1) {
+					out.write(',');
+				}
+				String value = rs.getString(col);
+				if (value != null) {
+					out.write(quote(value));
+				}
+			}
+			out.write("\r\n");
+		}
+
+		// Writes one line of quoted fields
+		private void writeLine(String[] values) throws IOException {
+			for (int col = 0; col < values.length; col++) {
+				if (col > 0) {
+					out.write(',');
+				}
+				out.write(quote(values[col]));
+			}
+			out.write("\r\n");
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();   // Also finishes the gzip trailer
+		}
+	}
+
+	// Quotes a CSV field if it contains a comma, quote or line break (RFC 4180)
+	static String quote(String cell) {
+		if (cell.indexOf(',') < 0 && cell.indexOf('"') < 0 && cell.indexOf('\n') < 0 && cell.indexOf('\r') < 0) {
+			return cell;
+		}
+		
+		// Escape existing double quotes by doubling them, then wrap the cell in double quotes
+		return "\"" + cell.replace("\"", "\"\"") + "\"";
+	}
 }
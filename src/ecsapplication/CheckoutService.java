@@ -0,0 +1,427 @@
+/**
+ * CheckoutService.java
+ * Saves equipment checkouts so that two clerks can never loan out the
+ * same item, without locking the equipment table.
+ *
+ * Each checkout runs in one database transaction:
+ *   1. Read the item's status and row version.
+ *   2. UPDATE the item to Loaned only WHERE it is still Available and
+ *      still at that version (optimistic concurrency), incrementing the
+ *      version. If no row was updated, another checkout won the race.
+ *   3. INSERT the transaction, append a CHECKED_OUT event to the outbox
+ *      (see OutboxDAO) and commit.
+ * A lost race is rolled back and retried with a fresh read: if the item
+ * has been loaned the result is UNAVAILABLE, otherwise (e.g., it was
+ * returned again in the meantime) the checkout is attempted again.
+ * Deadlocks and lock timeouts reported by the database are retried the
+ * same way, after a short random back-off.
+ *
+ * Every other write to an equipment row increments the same version
+ * (see EquipmentDAO), and orders and their cancellations only change an
+ * item that is still Available or Ordered, so a checkout that read an
+ * older version loses, and an order can never overwrite a loan.
+ *
+ * checkOutBatch() lends several items to one employee in a single
+ * database transaction: one batched UPDATE for the equipment and one
+ * batched INSERT each for the transactions and their outbox events. It
+ * is all-or-nothing; if any item is no longer available, nothing is
+ * saved.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect; tests create their own instances on H2.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used by the checkout transaction
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+
+// Import collections, counters and random back-off
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Import enumerations for equipment status
+import ecsapplication.enums.EquipmentStatus;
+
+public class CheckoutService {
+
+	// Default number of attempts before a checkout gives up with CONFLICT
+	public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+	// Upper bound of the random back-off before a retry (multiplied by the attempt number)
+	private static final int BACKOFF_MS = 5;
+
+	private static CheckoutService instance;   // Singular instance
+
+	private final AsyncService.ConnectionSource connections;   // Source of connections
+	private final int maxAttempts;                             // Attempts per checkout
+
+	// Metrics
+	private final AtomicLong checkoutCount = new AtomicLong();      // Successful checkouts
+	private final AtomicLong unavailableCount = new AtomicLong();   // Checkouts refused because the item was not available
+	private final AtomicLong conflictCount = new AtomicLong();      // Attempts that lost a race or hit a deadlock
+	private final AtomicLong retryCount = new AtomicLong();         // Attempts retried
+
+	// Possible outcomes of a checkout
+	public enum Outcome {
+		CHECKED_OUT,   // The item is now loaned and the transaction is saved
+		UNAVAILABLE,   // The item is not available (e.g., someone else checked it out first)
+		NOT_FOUND,     // No equipment with this ID
+		CONFLICT       // Every attempt lost a race; nothing was saved
+	}
+
+	// Constructor for a service with its own connection source (used by tests)
+	public CheckoutService(AsyncService.ConnectionSource connections, int maxAttempts) {
+		this.connections = connections;
+		this.maxAttempts = maxAttempts;
+	}
+
+	// Public method to obtain the single instance used by the application
+	public static synchronized CheckoutService getInstance() {
+		if (instance == null) {
+			instance = new CheckoutService(() -> DBConnect.getInstance().getConnection(), DEFAULT_MAX_ATTEMPTS);
+		}
+		return instance;
+	}
+
+	// ========================= METHOD: checkOut ======================= //
+	// Saves a checkout created by Employee.checkOut(). On success the
+	// transaction's ID is set and the equipment is Loaned in the database
+	// and in the equipment cache. Any other outcome leaves the database
+	// unchanged. Throws SQLException for errors that are not retried.
+	// ================================================================== //
+	public CheckoutResult checkOut(Transaction txn) throws SQLException {
+		int equipmentID = txn.getEquipment().getEquipmentID();
+
+		for (int attempt = 1; ; attempt++) {
+			try {
+				Outcome outcome = tryCheckOut(txn);
+				if (outcome != null) {
+					return finish(outcome, txn, attempt);
+				}
+			} catch (SQLException e) {
+				if (!isRetryable(e) || attempt >= maxAttempts) {
+					throw e;
+				}
+			}
+
+			// Lost a race: back off briefly, then read the item again
+			conflictCount.incrementAndGet();
+			if (attempt >= maxAttempts) {
+				System.out.println("Checkout of equipment " + equipmentID + " gave up after " + attempt + " attempts");
+				return finish(Outcome.CONFLICT, txn, attempt);
+			}
+			retryCount.incrementAndGet();
+			backOff(attempt);
+		}
+	}
+
+	// ====================== METHOD: checkOutBatch ===================== //
+	// Lends every piece of equipment in the list to one employee in a
+	// single database transaction. Either all items are checked out (each
+	// transaction gets its generated ID and is added to the employee's
+	// list) or, if any item is unavailable, nothing is saved and the
+	// result lists the unavailable items. Throws SQLException for errors
+	// that are not retried.
+	// ================================================================== //
+	public BatchCheckoutResult checkOutBatch(Employee employee, List<Equipment> equipment) throws SQLException {
+
+		// Lock rows in equipment ID order so concurrent batches cannot deadlock
+		List<Transaction> txns = new ArrayList<>();
+		List<Equipment> sorted = new ArrayList<>(equipment);
+		sorted.sort(Comparator.comparingInt(Equipment::getEquipmentID));
+		for (Equipment eq : sorted) {
+			txns.add(employee.newCheckout(eq));
+		}
+
+		int attempt = 1;
+		for (; ; attempt++) {
+			try {
+				List<Integer> unavailable = tryCheckOutBatch(txns);
+				if (!unavailable.isEmpty()) {
+					unavailableCount.addAndGet(unavailable.size());
+					return new BatchCheckoutResult(Outcome.UNAVAILABLE, txns, unavailable, attempt);
+				}
+				break;
+			} catch (SQLException e) {
+				if (!isRetryable(e) || attempt >= maxAttempts) {
+					throw e;
+				}
+			}
+
+			// Deadlock or lock timeout: back off briefly and try the whole batch again
+			conflictCount.incrementAndGet();
+			retryCount.incrementAndGet();
+			backOff(attempt);
+		}
+
+		// Saved: track the transactions and show the items as loaned
+		checkoutCount.addAndGet(txns.size());
+		Diagnostics.recordCheckouts(txns.size());
+		EquipmentCache cache = EquipmentDAO.getCache();
+		for (Transaction txn : txns) {
+			txn.getEquipment().setStatus(EquipmentStatus.Loaned);
+			if (cache != null) {
+				cache.applyStatus(txn.getEquipment().getEquipmentID(), EquipmentStatus.Loaned);
+			}
+		}
+		employee.getEmpTransaction().addAll(txns);
+		return new BatchCheckoutResult(Outcome.CHECKED_OUT, txns, List.of(), attempt);
+	}
+
+	// Runs one batch checkout attempt in its own database transaction. Returns
+	// the IDs of the items that could not be loaned (empty if committed).
+	private List<Integer> tryCheckOutBatch(List<Transaction> txns) throws SQLException {
+		List<Integer> equipmentIDs = new ArrayList<>();
+		for (Transaction txn : txns) {
+			equipmentIDs.add(txn.getEquipment().getEquipmentID());
+		}
+
+		try (Connection conn = connections.getConnection()) {
+			conn.setAutoCommit(false);  // Begin transaction
+			try {
+				// 1. Loan every item that is still available (one batch)
+				List<Integer> unavailable = EquipmentDAO.loanAllIfAvailable(conn, equipmentIDs);
+				if (!unavailable.isEmpty()) {
+					conn.rollback();
+					return unavailable;
+				}
+
+				// 2. Record all transactions and their events (one batch each) and commit everything together
+				TransactionDAO.insertTransactions(conn, txns);
+				List<OutboxEvent> events = new ArrayList<>();
+				for (Transaction txn : txns) {
+					events.add(OutboxEvent.checkedOut(txn));
+				}
+				OutboxDAO.appendAll(conn, events);
+				conn.commit();
+				return unavailable;
+
+			} catch (SQLException e) {
+				conn.rollback();
+
+				// Generated IDs of a rolled-back insert are not valid
+				for (Transaction txn : txns) {
+					txn.setTransactionID(0);
+				}
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		}
+	}
+
+	// Runs one checkout attempt in its own database transaction. Returns the
+	// outcome, or null if the conditional update lost a race (rolled back).
+	private Outcome tryCheckOut(Transaction txn) throws SQLException {
+		int equipmentID = txn.getEquipment().getEquipmentID();
+
+		try (Connection conn = connections.getConnection()) {
+			conn.setAutoCommit(false);  // Begin transaction
+			try {
+				// 1. Read the current status and version
+				EquipmentDAO.EquipmentVersion current = EquipmentDAO.getStatusAndVersion(conn, equipmentID);
+				if (current == null) {
+					conn.rollback();
+					return Outcome.NOT_FOUND;
+				}
+				if (current.status() != EquipmentStatus.Available) {
+					conn.rollback();
+					return Outcome.UNAVAILABLE;
+				}
+
+				// 2. Loan the item only if nobody changed it since the read
+				if (!EquipmentDAO.loanIfAvailable(conn, equipmentID, current.version())) {
+					conn.rollback();
+					return null;
+				}
+
+				// 3. Record the transaction and its event and commit all changes together
+				TransactionDAO.insertTransaction(conn, txn);
+				OutboxDAO.append(conn, OutboxEvent.checkedOut(txn));
+				conn.commit();
+				return Outcome.CHECKED_OUT;
+
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		}
+	}
+
+	// Updates counters and the equipment cache, and builds the result
+	private CheckoutResult finish(Outcome outcome, Transaction txn, int attempts) {
+		if (outcome == Outcome.CHECKED_OUT) {
+			checkoutCount.incrementAndGet();
+			Diagnostics.recordCheckouts(1);
+			txn.getEquipment().setStatus(EquipmentStatus.Loaned);
+
+			// The commit succeeded, so the cache can show the item as loaned
+			EquipmentCache cache = EquipmentDAO.getCache();
+			if (cache != null) {
+				cache.applyStatus(txn.getEquipment().getEquipmentID(), EquipmentStatus.Loaned);
+			}
+		} else if (outcome == Outcome.UNAVAILABLE) {
+			unavailableCount.incrementAndGet();
+		}
+		return new CheckoutResult(outcome, txn, attempts);
+	}
+
+	// True for deadlocks, lock timeouts and other errors that may succeed on retry
+	static boolean isRetryable(SQLException e) {
+		String state = e.getSQLState();
+		return e instanceof SQLTransientException
+				|| (state != null && (state.startsWith("40")      // Transaction rollback (e.g., MySQL deadlock)
+						|| state.equals("HYT00")                  // Lock timeout (H2)
+						|| state.equals("90131")));               // Concurrent update (H2)
+	}
+
+	// Sleeps for a short random time that grows with the attempt number
+	private static void backOff(int attempt) {
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextInt(BACKOFF_MS * attempt + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// ======================================================================
+	// Metrics
+	// ======================================================================
+
+	// Number of successful checkouts
+	public long getCheckoutCount() {
+		return checkoutCount.get();
+	}
+
+	// Number of checkouts refused because the item was not available
+	public long getUnavailableCount() {
+		return unavailableCount.get();
+	}
+
+	// Number of attempts that lost a race or hit a deadlock
+	public long getConflictCount() {
+		return conflictCount.get();
+	}
+
+	// Number of attempts that were retried
+	public long getRetryCount() {
+		return retryCount.get();
+	}
+
+	// ===================== CLASS: CheckoutResult ===================== //
+	// Outcome of one checkout and the number of attempts it took
+	// ================================================================= //
+	public static final class CheckoutResult {
+
+		private final Outcome outcome;
+		private final Transaction transaction;
+		private final int attempts;
+
+		CheckoutResult(Outcome outcome, Transaction transaction, int attempts) {
+			this.outcome = outcome;
+			this.transaction = transaction;
+			this.attempts = attempts;
+		}
+
+		public Outcome getOutcome() {
+			return outcome;
+		}
+
+		// True if the item was checked out
+		public boolean isCheckedOut() {
+			return outcome == Outcome.CHECKED_OUT;
+		}
+
+		// The saved transaction (only meaningful when checked out)
+		public Transaction getTransaction() {
+			return transaction;
+		}
+
+		public int getAttempts() {
+			return attempts;
+		}
+
+		// Message shown to the user
+		public String getMessage() {
+			switch (outcome) {
+				case CHECKED_OUT:
+					return "Successful checkout for: " + transaction.getEquipment().getEquipmentName();
+				case UNAVAILABLE:
+					return "Checkout failed: this equipment is no longer available.";
+				case NOT_FOUND:
+					return "Checkout failed: equipment not found.";
+				default:
+					return "Checkout failed: the equipment is busy. Please try again.";
+			}
+		}
+	}
+
+	// ================== CLASS: BatchCheckoutResult =================== //
+	// Outcome of one batch checkout: CHECKED_OUT (every item) or
+	// UNAVAILABLE (nothing saved), with the items that were unavailable
+	// ================================================================= //
+	public static final class BatchCheckoutResult {
+
+		private final Outcome outcome;
+		private final List<Transaction> transactions;
+		private final List<Integer> unavailableIDs;
+		private final int attempts;
+
+		BatchCheckoutResult(Outcome outcome, List<Transaction> transactions, List<Integer> unavailableIDs, int attempts) {
+			this.outcome = outcome;
+			this.transactions = List.copyOf(transactions);
+			this.unavailableIDs = List.copyOf(unavailableIDs);
+			this.attempts = attempts;
+		}
+
+		public Outcome getOutcome() {
+			return outcome;
+		}
+
+		// True if every item was checked out
+		public boolean isCheckedOut() {
+			return outcome == Outcome.CHECKED_OUT;
+		}
+
+		// One transaction per item, in equipment ID order (saved only when checked out)
+		public List<Transaction> getTransactions() {
+			return transactions;
+		}
+
+		// Generated transaction IDs, in equipment ID order (empty unless checked out)
+		public List<Integer> getTransactionIDs() {
+			List<Integer> ids = new ArrayList<>();
+			if (isCheckedOut()) {
+				for (Transaction txn : transactions) {
+					ids.add(txn.getTransactionID());
+				}
+			}
+			return ids;
+		}
+
+		// IDs of the equipment that was no longer available
+		public List<Integer> getUnavailableIDs() {
+			return unavailableIDs;
+		}
+
+		public int getAttempts() {
+			return attempts;
+		}
+
+		// Message shown to the user
+		public String getMessage() {
+			if (isCheckedOut()) {
+				return "Successful checkout of " + transactions.size() + " items.";
+			}
+			return "Checkout failed: equipment " + unavailableIDs + " is no longer available. Nothing was checked out.";
+		}
+	}
+}
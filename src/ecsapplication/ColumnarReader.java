@@ -0,0 +1,206 @@
+/**
+ * ColumnarReader.java
+ * This class reads the ECS columnar files written by the streamed
+ * exports (see ColumnarWriter for the format). Rows are returned one at
+ * a time as text, the same way they appear in the CSV export: numbers
+ * in decimal, dates as yyyy-MM-dd, and null for empty values. Only one
+ * block of rows is held in memory at a time.
+ *
+ * Example:
+ *   try (ColumnarReader in = new ColumnarReader(path)) {
+ *       String[] row;
+ *       while ((row = in.next()) != null) { ... }
+ *   }
+ */
+
+package ecsapplication;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ColumnarReader implements Closeable {
+
+	private final DataInputStream in;            // Buffered file stream
+	private final String[] names;                // Column names
+	private final int[] kinds;                   // Kind of each column (see ColumnarWriter)
+	private final long[] previous;               // Last integer or epoch day, per column
+	private final List<List<String>> dictionaries; // Values by code, per dictionary column
+
+	private final byte[][] blocks;               // Encoded values of the current block, per column
+	private final int[] positions;               // Read position in each column's block
+	private int blockRowsLeft = 0;               // Rows not yet returned from the current block
+	private boolean finished = false;            // True once the end marker was read
+
+	// ========================= CONSTRUCTOR: ColumnarReader ================== //
+	// Opens a columnar file and reads its header. Throws IOException if the
+	// file is not an ECS columnar file or has an unsupported version.
+	// ======================================================================== //
+	public ColumnarReader(Path file) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+		try {
+			byte[] magic = new byte[ColumnarWriter.MAGIC.length];
+			in.readFully(magic);
+			if (!Arrays.equals(magic, ColumnarWriter.MAGIC)) {
+				throw new IOException("Not an ECS columnar file: " + file);
+			}
+			long version = readVarLong(in);
+			if (version != ColumnarWriter.VERSION) {
+				throw new IOException("Unsupported columnar file version " + version + ": " + file);
+			}
+
+			// Kind and name of each column
+			int columns = (int) readVarLong(in);
+			this.names = new String[columns];
+			this.kinds = new int[columns];
+			this.previous = new long[columns];
+			this.dictionaries = new ArrayList<>();
+			this.blocks = new byte[columns][];
+			this.positions = new int[columns];
+			for (int col = 0; col < columns; col++) {
+				kinds[col] = (int) readVarLong(in);
+				names[col] = readString(in);
+				dictionaries.add(new ArrayList<>());
+			}
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	// Returns the column names, in file order
+	public String[] getColumnNames() {
+		return names.clone();
+	}
+
+	// ============================== METHOD: next ============================ //
+	// Returns the next row, or null after the last row.
+	// ======================================================================== //
+	public String[] next() throws IOException {
+		if (blockRowsLeft == 0 && !readBlock()) {
+			return null;
+		}
+		blockRowsLeft--;
+
+		String[] row = new String[names.length];
+		for (int col = 0; col < names.length; col++) {
+			long code = readVarLong(col);
+			if (code == ColumnarWriter.NULL_CODE) {
+				continue;   // Null value
+			}
+
+			switch (kinds[col]) {
+			case ColumnarWriter.KIND_INTEGER:
+				row[col] = Long.toString(undoDelta(col, code));
+				break;
+			case ColumnarWriter.KIND_DATE:
+				row[col] = LocalDate.ofEpochDay(undoDelta(col, code)).toString();
+				break;
+			default:
+				List<String> dictionary = dictionaries.get(col);
+				if (code == ColumnarWriter.LITERAL_CODE) {
+
+					// Value written in full; add it to the dictionary as the writer did
+					String value = readString(col);
+					if (dictionary.size() < ColumnarWriter.DICTIONARY_LIMIT) {
+						dictionary.add(value);
+					}
+					row[col] = value;
+				} else {
+					row[col] = dictionary.get((int) code - 2);
+				}
+			}
+		}
+		return row;
+	}
+
+	// Reads the next block into memory; false at the end of the file
+	private boolean readBlock() throws IOException {
+		if (finished) {
+			return false;
+		}
+		int rows = (int) readVarLong(in);
+		if (rows == 0) {
+			finished = true;
+			return false;
+		}
+		for (int col = 0; col < names.length; col++) {
+			blocks[col] = new byte[(int) readVarLong(in)];
+			in.readFully(blocks[col]);
+			positions[col] = 0;
+		}
+		blockRowsLeft = rows;
+		return true;
+	}
+
+	// Turns a delta code back into the column's next number
+	private long undoDelta(int col, long code) {
+		long zigzag = code - 1;
+		previous[col] += (zigzag >>> 1) ^ -(zigzag & 1);
+		return previous[col];
+	}
+
+	// Reads an unsigned variable-length integer from a column's block
+	private long readVarLong(int col) throws IOException {
+		byte[] block = blocks[col];
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			if (positions[col] >= block.length) {
+				throw new EOFException("Column " + names[col] + " ended early");
+			}
+			int b = block[positions[col]++];
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+
+	// Reads a length-prefixed UTF-8 string from a column's block
+	private String readString(int col) throws IOException {
+		int length = (int) readVarLong(col);
+		if (positions[col] + length > blocks[col].length) {
+			throw new EOFException("Column " + names[col] + " ended early");
+		}
+		String value = new String(blocks[col], positions[col], length, StandardCharsets.UTF_8);
+		positions[col] += length;
+		return value;
+	}
+
+	// Reads an unsigned variable-length integer from the file
+	private static long readVarLong(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException("Columnar file ended early");
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+
+	// Reads a length-prefixed UTF-8 string from the file
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[(int) readVarLong(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,201 @@
+/**
+ * ColumnarWriter.java
+ * This class writes the rows of a streamed export (see CSVExporter) in
+ * the compact ECS columnar format used for the nightly analytics exports.
+ * Rows are collected into blocks of BLOCK_ROWS, and each block is written
+ * column by column, so a reader can skip the columns it does not need.
+ *
+ * Each column is encoded by its SQL type:
+ *   - Integer columns (e.g., transaction IDs) are delta-encoded.
+ *   - Date columns are delta-encoded as days since the previous date.
+ *   - Every other column (names, skills, conditions, statuses) is
+ *     dictionary-encoded: a value is written in full the first time it
+ *     appears and as a small code after that, so enum columns take one
+ *     byte per row.
+ *
+ * File layout (all numbers are unsigned variable-length integers):
+ *   "ECSC", version, column count, then per column its kind and name;
+ *   then blocks of: row count, and per column its byte length and bytes;
+ *   then a row count of 0 to mark the end.
+ *
+ * ColumnarReader reads the files back.
+ */
+
+package ecsapplication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ColumnarWriter implements CSVExporter.RowWriter {
+
+	// Start of every columnar file, followed by the format version
+	static final byte[] MAGIC = { 'E', 'C', 'S', 'C' };
+	static final int VERSION = 1;
+
+	// Rows per block; bounds the memory used while writing and reading
+	static final int BLOCK_ROWS = 16_384;
+
+	// Most distinct values kept per dictionary; later new values are always written in full
+	static final int DICTIONARY_LIMIT = 65_536;
+
+	// Column kinds
+	static final int KIND_INTEGER = 1;
+	static final int KIND_DATE = 2;
+	static final int KIND_DICTIONARY = 3;
+
+	// Value codes: 0 is null; dictionary columns use 1 for a value written in full
+	static final int NULL_CODE = 0;
+	static final int LITERAL_CODE = 1;
+
+	private final DataOutputStream out;                   // Buffered file stream
+	private final int[] kinds;                            // Kind of each column
+	private final ByteArrayOutputStream[] blocks;         // Encoded values of the current block, per column
+	private final long[] previous;                        // Last integer or epoch day, per column
+	private final List<Map<String, Integer>> dictionaries; // Value codes, per dictionary column
+	private int blockRows = 0;                            // Rows in the current block
+
+	ColumnarWriter(OutputStream file, String[] names, ResultSetMetaData meta) throws IOException, SQLException {
+		this.out = new DataOutputStream(file);
+		this.kinds = new int[names.length];
+		this.blocks = new ByteArrayOutputStream[names.length];
+		this.previous = new long[names.length];
+		this.dictionaries = new ArrayList<>();
+
+		// Header: magic, version, then the kind and name of each column
+		out.write(MAGIC);
+		writeVarLong(out, VERSION);
+		writeVarLong(out, names.length);
+		for (int col = 0; col < names.length; col++) {
+			kinds[col] = kindOf(meta.getColumnType(col + 1));
+			blocks[col] = new ByteArrayOutputStream();
+			dictionaries.add(new HashMap<>());
+			writeVarLong(out, kinds[col]);
+			writeString(out, names[col]);
+		}
+	}
+
+	// Maps a JDBC column type to the encoding used for it
+	private static int kindOf(int sqlType) {
+		switch (sqlType) {
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT:
+			return KIND_INTEGER;
+		case Types.DATE:
+			return KIND_DATE;
+		default:
+			return KIND_DICTIONARY;
+		}
+	}
+
+	@Override
+	public void writeRow(ResultSet rs) throws IOException, SQLException {
+		for (int col = 0; col < kinds.length; col++) {
+			ByteArrayOutputStream block = blocks[col];
+
+			switch (kinds[col]) {
+			case KIND_INTEGER: {
+				long value = rs.getLong(col + 1);
+				writeDelta(block, col, rs.wasNull() ? null : value);
+				break;
+			}
+			case KIND_DATE: {
+				Date date = rs.getDate(col + 1);
+				writeDelta(block, col, date == null ? null : date.toLocalDate().toEpochDay());
+				break;
+			}
+			default:
+				writeDictionary(block, col, rs.getString(col + 1));
+			}
+		}
+
+		// Write the block out once it is full
+		if (++blockRows == BLOCK_ROWS) {
+			flushBlock();
+		}
+	}
+
+	// Writes a number as the (zig-zag encoded) difference from the column's previous number
+	private void writeDelta(ByteArrayOutputStream block, int col, Long value) throws IOException {
+		if (value == null) {
+			writeVarLong(block, NULL_CODE);
+			return;
+		}
+		long delta = value - previous[col];
+		writeVarLong(block, ((delta << 1) ^ (delta >> 63)) + 1);
+		previous[col] = value;
+	}
+
+	// Writes a text value as its dictionary code, or in full the first time it appears
+	private void writeDictionary(ByteArrayOutputStream block, int col, String value) throws IOException {
+		if (value == null) {
+			writeVarLong(block, NULL_CODE);
+			return;
+		}
+		Map<String, Integer> dictionary = dictionaries.get(col);
+		Integer code = dictionary.get(value);
+		if (code != null) {
+			writeVarLong(block, code);
+			return;
+		}
+
+		// New value: written in full; the reader adds it to its dictionary the same way
+		writeVarLong(block, LITERAL_CODE);
+		writeString(block, value);
+		if (dictionary.size() < DICTIONARY_LIMIT) {
+			dictionary.put(value, dictionary.size() + 2);
+		}
+	}
+
+	// Writes the current block: its row count, then each column's length and bytes
+	private void flushBlock() throws IOException {
+		writeVarLong(out, blockRows);
+		for (ByteArrayOutputStream block : blocks) {
+			writeVarLong(out, block.size());
+			block.writeTo(out);
+			block.reset();
+		}
+		blockRows = 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (blockRows > 0) {
+				flushBlock();
+			}
+			writeVarLong(out, 0);   // End of file
+		} finally {
+			out.close();
+		}
+	}
+
+	// Writes an unsigned variable-length integer, 7 bits per byte
+	static void writeVarLong(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	// Writes a string as its UTF-8 byte length followed by the bytes
+	static void writeString(OutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+}
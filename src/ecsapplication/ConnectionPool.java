@@ -0,0 +1,589 @@
+/**
+ * ConnectionPool.java
+ * A bounded pool of physical JDBC connections used by DBConnect.
+ * Callers borrow a connection with getConnection() and give it back
+ * by closing it, so the existing try-with-resources blocks throughout
+ * the ECS system return connections to the pool instead of tearing
+ * down the socket to MySQL.
+ *
+ * Features:
+ *   -Minimum and maximum pool size
+ *   -Validation of idle connections when they are borrowed
+ *   -Eviction of connections that have been idle for too long
+ *   -Leak detection for connections that are held past a threshold
+ *   -Wait-time and usage metrics
+ *   -A prepared-statement cache per physical connection (see StatementCache)
+ */
+
+package ecsapplication;
+
+// Import JDBC classes for physical connections
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+// Import reflection classes used to build the pooled connection handle
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+// Import collection framework and concurrency utilities
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool {
+
+	// Default pool settings
+	public static final int DEFAULT_MIN_SIZE = 2;                  // Connections kept open at all times
+	public static final int DEFAULT_MAX_SIZE = 10;                 // Upper bound on open connections
+	public static final long DEFAULT_BORROW_TIMEOUT_MS = 10_000;   // Max time a caller waits for a connection
+	public static final long DEFAULT_IDLE_TIMEOUT_MS = 300_000;    // Idle connections above minSize are closed after this
+	public static final long DEFAULT_LEAK_THRESHOLD_MS = 60_000;   // Connections held longer than this are reported
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;     // Prepared statements cached per connection
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;       // Timeout passed to Connection.isValid()
+	private static final long HOUSEKEEPING_INTERVAL_MS = 30_000;   // How often eviction and leak checks run
+
+	// Connection settings
+	private final String url;
+	private final String username;
+	private final String password;
+
+	// Pool settings
+	private final int minSize;
+	private final int maxSize;
+	private final long borrowTimeoutMillis;
+	private final long idleTimeoutMillis;
+	private final long leakThresholdMillis;
+	private final int statementCacheSize;
+
+	// Pool state (guarded by 'this')
+	private final Deque<PooledConnection> idle = new ArrayDeque<>();    // Most recently returned first
+	private final Set<PooledConnection> borrowed = new HashSet<>();     // Connections currently handed out
+	private int openCount;                                              // Physical connections open or being opened
+	private boolean closed;
+
+	// Background thread for idle eviction and leak detection
+	private final ScheduledExecutorService housekeeper;
+
+	// Metrics
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong evictedCount = new AtomicLong();
+	private final AtomicLong validationFailureCount = new AtomicLong();
+	private final AtomicLong leakCount = new AtomicLong();
+	private final AtomicLong statementCacheHits = new AtomicLong();
+	private final AtomicLong statementCacheMisses = new AtomicLong();
+	private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+	// Constructor using the default pool settings
+	public ConnectionPool(String url, String username, String password) throws SQLException {
+		this(url, username, password, DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE,
+				DEFAULT_BORROW_TIMEOUT_MS, DEFAULT_IDLE_TIMEOUT_MS, DEFAULT_LEAK_THRESHOLD_MS);
+	}
+
+	// Constructor with pool settings and the default statement cache size
+	// A leak threshold of 0 disables leak detection
+	public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+			long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) throws SQLException {
+		this(url, username, password, minSize, maxSize, borrowTimeoutMillis, idleTimeoutMillis,
+				leakThresholdMillis, DEFAULT_STATEMENT_CACHE_SIZE);
+	}
+
+	// Full constructor with all pool settings
+	// A statement cache size of 0 disables statement caching
+	public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+			long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+			int statementCacheSize) throws SQLException {
+
+		// Validate sizes before opening anything
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+		}
+
+		this.url = url;
+		this.username = username;
+		this.password = password;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.leakThresholdMillis = leakThresholdMillis;
+		this.statementCacheSize = statementCacheSize;
+
+		// Open the minimum number of connections up front so the first click does not pay for it
+		try {
+			for (int i = 0; i < minSize; i++) {
+				PooledConnection pc = new PooledConnection(openPhysical());
+				synchronized (this) {
+					openCount++;
+					idle.addFirst(pc);
+				}
+			}
+		} catch (SQLException | RuntimeException e) {
+			// Close the connections opened so far; the pool is never handed out
+			List<PooledConnection> opened;
+			synchronized (this) {
+				opened = new ArrayList<>(idle);
+				idle.clear();
+			}
+			for (PooledConnection pc : opened) {
+				discard(pc);
+			}
+			throw e;
+		}
+
+		// Start the housekeeping thread as a daemon so it never keeps the JVM alive
+		housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ecs-pool-housekeeper");
+			t.setDaemon(true);
+			return t;
+		});
+		housekeeper.scheduleWithFixedDelay(this::housekeep,
+				HOUSEKEEPING_INTERVAL_MS, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+	}
+
+	// ======================= METHOD: getConnection ======================= //
+	// Borrows a connection from the pool. Idle connections are validated
+	// before being handed out; a new one is opened if none are idle and the
+	// pool is below maxSize. Otherwise the caller waits until a connection
+	// is returned or the borrow timeout expires. Closing the returned
+	// connection gives it back to the pool.
+	// ===================================================================== //
+	public Connection getConnection() throws SQLException {
+
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+		while (true) {
+			PooledConnection candidate = null;
+
+			synchronized (this) {
+				// Wait while nothing is idle and the pool is already at its maximum size
+				while (!closed && idle.isEmpty() && openCount >= maxSize) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						timeoutCount.incrementAndGet();
+						throw new SQLException("Timed out after " + borrowTimeoutMillis
+								+ " ms waiting for a database connection (max pool size " + maxSize + ")");
+					}
+					try {
+						TimeUnit.NANOSECONDS.timedWait(this, remaining);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new SQLException("Interrupted while waiting for a database connection", e);
+					}
+				}
+
+				if (closed) {
+					throw new SQLException("Connection pool is closed");
+				}
+
+				// Take the most recently used idle connection, or reserve a slot for a new one
+				candidate = idle.pollFirst();
+				if (candidate == null) {
+					openCount++;
+				}
+			}
+
+			if (candidate == null) {
+				// Open a new physical connection outside the lock
+				try {
+					candidate = new PooledConnection(openPhysical());
+				} catch (SQLException e) {
+					synchronized (this) {
+						openCount--;
+						notifyAll();
+					}
+					throw e;
+				}
+			} else if (!candidate.isValid()) {
+				// Stale connection (e.g., server closed it); discard and try again
+				validationFailureCount.incrementAndGet();
+				discard(candidate);
+				continue;
+			}
+
+			// Record how long the caller waited for a connection
+			long waited = System.nanoTime() - start;
+			borrowCount.incrementAndGet();
+			totalWaitNanos.addAndGet(waited);
+			maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+			synchronized (this) {
+				borrowed.add(candidate);
+				return candidate.lease(leakThresholdMillis > 0);
+			}
+		}
+	}
+
+	// ===================== METHOD: release ===================== //
+	// Called when a borrowed handle is closed. Any uncommitted work
+	// is rolled back and auto-commit is restored so the next
+	// borrower starts from a clean connection.
+	// =========================================================== //
+	private void release(PooledConnection pc) {
+		boolean reusable;
+		try {
+			Connection physical = pc.physical;
+			if (!physical.getAutoCommit()) {
+				physical.rollback();
+				physical.setAutoCommit(true);
+			}
+			reusable = !physical.isClosed();
+		} catch (SQLException e) {
+			e.printStackTrace();
+			reusable = false;
+		}
+
+		synchronized (this) {
+			borrowed.remove(pc);
+			if (reusable && !closed) {
+				pc.lastUsedMillis = System.currentTimeMillis();
+				idle.addFirst(pc);
+				notifyAll();
+				return;
+			}
+		}
+		discard(pc);
+	}
+
+	// Closes a physical connection and frees its slot in the pool
+	private void discard(PooledConnection pc) {
+		try {
+			if (pc.statements != null) {
+				pc.statements.closeAll();
+			}
+			pc.physical.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		synchronized (this) {
+			openCount--;
+			notifyAll();
+		}
+	}
+
+	// Opens a new physical connection to the database
+	private Connection openPhysical() throws SQLException {
+		Connection conn = DriverManager.getConnection(url, username, password);
+		createdCount.incrementAndGet();
+		return conn;
+	}
+
+	// ===================== METHOD: housekeep ===================== //
+	// Runs periodically on the housekeeping thread. Closes connections
+	// that have been idle longer than idleTimeout (never going below
+	// minSize), tops the pool back up to minSize, and reports any
+	// connections that have been borrowed longer than leakThreshold.
+	// ============================================================= //
+	void housekeep() {
+		long now = System.currentTimeMillis();
+		List<PooledConnection> toEvict = new ArrayList<>();
+		List<PooledConnection> leaked = new ArrayList<>();
+		int missing;
+
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+
+			// Oldest idle connections are at the tail of the deque
+			while (openCount - toEvict.size() > minSize && !idle.isEmpty()
+					&& now - idle.peekLast().lastUsedMillis > idleTimeoutMillis) {
+				toEvict.add(idle.pollLast());
+			}
+
+			// Collect connections held past the leak threshold (each is reported once per lease)
+			if (leakThresholdMillis > 0) {
+				for (PooledConnection pc : borrowed) {
+					if (!pc.leakReported && now - pc.borrowedAtMillis > leakThresholdMillis) {
+						pc.leakReported = true;
+						leaked.add(pc);
+					}
+				}
+			}
+
+			missing = minSize - (openCount - toEvict.size());
+		}
+
+		// Close evicted connections outside the lock
+		for (PooledConnection pc : toEvict) {
+			evictedCount.incrementAndGet();
+			discard(pc);
+		}
+
+		// Report leaks with the stack trace of the code that borrowed the connection
+		for (PooledConnection pc : leaked) {
+			leakCount.incrementAndGet();
+			System.out.println("Possible connection leak: connection held for "
+					+ (now - pc.borrowedAtMillis) + " ms");
+			if (pc.borrowSite != null) {
+				pc.borrowSite.printStackTrace();
+			}
+		}
+
+		// Refill the pool to its minimum size
+		for (int i = 0; i < missing; i++) {
+			try {
+				PooledConnection pc = new PooledConnection(openPhysical());
+				synchronized (this) {
+					if (closed || openCount >= minSize) {
+						pc.physical.close();
+						break;
+					}
+					openCount++;
+					idle.addLast(pc);
+					notifyAll();
+				}
+			} catch (SQLException e) {
+				e.printStackTrace();
+				break;
+			}
+		}
+	}
+
+	// ======================= METHOD: close ======================= //
+	// Shuts the pool down. Idle connections are closed immediately;
+	// borrowed connections are closed when they are returned.
+	// ============================================================= //
+	public void close() {
+		List<PooledConnection> toClose;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			toClose = new ArrayList<>(idle);
+			idle.clear();
+			notifyAll();
+		}
+		housekeeper.shutdownNow();
+		for (PooledConnection pc : toClose) {
+			discard(pc);
+		}
+	}
+
+	// Metric getters
+	// Number of physical connections currently open
+	public synchronized int getOpenCount() {
+		return openCount;
+	}
+
+	// Number of connections waiting in the pool
+	public synchronized int getIdleCount() {
+		return idle.size();
+	}
+
+	// Number of connections currently borrowed
+	public synchronized int getActiveCount() {
+		return borrowed.size();
+	}
+
+	// Minimum pool size
+	public int getMinSize() {
+		return minSize;
+	}
+
+	// Maximum pool size
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	// Total number of successful borrows
+	public long getBorrowCount() {
+		return borrowCount.get();
+	}
+
+	// Total time callers spent waiting for connections, in milliseconds
+	public long getTotalWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+	}
+
+	// Average wait per borrow, in milliseconds
+	public double getAverageWaitMillis() {
+		long count = borrowCount.get();
+		return count == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / count;
+	}
+
+	// Longest single wait for a connection, in milliseconds
+	public long getMaxWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+	}
+
+	// Number of borrows that gave up after the borrow timeout
+	public long getTimeoutCount() {
+		return timeoutCount.get();
+	}
+
+	// Number of physical connections opened over the pool's lifetime
+	public long getCreatedCount() {
+		return createdCount.get();
+	}
+
+	// Number of idle connections closed by eviction
+	public long getEvictedCount() {
+		return evictedCount.get();
+	}
+
+	// Number of idle connections that failed validation on borrow
+	public long getValidationFailureCount() {
+		return validationFailureCount.get();
+	}
+
+	// Number of leaked connections reported
+	public long getLeakCount() {
+		return leakCount.get();
+	}
+
+	// Number of prepareStatement calls served from a statement cache
+	public long getStatementCacheHits() {
+		return statementCacheHits.get();
+	}
+
+	// Number of prepareStatement calls that had to prepare a new statement
+	public long getStatementCacheMisses() {
+		return statementCacheMisses.get();
+	}
+
+	// Number of statements evicted from statement caches
+	public long getStatementCacheEvictions() {
+		return statementCacheEvictions.get();
+	}
+
+	// Fraction of prepareStatement calls served from a statement cache
+	public double getStatementCacheHitRatio() {
+		long hits = statementCacheHits.get();
+		long total = hits + statementCacheMisses.get();
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	// Returns a one-line summary of the pool state
+	@Override
+	public String toString() {
+		return "ConnectionPool{" +
+				"open=" + getOpenCount() +
+				", idle=" + getIdleCount() +
+				", active=" + getActiveCount() +
+				", max=" + maxSize +
+				", borrows=" + getBorrowCount() +
+				", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) +
+				", maxWaitMs=" + getMaxWaitMillis() +
+				", timeouts=" + getTimeoutCount() +
+				", leaks=" + getLeakCount() +
+				", stmtHits=" + getStatementCacheHits() +
+				", stmtMisses=" + getStatementCacheMisses() +
+				'}';
+	}
+
+	// ========================= CLASS: PooledConnection ========================= //
+	// Wraps one physical connection. Each borrow creates a new handle (a proxy
+	// of java.sql.Connection) whose close() returns the physical connection to
+	// the pool. A handle can only be closed once; using it afterwards fails,
+	// so a stale reference can never touch a connection that was re-borrowed.
+	// =========================================================================== //
+	private class PooledConnection {
+
+		private final Connection physical;   // Underlying JDBC connection
+		private final StatementCache statements;  // Prepared statements cached on this connection (null if disabled)
+		private long lastUsedMillis;         // Time the connection was last returned
+		private long borrowedAtMillis;       // Time of the current borrow
+		private Exception borrowSite;        // Stack of the current borrower (leak detection only)
+		private boolean leakReported;        // Whether the current borrow was already reported
+
+		PooledConnection(Connection physical) {
+			this.physical = physical;
+			this.statements = statementCacheSize > 0
+					? new StatementCache(physical, statementCacheSize,
+							statementCacheHits, statementCacheMisses, statementCacheEvictions)
+					: null;
+			this.lastUsedMillis = System.currentTimeMillis();
+		}
+
+		// Checks the physical connection is still usable
+		boolean isValid() {
+			try {
+				return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+			} catch (SQLException e) {
+				return false;
+			}
+		}
+
+		// Creates a new handle for a borrower
+		Connection lease(boolean captureBorrowSite) {
+			borrowedAtMillis = System.currentTimeMillis();
+			borrowSite = captureBorrowSite ? new Exception("Connection borrowed here") : null;
+			leakReported = false;
+			return (Connection) Proxy.newProxyInstance(
+					Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class },
+					new Lease());
+		}
+
+		// Handler for a single borrow of this connection
+		private class Lease implements InvocationHandler {
+
+			// Set once the borrower closes the handle; read by any thread using the handle
+			private final AtomicBoolean returned = new AtomicBoolean();
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				String name = method.getName();
+
+				switch (name) {
+				case "close":
+					// Return the connection to the pool (only the first close counts)
+					if (!returned.compareAndSet(false, true)) {
+						return null;
+					}
+					release(PooledConnection.this);
+					return null;
+				case "isClosed":
+					return returned.get() || physical.isClosed();
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "PooledConnection[" + physical + "]";
+				default:
+					break;
+				}
+
+				if (returned.get()) {
+					throw new SQLException("Connection has already been returned to the pool");
+				}
+
+				// Serve prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) from the statement cache
+				if (statements != null && name.equals("prepareStatement")) {
+					Class<?>[] types = method.getParameterTypes();
+					if (types.length == 1) {
+						return statements.prepare((Connection) proxy, (String) args[0], StatementCache.NO_GENERATED_KEYS_FLAG);
+					}
+					if (types.length == 2 && types[1] == int.class) {
+						return statements.prepare((Connection) proxy, (String) args[0], (Integer) args[1]);
+					}
+				}
+
+				// Forward everything else to the physical connection
+				try {
+					return method.invoke(physical, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		}
+	}
+}
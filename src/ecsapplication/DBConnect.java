@@ -1,11 +1,16 @@
 /**
  * DBConnect.java
- * The DBConnect class provides a centralized interface to manage a connection
- * to the MySQL database that is used by the ECS system. 
- * This class is implemented using a Singleton design pattern which ensures 
- * that only one active connection is used throughout the whole application.
- * This pattern enables the ECS system to manage its resources as well
- * as maintain consistency in transaction data.
+ * The DBConnect class provides a centralized interface to manage connections
+ * to the MySQL database that is used by the ECS system.
+ * This class is implemented using a Singleton design pattern which ensures
+ * that only one connection pool is used throughout the whole application.
+ * Each call to getConnection() borrows a connection from the pool; closing
+ * it (e.g., with try-with-resources) returns it to the pool so the next
+ * caller does not have to reconnect to MySQL from scratch.
+ * When the pool is created, pending schema migrations are applied
+ * (see SchemaMigrator) before any other query runs.
+ * Connections are wrapped by the QueryMonitor, which times every
+ * statement the DAOs run and logs slow queries.
  */
 
 package ecsapplication;
@@ -15,41 +20,80 @@ import java.sql.*;
 
 // Singleton Pattern
 public class DBConnect {
-	
+
 	// Attributes
-    private static DBConnect instance;  // Singular instance 
-    private Connection connection;      // Database connection object
+    private static DBConnect instance;  // Singular instance
+    private final ConnectionPool pool;  // Pool of database connections
 
-    // Database connection constants
-    private static final String url = "jdbc:mysql://localhost:3306/ceis400courseproject";
-    private static final String username = "root";
-    private static final String password = "devry123";
+    // Database connection settings (the MySQL database by default; see configure())
+    // useServerPrepStmts lets the pool's statement cache skip re-parsing on the server
+    // rewriteBatchedStatements sends each executeBatch() (e.g., batch checkout) in one round trip
+    private static String url = "jdbc:mysql://localhost:3306/ceis400courseproject?useServerPrepStmts=true&rewriteBatchedStatements=true";
+    private static String username = "root";
+    private static String password = "devry123";
 
     // Constructor set to private so it cannot be directly accessed outside of the class
     private DBConnect() throws SQLException {
         try {
-            connection = DriverManager.getConnection(url, username, password);
+            pool = new ConnectionPool(url, username, password);
         } catch (SQLException e) {
-        	
+
         	// If connection fails, throw an exception
             throw new SQLException("Failed to connect to the database", e);
         }
+
+        // Bring the schema up to date before the application uses it
+        try (Connection conn = pool.getConnection()) {
+            SchemaMigrator.migrate(conn);
+        } catch (SQLException e) {
+            pool.close();
+            throw e;
+        }
     }
 
     // Public method to obtain a single instance of DBConnect
     // Synchronized prevents another thread from accessing this method
     // Singleton instance getter
     public static synchronized DBConnect getInstance() throws SQLException {
-    	
-    	// Create a new instance if one does not yet exist or if an old connection has closed
-        if (instance == null || instance.getConnection().isClosed()) {
+
+    	// Create a new instance if one does not yet exist
+        if (instance == null) {
             instance = new DBConnect();
         }
         return instance;
     }
 
-    // Getter for connection
-    public Connection getConnection() {
-        return connection;
+    // Points DBConnect at another database (e.g., embedded H2 for the
+    // benchmarks and the load generator). If it is already connected to a
+    // different database, that pool is closed and the next getInstance()
+    // connects to the new one; the same settings again change nothing.
+    public static synchronized void configure(String newUrl, String newUsername, String newPassword) {
+        if (url.equals(newUrl) && username.equals(newUsername) && password.equals(newPassword)) {
+            return;
+        }
+        if (instance != null) {
+            instance.pool.close();
+            instance = null;
+        }
+        url = newUrl;
+        username = newUsername;
+        password = newPassword;
+    }
+
+    // Borrows a connection from the pool, instrumented by the QueryMonitor
+    // Callers must close the connection to return it to the pool
+    public Connection getConnection() throws SQLException {
+        return QueryMonitor.getInstance().wrap(pool.getConnection());
+    }
+
+    // Getter for the connection pool (used for metrics)
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    // Pool of the current connection, or null if DBConnect has not connected
+    // yet (used by metrics, which must never open a connection themselves)
+    public static synchronized ConnectionPool getCurrentPool() {
+        return instance == null ? null : instance.pool;
     }
 }
@@ -0,0 +1,854 @@
+/**
+ * DataImporter.java
+ * Bulk loader for equipment, employees and historical transactions,
+ * used when a new warehouse is brought into the ECS system. Reads CSV
+ * (with a header row) or NDJSON (one JSON object per line) files.
+ *
+ * The file is streamed: only one chunk of rows is held in memory at a
+ * time, so files with hundreds of thousands of rows need no more memory
+ * than small ones. Every row is validated before it is written:
+ *   -required columns must be present
+ *   -enumerations must match EquipmentStatus, EquipmentCondition,
+ *    SkillClassification or TransactionStatus (case-insensitive)
+ *   -IDs must be integers, dates must be yyyy-MM-dd, names must fit
+ * Invalid rows are skipped and reported with their line number.
+ *
+ * Valid rows are written with one multi-row INSERT per chunk
+ * (INSERT ... VALUES (...), (...), ...) and committed chunk by chunk.
+ * If the database rejects a chunk (e.g., a duplicate ID), that chunk is
+ * rolled back and the import stops; chunks committed before it remain.
+ * A progress listener is told the row counts and rows/second after
+ * every chunk.
+ *
+ * After transactions are imported (even if a later chunk failed), the
+ * equipment columns derived from them are updated: lastReturnCondition,
+ * and the 'Loaned' status of equipment that is still out. The cached
+ * copies of the changed tables are then dropped.
+ *
+ * Usage from the command line:
+ *   java ecsapplication.DataImporter equipment|employee|transaction file.csv|file.ndjson [chunkSize]
+ */
+
+package ecsapplication;
+
+// Import I/O classes for streaming the input file
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Import JDBC classes for the batched inserts
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+// Import date parsing and collections
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Import enumerations used to validate the input
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.SkillClassification;
+import ecsapplication.enums.TransactionStatus;
+
+public class DataImporter {
+
+	// Default number of rows per multi-row INSERT and commit
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	// Most bind parameters allowed in one MySQL prepared statement
+	private static final int MAX_PARAMETERS = 65_535;
+
+	// Number of rejected rows whose error message is kept
+	private static final int MAX_ERRORS = 100;
+
+	// Supported file formats
+	public enum Format {
+		CSV,      // Comma-separated values with a header row (RFC 4180 quoting)
+		NDJSON;   // Newline-delimited JSON: one flat object per line
+
+		// Picks the format from the file extension (.ndjson/.jsonl, otherwise CSV)
+		public static Format fromFileName(String fileName) {
+			String lower = fileName.toLowerCase(Locale.ROOT);
+			return lower.endsWith(".ndjson") || lower.endsWith(".jsonl") ? NDJSON : CSV;
+		}
+	}
+
+	// Tables that can be imported, with their columns
+	public enum Target {
+		EQUIPMENT("equipment",
+				Column.integer("equipmentID", true),
+				Column.text("equipmentName", true, 20),
+				Column.enumeration("equipmentCondition", true, EquipmentCondition::fromString),
+				Column.enumeration("requiredSkill", true, SkillClassification::fromString),
+				Column.enumeration("equipStatus", false, EquipmentStatus::fromString),
+				Column.enumeration("lastReturnCondition", false, EquipmentCondition::fromString)),
+		EMPLOYEE("employee",
+				Column.integer("empID", true),
+				Column.text("empName", true, 20),
+				Column.enumeration("skillClassification", true, SkillClassification::fromString)),
+		TRANSACTION("transaction",
+				Column.integer("transactionID", false),
+				Column.integer("empID", true),
+				Column.integer("equipmentID", true),
+				Column.integer("orderID", false),
+				Column.date("borrowDate", true),
+				Column.date("expectedReturnDate", false),
+				Column.enumeration("transactionStatus", false, TransactionStatus::fromString),
+				Column.date("returnDate", false),
+				Column.enumeration("returnCondition", false, EquipmentCondition::fromString),
+				Column.enumeration("checkoutCondition", false, EquipmentCondition::fromString));
+
+		private final String table;
+		private final List<Column> columns;
+
+		Target(String table, Column... columns) {
+			this.table = table;
+			this.columns = List.of(columns);
+		}
+
+		// Returns the target for a table name (e.g., "equipment")
+		public static Target fromString(String value) {
+			for (Target target : values()) {
+				if (target.table.equalsIgnoreCase(value) || target.name().equalsIgnoreCase(value)) {
+					return target;
+				}
+			}
+			throw new IllegalArgumentException("No import target for: " + value);
+		}
+
+		// Finds a column by name (case-insensitive), or null
+		private Column column(String name) {
+			for (Column column : columns) {
+				if (column.name.equalsIgnoreCase(name.trim())) {
+					return column;
+				}
+			}
+			return null;
+		}
+	}
+
+	private final int chunkSize;                           // Rows per INSERT and commit
+	private final Consumer<ImportResult> progressListener; // Told the counts after every chunk (may be null)
+
+	// Constructor for an importer with the given chunk size and optional progress listener
+	public DataImporter(int chunkSize, Consumer<ImportResult> progressListener) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be at least 1");
+		}
+		this.chunkSize = chunkSize;
+		this.progressListener = progressListener;
+	}
+
+	// Constructor for an importer with the default chunk size and no progress listener
+	public DataImporter() {
+		this(DEFAULT_CHUNK_SIZE, null);
+	}
+
+	// ========================= METHOD: importFile ===================== //
+	// Imports a UTF-8 file into the target table. The format is taken from
+	// the file extension. Returns the final counts and the first errors.
+	// ================================================================== //
+	public ImportResult importFile(Connection conn, Path file, Target target) throws IOException, SQLException {
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return importData(conn, reader, target, Format.fromFileName(file.getFileName().toString()));
+		}
+	}
+
+	// ========================= METHOD: importData ===================== //
+	// Imports rows read from the reader into the target table. Throws
+	// IOException if the input cannot be read or its header is invalid,
+	// and SQLException if the database rejects a chunk.
+	// ================================================================== //
+	public ImportResult importData(Connection conn, Reader in, Target target, Format format) throws IOException, SQLException {
+		RecordReader reader = format == Format.CSV ? new CsvReader(in) : new JsonLineReader(in);
+		ImportResult result = new ImportResult(System.nanoTime());
+
+		// The header (or the first JSON object) decides which columns are written
+		List<Column> columns = reader.readColumns(target);
+		if (columns == null) {
+			return result.finish();
+		}
+		if (chunkSize * columns.size() > MAX_PARAMETERS) {
+			throw new IllegalArgumentException("Chunk size " + chunkSize + " is too large for " + columns.size() + " columns");
+		}
+
+		boolean autoCommit = conn.getAutoCommit();
+		conn.setAutoCommit(false);
+		try {
+			List<Object[]> chunk = new ArrayList<>(Math.min(chunkSize, 10_000));
+			int chunkFirstLine = 0;
+			PreparedStatement fullInsert = null;   // Reused for every full chunk
+			try {
+				while (true) {
+
+					// Read, validate and convert the next row; invalid rows are reported and skipped
+					List<String> fields = null;
+					Object[] row;
+					try {
+						fields = reader.readRecord();
+						if (fields == null) {
+							break;
+						}
+						result.rowsRead++;
+						row = convert(columns, fields);
+					} catch (IllegalArgumentException e) {
+						if (fields == null) {
+							result.rowsRead++;   // Malformed record, not counted yet
+						}
+						result.reject(reader.getLineNumber(), e.getMessage());
+						continue;
+					}
+					if (chunk.isEmpty()) {
+						chunkFirstLine = reader.getLineNumber();
+					}
+					chunk.add(row);
+
+					// Write the chunk once it is full
+					if (chunk.size() == chunkSize) {
+						if (fullInsert == null) {
+							fullInsert = conn.prepareStatement(insertSQL(target, columns, chunkSize));
+						}
+						writeChunk(conn, fullInsert, columns, chunk, chunkFirstLine);
+						result.rowsImported += chunk.size();
+						chunk.clear();
+						report(result);
+
+						// Stop between chunks if the import was cancelled
+						if (Thread.currentThread().isInterrupted()) {
+							throw new InterruptedIOException("Import cancelled after " + result.rowsImported + " rows");
+						}
+					}
+				}
+			} finally {
+				if (fullInsert != null) {
+					fullInsert.close();
+				}
+			}
+
+			// Write the last, partly filled chunk
+			if (!chunk.isEmpty()) {
+				try (PreparedStatement tailInsert = conn.prepareStatement(insertSQL(target, columns, chunk.size()))) {
+					writeChunk(conn, tailInsert, columns, chunk, chunkFirstLine);
+				}
+				result.rowsImported += chunk.size();
+			}
+		} finally {
+			try {
+				// Chunks committed before a failure stay, so update the equipment for them too
+				if (target == Target.TRANSACTION && result.rowsImported > 0) {
+					updateEquipmentFromTransactions(conn);
+				}
+			} finally {
+				conn.setAutoCommit(autoCommit);
+
+				// Cached copies of the changed tables are now out of date
+				invalidateCaches(target);
+			}
+		}
+
+		result.finish();
+		report(result);
+		return result;
+	}
+
+	// Binds every row of the chunk to the multi-row INSERT, executes and commits it
+	private void writeChunk(Connection conn, PreparedStatement stmt, List<Column> columns, List<Object[]> chunk,
+			int firstLine) throws SQLException {
+		int index = 1;
+		for (Object[] row : chunk) {
+			for (int col = 0; col < columns.size(); col++) {
+				columns.get(col).bind(stmt, index++, row[col]);
+			}
+		}
+		try {
+			stmt.executeUpdate();
+			conn.commit();
+		} catch (SQLException e) {
+			conn.rollback();
+			throw new SQLException("Import failed in the chunk starting at line " + firstLine + ": " + e.getMessage(),
+					e.getSQLState(), e.getErrorCode(), e);
+		}
+	}
+
+	// Builds INSERT INTO table (columns) VALUES (?, ...), (?, ...) for the given number of rows
+	private static String insertSQL(Target target, List<Column> columns, int rows) {
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(target.table).append(" (");
+		StringBuilder values = new StringBuilder("(");
+		for (int col = 0; col < columns.size(); col++) {
+			if (col > 0) {
+				sql.append(", ");
+				values.append(", ");
+			}
+			sql.append(columns.get(col).name);
+			values.append("?");
+		}
+		values.append(")");
+		sql.append(") VALUES ");
+		for (int row = 0; row < rows; row++) {
+			if (row > 0) {
+				sql.append(", ");
+			}
+			sql.append(values);
+		}
+		return sql.toString();
+	}
+
+	// Validates one record's fields and converts them to column values
+	private static Object[] convert(List<Column> columns, List<String> fields) {
+		if (fields.size() != columns.size()) {
+			throw new IllegalArgumentException("Expected " + columns.size() + " fields but found " + fields.size());
+		}
+		Object[] row = new Object[columns.size()];
+		for (int col = 0; col < columns.size(); col++) {
+			row[col] = columns.get(col).parse(fields.get(col));
+		}
+		return row;
+	}
+
+	// Sends a progress snapshot to the listener, if any
+	private void report(ImportResult result) {
+		if (progressListener != null) {
+			progressListener.accept(result.snapshot());
+		}
+	}
+
+	// Updates and commits the equipment columns that are derived from transactions
+	private static void updateEquipmentFromTransactions(Connection conn) throws SQLException {
+		try {
+			EquipmentDAO.backfillLastReturnCondition(conn);
+			EquipmentDAO.markLoanedFromOpenTransactions(conn);
+			conn.commit();
+		} catch (SQLException e) {
+			conn.rollback();
+			throw e;
+		}
+	}
+
+	// Drops cached copies of the changed tables so the next read reloads them
+	private static void invalidateCaches(Target target) {
+		if ((target == Target.EQUIPMENT || target == Target.TRANSACTION) && EquipmentDAO.getCache() != null) {
+			EquipmentDAO.getCache().invalidate();
+		}
+		if (target == Target.EMPLOYEE && EmployeeDAO.getDirectory() != null) {
+			EmployeeDAO.getDirectory().invalidate();
+		}
+	}
+
+	// ======================================================================
+	// Columns
+	// ======================================================================
+
+	// Kinds of column value
+	private enum Kind { INTEGER, TEXT, DATE, ENUM }
+
+	// ========================= CLASS: Column ======================== //
+	// One importable column: its name, whether it is required, and how
+	// its text is validated and bound to the INSERT
+	// ================================================================ //
+	private static final class Column {
+
+		private final String name;
+		private final Kind kind;
+		private final boolean required;
+		private final int maxLength;                             // Longest allowed text (TEXT only)
+		private final Function<String, ? extends Enum<?>> parser; // Enum lookup (ENUM only)
+
+		private Column(String name, Kind kind, boolean required, int maxLength, Function<String, ? extends Enum<?>> parser) {
+			this.name = name;
+			this.kind = kind;
+			this.required = required;
+			this.maxLength = maxLength;
+			this.parser = parser;
+		}
+
+		static Column integer(String name, boolean required) {
+			return new Column(name, Kind.INTEGER, required, 0, null);
+		}
+
+		static Column text(String name, boolean required, int maxLength) {
+			return new Column(name, Kind.TEXT, required, maxLength, null);
+		}
+
+		static Column date(String name, boolean required) {
+			return new Column(name, Kind.DATE, required, 0, null);
+		}
+
+		static Column enumeration(String name, boolean required, Function<String, ? extends Enum<?>> parser) {
+			return new Column(name, Kind.ENUM, required, 0, parser);
+		}
+
+		// Converts the field text to this column's value (null for an empty optional field)
+		Object parse(String text) {
+			String value = text != null ? text.trim() : "";
+			if (value.isEmpty()) {
+				if (required) {
+					throw new IllegalArgumentException(name + " is required");
+				}
+				return null;
+			}
+			try {
+				switch (kind) {
+					case INTEGER:
+						return Integer.valueOf(value);
+					case DATE:
+						return Date.valueOf(LocalDate.parse(value));
+					case ENUM:
+						return parser.apply(value).name();   // Stored in its canonical spelling
+					default:
+						if (value.length() > maxLength) {
+							throw new IllegalArgumentException(name + " is longer than " + maxLength + " characters");
+						}
+						return value;
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(name + " is not a whole number: " + value);
+			} catch (DateTimeParseException e) {
+				throw new IllegalArgumentException(name + " is not a yyyy-MM-dd date: " + value);
+			} catch (IllegalArgumentException e) {
+				if (kind == Kind.ENUM) {
+					throw new IllegalArgumentException(name + " has an unknown value: " + value);
+				}
+				throw e;
+			}
+		}
+
+		// Binds a converted value to the statement
+		void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+			if (value == null) {
+				stmt.setNull(index, kind == Kind.INTEGER ? Types.INTEGER : kind == Kind.DATE ? Types.DATE : Types.VARCHAR);
+			} else if (value instanceof Integer) {
+				stmt.setInt(index, (Integer) value);
+			} else if (value instanceof Date) {
+				stmt.setDate(index, (Date) value);
+			} else {
+				stmt.setString(index, (String) value);
+			}
+		}
+	}
+
+	// Checks a list of column names against the target and returns the columns
+	private static List<Column> resolveColumns(Target target, List<String> names) throws IOException {
+		List<Column> columns = new ArrayList<>();
+		for (String name : names) {
+			Column column = target.column(name);
+			if (column == null) {
+				throw new IOException("Unknown column for " + target.table + ": " + name);
+			}
+			if (columns.contains(column)) {
+				throw new IOException("Duplicate column: " + name);
+			}
+			columns.add(column);
+		}
+		for (Column column : target.columns) {
+			if (column.required && !columns.contains(column)) {
+				throw new IOException("Missing required column for " + target.table + ": " + column.name);
+			}
+		}
+		return columns;
+	}
+
+	// ======================================================================
+	// Readers
+	// ======================================================================
+
+	// Streams records from the input, one at a time
+	private interface RecordReader {
+
+		// Reads the column list; null if the input is empty
+		List<Column> readColumns(Target target) throws IOException;
+
+		// Reads the fields of the next record in column order; null at the end.
+		// Throws IllegalArgumentException for a malformed record, which is skipped.
+		List<String> readRecord() throws IOException;
+
+		// Line number where the last record started
+		int getLineNumber();
+	}
+
+	// ======================== CLASS: CsvReader ======================= //
+	// Reads RFC 4180 CSV: fields separated by commas, optionally quoted;
+	// quoted fields may contain commas, doubled quotes and line breaks.
+	// ================================================================= //
+	private static final class CsvReader implements RecordReader {
+
+		private final Reader in;
+		private int line = 1;         // Current line in the input
+		private int recordLine;       // Line where the last record started
+		private int pushedBack = -2;  // Character read ahead (-2 if none)
+
+		CsvReader(Reader in) {
+			this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+		}
+
+		@Override
+		public List<Column> readColumns(Target target) throws IOException {
+			List<String> header = readRecord();
+			return header != null ? resolveColumns(target, header) : null;
+		}
+
+		@Override
+		public List<String> readRecord() throws IOException {
+			List<String> fields;
+			do {
+				fields = readFields();
+			} while (fields != null && fields.size() == 1 && fields.get(0).isEmpty());   // Skip blank lines
+			return fields;
+		}
+
+		// Reads the fields of one record, or null at the end of the input
+		private List<String> readFields() throws IOException {
+			int c = read();
+			if (c == -1) {
+				return null;
+			}
+			recordLine = line;
+			List<String> fields = new ArrayList<>();
+			StringBuilder field = new StringBuilder();
+			boolean quoted = false;       // Inside a quoted field
+			while (true) {
+				if (quoted) {
+					if (c == -1) {
+						throw new IOException("Unterminated quoted field starting on line " + recordLine);
+					}
+					if (c == '"') {
+						int next = read();
+						if (next == '"') {
+							field.append('"');       // Doubled quote is a literal quote
+						} else {
+							quoted = false;
+							c = next;
+							continue;
+						}
+					} else {
+						if (c == '\n') {
+							line++;
+						}
+						field.append((char) c);
+					}
+				} else if (c == '"' && field.length() == 0) {
+					quoted = true;
+				} else if (c == ',') {
+					fields.add(field.toString());
+					field.setLength(0);
+				} else if (c == '\r' || c == '\n' || c == -1) {
+					if (c == '\r') {
+						int next = read();
+						if (next != '\n') {
+							unread(next);
+						}
+					}
+					if (c != -1) {
+						line++;
+					}
+					fields.add(field.toString());
+					return fields;
+				} else {
+					field.append((char) c);
+				}
+				c = read();
+			}
+		}
+
+		private int read() throws IOException {
+			if (pushedBack != -2) {
+				int c = pushedBack;
+				pushedBack = -2;
+				return c;
+			}
+			return in.read();
+		}
+
+		private void unread(int c) {
+			pushedBack = c;
+		}
+
+		@Override
+		public int getLineNumber() {
+			return recordLine;
+		}
+	}
+
+	// ===================== CLASS: JsonLineReader ===================== //
+	// Reads NDJSON: one flat JSON object per line whose values are
+	// strings, numbers, booleans or null. The keys of the first object
+	// decide the columns; later objects may leave columns out (null).
+	// ================================================================= //
+	private static final class JsonLineReader implements RecordReader {
+
+		private final BufferedReader in;
+		private int line;                     // Current line in the input
+		private List<String> keys;            // Column names in order
+		private Map<String, String> first;    // First object, read with the columns
+
+		JsonLineReader(Reader in) {
+			this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+		}
+
+		@Override
+		public List<Column> readColumns(Target target) throws IOException {
+			try {
+				first = nextObject();
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Line " + line + ": " + e.getMessage());
+			}
+			if (first == null) {
+				return null;
+			}
+			keys = new ArrayList<>(first.keySet());
+			return resolveColumns(target, keys);
+		}
+
+		@Override
+		public List<String> readRecord() throws IOException {
+			Map<String, String> object = first != null ? first : nextObject();
+			first = null;
+			if (object == null) {
+				return null;
+			}
+
+			// Put the values in column order; keys not in the first object are an error
+			List<String> fields = new ArrayList<>(Collections.nCopies(keys.size(), (String) null));
+			for (Map.Entry<String, String> entry : object.entrySet()) {
+				int index = keys.indexOf(entry.getKey());
+				if (index < 0) {
+					throw new IllegalArgumentException("Unexpected field: " + entry.getKey());
+				}
+				fields.set(index, entry.getValue());
+			}
+			return fields;
+		}
+
+		// Reads the next non-blank line as an object, or null at the end of the input
+		private Map<String, String> nextObject() throws IOException {
+			String text;
+			while ((text = in.readLine()) != null) {
+				line++;
+				if (!text.isBlank()) {
+					return parseObject(text);
+				}
+			}
+			return null;
+		}
+
+		// Parses {"key": value, ...}; throws IllegalArgumentException for a malformed line
+		private Map<String, String> parseObject(String text) {
+			Map<String, String> object = new LinkedHashMap<>();
+			int[] pos = { skipSpace(text, 0) };
+			try {
+				expect(text, pos, '{');
+				if (peek(text, pos) == '}') {
+					return object;
+				}
+				while (true) {
+					pos[0] = skipSpace(text, pos[0]);
+					String key = parseString(text, pos);
+					expect(text, pos, ':');
+					object.put(key, parseValue(text, pos));
+					char c = peek(text, pos);
+					pos[0]++;
+					if (c == '}') {
+						return object;
+					}
+					if (c != ',') {
+						throw new IOException("Expected ',' or '}'");
+					}
+				}
+			} catch (IOException | IndexOutOfBoundsException | NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid JSON: " + e.getMessage());
+			}
+		}
+
+		// Parses a string, number, boolean or null value as text
+		private static String parseValue(String text, int[] pos) throws IOException {
+			char c = peek(text, pos);
+			if (c == '"') {
+				return parseString(text, pos);
+			}
+			int start = pos[0];
+			while (pos[0] < text.length() && ",} \t".indexOf(text.charAt(pos[0])) < 0) {
+				pos[0]++;
+			}
+			String literal = text.substring(start, pos[0]);
+			if (literal.equals("null")) {
+				return null;
+			}
+			if (literal.isEmpty() || literal.startsWith("{") || literal.startsWith("[")) {
+				throw new IOException("Only flat objects are supported");
+			}
+			return literal;
+		}
+
+		// Parses a quoted string with JSON escapes
+		private static String parseString(String text, int[] pos) throws IOException {
+			expect(text, pos, '"');
+			StringBuilder value = new StringBuilder();
+			while (true) {
+				char c = text.charAt(pos[0]++);
+				if (c == '"') {
+					return value.toString();
+				}
+				if (c != '\\') {
+					value.append(c);
+					continue;
+				}
+				char e = text.charAt(pos[0]++);
+				switch (e) {
+					case 'n': value.append('\n'); break;
+					case 'r': value.append('\r'); break;
+					case 't': value.append('\t'); break;
+					case 'b': value.append('\b'); break;
+					case 'f': value.append('\f'); break;
+					case 'u':
+						value.append((char) Integer.parseInt(text.substring(pos[0], pos[0] + 4), 16));
+						pos[0] += 4;
+						break;
+					default: value.append(e);   // \" \\ \/
+				}
+			}
+		}
+
+		// Skips spaces and checks the next character
+		private static void expect(String text, int[] pos, char expected) throws IOException {
+			if (peek(text, pos) != expected) {
+				throw new IOException("Expected '" + expected + "' at column " + (pos[0] + 1));
+			}
+			pos[0]++;
+		}
+
+		// Skips spaces and returns the next character without consuming it
+		private static char peek(String text, int[] pos) {
+			pos[0] = skipSpace(text, pos[0]);
+			return text.charAt(pos[0]);
+		}
+
+		private static int skipSpace(String text, int pos) {
+			while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+				pos++;
+			}
+			return pos;
+		}
+
+		@Override
+		public int getLineNumber() {
+			return line;
+		}
+	}
+
+	// ====================== CLASS: ImportResult ====================== //
+	// Row counts and speed of an import, reported as progress after each
+	// chunk and returned when the import ends
+	// ================================================================= //
+	public static final class ImportResult {
+
+		private final long startNanos;      // System.nanoTime() at the start
+		private long elapsedNanos;          // Time taken (so far)
+		private long rowsRead;              // Records read from the file
+		private long rowsImported;          // Rows committed to the database
+		private long rowsRejected;          // Rows that failed validation
+		private final List<String> errors;  // First MAX_ERRORS validation errors
+
+		private ImportResult(long startNanos) {
+			this.startNanos = startNanos;
+			this.errors = new ArrayList<>();
+		}
+
+		// Records a rejected row, keeping the message if there is room
+		private void reject(int line, String message) {
+			rowsRejected++;
+			if (errors.size() < MAX_ERRORS) {
+				errors.add("Line " + line + ": " + message);
+			}
+		}
+
+		// Stops the clock
+		private ImportResult finish() {
+			elapsedNanos = System.nanoTime() - startNanos;
+			return this;
+		}
+
+		// Copy of the current counts for a progress listener
+		private ImportResult snapshot() {
+			ImportResult copy = new ImportResult(startNanos);
+			copy.elapsedNanos = elapsedNanos != 0 ? elapsedNanos : System.nanoTime() - startNanos;
+			copy.rowsRead = rowsRead;
+			copy.rowsImported = rowsImported;
+			copy.rowsRejected = rowsRejected;
+			copy.errors.addAll(errors);
+			return copy;
+		}
+
+		public long getRowsRead() {
+			return rowsRead;
+		}
+
+		public long getRowsImported() {
+			return rowsImported;
+		}
+
+		public long getRowsRejected() {
+			return rowsRejected;
+		}
+
+		// Validation errors with line numbers (at most MAX_ERRORS are kept)
+		public List<String> getErrors() {
+			return Collections.unmodifiableList(errors);
+		}
+
+		public long getElapsedMillis() {
+			return elapsedNanos / 1_000_000;
+		}
+
+		// Rows imported per second
+		public double getRowsPerSecond() {
+			return elapsedNanos == 0 ? 0.0 : rowsImported * 1_000_000_000.0 / elapsedNanos;
+		}
+
+		// Returns a one-line summary of the import
+		@Override
+		public String toString() {
+			return String.format("%d rows read, %d imported, %d rejected in %d ms (%.0f rows/s)",
+					rowsRead, rowsImported, rowsRejected, getElapsedMillis(), getRowsPerSecond());
+		}
+	}
+
+	// ======================================================================
+	// Command line
+	// ======================================================================
+
+	// Imports one file into the application database, printing progress
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.out.println("Usage: DataImporter equipment|employee|transaction <file.csv|file.ndjson> [chunkSize]");
+			return;
+		}
+		Target target = Target.fromString(args[0]);
+		int chunkSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CHUNK_SIZE;
+		DataImporter importer = new DataImporter(chunkSize, progress -> System.out.println("Progress: " + progress));
+
+		try (Connection conn = DBConnect.getInstance().getConnection()) {
+			ImportResult result = importer.importFile(conn, Paths.get(args[1]), target);
+			System.out.println("Import finished: " + result);
+			for (String error : result.getErrors()) {
+				System.out.println("  " + error);
+			}
+		} finally {
+			DBConnect.getInstance().getPool().close();
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/**
+ * Diagnostics.java
+ * Registers the ECS system's metrics with a MetricsRegistry and measures
+ * how long the Event Dispatch Thread (EDT) keeps the window waiting.
+ *
+ * Metrics registered by register():
+ *   -Connection pool: connections in use, idle and allowed, usage, borrows,
+ *    wait time and timeouts (read from the pool DBConnect is using)
+ *   -Cache hit rates: the equipment catalog cache and the pool's
+ *    prepared-statement caches
+ *   -Checkouts and returns, in total and over the last minute
+ *   -Reminder runs: time of each scheduled run and reminders saved
+ *   -SQL: statements run and slow queries (see QueryMonitor)
+ *   -EDT stall time: how long a probe event posted to the EDT waited
+ *    before it ran (see startEdtProbe). While a listener runs JDBC on the
+ *    EDT the probe waits for it, so long waits mean a frozen window.
+ *   -EDT stalls: events the EdtWatchdog caught keeping the EDT busy for
+ *    longer than its threshold (see registerEdtWatchdog)
+ *
+ * MainApp calls install() at startup, which also starts the shared
+ * EdtWatchdog unless -Decs.edt.watchdog=false is given; the metrics are
+ * shown in its hidden Diagnostics tab (Ctrl+Shift+D, see DiagnosticsPanel).
+ * Starting the application with -Decs.metrics.port=<port> also serves
+ * them in the Prometheus text format on http://127.0.0.1:<port>/metrics.
+ */
+
+package ecsapplication;
+
+// Import AWT's event queue for the EDT probe
+import java.awt.EventQueue;
+
+// Import I/O for the HTTP endpoint
+import java.io.IOException;
+
+// Import concurrency utilities for the probe thread
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+public final class Diagnostics {
+
+	// How often the EDT probe posts an event
+	public static final long DEFAULT_EDT_PROBE_INTERVAL_MS = 500;
+
+	// System property with the port of the /metrics endpoint (not served if unset)
+	public static final String METRICS_PORT_PROPERTY = "ecs.metrics.port";
+
+	// Metric names used by tests and other classes
+	public static final String CHECKOUTS = "ecs_checkouts_total";
+	public static final String RETURNS = "ecs_returns_total";
+	public static final String EDT_STALL = "ecs_edt_stall_seconds";
+
+	private static boolean installed;   // Whether install() has run
+
+	// Utility class: not instantiated
+	private Diagnostics() {
+	}
+
+	// ======================== METHOD: install ======================== //
+	// Registers the ECS metrics with the shared registry, starts the EDT
+	// probe and the EDT watchdog (unless disabled) and, if
+	// METRICS_PORT_PROPERTY is set, the /metrics endpoint.
+	// Called once by MainApp; later calls do nothing.
+	// ================================================================= //
+	public static synchronized void install() {
+		if (installed) {
+			return;
+		}
+		installed = true;
+
+		MetricsRegistry registry = MetricsRegistry.getInstance();
+		register(registry, ReminderEngine.getInstance());
+		startEdtProbe(registry, DEFAULT_EDT_PROBE_INTERVAL_MS);
+
+		if (EdtWatchdog.isEnabledByDefault()) {
+			EdtWatchdog watchdog = EdtWatchdog.getInstance();
+			registerEdtWatchdog(registry, watchdog);
+			watchdog.start();
+		}
+
+		String port = System.getProperty(METRICS_PORT_PROPERTY);
+		if (port != null) {
+			try {
+				System.out.println("Metrics served on http://127.0.0.1:"
+						+ registry.startHttpServer(Integer.parseInt(port.trim())) + "/metrics");
+			} catch (IOException | NumberFormatException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	// ======================= METHOD: register ======================= //
+	// Registers the ECS metrics. Gauges read the shared services when
+	// they are shown and never open a database connection themselves.
+	// ================================================================ //
+	public static void register(MetricsRegistry registry, ReminderEngine reminders) {
+
+		// Connection pool (0 until DBConnect has connected)
+		poolGauge(registry, "ecs_pool_active_connections", "Connections borrowed from the pool", ConnectionPool::getActiveCount);
+		poolGauge(registry, "ecs_pool_idle_connections", "Open connections waiting in the pool", ConnectionPool::getIdleCount);
+		poolGauge(registry, "ecs_pool_max_connections", "Most connections the pool opens", ConnectionPool::getMaxSize);
+		poolGauge(registry, "ecs_pool_usage_ratio", "Share of the pool's connections in use",
+				pool -> (double) pool.getActiveCount() / pool.getMaxSize());
+		poolCounter(registry, "ecs_pool_borrows_total", "Connections borrowed from the pool", ConnectionPool::getBorrowCount);
+		poolCounter(registry, "ecs_pool_wait_milliseconds_total", "Time spent waiting for a pooled connection",
+				ConnectionPool::getTotalWaitMillis);
+		poolCounter(registry, "ecs_pool_timeouts_total", "Borrows that gave up waiting for a connection",
+				ConnectionPool::getTimeoutCount);
+
+		// Cache hit rates
+		poolGauge(registry, "ecs_statement_cache_hit_ratio", "Share of prepared statements reused from the statement cache",
+				ConnectionPool::getStatementCacheHitRatio);
+		registry.gauge("ecs_equipment_cache_hit_ratio", "Share of equipment lookups served by the equipment cache",
+				() -> EquipmentCache.getInstance().getHitRatio());
+		registry.counter("ecs_equipment_cache_hits_total", "Equipment lookups served by the equipment cache",
+				() -> EquipmentCache.getInstance().getHitCount());
+		registry.counter("ecs_equipment_cache_misses_total", "Equipment lookups that loaded from the database",
+				() -> EquipmentCache.getInstance().getMissCount());
+
+		// Checkouts and returns
+		MetricsRegistry.Counter checkouts = checkouts(registry);
+		MetricsRegistry.Counter returns = returns(registry);
+		registry.gauge("ecs_checkouts_last_minute", "Equipment checked out in the last 60 seconds", checkouts::getLastMinute);
+		registry.gauge("ecs_returns_last_minute", "Equipment returned in the last 60 seconds", returns::getLastMinute);
+		registry.counter("ecs_checkout_conflicts_total", "Checkout attempts that lost a race for the same equipment",
+				() -> CheckoutService.getInstance().getConflictCount());
+
+		// Reminder runs
+		MetricsRegistry.Timer reminderRuns = registry.timer("ecs_reminder_run_seconds", "Time of each reminder engine run");
+		reminders.addRunListener(run -> reminderRuns.record(run.getDurationMillis(), TimeUnit.MILLISECONDS));
+		registry.counter("ecs_reminders_processed_total", "Reminders saved by the reminder engine", reminders::getProcessedCount);
+
+		// SQL statements (see QueryMonitor)
+		registry.counter("ecs_sql_statements_total", "SQL statements run through DBConnect", () -> {
+			long calls = 0;
+			for (QueryMonitor.StatementStats stats : QueryMonitor.getInstance().getStatementStats()) {
+				calls += stats.getCalls();
+			}
+			return calls;
+		});
+		registry.counter("ecs_sql_slow_queries_total", "SQL statements slower than the slow-query threshold",
+				() -> QueryMonitor.getInstance().getSlowQueryCount());
+
+		// EDT stall time (recorded by startEdtProbe)
+		edtStall(registry);
+	}
+
+	// =================== METHOD: registerEdtWatchdog =================== //
+	// Registers the metrics of an EdtWatchdog: events dispatched, stalls
+	// and the time of each stall.
+	// ================================================================== //
+	public static void registerEdtWatchdog(MetricsRegistry registry, EdtWatchdog watchdog) {
+		registry.counter("ecs_edt_events_total", "Events dispatched on the Event Dispatch Thread", watchdog::getEventCount);
+		registry.counter("ecs_edt_stalls_total", "Events that kept the Event Dispatch Thread busy past the watchdog threshold",
+				watchdog::getStallCount);
+		MetricsRegistry.Timer stalls = registry.timer("ecs_edt_stall_event_seconds",
+				"Time of each event that stalled the Event Dispatch Thread");
+		watchdog.addStallListener(stall -> stalls.record(Math.round(stall.getMillis() * 1_000), TimeUnit.MICROSECONDS));
+	}
+
+	// Counts checkouts saved by CheckoutService in the shared registry
+	public static void recordCheckouts(int count) {
+		checkouts(MetricsRegistry.getInstance()).add(count);
+	}
+
+	// Counts returns saved by Employee in the shared registry
+	public static void recordReturns(int count) {
+		returns(MetricsRegistry.getInstance()).add(count);
+	}
+
+	private static MetricsRegistry.Counter checkouts(MetricsRegistry registry) {
+		return registry.counter(CHECKOUTS, "Equipment checked out on this terminal");
+	}
+
+	private static MetricsRegistry.Counter returns(MetricsRegistry registry) {
+		return registry.counter(RETURNS, "Equipment returned on this terminal");
+	}
+
+	private static MetricsRegistry.Timer edtStall(MetricsRegistry registry) {
+		return registry.timer(EDT_STALL, "Time a probe event waited for the Event Dispatch Thread");
+	}
+
+	// ===================== METHOD: startEdtProbe ===================== //
+	// Every interval, posts an event to the EDT and records how long it
+	// waited to run in the EDT_STALL timer. Only one probe is pending at
+	// a time, so a frozen EDT yields one long wait rather than a backlog.
+	// Returns the probe's thread pool; shut it down to stop the probe.
+	// ================================================================= //
+	public static ScheduledExecutorService startEdtProbe(MetricsRegistry registry, long intervalMillis) {
+		MetricsRegistry.Timer stall = edtStall(registry);
+		AtomicBoolean pending = new AtomicBoolean();
+
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ecs-edt-probe");
+			t.setDaemon(true);
+			return t;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			if (!pending.compareAndSet(false, true)) {
+				return;
+			}
+			long posted = System.nanoTime();
+			EventQueue.invokeLater(() -> {
+				stall.record(System.nanoTime() - posted, TimeUnit.NANOSECONDS);
+				pending.set(false);
+			});
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		return scheduler;
+	}
+
+	// Registers a gauge read from the current connection pool
+	private static void poolGauge(MetricsRegistry registry, String name, String help, ToDoubleFunction<ConnectionPool> value) {
+		registry.gauge(name, help, () -> {
+			ConnectionPool pool = DBConnect.getCurrentPool();
+			return pool == null ? 0 : value.applyAsDouble(pool);
+		});
+	}
+
+	// Registers a counter read from the current connection pool
+	private static void poolCounter(MetricsRegistry registry, String name, String help, ToLongFunction<ConnectionPool> value) {
+		registry.counter(name, help, () -> {
+			ConnectionPool pool = DBConnect.getCurrentPool();
+			return pool == null ? 0 : value.applyAsLong(pool);
+		});
+	}
+}
@@ -0,0 +1,195 @@
+/**
+ * DiagnosticsPanel.java
+ * Contents of the hidden "Diagnostics" tab of MainApp (shown and hidden
+ * with Ctrl+Shift+D). Lists every metric of a MetricsRegistry with its
+ * live value, refreshed every second while the tab is open, and can
+ * save them to a file in the Prometheus text format. When an EdtWatchdog
+ * is given, its latest stalls are listed below the metrics.
+ *
+ * Reading the metrics never touches the database, so the refresh runs
+ * on the Event Dispatch Thread without freezing the window.
+ */
+
+package ecsapplication;
+
+// Import Swing components for the panel
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+
+public class DiagnosticsPanel extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	// How often the numbers are refreshed while the panel is showing
+	public static final int REFRESH_MS = 1_000;
+
+	// Table columns
+	private static final String[] COLUMNS = { "Metric", "Type", "Value", "Description" };
+
+	private final MetricsRegistry registry;   // Metrics shown
+	private final EdtWatchdog watchdog;       // Stalls shown, or null
+	private final DefaultTableModel model;    // One row per metric
+	private final JTextArea txtStalls;        // Latest EDT stalls, newest first
+	private final JLabel lblEndpoint;         // Where the /metrics endpoint is served, if it is
+	private final Timer refreshTimer;         // Swing timer: fires on the EDT
+
+	// Creates the panel for a registry
+	public DiagnosticsPanel(MetricsRegistry registry) {
+		this(registry, null);
+	}
+
+	// Creates the panel for a registry and the stalls of a watchdog (may be null)
+	public DiagnosticsPanel(MetricsRegistry registry, EdtWatchdog watchdog) {
+		this.registry = registry;
+		this.watchdog = watchdog;
+		setLayout(new BorderLayout());
+
+		// --- Metrics Table (read-only) ---
+		model = new DefaultTableModel(COLUMNS, 0) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean isCellEditable(int row, int column) {
+				return false;
+			}
+		};
+		JTable tblMetrics = new JTable(model);
+		tblMetrics.getColumnModel().getColumn(0).setPreferredWidth(220);
+		tblMetrics.getColumnModel().getColumn(1).setPreferredWidth(70);
+		tblMetrics.getColumnModel().getColumn(2).setPreferredWidth(260);
+		tblMetrics.getColumnModel().getColumn(3).setPreferredWidth(300);
+
+		// --- Stall Log (read-only, only with a watchdog) ---
+		txtStalls = new JTextArea(8, 80);
+		txtStalls.setEditable(false);
+		if (watchdog == null) {
+			add(new JScrollPane(tblMetrics), BorderLayout.CENTER);
+		} else {
+			JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(tblMetrics), new JScrollPane(txtStalls));
+			split.setResizeWeight(0.7);
+			add(split, BorderLayout.CENTER);
+		}
+
+		// --- Bottom Bar: endpoint and save button ---
+		JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 5));
+		lblEndpoint = new JLabel();
+		bottomPanel.add(lblEndpoint);
+		JButton btnSave = new JButton("Save Metrics...");
+		btnSave.addActionListener(e -> saveMetrics());
+		bottomPanel.add(btnSave);
+		add(bottomPanel, BorderLayout.SOUTH);
+
+		refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+		refresh();
+	}
+
+	// ======================= METHOD: refresh ======================= //
+	// Reads every metric and updates the table in place, so the row
+	// the user has selected stays selected.
+	// =============================================================== //
+	public void refresh() {
+		List<MetricsRegistry.Metric> metrics = registry.getMetrics();
+		for (int row = 0; row < metrics.size(); row++) {
+			MetricsRegistry.Metric metric = metrics.get(row);
+			Object[] values = { metric.getName(), metric.getType().prometheusName(), metric.describe(), metric.getHelp() };
+			if (row < model.getRowCount()) {
+				for (int column = 0; column < values.length; column++) {
+					if (!values[column].equals(model.getValueAt(row, column))) {
+						model.setValueAt(values[column], row, column);
+					}
+				}
+			} else {
+				model.addRow(values);
+			}
+		}
+
+		int port = registry.getHttpPort();
+		lblEndpoint.setText(port < 0 ? "" : "Served on http://127.0.0.1:" + port + "/metrics");
+
+		if (watchdog != null) {
+			String stalls = getStallLog();
+			if (!stalls.equals(txtStalls.getText())) {
+				txtStalls.setText(stalls);
+				txtStalls.setCaretPosition(0);
+			}
+		}
+	}
+
+	// Text of the stall log: one line per stall, newest first
+	public String getStallLog() {
+		if (watchdog == null) {
+			return "";
+		}
+		List<EdtWatchdog.Stall> stalls = watchdog.getStalls();
+		if (stalls.isEmpty()) {
+			return "No EDT stalls over " + watchdog.getThresholdMillis() + " ms.";
+		}
+		StringBuilder text = new StringBuilder();
+		for (int i = stalls.size() - 1; i >= 0; i--) {
+			text.append(stalls.get(i)).append('\n');
+		}
+		return text.toString();
+	}
+
+	// Number of metrics shown
+	public int getRowCount() {
+		return model.getRowCount();
+	}
+
+	// Value shown for a metric, or null if it is not listed
+	public String getShownValue(String name) {
+		for (int row = 0; row < model.getRowCount(); row++) {
+			if (name.equals(model.getValueAt(row, 0))) {
+				return (String) model.getValueAt(row, 2);
+			}
+		}
+		return null;
+	}
+
+	// Saves the metrics in the Prometheus text format to a file the user picks
+	private void saveMetrics() {
+		JFileChooser fileChooser = new JFileChooser();
+		fileChooser.setFileFilter(new FileNameExtensionFilter("Prometheus text files", "prom", "txt"));
+		fileChooser.setSelectedFile(new File("ecs-metrics.prom"));
+		if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+			return;
+		}
+		try {
+			registry.writePrometheus(fileChooser.getSelectedFile().toPath());
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			JOptionPane.showMessageDialog(this, "Could not save the metrics: " + ex.getMessage(),
+					"Error", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+
+	// Refreshes only while the panel is in the window (i.e., the tab is open)
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		refresh();
+		refreshTimer.start();
+	}
+
+	@Override
+	public void removeNotify() {
+		refreshTimer.stop();
+		super.removeNotify();
+	}
+}
@@ -0,0 +1,360 @@
+/**
+ * EdtWatchdog.java
+ * Detects events that keep the Swing Event Dispatch Thread (EDT) busy
+ * for too long, so a frozen window leaves a trace instead of freezing
+ * silently (e.g., a listener running JDBC on the EDT).
+ *
+ * How it works:
+ *   -start() pushes an EventQueue that times every event it dispatches.
+ *   -A sampler thread checks the running event every sample interval.
+ *    Once it has run for the threshold, the sampler captures the EDT's
+ *    stack, which shows the listener that is stuck (e.g.,
+ *    MainApp.refreshViewRecordTable -> Employee.viewRecord -> a DAO).
+ *   -When the event finishes, it is logged as a stall if it took at
+ *    least the threshold: printed to the console, counted, kept in a
+ *    rolling log (getStalls) and passed to the stall listeners.
+ * An event that opens a modal dialog keeps dispatching other events
+ * until the dialog closes; the EDT is not stuck then, so such events
+ * are never reported.
+ *
+ * MainApp starts the watchdog at launch. It can be turned off with
+ * -Decs.edt.watchdog=false, and the threshold changed with
+ * -Decs.edt.thresholdMs=<ms>.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect; tests can create their own watchdog.
+ */
+
+package ecsapplication;
+
+// Import AWT classes for the event queue
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import javax.swing.AbstractButton;
+
+// Import date/time for the stall log
+import java.time.LocalDateTime;
+
+// Import collections and concurrency utilities for the sampler
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class EdtWatchdog {
+
+	// Default settings of the shared watchdog
+	public static final long DEFAULT_THRESHOLD_MS = 200;
+	public static final long DEFAULT_SAMPLE_INTERVAL_MS = 50;
+
+	// System properties read by getInstance() and MainApp
+	public static final String ENABLED_PROPERTY = "ecs.edt.watchdog";
+	public static final String THRESHOLD_PROPERTY = "ecs.edt.thresholdMs";
+
+	// Number of stalls kept for getStalls(), and stack frames printed per stall
+	private static final int STALLS_KEPT = 50;
+	private static final int PRINTED_FRAMES = 25;
+
+	private static EdtWatchdog instance;   // Singular instance
+
+	private final long thresholdNanos;         // Events at least this long are stalls
+	private final long sampleIntervalMillis;   // How often the sampler looks at the EDT
+
+	private WatchedQueue queue;                    // Pushed event queue while running
+	private ScheduledExecutorService sampler;      // Sampler thread while running
+	private volatile Dispatch current;             // Innermost event being dispatched, or null
+
+	// Metrics
+	private final AtomicLong eventCount = new AtomicLong();        // Events dispatched
+	private final AtomicLong stallCount = new AtomicLong();        // Events that took at least the threshold
+	private final AtomicLong totalStallNanos = new AtomicLong();   // Time spent in those events
+	private final AtomicLong maxStallNanos = new AtomicLong();     // Longest of them
+
+	// Latest stalls, oldest first (guarded by itself), and who to tell about new ones
+	private final Deque<Stall> stalls = new ArrayDeque<>();
+	private final List<Consumer<Stall>> stallListeners = new CopyOnWriteArrayList<>();
+
+	// Constructor for a watchdog with its own settings (used by tests)
+	public EdtWatchdog(long thresholdMillis, long sampleIntervalMillis) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		this.sampleIntervalMillis = sampleIntervalMillis;
+	}
+
+	// Public method to obtain the single instance used by the application
+	// (threshold from THRESHOLD_PROPERTY, if set)
+	public static synchronized EdtWatchdog getInstance() {
+		if (instance == null) {
+			long threshold = DEFAULT_THRESHOLD_MS;
+			String property = System.getProperty(THRESHOLD_PROPERTY);
+			if (property != null) {
+				try {
+					threshold = Long.parseLong(property.trim());
+				} catch (NumberFormatException e) {
+					e.printStackTrace();
+				}
+			}
+			instance = new EdtWatchdog(threshold, DEFAULT_SAMPLE_INTERVAL_MS);
+		}
+		return instance;
+	}
+
+	// Whether the application should start the watchdog (true unless ENABLED_PROPERTY is "false")
+	public static boolean isEnabledByDefault() {
+		return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY, "true").trim());
+	}
+
+	// ========================= METHOD: start ========================= //
+	// Starts watching the EDT: pushes the timing event queue and starts
+	// the sampler thread. Does nothing if already running.
+	// ================================================================= //
+	public synchronized void start() {
+		if (queue != null) {
+			return;
+		}
+		queue = new WatchedQueue();
+		Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+
+		sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ecs-edt-watchdog");
+			t.setDaemon(true);
+			return t;
+		});
+		sampler.scheduleAtFixedRate(this::sample, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	// Stops watching and restores the previous event queue
+	public synchronized void stop() {
+		if (queue == null) {
+			return;
+		}
+		sampler.shutdownNow();
+		queue.remove();
+		queue = null;
+		sampler = null;
+		current = null;
+	}
+
+	public synchronized boolean isRunning() {
+		return queue != null;
+	}
+
+	// Registers a listener that is called, on the EDT, after each stall
+	public void addStallListener(Consumer<Stall> listener) {
+		stallListeners.add(listener);
+	}
+
+	// ======================== METHOD: sample ======================== //
+	// Runs on the sampler thread. Captures the EDT's stack once the
+	// running event has taken the threshold, while it is still stuck.
+	// ================================================================ //
+	private void sample() {
+		Dispatch dispatch = current;
+		if (dispatch != null && !dispatch.nested && dispatch.stack == null
+				&& System.nanoTime() - dispatch.start >= thresholdNanos) {
+			dispatch.stack = dispatch.thread.getStackTrace();
+		}
+	}
+
+	// Records an event that took at least the threshold
+	private void recordStall(Dispatch dispatch, long nanos) {
+		stallCount.incrementAndGet();
+		totalStallNanos.addAndGet(nanos);
+		maxStallNanos.accumulateAndGet(nanos, Math::max);
+
+		Stall stall = new Stall(nanos, describe(dispatch.event), dispatch.stack, LocalDateTime.now());
+		synchronized (stalls) {
+			if (stalls.size() == STALLS_KEPT) {
+				stalls.removeFirst();
+			}
+			stalls.addLast(stall);
+		}
+		System.out.println(stall.toLogString(PRINTED_FRAMES));
+		for (Consumer<Stall> listener : stallListeners) {
+			listener.accept(stall);
+		}
+	}
+
+	// Describes an event, e.g. "ActionEvent on JButton "Return Equipment""
+	private static String describe(AWTEvent event) {
+		String text = event.getClass().getSimpleName();
+		Object source = event.getSource();
+		if (source instanceof AbstractButton && ((AbstractButton) source).getText() != null) {
+			return text + " on " + source.getClass().getSimpleName() + " \"" + ((AbstractButton) source).getText() + "\"";
+		}
+		if (source instanceof Component) {
+			return text + " on " + source.getClass().getSimpleName();
+		}
+		return text;
+	}
+
+	// Metric getters
+	// Number of events dispatched while running
+	public long getEventCount() {
+		return eventCount.get();
+	}
+
+	// Number of stalls
+	public long getStallCount() {
+		return stallCount.get();
+	}
+
+	// Time spent in stalled events, in milliseconds
+	public double getTotalStallMillis() {
+		return totalStallNanos.get() / 1_000_000.0;
+	}
+
+	// Longest stall, in milliseconds
+	public double getMaxStallMillis() {
+		return maxStallNanos.get() / 1_000_000.0;
+	}
+
+	public long getThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+	}
+
+	// Latest stalls, oldest first
+	public List<Stall> getStalls() {
+		synchronized (stalls) {
+			return new ArrayList<>(stalls);
+		}
+	}
+
+	// ========================= CLASS: Dispatch ========================= //
+	// One event being dispatched. Only the EDT changes the fields, apart
+	// from the stack, which the sampler fills in.
+	// =================================================================== //
+	private static final class Dispatch {
+
+		private final AWTEvent event;
+		private final Thread thread;          // EDT running the event
+		private final long start;             // System.nanoTime() when it started
+		private volatile boolean nested;      // Another event was dispatched inside it (modal dialog)
+		private volatile StackTraceElement[] stack;   // EDT stack once the threshold passed
+
+		Dispatch(AWTEvent event, Thread thread, long start) {
+			this.event = event;
+			this.thread = thread;
+			this.start = start;
+		}
+	}
+
+	// ======================= CLASS: WatchedQueue ======================= //
+	// Event queue pushed in front of the system one. Every event is still
+	// dispatched by EventQueue; this only times it.
+	// =================================================================== //
+	private final class WatchedQueue extends EventQueue {
+
+		// Events being dispatched on the EDT, innermost first (EDT only)
+		private final Deque<Dispatch> dispatching = new ArrayDeque<>();
+
+		@Override
+		protected void dispatchEvent(AWTEvent event) {
+			Dispatch outer = dispatching.peekFirst();
+			if (outer != null) {
+				outer.nested = true;
+			}
+			Dispatch dispatch = new Dispatch(event, Thread.currentThread(), System.nanoTime());
+			dispatching.addFirst(dispatch);
+			current = dispatch;
+
+			try {
+				super.dispatchEvent(event);
+			} finally {
+				long nanos = System.nanoTime() - dispatch.start;
+				dispatching.removeFirst();
+				current = dispatching.peekFirst();
+				eventCount.incrementAndGet();
+				if (!dispatch.nested && nanos >= thresholdNanos) {
+					recordStall(dispatch, nanos);
+				}
+			}
+		}
+
+		// Restores the event queue that was in place before start()
+		void remove() {
+			pop();
+		}
+	}
+
+	// ========================== CLASS: Stall ========================== //
+	// One event that kept the EDT busy for at least the threshold.
+	// ================================================================== //
+	public static final class Stall {
+
+		private final long nanos;
+		private final String event;
+		private final StackTraceElement[] stack;   // Empty if it finished before it was sampled
+		private final LocalDateTime time;
+
+		Stall(long nanos, String event, StackTraceElement[] stack, LocalDateTime time) {
+			this.nanos = nanos;
+			this.event = event;
+			this.stack = stack != null ? stack : new StackTraceElement[0];
+			this.time = time;
+		}
+
+		public double getMillis() {
+			return nanos / 1_000_000.0;
+		}
+
+		// Event that stalled, e.g. "ActionEvent on JButton "View Record""
+		public String getEvent() {
+			return event;
+		}
+
+		// EDT stack captured while the event was stuck
+		public StackTraceElement[] getStack() {
+			return stack.clone();
+		}
+
+		// ECS methods on the stack, innermost first, e.g.
+		// "TransactionDAO.getTransactionsByEmployeeID <- Employee.viewRecord <- MainApp.refreshViewRecordTable"
+		public String getEcsFrames() {
+			StringBuilder text = new StringBuilder();
+			String previous = null;   // Recursive calls are listed once
+			for (StackTraceElement frame : stack) {
+				String className = frame.getClassName();
+				if (!className.startsWith("ecsapplication.") || className.equals(EdtWatchdog.class.getName())
+						|| className.startsWith(EdtWatchdog.class.getName() + "$")) {
+					continue;
+				}
+				String method = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+				if (!method.equals(previous)) {
+					text.append(previous == null ? "" : " <- ").append(method);
+					previous = method;
+				}
+			}
+			return text.length() == 0 ? "(stack not captured)" : text.toString();
+		}
+
+		public LocalDateTime getTime() {
+			return time;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%s EDT stall: %.0f ms in %s at %s", time, getMillis(), event, getEcsFrames());
+		}
+
+		// The summary line followed by the top of the captured stack
+		String toLogString(int frames) {
+			StringBuilder text = new StringBuilder(toString());
+			for (int i = 0; i < Math.min(frames, stack.length); i++) {
+				text.append("\n\tat ").append(stack[i]);
+			}
+			if (stack.length > frames) {
+				text.append("\n\t... ").append(stack.length - frames).append(" more");
+			}
+			return text.toString();
+		}
+	}
+}
@@ -19,7 +19,6 @@ import ecsapplication.enums.OrderStatus;
 
 // Import SQL libraries for connection and queries
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 // Import Java time API for date
@@ -27,10 +26,17 @@ import java.time.LocalDate;
 
 // Import framework for lists/arrays
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Employee {
 
+	// Results of placing an order (see saveOrder())
+	public static final String ORDER_CONFIRMED = "Order confirmed.";
+	public static final String ORDER_CONFLICT = "Equipment is no longer available.";
+	public static final String ORDER_FAILED = "Failed to place order.";
+
 	// Attributes
 	private int empID;          // Unique Identifier for the employee
 	private String empName;     // Employee name
@@ -124,6 +130,21 @@ public class Employee {
 	// ========================================== //
 	public Transaction checkOut(Equipment equipment) {
 
+		// Step 1: Create the transaction
+		Transaction transaction = newCheckout(equipment);
+
+		// Step 2: Add transaction to employees local list for tracking
+		this.empTransaction.add(transaction);
+
+		// Step 3: Return to newly created transaction object
+		return transaction;
+	}
+
+	// Creates an unsaved checkout transaction of one piece of equipment
+	// without adding it to the employee's list (used by batch checkouts,
+	// which add their transactions only once all of them are saved)
+	public Transaction newCheckout(Equipment equipment) {
+
 		// Step 1: Get current date for borrow date
 		LocalDate today = LocalDate.now();
 
@@ -144,10 +165,7 @@ public class Employee {
 				equipment.getEquipmentCondition()   // Filled with checkoutCondition
 				);
 
-		// Step 4: Add transaction to employees local list for tracking
-		this.empTransaction.add(transaction);
-
-		// Step 5: Return to newly created transaction object
+		// Step 4: Return to newly created transaction object
 		return transaction;
 	}
 
@@ -175,16 +193,13 @@ public class Employee {
 				OrderStatus.Confirmed   // Order Status = Confirmed
 				);
 
-		// Step 4: Save order to the database
-		boolean success = OrderDAO.insertOrder(order);
-
-		// Step 5: Update equipment status if order is successful
-		if (success) {
-			EquipmentDAO.updateEquipmentStatus(equipment.getEquipmentID(), EquipmentStatus.Ordered);
-			return "Order confirmed.";
-		} else {
-			return "Failed to place order.";
+		// Step 4: Save the order, the equipment status and the order event together
+		try (Connection conn = DBConnect.getInstance().getConnection()) {
+			return saveOrder(conn, order);
+		} catch (SQLException e) {
+			e.printStackTrace();
 		}
+		return ORDER_FAILED;
 	}
 
 	// ================== ORDER EQUIPMENT METHOD (OVERLOADED) ======================= //
@@ -202,16 +217,8 @@ public class Employee {
 			// Create a new Order object for this employee and equipment, with status Confirmed
 			Order order = new Order(this, equipment, OrderStatus.Confirmed);
 
-			// Insert the order into the database
-			boolean success = OrderDAO.insertOrder(conn, order);
-
-			if (success) {
-				// If insertion successful, update equipment status to Ordered
-				EquipmentDAO.updateEquipmentStatus(conn, equipment.getEquipmentID(), EquipmentStatus.Ordered);
-				return "Order confirmed."; // Return success message
-			} else {
-				return "Failed to place order."; // Return failure message if DB insert fails
-			}
+			// Insert the order, set the equipment to Ordered and record the event
+			return saveOrder(conn, order);
 
 		} catch (SQLException e) {
 			e.printStackTrace(); // Print stack trace for debugging
@@ -219,6 +226,60 @@ public class Employee {
 		}
 	}
 
+	// ================== SAVE ORDER HELPER METHOD ================== //
+	// Inserts the order, sets its equipment to Ordered and appends an
+	// ORDERED event to the outbox in one database transaction. If the
+	// caller already has a transaction open (auto-commit off), the
+	// changes join it and the caller commits or rolls back (through
+	// EquipmentCache.commit() and rollback(), so the cache follows).
+	// The equipment is only set to Ordered if it is still Available, so
+	// an order never overwrites another clerk's checkout. Returns the
+	// message to show: ORDER_CONFIRMED, ORDER_CONFLICT (nothing saved;
+	// a caller with its own transaction must roll it back) or
+	// ORDER_FAILED if the order was not inserted.
+	// =============================================================== //
+	private String saveOrder(Connection conn, Order order) throws SQLException {
+		boolean ownTransaction = conn.getAutoCommit();
+		if (ownTransaction) {
+			conn.setAutoCommit(false);  // start transaction
+		}
+		try {
+			// Insert the order (sets its generated order ID)
+			if (!OrderDAO.insertOrder(conn, order)) {
+				if (ownTransaction) {
+					EquipmentCache.rollback(conn);
+				}
+				return ORDER_FAILED;
+			}
+
+			// Update equipment status to Ordered if no one loaned or ordered it since it was listed
+			// (the equipment cache follows once committed)
+			if (!EquipmentDAO.orderIfAvailable(conn, order.getEquipment().getEquipmentID())) {
+				if (ownTransaction) {
+					EquipmentCache.rollback(conn);
+				}
+				return ORDER_CONFLICT;
+			}
+
+			// Record the order in the event outbox
+			OutboxDAO.append(conn, OutboxEvent.ordered(order));
+
+			if (ownTransaction) {
+				EquipmentCache.commit(conn);
+			}
+			return ORDER_CONFIRMED;
+		} catch (SQLException e) {
+			if (ownTransaction) {
+				EquipmentCache.rollback(conn);
+			}
+			throw e;
+		} finally {
+			if (ownTransaction) {
+				conn.setAutoCommit(true);
+			}
+		}
+	}
+
 	// ===================== CANCEL ORDER METHOD ===================== //
 	// Enables an employee to cancel an order made.
 	// Updates the order status to ‘Cancelled’ and set the associated 
@@ -227,48 +288,62 @@ public class Employee {
 	// =============================================================== //
 	public String cancelOrder(int orderID) {
 		try (Connection conn = DBConnect.getInstance().getConnection()) {
+			return cancelOrder(conn, orderID);
+		} catch (SQLException e) {
+			e.printStackTrace();      // Print exception if the connection fails
+			return "An error occured while cancelling the order.";
+		}
+	}
 
-			// Retrieve order from the database using the given orderID
-			Order order = OrderDAO.getOrderByID(conn, orderID);
-			if (order == null) {
-				return "Order not found";  // Return if order does not exist
-			}
-			if (order.getOrderStatus() == OrderStatus.Cancelled) {
-				return "Order is already cancelled";  // Return if the order is already cancelled
-			}
+	// ================ CANCEL ORDER OVERLOAD METHOD ================ //
+	// Same as cancelOrder(int) on a given connection (for testing
+	// purposes). The order status, the equipment status and the
+	// ORDER_CANCELLED outbox event are saved in one database transaction.
+	// =============================================================== //
+	public String cancelOrder(Connection conn, int orderID) {
 
-			// SQL statement to update the order status to "Cancelled"
-			String sqlUpdateOrder = "UPDATE `order` SET orderStatus = 'Cancelled' WHERE orderID = ?";
-			try (PreparedStatement stmt = conn.prepareStatement(sqlUpdateOrder)) {
-				stmt.setInt(1, orderID);
-				stmt.executeUpdate();  // Execute the update
-			}
+		// Retrieve order from the database using the given orderID
+		Order order = OrderDAO.getOrderByID(conn, orderID);
+		if (order == null) {
+			return "Order not found";  // Return if order does not exist
+		}
+		if (order.getOrderStatus() == OrderStatus.Cancelled) {
+			return "Order is already cancelled";  // Return if the order is already cancelled
+		}
 
-			// SQL statement to update the equipment status to "Available"
-			String sqlUpdateEquip = "UPDATE equipment SET equipStatus = 'Available' WHERE equipmentID = ?";
-			try (PreparedStatement stmt = conn.prepareStatement(sqlUpdateEquip)) {
-				stmt.setInt(1, order.getEquipment().getEquipmentID());
+		try {
+			conn.setAutoCommit(false);  // start transaction
 
-				int affected = stmt.executeUpdate();  // Apply the update
+			// Update the order status to "Cancelled"
+			OrderDAO.updateOrderStatus(conn, orderID, OrderStatus.Cancelled);
 
-				if (affected > 0) {
-					return "Order successfully cancelled";  // Success message
-				}
-				else {
-					return "Failed to cancel order";  // Failure message if equipment update fails
-				}
+			// Update the equipment status to "Available", only if it is still held by the order
+			// (the equipment cache follows once committed)
+			boolean updated = EquipmentDAO.releaseIfOrdered(conn, order.getEquipment().getEquipmentID());
+			if (!updated) {
+				EquipmentCache.rollback(conn);
+				return "Failed to cancel order: the equipment is no longer ordered";  // Another change won the race
 			}
 
+			// Record the cancellation in the event outbox and save everything together
+			OutboxDAO.append(conn, OutboxEvent.orderCancelled(order));
+			EquipmentCache.commit(conn);
+			return "Order successfully cancelled";  // Success message
+
 		} catch (SQLException e) {
 			e.printStackTrace();      // Print exception if database operation fails
+			try { EquipmentCache.rollback(conn); } catch (SQLException ex) { ex.printStackTrace(); }
 			return "An error occured while cancelling the order.";
+		} finally {
+			try { conn.setAutoCommit(true); } catch (SQLException ex) { ex.printStackTrace(); }
 		}
 	}
 
 	// =========================== RETURN EQUIPMENT METHOD ========================= //
 	// Allows an employee to return equipment previously borrowed equipment.
 	// Updates the transaction status to ‘Returned’, equipment status to ‘Available’,
-	// and equipment condition to the one chosen by the employee
+	// and equipment condition to the one chosen by the employee. Returns null if
+	// nothing was saved, e.g., the loan was already returned from another terminal
 	// ============================================================================= //
 	public Transaction returnEquipment(int transactionID, EquipmentCondition condition) {
 
@@ -309,14 +384,21 @@ public class Employee {
 					conn = DBConnect.getInstance().getConnection();
 					conn.setAutoCommit(false);  // start transaction
 
-					// Update transaction in the transaction table (e.g., update status, return date, return condition)
-					TransactionDAO.updateTransactionReturn(conn, txn);
+					// Update transaction in the transaction table (e.g., update status, return date, return condition);
+					// stop if it was already returned, e.g., from another terminal
+					if (!TransactionDAO.updateTransactionReturn(conn, txn)) {
+						throw new SQLException("Transaction no longer borrowed: " + transactionID);
+					}
 
 					// Update equipment status in the equipment table (e.g., Loaned)
 					EquipmentDAO.updateEquipment(conn, eq);
 
-					// If all updates succeeded, save changes to the database
-					conn.commit();
+					// Record the return in the event outbox
+					OutboxDAO.append(conn, OutboxEvent.returned(txn));
+
+					// If all updates succeeded, save changes to the database (and then to the equipment cache)
+					EquipmentCache.commit(conn);
+					Diagnostics.recordReturns(1);
 				} catch (SQLException e) {
 
 					// Print error to stack trace
@@ -324,8 +406,15 @@ public class Employee {
 					if (conn != null) {
 
 						// Cancel all changes if an error occurs
-						try { conn.rollback(); } catch (SQLException ex) { ex.printStackTrace(); }
+						try { EquipmentCache.rollback(conn); } catch (SQLException ex) { ex.printStackTrace(); }
 					}
+
+					// Undo the in-memory changes; nothing was returned
+					txn.setReturnDate(null);
+					txn.setTransactionStatus(TransactionStatus.Borrowed);
+					txn.setReturnCondition(null);
+					eq.setStatus(EquipmentStatus.Loaned);
+					return null;
 				} finally {
 					// Close connection in the 'Finally' block
 					if (conn != null) {
@@ -351,6 +440,9 @@ public class Employee {
 		try {
 			// Call the DAO method to update the transaction in the database and get the updated transaction
 			Transaction txnFromDB = TransactionDAO.returnEquipment(conn, transactionID, condition);
+			if (txnFromDB != null) {
+				Diagnostics.recordReturns(1);
+			}
 
 			// Iterate through the employee's local transaction list to update the in-memory objects
 			for (Transaction t : empTransaction) {
@@ -382,6 +474,108 @@ public class Employee {
 		}
 	}
 
+	// ===================== BULK RETURN EQUIPMENT METHOD ===================== //
+	// Returns several borrowed items at once, e.g. at the end of a shift.
+	// Takes (transactionID, condition) pairs and saves them all in one
+	// database transaction: one batched update of the transaction table,
+	// one of the equipment table and one batched insert into the event
+	// outbox. All-or-nothing: if any ID is not one of this employee's open
+	// loans, a condition is missing, or the database no longer shows a
+	// loan as borrowed, nothing is saved and an empty list is returned.
+	// Otherwise returns the returned transactions.
+	// ======================================================================== //
+	public List<Transaction> returnEquipment(Map<Integer, EquipmentCondition> returns) {
+		try (Connection conn = DBConnect.getInstance().getConnection()) {
+			return returnEquipment(conn, returns);
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return new ArrayList<>();
+		}
+	}
+
+	// ================= BULK RETURN EQUIPMENT OVERLOAD METHOD ================= //
+	// Same as returnEquipment(Map) on a given connection (for testing purposes)
+	// ========================================================================= //
+	public List<Transaction> returnEquipment(Connection conn, Map<Integer, EquipmentCondition> returns) {
+
+		// Step 1: Look up every loan through an index instead of scanning the list per item
+		Map<Integer, Transaction> openLoans = getOpenLoansByID();
+		List<Transaction> returned = new ArrayList<>();
+		for (Map.Entry<Integer, EquipmentCondition> entry : returns.entrySet()) {
+			Transaction txn = openLoans.get(entry.getKey());
+			if (txn == null || entry.getValue() == null) {
+				return new ArrayList<>();
+			}
+			returned.add(txn);
+		}
+		if (returned.isEmpty()) {
+			return returned;
+		}
+
+		// Step 2: Record the return on each transaction and its equipment
+		LocalDate today = LocalDate.now();
+		for (Transaction txn : returned) {
+			txn.setReturnDate(today);
+			txn.setTransactionStatus(TransactionStatus.Returned);
+			txn.setReturnCondition(returns.get(txn.getTransactionID()));
+			txn.getEquipment().setStatus(EquipmentStatus.Available);
+		}
+
+		// Step 3: Persist both tables in one database transaction
+		try {
+			conn.setAutoCommit(false);  // start transaction
+
+			// Update all transactions (one batch); stop if any was already returned
+			List<Integer> notBorrowed = TransactionDAO.updateTransactionReturns(conn, returned);
+			if (!notBorrowed.isEmpty()) {
+				throw new SQLException("Transactions no longer borrowed: " + notBorrowed);
+			}
+
+			// Make all equipment available again (one batch)
+			EquipmentDAO.markReturnedEquipment(conn, returned);
+
+			// Record every return in the event outbox (one batch)
+			List<OutboxEvent> events = new ArrayList<>();
+			for (Transaction txn : returned) {
+				events.add(OutboxEvent.returned(txn));
+			}
+			OutboxDAO.appendAll(conn, events);
+
+			// If all updates succeeded, save changes to the database (and then to the equipment cache)
+			EquipmentCache.commit(conn);
+			Diagnostics.recordReturns(returned.size());
+		} catch (SQLException e) {
+
+			// Print error to stack trace and cancel all changes
+			e.printStackTrace();
+			try { EquipmentCache.rollback(conn); } catch (SQLException ex) { ex.printStackTrace(); }
+
+			// Undo the in-memory changes
+			for (Transaction txn : returned) {
+				txn.setReturnDate(null);
+				txn.setTransactionStatus(TransactionStatus.Borrowed);
+				txn.setReturnCondition(null);
+				txn.getEquipment().setStatus(EquipmentStatus.Loaned);
+			}
+
+			return new ArrayList<>();
+		} finally {
+			try { conn.setAutoCommit(true); } catch (SQLException ex) { ex.printStackTrace(); }
+		}
+		return returned;
+	}
+
+	// Indexes the employee's borrowed transactions by transaction ID
+	private Map<Integer, Transaction> getOpenLoansByID() {
+		Map<Integer, Transaction> openLoans = new HashMap<>();
+		for (Transaction txn : empTransaction) {
+			if (txn.getTransactionStatus() == TransactionStatus.Borrowed) {
+				openLoans.put(txn.getTransactionID(), txn);
+			}
+		}
+		return openLoans;
+	}
+
 	// ============================== VIEW RECORD METHOD ================================ //
 	// Retrieves a list of transactions associated with this employeeID from the database
 	// Used for displaying individual employee's records in the "View Record" panel
@@ -423,6 +617,11 @@ public class Employee {
 		} catch (SQLException e) {
 			// Print the stack trace if a database error occurs
 			e.printStackTrace();
+		} finally {
+			// Return the pooled connection if this method borrowed it (the test connection is left open)
+			if (conn != null && conn != testConn) {
+				try { conn.close(); } catch (SQLException ex) { ex.printStackTrace(); }
+			}
 		}
 
 		// Return the list of transactions retrieved
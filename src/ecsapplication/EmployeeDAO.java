@@ -22,10 +22,24 @@ import ecsapplication.enums.SkillClassification;
 
 public class EmployeeDAO {
 
+		// Directory that serves employee lookups for other DAOs (null if none is in use)
+		private static volatile EmployeeDirectory directory;
+
+		// Connects a directory (see EmployeeDirectory.getInstance())
+		public static void setDirectory(EmployeeDirectory employeeDirectory) {
+			directory = employeeDirectory;
+		}
+
+		// Returns the connected directory, or null
+		public static EmployeeDirectory getDirectory() {
+			return directory;
+		}
+
 		// ============== METHOD: getAllEmployees =============== //
-	    // Used for ComboBox in MainApp
 	    // Retrieves employee empID, empName, and skill from the 
-	    // employee table in the database.
+	    // employee table in the database, with each employee's
+	    // transactions. (The MainApp ComboBox is filled from the
+	    // EmployeeDirectory, which does not load transactions.)
 		// ===================================================== //
 		public static List<Employee> getAllEmployees(Connection conn) throws SQLException {
 			
@@ -103,4 +117,56 @@ public class EmployeeDAO {
 			// Return null if no employee with the given empID exists
 			return null;
 		}
+
+		// ================ METHOD: getEmployeeSummaries ================ //
+		// Retrieves every employee's ID, name, and skill in empID order,
+		// without their transactions. Used to load the EmployeeDirectory.
+		// =============================================================== //
+		public static List<Employee> getEmployeeSummaries(Connection conn) throws SQLException {
+
+			// Initialize a dynamic list to store employee objects
+			List<Employee> list = new ArrayList<>();
+
+			// SQL query to select employee attributes from the employee table
+			String strSQL = "SELECT empID, empName, skillClassification FROM employee ORDER BY empID";
+
+			try (PreparedStatement stmt = conn.prepareStatement(strSQL);
+					ResultSet rs = stmt.executeQuery()) {
+
+				// Map each row to an Employee object
+				while (rs.next()) {
+					list.add(mapResultSetToEmployee(rs));
+				}
+			}
+			return list;
+		}
+
+		// ====================== METHOD: lookupEmployee ====================== //
+		// Returns the employee with the given ID for use inside another row
+		// (e.g., the employee of an order). Served from the EmployeeDirectory
+		// when one is connected, so no query runs; otherwise, or if the
+		// employee is not in the directory yet, falls back to getEmployeeByID().
+		// ==================================================================== //
+		public static Employee lookupEmployee(Connection conn, int empID) throws SQLException {
+			EmployeeDirectory d = directory;
+			Employee emp = d != null ? d.getEmployee(empID) : null;
+			return emp != null ? emp : getEmployeeByID(conn, empID);
+		}
+
+		// ================== METHOD: mapResultSetToEmployee ================== //
+		// Maps the employee columns of the current row into an Employee object.
+		// The employee's transactions are not loaded.
+		// ==================================================================== //
+		public static Employee mapResultSetToEmployee(ResultSet rs) throws SQLException {
+
+			// Get employee fields from the result set
+			int empID = rs.getInt("empID");
+			String empName = rs.getString("empName");
+
+			// Convert skill string to enum
+			SkillClassification skill = SkillClassification.fromString(rs.getString("skillClassification"));
+
+			// Create and return the employee object
+			return new Employee(empID, empName, skill);
+		}
 }
@@ -0,0 +1,288 @@
+/**
+ * EmployeeDirectory.java
+ * Shared in-memory directory of employees (ID, name and skill). It
+ * serves the employee combo box and the per-row employee lookups made
+ * while reading orders, so neither has to query the employee table.
+ *
+ * The directory holds an immutable Snapshot: the employees indexed by
+ * empID and by skill classification, each lookup a single map read.
+ * A refresh loads a complete new snapshot and swaps it in with one
+ * reference assignment, so readers never wait and never see a
+ * half-loaded directory. Refreshes run on a background thread:
+ *   -periodically (every DEFAULT_REFRESH_MS by default)
+ *   -on demand through invalidate(), e.g. after employees are added
+ *    or changed; the old snapshot is served until the new one is ready
+ * Only the very first read, before any snapshot exists, loads on the
+ * calling thread.
+ *
+ * Employee objects in a snapshot are shared by every caller and do not
+ * carry transactions. Treat them as read-only; code that keeps state on
+ * an employee (e.g., the combo box selection, which collects the
+ * employee's transactions) works on its own copy.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect. The first call to getInstance() connects the directory to
+ * EmployeeDAO so DAO lookups are served from it.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used to load the directory
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Import collection framework and concurrency utilities for background refresh
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Import skill classification enumeration for the skill index
+import ecsapplication.enums.SkillClassification;
+
+public class EmployeeDirectory {
+
+	// Default interval between background refreshes
+	public static final long DEFAULT_REFRESH_MS = 600_000;
+
+	private static EmployeeDirectory instance;   // Singular instance
+
+	private final AsyncService.ConnectionSource connections;   // Source of connections for loading
+	private final ScheduledExecutorService refresher;          // Background refresh thread
+
+	// Current snapshot (null until the first load)
+	private volatile Snapshot snapshot;
+
+	// Refresh in progress, shared by concurrent invalidate() calls (guarded by this)
+	private CompletableFuture<Snapshot> pendingRefresh;
+
+	// Listeners told about each snapshot whose contents changed
+	private final List<Consumer<Snapshot>> refreshListeners = new CopyOnWriteArrayList<>();
+
+	// Number of snapshots loaded
+	private final AtomicLong refreshCount = new AtomicLong();
+
+	// Constructor for a directory with its own connection source (used by tests).
+	// A refresh interval of 0 or less turns periodic refresh off.
+	public EmployeeDirectory(AsyncService.ConnectionSource connections, long refreshMillis) {
+		this.connections = connections;
+		this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ecs-employee-directory");
+			t.setDaemon(true);
+			return t;
+		});
+		if (refreshMillis > 0) {
+			refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// Public method to obtain the single instance used by the application
+	public static synchronized EmployeeDirectory getInstance() {
+		if (instance == null) {
+			instance = new EmployeeDirectory(() -> DBConnect.getInstance().getConnection(), DEFAULT_REFRESH_MS);
+
+			// Serve DAO employee lookups from the directory
+			EmployeeDAO.setDirectory(instance);
+		}
+		return instance;
+	}
+
+	// ======================================================================
+	// Lookups
+	// ======================================================================
+
+	// ======================== METHOD: getSnapshot ====================== //
+	// Returns the current snapshot, loading the first one if needed.
+	// ================================================================== //
+	public Snapshot getSnapshot() throws SQLException {
+		Snapshot current = snapshot;
+		if (current != null) {
+			return current;
+		}
+
+		// First use: load on this thread (concurrent first readers share one load)
+		synchronized (this) {
+			if (snapshot == null) {
+				publish(load());
+			}
+			return snapshot;
+		}
+	}
+
+	// Returns the employee with the given ID, or null if there is none
+	public Employee getEmployee(int empID) throws SQLException {
+		return getSnapshot().getEmployee(empID);
+	}
+
+	// Returns the employees with the given skill, in empID order
+	public List<Employee> getEmployeesBySkill(SkillClassification skill) throws SQLException {
+		return getSnapshot().getEmployeesBySkill(skill);
+	}
+
+	// Returns every employee, in empID order
+	public List<Employee> getAllEmployees() throws SQLException {
+		return getSnapshot().getAllEmployees();
+	}
+
+	// ======================================================================
+	// Refresh
+	// ======================================================================
+
+	// ======================== METHOD: invalidate ======================= //
+	// Hook to call when employees have changed. Reloads the directory on
+	// the background thread and returns the new snapshot when it is in
+	// place. Readers keep getting the old snapshot until then. Calls made
+	// while a reload is already queued share it.
+	// ================================================================== //
+	public synchronized CompletableFuture<Snapshot> invalidate() {
+		if (pendingRefresh != null && !pendingRefresh.isDone()) {
+			return pendingRefresh;
+		}
+		CompletableFuture<Snapshot> refresh = new CompletableFuture<>();
+		pendingRefresh = refresh;
+		refresher.execute(() -> {
+			try {
+				refresh.complete(refresh());
+			} catch (Throwable e) {
+				refresh.completeExceptionally(e);
+			}
+		});
+		return refresh;
+	}
+
+	// Loads a new snapshot on the calling thread and puts it in place
+	public Snapshot refresh() throws SQLException {
+		Snapshot loaded = load();
+		synchronized (this) {
+			publish(loaded);
+		}
+		return loaded;
+	}
+
+	// Registers a listener that is called, on the refreshing thread, with
+	// each new snapshot whose employees differ from the previous one
+	public void addRefreshListener(Consumer<Snapshot> listener) {
+		refreshListeners.add(listener);
+	}
+
+	// Number of snapshots loaded so far
+	public long getRefreshCount() {
+		return refreshCount.get();
+	}
+
+	// Stops background refreshes
+	public void shutdown() {
+		refresher.shutdownNow();
+	}
+
+	// Periodic refresh; errors are logged and the old snapshot is kept
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (SQLException e) {
+			e.printStackTrace();
+			System.out.println("Failed to refresh the employee directory");
+		}
+	}
+
+	// Reads the employee table into a new snapshot
+	private Snapshot load() throws SQLException {
+		try (Connection conn = connections.getConnection()) {
+			Snapshot loaded = new Snapshot(EmployeeDAO.getEmployeeSummaries(conn), System.currentTimeMillis());
+			refreshCount.incrementAndGet();
+			return loaded;
+		}
+	}
+
+	// Puts a snapshot in place and notifies listeners if its contents changed (caller holds this)
+	private void publish(Snapshot loaded) {
+		Snapshot previous = snapshot;
+		snapshot = loaded;
+		if (previous != null && !loaded.sameEmployeesAs(previous)) {
+			for (Consumer<Snapshot> listener : refreshListeners) {
+				listener.accept(loaded);
+			}
+		}
+	}
+
+	// ======================== CLASS: Snapshot ======================== //
+	// An immutable copy of the employee table, indexed by empID and by
+	// skill classification.
+	// ================================================================= //
+	public static final class Snapshot {
+
+		private final List<Employee> all;                                    // Every employee in empID order
+		private final Map<Integer, Employee> byID;                           // Employees by empID
+		private final Map<SkillClassification, List<Employee>> bySkill;      // Employees by skill, in empID order
+		private final long loadedAt;                                         // Load time (epoch milliseconds)
+
+		Snapshot(List<Employee> employees, long loadedAt) {
+			Map<Integer, Employee> ids = new LinkedHashMap<>();
+			Map<SkillClassification, List<Employee>> skills = new EnumMap<>(SkillClassification.class);
+			for (Employee emp : employees) {
+				ids.put(emp.getEmpID(), emp);
+				if (emp.getSkillClassification() != null) {
+					skills.computeIfAbsent(emp.getSkillClassification(), s -> new ArrayList<>()).add(emp);
+				}
+			}
+			skills.replaceAll((skill, list) -> List.copyOf(list));
+
+			this.all = List.copyOf(employees);
+			this.byID = Collections.unmodifiableMap(ids);
+			this.bySkill = Collections.unmodifiableMap(skills);
+			this.loadedAt = loadedAt;
+		}
+
+		// Returns the employee with the given ID, or null if there is none
+		public Employee getEmployee(int empID) {
+			return byID.get(empID);
+		}
+
+		// Returns the employees with the given skill, in empID order
+		public List<Employee> getEmployeesBySkill(SkillClassification skill) {
+			return bySkill.getOrDefault(skill, List.of());
+		}
+
+		// Returns every employee, in empID order
+		public List<Employee> getAllEmployees() {
+			return all;
+		}
+
+		// Number of employees in the snapshot
+		public int size() {
+			return all.size();
+		}
+
+		// Time the snapshot was loaded (epoch milliseconds)
+		public long getLoadedAt() {
+			return loadedAt;
+		}
+
+		// True if both snapshots list the same employees with the same names and skills
+		boolean sameEmployeesAs(Snapshot other) {
+			if (other.all.size() != all.size()) {
+				return false;
+			}
+			for (int i = 0; i < all.size(); i++) {
+				Employee a = all.get(i);
+				Employee b = other.all.get(i);
+				if (a.getEmpID() != b.getEmpID()
+						|| !Objects.equals(a.getEmpName(), b.getEmpName())
+						|| a.getSkillClassification() != b.getSkillClassification()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,529 @@
+/**
+ * EquipmentCache.java
+ * In-memory copy of the equipment catalog. The checkout and order
+ * dialogs read equipment from here instead of querying MySQL each time
+ * they open. The catalog is small and changes rarely; what does change
+ * often is an item's status.
+ *
+ * The whole catalog is loaded with one query and indexed two ways:
+ *   -by equipment ID
+ *   -by required skill and status (e.g., available Welder equipment)
+ *
+ * The cache is kept current by write-through: the EquipmentDAO update
+ * methods (updateEquipment, updateEquipmentStatus, markAllLoaned,
+ * updateLastReturnCondition) hand each change to the cache after they
+ * write it to the database. Under auto-commit it is applied at once;
+ * inside a database transaction it is held until the transaction is
+ * committed with EquipmentCache.commit(conn), and dropped (with the
+ * catalog invalidated) by EquipmentCache.rollback(conn), so the cache
+ * never shows a change that was rolled back. Checkouts, returns and orders made by
+ * other copies of the application arrive through the event outbox
+ * (applyEvent, subscribed to OutboxRelay). Other changes made outside
+ * this application are picked up by the time-to-live (TTL): a snapshot
+ * older than the TTL is reloaded on the next read. invalidate() forces
+ * the same reload.
+ *
+ * The catalog is loaded without holding the cache's lock, so writes
+ * are not blocked by a slow query. Readers that miss at the same time
+ * share one load, writes made while it runs are applied again to the
+ * loaded rows, and a load overtaken by invalidate() is not published.
+ *
+ * Equipment objects returned by the cache are copies, so callers may
+ * change them (e.g., set the status before saving) without changing
+ * the cached data.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect, so the whole application shares one catalog. The first
+ * call to getInstance() connects it to EquipmentDAO for write-through.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used to load the catalog
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Import collection framework and counters for the metrics
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Import enumerations for equipment and employee skill
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.SkillClassification;
+
+public class EquipmentCache {
+
+	// Default time-to-live of a loaded catalog
+	public static final long DEFAULT_TTL_MS = 300_000;
+
+	private static EquipmentCache instance;   // Singular instance
+
+	private final AsyncService.ConnectionSource connections;   // Source of connections for loading
+	private final long ttlMillis;                              // Age at which the catalog is reloaded
+
+	// Cached rows by equipment ID
+	private final Map<Integer, Entry> byID = new HashMap<>();
+
+	// Cached rows by required skill, then status, in equipment ID order
+	private final Map<SkillClassification, Map<EquipmentStatus, TreeMap<Integer, Entry>>> bySkillStatus = new HashMap<>();
+
+	private boolean loaded;     // True once a snapshot has been loaded and not invalidated
+	private long loadedAt;      // System.nanoTime() of the last load
+	private long invalidations; // Number of invalidate() calls (a load started before one is not published)
+
+	// Load in progress (null if none); other readers wait for it instead of loading too
+	private CompletableFuture<Void> loading;
+
+	// Changes written while a load is in progress, applied again to the loaded rows
+	private List<Consumer<EquipmentCache>> changesDuringLoad;
+
+	// Write-through changes made inside open database transactions, by
+	// connection, applied when the transaction commits (see commit())
+	private final Map<Connection, List<Consumer<EquipmentCache>>> uncommitted = new IdentityHashMap<>();
+
+	// Metrics
+	private final AtomicLong hitCount = new AtomicLong();     // Reads served from memory
+	private final AtomicLong missCount = new AtomicLong();    // Reads that had to load the catalog first
+	private final AtomicLong loadCount = new AtomicLong();    // Catalog loads
+	private final AtomicLong writeCount = new AtomicLong();   // Write-through updates applied
+
+	// Constructor for a cache with its own connection source and TTL (used by tests)
+	public EquipmentCache(AsyncService.ConnectionSource connections, long ttlMillis) {
+		this.connections = connections;
+		this.ttlMillis = ttlMillis;
+	}
+
+	// Public method to obtain the single instance used by the application
+	public static synchronized EquipmentCache getInstance() {
+		if (instance == null) {
+			instance = new EquipmentCache(() -> DBConnect.getInstance().getConnection(), DEFAULT_TTL_MS);
+
+			// Keep the cache current with every equipment update made through the DAO
+			EquipmentDAO.setCache(instance);
+		}
+		return instance;
+	}
+
+	// ======================================================================
+	// Reads
+	// ======================================================================
+
+	// ==================== METHOD: getEquipmentByID ==================== //
+	// Returns a copy of one piece of equipment, or null if the ID does
+	// not exist. Same result as EquipmentDAO.getEquipmentByID().
+	// ================================================================== //
+	public Equipment getEquipmentByID(int equipmentID) throws SQLException {
+		return read(() -> {
+			Entry entry = byID.get(equipmentID);
+			return entry != null ? entry.toEquipment(entry.condition) : null;
+		});
+	}
+
+	// Returns a copy of every piece of equipment in equipment ID order
+	public List<Equipment> getAllEquipment() throws SQLException {
+		return read(() -> {
+			List<Equipment> list = new ArrayList<>();
+			for (Entry entry : new TreeMap<>(byID).values()) {
+				list.add(entry.toEquipment(entry.condition));
+			}
+			return list;
+		});
+	}
+
+	// Returns copies of the equipment with the given required skill and status,
+	// in equipment ID order
+	public List<Equipment> getEquipment(SkillClassification skill, EquipmentStatus status) throws SQLException {
+		return read(() -> {
+			List<Equipment> list = new ArrayList<>();
+			for (Entry entry : index(skill, status).values()) {
+				list.add(entry.toEquipment(entry.condition));
+			}
+			return list;
+		});
+	}
+
+	// ================= METHOD: getAvailableEquipmentBySkill =============== //
+	// Same result as EquipmentDAO.getAvailableEquipmentBySkill(): available
+	// equipment for a skill, with the condition recorded at its most recent
+	// return (Good if it has never been returned). Used by the checkout dialog.
+	// ====================================================================== //
+	public List<Equipment> getAvailableEquipmentBySkill(SkillClassification skill) throws SQLException {
+		return read(() -> {
+			List<Equipment> list = new ArrayList<>();
+			for (Entry entry : index(skill, EquipmentStatus.Available).values()) {
+				list.add(entry.toEquipment(entry.lastReturnCondition != null ? entry.lastReturnCondition : EquipmentCondition.Good));
+			}
+			return list;
+		});
+	}
+
+	// Same result as EquipmentDAO.getOrderableEquipmentBySkill() (used by the order dialog)
+	public List<Equipment> getOrderableEquipmentBySkill(SkillClassification skill) throws SQLException {
+		return getEquipment(skill, EquipmentStatus.Available);
+	}
+
+	// ======================================================================
+	// Write-through (called by EquipmentDAO after a successful update)
+	// ======================================================================
+
+	// ======================== METHOD: writeThrough ===================== //
+	// Applies a change EquipmentDAO wrote on 'conn': at once if the
+	// connection auto-commits, otherwise when its transaction is committed
+	// through commit(conn). A change that is rolled back is never applied.
+	// ================================================================== //
+	public void writeThrough(Connection conn, Consumer<EquipmentCache> change) throws SQLException {
+		if (conn.getAutoCommit()) {
+			change.accept(this);
+			return;
+		}
+		synchronized (uncommitted) {
+			uncommitted.computeIfAbsent(conn, k -> new ArrayList<>()).add(change);
+		}
+	}
+
+	// =========================== METHOD: commit ======================== //
+	// Commits the database transaction on 'conn', then applies the
+	// equipment changes it made to the connected cache (if any). If the
+	// commit fails its outcome is unknown, so the catalog is reloaded.
+	// ================================================================== //
+	public static void commit(Connection conn) throws SQLException {
+		EquipmentCache c = EquipmentDAO.getCache();
+		try {
+			conn.commit();
+		} catch (SQLException | RuntimeException e) {
+			if (c != null) {
+				c.discard(conn);
+			}
+			throw e;
+		}
+		if (c != null) {
+			c.publish(conn);
+		}
+	}
+
+	// ========================== METHOD: rollback ======================= //
+	// Rolls back the database transaction on 'conn' and drops the
+	// equipment changes it made, invalidating the catalog they touched.
+	// ================================================================== //
+	public static void rollback(Connection conn) throws SQLException {
+		EquipmentCache c = EquipmentDAO.getCache();
+		try {
+			conn.rollback();
+		} finally {
+			if (c != null) {
+				c.discard(conn);
+			}
+		}
+	}
+
+	// Applies the changes held for a committed transaction
+	private void publish(Connection conn) {
+		List<Consumer<EquipmentCache>> changes;
+		synchronized (uncommitted) {
+			changes = uncommitted.remove(conn);
+		}
+		if (changes != null) {
+			for (Consumer<EquipmentCache> change : changes) {
+				change.accept(this);
+			}
+		}
+	}
+
+	// Drops the changes held for a rolled-back transaction and reloads the catalog
+	private void discard(Connection conn) {
+		List<Consumer<EquipmentCache>> changes;
+		synchronized (uncommitted) {
+			changes = uncommitted.remove(conn);
+		}
+		if (changes != null) {
+			invalidate();
+		}
+	}
+
+	// Applies EquipmentDAO.updateEquipment(): new status and condition
+	public synchronized void applyUpdate(int equipmentID, EquipmentStatus status, EquipmentCondition condition) {
+		replayAfterLoad(c -> c.applyUpdate(equipmentID, status, condition));
+		Entry entry = byID.get(equipmentID);
+		if (entry != null) {
+			entry.condition = condition;
+			move(entry, status);
+			writeCount.incrementAndGet();
+		}
+	}
+
+	// Applies EquipmentDAO.updateEquipmentStatus(): new status only
+	public synchronized void applyStatus(int equipmentID, EquipmentStatus status) {
+		replayAfterLoad(c -> c.applyStatus(equipmentID, status));
+		Entry entry = byID.get(equipmentID);
+		if (entry != null) {
+			move(entry, status);
+			writeCount.incrementAndGet();
+		}
+	}
+
+	// Applies EquipmentDAO.markAllLoaned(): every item of a skill becomes Loaned
+	public synchronized void applyAllLoaned(SkillClassification skill) {
+		replayAfterLoad(c -> c.applyAllLoaned(skill));
+		for (Entry entry : new ArrayList<>(byID.values())) {
+			if (entry.skill == skill) {
+				move(entry, EquipmentStatus.Loaned);
+			}
+		}
+		writeCount.incrementAndGet();
+	}
+
+	// Applies EquipmentDAO.updateLastReturnCondition()
+	public synchronized void applyLastReturnCondition(int equipmentID, EquipmentCondition condition) {
+		replayAfterLoad(c -> c.applyLastReturnCondition(equipmentID, condition));
+		Entry entry = byID.get(equipmentID);
+		if (entry != null) {
+			entry.lastReturnCondition = condition;
+			writeCount.incrementAndGet();
+		}
+	}
+
+	// ========================= METHOD: applyEvent ===================== //
+	// Subscriber for OutboxRelay: applies a committed status change, made
+	// by this or another copy of the application, without reloading the
+	// catalog. Changes this copy made have already been written through,
+	// so applying them again changes nothing.
+	// ================================================================== //
+	public synchronized void applyEvent(OutboxEvent event) {
+		applyStatus(event.getEquipmentID(), event.getEquipStatus());
+		if (event.getType() == OutboxEvent.Type.RETURNED && event.getCondition() != null) {
+			applyLastReturnCondition(event.getEquipmentID(), event.getCondition());
+		}
+	}
+
+	// ========================= METHOD: invalidate ===================== //
+	// Drops the cached catalog so the next read reloads it from the
+	// database (e.g., after a rolled-back update or an external change).
+	// ================================================================== //
+	public synchronized void invalidate() {
+		invalidations++;
+		loaded = false;
+		byID.clear();
+		bySkillStatus.clear();
+	}
+
+	// ======================================================================
+	// Metrics
+	// ======================================================================
+
+	// Number of reads served from memory
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	// Number of reads that had to load the catalog first
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	// Number of times the catalog was loaded
+	public long getLoadCount() {
+		return loadCount.get();
+	}
+
+	// Number of write-through updates applied
+	public long getWriteCount() {
+		return writeCount.get();
+	}
+
+	// Fraction of reads served from memory
+	public double getHitRatio() {
+		long hits = hitCount.get();
+		long total = hits + missCount.get();
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	// Number of pieces of equipment currently cached
+	public synchronized int size() {
+		return byID.size();
+	}
+
+	// Returns a one-line summary of the cache state
+	@Override
+	public String toString() {
+		return "EquipmentCache{" +
+				"size=" + size() +
+				", hits=" + getHitCount() +
+				", misses=" + getMissCount() +
+				", loads=" + getLoadCount() +
+				", writes=" + getWriteCount() +
+				", hitRatio=" + String.format("%.3f", getHitRatio()) +
+				'}';
+	}
+
+	// ======================================================================
+	// Loading
+	// ======================================================================
+
+	// A read of the cached catalog (runs while holding the cache's lock)
+	@FunctionalInterface
+	private interface Read<T> {
+		T run();
+	}
+
+	// Runs a read on the catalog, first loading it if it has never been
+	// loaded, was invalidated, or is older than the TTL, and counts the
+	// read as a hit or a miss. The load runs without the lock held.
+	private <T> T read(Read<T> read) throws SQLException {
+		boolean missed = false;
+		while (true) {
+			CompletableFuture<Void> load;
+			boolean loader = false;
+			long seen;
+			synchronized (this) {
+				if (loaded && System.nanoTime() - loadedAt < ttlMillis * 1_000_000L) {
+					if (!missed) {
+						hitCount.incrementAndGet();
+					}
+					return read.run();
+				}
+
+				// Start a load, or wait for the one already running
+				if (loading == null) {
+					loading = new CompletableFuture<>();
+					changesDuringLoad = new ArrayList<>();
+					loader = true;
+				}
+				load = loading;
+				seen = invalidations;
+			}
+			if (!missed) {
+				missCount.incrementAndGet();
+				missed = true;
+			}
+			if (loader) {
+				load(load, seen);
+			} else {
+				await(load);
+			}
+		}
+	}
+
+	// Reads the rows currently in the database and replaces the cached
+	// catalog with them, then applies the changes written meanwhile. The
+	// rows are dropped if invalidate() was called since 'seen' was read.
+	private void load(CompletableFuture<Void> load, long seen) throws SQLException {
+		String strSQL = "SELECT equipmentID, equipmentName, equipmentCondition, requiredSkill, equipStatus, "
+				+ "lastReturnCondition FROM equipment";
+
+		Map<Integer, Entry> rows = new HashMap<>();
+		try (Connection conn = connections.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(strSQL);
+				ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				Entry entry = new Entry(
+						rs.getInt("equipmentID"),
+						rs.getString("equipmentName"),
+						SkillClassification.fromString(rs.getString("requiredSkill")));
+				entry.condition = EquipmentCondition.fromString(rs.getString("equipmentCondition"));
+				entry.status = EquipmentStatus.fromString(rs.getString("equipStatus"));
+				entry.lastReturnCondition = EquipmentCondition.fromString(rs.getString("lastReturnCondition"));
+				rows.put(entry.equipmentID, entry);
+			}
+		} catch (SQLException | RuntimeException e) {
+			synchronized (this) {
+				loading = null;
+				changesDuringLoad = null;
+			}
+			load.completeExceptionally(e);
+			throw e;
+		}
+		loadCount.incrementAndGet();
+
+		synchronized (this) {
+			List<Consumer<EquipmentCache>> changes = changesDuringLoad;
+			loading = null;
+			changesDuringLoad = null;
+			if (invalidations == seen) {
+
+				// Rebuild both indexes from the new rows
+				byID.clear();
+				bySkillStatus.clear();
+				for (Entry entry : rows.values()) {
+					byID.put(entry.equipmentID, entry);
+					index(entry.skill, entry.status).put(entry.equipmentID, entry);
+				}
+
+				// The rows may have been read before these changes were committed
+				for (Consumer<EquipmentCache> change : changes) {
+					change.accept(this);
+				}
+				loaded = true;
+				loadedAt = System.nanoTime();
+			}
+		}
+		load.complete(null);
+	}
+
+	// Waits for a load started by another reader; rethrows its failure
+	private static void await(CompletableFuture<Void> load) throws SQLException {
+		try {
+			load.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof SQLException) {
+				throw (SQLException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	// Keeps a change written while a load is running, to apply it again to the loaded rows
+	private void replayAfterLoad(Consumer<EquipmentCache> change) {
+		if (changesDuringLoad != null) {
+			changesDuringLoad.add(change);
+		}
+	}
+
+	// Returns the (skill, status) index, creating it if needed
+	private TreeMap<Integer, Entry> index(SkillClassification skill, EquipmentStatus status) {
+		return bySkillStatus
+				.computeIfAbsent(skill, s -> new HashMap<>())
+				.computeIfAbsent(status, s -> new TreeMap<>());
+	}
+
+	// Moves an entry to the (skill, status) index of its new status
+	private void move(Entry entry, EquipmentStatus status) {
+		index(entry.skill, entry.status).remove(entry.equipmentID);
+		entry.status = status;
+		index(entry.skill, entry.status).put(entry.equipmentID, entry);
+	}
+
+	// ========================= CLASS: Entry ========================= //
+	// One cached equipment row
+	// ================================================================ //
+	private static final class Entry {
+
+		private final int equipmentID;
+		private final String equipmentName;
+		private final SkillClassification skill;
+		private EquipmentCondition condition;             // equipmentCondition column
+		private EquipmentStatus status;                   // equipStatus column
+		private EquipmentCondition lastReturnCondition;   // Condition at the most recent return (null if never returned)
+
+		Entry(int equipmentID, String equipmentName, SkillClassification skill) {
+			this.equipmentID = equipmentID;
+			this.equipmentName = equipmentName;
+			this.skill = skill;
+		}
+
+		// Creates a new Equipment object for this row with the given condition
+		Equipment toEquipment(EquipmentCondition shownCondition) {
+			return new Equipment(equipmentID, equipmentName, shownCondition, status, skill);
+		}
+	}
+}
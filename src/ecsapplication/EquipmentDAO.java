@@ -19,6 +19,7 @@ import java.sql.SQLException;
 // Import collection framework to work with lists
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 // Import enumerations for equipment and employee skill
 import ecsapplication.enums.EquipmentCondition;
@@ -27,6 +28,29 @@ import ecsapplication.enums.SkillClassification;
 
 public class EquipmentDAO {
 
+	// Catalog cache kept current by the update methods below (null if none is in use)
+	private static volatile EquipmentCache cache;
+
+	// Connects a cache for write-through (see EquipmentCache.getInstance())
+	public static void setCache(EquipmentCache equipmentCache) {
+		cache = equipmentCache;
+	}
+
+	// Returns the cache connected for write-through, or null
+	public static EquipmentCache getCache() {
+		return cache;
+	}
+
+	// Hands a change made on 'conn' to the cache, if one is connected. It is
+	// applied at once under auto-commit; inside a database transaction it
+	// waits for EquipmentCache.commit(conn), so a rollback never shows in it.
+	private static void writeThrough(Connection conn, Consumer<EquipmentCache> change) throws SQLException {
+		EquipmentCache c = cache;
+		if (c != null) {
+			c.writeThrough(conn, change);
+		}
+	}
+
 	// ================== METHOD: getAllEquipment ================= //
 	// Retrieves a list of all equipment name, ID, status, and the 
 	// required skill needed from the equipment table in MySQL
@@ -66,6 +90,9 @@ public class EquipmentDAO {
 	// ===================== METHOD: getAvailableEquipmentBySkill =================== //
 	// Returns available equipment for a specific skill (used in checkout dialog for
 	// skill-based filtering.
+	// The condition of each item is the one recorded at its most recent return,
+	// which is kept on the equipment row (lastReturnCondition) by the return path,
+	// so the query does not have to search the transaction history.
 	// ============================================================================== //
 	public static List<Equipment> getAvailableEquipmentBySkill(Connection conn, SkillClassification skill) throws SQLException {
 
@@ -79,21 +106,8 @@ public class EquipmentDAO {
 				           eq.equipmentName, 
 				           eq.equipStatus, 
 				           eq.requiredSkill,
-				           t_last.returnCondition
+				           eq.lastReturnCondition
 				    FROM equipment eq
-				    LEFT JOIN (
-				        SELECT t1.equipmentID, t1.returnCondition
-				        FROM transaction t1
-				        WHERE t1.transactionStatus = 'Returned'
-				          AND t1.returnCondition IS NOT NULL
-				          AND t1.transactionID = (
-				              SELECT MAX(t2.transactionID)
-				              FROM transaction t2
-				              WHERE t2.equipmentID = t1.equipmentID
-				                AND t2.transactionStatus = 'Returned'
-				          )
-				    ) AS t_last
-				      ON eq.equipmentID = t_last.equipmentID
 				    WHERE eq.equipStatus = 'Available'
 				      AND eq.requiredSkill = ?
 				    ORDER BY eq.equipmentID ASC
@@ -112,8 +126,8 @@ public class EquipmentDAO {
 				while (rs.next()) {
 					// Determine the equipment condition:
 					// Use the last returnCondition if available, otherwise fallback to default (Good)
-					EquipmentCondition cond = rs.getString("returnCondition") != null
-							? EquipmentCondition.valueOf(rs.getString("returnCondition"))
+					EquipmentCondition cond = rs.getString("lastReturnCondition") != null
+							? EquipmentCondition.valueOf(rs.getString("lastReturnCondition"))
 									: EquipmentCondition.Good; // default fallback
 
 					// Create Equipment object using data retrieved from the result set
@@ -146,7 +160,8 @@ public class EquipmentDAO {
 	public static void updateEquipment(Connection conn, Equipment eq) throws SQLException {
 
 		// SQL statement to update equipment status and connection for a specific equipment ID
-		String strSQL = "UPDATE equipment SET equipStatus = ?, equipmentCondition = ? WHERE equipmentID = ?";
+		String strSQL = "UPDATE equipment SET equipStatus = ?, equipmentCondition = ?, rowVersion = rowVersion + 1 "
+				+ "WHERE equipmentID = ?";
 
 		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
 			stmt.setString(1, eq.getStatus().name());        // Convert enum to string
@@ -154,6 +169,12 @@ public class EquipmentDAO {
 			stmt.setInt(3, eq.getEquipmentID());             // Set equipment ID in the 'where' clause
 			stmt.executeUpdate();                            // Execute the update statement
 		}
+
+		// Write the change through to the catalog cache once it is committed
+		int equipmentID = eq.getEquipmentID();
+		EquipmentStatus status = eq.getStatus();
+		EquipmentCondition condition = eq.getEquipmentCondition();
+		writeThrough(conn, c -> c.applyUpdate(equipmentID, status, condition));
 	}
 
 	// ================== METHOD: updateEquipmentStatus =============== //
@@ -163,7 +184,7 @@ public class EquipmentDAO {
 	public static boolean updateEquipmentStatus(int equipmentID, EquipmentStatus status) {
 
 		// SQL statement to update the equipment status column for a specific equipment ID
-		String strSQL = "UPDATE equipment SET equipStatus = ? WHERE equipmentID = ?";
+		String strSQL = "UPDATE equipment SET equipStatus = ?, rowVersion = rowVersion + 1 WHERE equipmentID = ?";
 
 		// Try-with-resources to automatically close connection and statement
 		try (Connection conn = DBConnect.getInstance().getConnection();
@@ -177,6 +198,12 @@ public class EquipmentDAO {
 
 			// Execute the update and return true if at least one row was affected
 			int affectedRows = stmt.executeUpdate();
+
+			// Write the change through to the catalog cache
+			EquipmentCache c = cache;
+			if (c != null && affectedRows > 0) {
+				c.applyStatus(equipmentID, status);
+			}
 			return affectedRows > 0;
 
 		} catch (SQLException e) {
@@ -194,7 +221,7 @@ public class EquipmentDAO {
 	public static boolean updateEquipmentStatus(Connection conn, int equipmentID, EquipmentStatus equipStatus) throws SQLException {
 
 		// SQL statement to update the equipStatus column for a specific equipmentID
-		String sql = "UPDATE equipment SET equipStatus = ? WHERE equipmentID = ?";
+		String sql = "UPDATE equipment SET equipStatus = ?, rowVersion = rowVersion + 1 WHERE equipmentID = ?";
 
 		try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 			// Set the new status as string
@@ -204,10 +231,122 @@ public class EquipmentDAO {
 			pstmt.setInt(2, equipmentID);
 
 			// Execute update and return true if at least one row was affected
-			return pstmt.executeUpdate() > 0;
+			boolean updated = pstmt.executeUpdate() > 0;
+
+			// Write the change through to the catalog cache once it is committed
+			if (updated) {
+				writeThrough(conn, c -> c.applyStatus(equipmentID, equipStatus));
+			}
+			return updated;
 		}
 	}
 	
+	// ================== METHOD: getStatusAndVersion ================== //
+	// Reads the current status and row version of one piece of equipment.
+	// Returns null if the ID does not exist. Used by CheckoutService.
+	// ================================================================== //
+	public static EquipmentVersion getStatusAndVersion(Connection conn, int equipmentID) throws SQLException {
+		String strSQL = "SELECT equipStatus, rowVersion FROM equipment WHERE equipmentID = ?";
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			stmt.setInt(1, equipmentID);
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (rs.next()) {
+					return new EquipmentVersion(EquipmentStatus.fromString(rs.getString("equipStatus")), rs.getInt("rowVersion"));
+				}
+				return null;
+			}
+		}
+	}
+
+	// Status and row version of one equipment row
+	public record EquipmentVersion(EquipmentStatus status, int version) { }
+
+	// ==================== METHOD: loanIfAvailable ==================== //
+	// Marks equipment as Loaned only if it is still Available and still
+	// at the row version the caller read, and increments the version.
+	// Returns false if another checkout changed the row first. The
+	// equipment cache is not updated here; the caller does that after
+	// its database transaction commits (see CheckoutService).
+	// ================================================================= //
+	public static boolean loanIfAvailable(Connection conn, int equipmentID, int expectedVersion) throws SQLException {
+		String strSQL = "UPDATE equipment SET equipStatus = 'Loaned', rowVersion = rowVersion + 1 "
+				+ "WHERE equipmentID = ? AND equipStatus = 'Available' AND rowVersion = ?";
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			stmt.setInt(1, equipmentID);
+			stmt.setInt(2, expectedVersion);
+			return stmt.executeUpdate() == 1;
+		}
+	}
+
+	// =================== METHOD: orderIfAvailable =================== //
+	// Marks equipment as Ordered only if it is still Available, and
+	// increments its row version. Returns false if another clerk loaned
+	// or ordered it first; the caller then rolls back. The equipment
+	// cache follows once the change is committed.
+	// ================================================================= //
+	public static boolean orderIfAvailable(Connection conn, int equipmentID) throws SQLException {
+		return changeStatusIf(conn, equipmentID, EquipmentStatus.Available, EquipmentStatus.Ordered);
+	}
+
+	// =================== METHOD: releaseIfOrdered ==================== //
+	// Makes Ordered equipment Available again when its order is
+	// cancelled, and increments its row version. Returns false if the
+	// equipment is no longer Ordered; the caller then rolls back. The
+	// equipment cache follows once the change is committed.
+	// ================================================================= //
+	public static boolean releaseIfOrdered(Connection conn, int equipmentID) throws SQLException {
+		return changeStatusIf(conn, equipmentID, EquipmentStatus.Ordered, EquipmentStatus.Available);
+	}
+
+	// Changes the status from 'expected' to 'status' if the row still has the expected status
+	private static boolean changeStatusIf(Connection conn, int equipmentID, EquipmentStatus expected,
+			EquipmentStatus status) throws SQLException {
+		String strSQL = "UPDATE equipment SET equipStatus = ?, rowVersion = rowVersion + 1 "
+				+ "WHERE equipmentID = ? AND equipStatus = ?";
+		boolean updated;
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			stmt.setString(1, status.name());
+			stmt.setInt(2, equipmentID);
+			stmt.setString(3, expected.name());
+			updated = stmt.executeUpdate() == 1;
+		}
+		if (updated) {
+			writeThrough(conn, c -> c.applyStatus(equipmentID, status));
+		}
+		return updated;
+	}
+
+	// ==================== METHOD: loanAllIfAvailable ================== //
+	// Batch form of loanIfAvailable() used by batch checkouts: marks each
+	// piece of equipment as Loaned if it is still Available, sending all
+	// updates with one executeBatch(). Returns the IDs that could not be
+	// loaned (already loaned, missing, or listed twice); the caller rolls
+	// back unless the list is empty. Like loanIfAvailable(), the equipment
+	// cache is left to the caller.
+	// ================================================================== //
+	public static List<Integer> loanAllIfAvailable(Connection conn, List<Integer> equipmentIDs) throws SQLException {
+		String strSQL = "UPDATE equipment SET equipStatus = 'Loaned', rowVersion = rowVersion + 1 "
+				+ "WHERE equipmentID = ? AND equipStatus = 'Available'";
+		List<Integer> notLoaned = new ArrayList<>();
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+
+			// Queue one update per item
+			for (int equipmentID : equipmentIDs) {
+				stmt.setInt(1, equipmentID);
+				stmt.addBatch();
+			}
+
+			// Each update must have changed exactly one row
+			int[] counts = stmt.executeBatch();
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] != 1) {
+					notLoaned.add(equipmentIDs.get(i));
+				}
+			}
+		}
+		return notLoaned;
+	}
+
 	// ==================== METHOD: getEquipmentByID ================== //
 	// Retrieves a single equipment record by its ID from the database
 	// ================================================================ //
@@ -289,6 +428,106 @@ public class EquipmentDAO {
 		return list;
 	}
 	
+	// ================= METHOD: updateLastReturnCondition ================= //
+	// Records the condition an item was returned in on its equipment row.
+	// Called by TransactionDAO.updateTransactionReturn() on the same
+	// connection, so it commits or rolls back together with the return.
+	// ====================================================================== //
+	public static void updateLastReturnCondition(Connection conn, int equipmentID, EquipmentCondition condition) throws SQLException {
+		String strSQL = "UPDATE equipment SET lastReturnCondition = ? WHERE equipmentID = ?";
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			stmt.setString(1, condition.name());  // Convert enum to string
+			stmt.setInt(2, equipmentID);          // Set equipment ID in the 'where' clause
+			stmt.executeUpdate();
+		}
+
+		// Write the change through to the catalog cache once it is committed
+		writeThrough(conn, c -> c.applyLastReturnCondition(equipmentID, condition));
+	}
+
+	// ================== METHOD: markReturnedEquipment =================== //
+	// Batch update used by bulk returns: makes the equipment of each
+	// returned transaction Available again and records its return
+	// condition, sending all updates with one executeBatch(). Run it on
+	// the same connection as TransactionDAO.updateTransactionReturns() so
+	// both tables commit or roll back together.
+	// ====================================================================== //
+	public static void markReturnedEquipment(Connection conn, List<Transaction> returned) throws SQLException {
+		String strSQL = "UPDATE equipment SET equipStatus = 'Available', rowVersion = rowVersion + 1, "
+				+ "lastReturnCondition = COALESCE(?, lastReturnCondition) WHERE equipmentID = ?";
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+
+			// Queue one update per returned item
+			for (Transaction txn : returned) {
+				EquipmentCondition condition = txn.getReturnCondition();
+				stmt.setString(1, condition != null ? condition.name() : null);  // Convert enum to string
+				stmt.setInt(2, txn.getEquipment().getEquipmentID());           // Set equipment ID in the 'where' clause
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+		}
+
+		// Write the changes through to the catalog cache once they are committed
+		for (Transaction txn : returned) {
+			int equipmentID = txn.getEquipment().getEquipmentID();
+			EquipmentCondition condition = txn.getReturnCondition();
+			writeThrough(conn, c -> {
+				c.applyStatus(equipmentID, EquipmentStatus.Available);
+				if (condition != null) {
+					c.applyLastReturnCondition(equipmentID, condition);
+				}
+			});
+		}
+	}
+
+	// ================ METHOD: backfillLastReturnCondition ================= //
+	// Fills lastReturnCondition for every piece of equipment from its most
+	// recent returned transaction (highest transactionID). Equipment that
+	// has never been returned is set to NULL. Same backfill as schema
+	// migration V1 (see SchemaMigrator), available to repair the column;
+	// returns the number of equipment rows updated.
+	// ====================================================================== //
+	public static int backfillLastReturnCondition(Connection conn) throws SQLException {
+		String strSQL = """
+				    UPDATE equipment eq
+				    SET lastReturnCondition = (
+				        SELECT t.returnCondition
+				        FROM transaction t
+				        WHERE t.equipmentID = eq.equipmentID
+				          AND t.transactionStatus = 'Returned'
+				        ORDER BY t.transactionID DESC
+				        LIMIT 1
+				    )
+				""";
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			return stmt.executeUpdate();
+		}
+	}
+
+	// ============== METHOD: markLoanedFromOpenTransactions ============== //
+	// Sets 'Available' equipment to 'Loaned' when it has a transaction
+	// that is still out ('Borrowed' or 'Late'), e.g., after historical
+	// transactions were imported by DataImporter. Other statuses are left
+	// alone. Does not update the catalog cache; returns the number of
+	// equipment rows updated.
+	// ==================================================================== //
+	public static int markLoanedFromOpenTransactions(Connection conn) throws SQLException {
+		String strSQL = """
+				    UPDATE equipment eq
+				    SET equipStatus = 'Loaned', rowVersion = rowVersion + 1
+				    WHERE eq.equipStatus = 'Available'
+				      AND EXISTS (
+				        SELECT 1
+				        FROM transaction t
+				        WHERE t.equipmentID = eq.equipmentID
+				          AND t.transactionStatus IN ('Borrowed', 'Late')
+				    )
+				""";
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			return stmt.executeUpdate();
+		}
+	}
+
 	// ==================== METHOD: markAllLoaned ===================== //
 	// This method sets the equipment status of all equipment of a 
 	// certain skill to 'Loaned'. Useful for preparing test conditions
@@ -299,7 +538,7 @@ public class EquipmentDAO {
 		
 		// Define SQL update statement that sets equipment status to 'Loaned' for all
 		// equipment matching the required skill.
-	    String sql = "UPDATE equipment SET equipStatus = 'Loaned' WHERE requiredSkill = ?";
+	    String sql = "UPDATE equipment SET equipStatus = 'Loaned', rowVersion = rowVersion + 1 WHERE requiredSkill = ?";
 	    
 	    // Create a PreparedStatement using the SQL query and the active connection
 	    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -310,5 +549,8 @@ public class EquipmentDAO {
 	        // Execute the update statement to apply the changes in the database
 	        stmt.executeUpdate();
 	    }
+
+	    // Write the change through to the catalog cache once it is committed
+	    writeThrough(conn, c -> c.applyAllLoaned(skill));
 	}
 }
@@ -0,0 +1,310 @@
+/**
+ * EventBus.java
+ * Delivers Subject notifications to Observers in the background, so the
+ * thread that changes a Transaction never waits for an observer (e.g.,
+ * Reminder.update, which saves to the database).
+ *
+ * Transaction.notifyObservers() hands each (observer, transaction) pair
+ * to the bus and returns at once. Deliveries are queued on one of a
+ * fixed number of lanes, chosen by the observer, and each lane delivers
+ * its queue one item at a time on the executor. So:
+ *   -Every observer receives its notifications in the order they were
+ *    published, one at a time.
+ *   -A slow observer only delays the observers that share its lane.
+ *   -Each lane's queue is bounded (queueCapacity). When it is full the
+ *    Backpressure policy decides what happens: drop the notification,
+ *    wait up to a timeout for room, or deliver it on the publishing
+ *    thread instead.
+ * Notifications that are dropped, and observers that throw, are logged
+ * as dead letters: printed to the console, counted, and the latest ones
+ * kept for getDeadLetters().
+ *
+ * Observers see the Transaction as it is when they run, which may be
+ * later than when the notification was published.
+ *
+ * Lanes run on virtual threads when the JVM supports them (Java 21+),
+ * like AsyncService; tests can pass their own executor.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect, so all transactions share one bus.
+ */
+
+package ecsapplication;
+
+// Import date/time for dead letters
+import java.time.LocalDateTime;
+
+// Import collections and concurrency utilities for the lanes
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EventBus {
+
+	// Default settings of the shared bus
+	public static final int DEFAULT_LANES = 16;
+	public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+	public static final long DEFAULT_BLOCK_TIMEOUT_MS = 100;
+
+	// Number of dead letters kept for getDeadLetters()
+	private static final int DEAD_LETTERS_KEPT = 100;
+
+	private static EventBus instance;   // Singular instance
+
+	// What publish() does when the observer's lane is full
+	public enum Backpressure {
+		DROP,          // Drop the notification and log it as a dead letter
+		BLOCK,         // Wait up to the block timeout for room, then drop it
+		CALLER_RUNS    // Deliver it on the publishing thread (slows the publisher down; may overtake queued ones)
+	}
+
+	private final Executor executor;           // Runs lane deliveries
+	private final Lane[] lanes;                // Delivery lanes
+	private final Backpressure backpressure;   // Policy for full lanes
+	private final long blockTimeoutMillis;     // Wait for room under BLOCK
+
+	// Metrics
+	private final AtomicLong publishedCount = new AtomicLong();    // Notifications accepted
+	private final AtomicLong deliveredCount = new AtomicLong();    // Notifications delivered without error
+	private final AtomicLong deadLetterCount = new AtomicLong();   // Notifications dropped or failed
+
+	// Latest dead letters, oldest first (guarded by itself)
+	private final Deque<DeadLetter> deadLetters = new ArrayDeque<>();
+
+	// Constructor for a bus with its own settings (used by tests)
+	public EventBus(Executor executor, int laneCount, int queueCapacity, Backpressure backpressure, long blockTimeoutMillis) {
+		this.executor = executor;
+		this.backpressure = backpressure;
+		this.blockTimeoutMillis = blockTimeoutMillis;
+		this.lanes = new Lane[laneCount];
+		for (int i = 0; i < laneCount; i++) {
+			lanes[i] = new Lane(queueCapacity);
+		}
+	}
+
+	// Public method to obtain the single instance used by the application.
+	// Full lanes drop notifications: reminders are also saved by ReminderEngine.
+	public static synchronized EventBus getInstance() {
+		if (instance == null) {
+			instance = new EventBus(AsyncService.defaultExecutor(), DEFAULT_LANES, DEFAULT_QUEUE_CAPACITY,
+					Backpressure.DROP, DEFAULT_BLOCK_TIMEOUT_MS);
+		}
+		return instance;
+	}
+
+	// ========================= METHOD: publish ======================== //
+	// Queues a notification of the transaction for each observer and
+	// returns without waiting for any of them (except under CALLER_RUNS
+	// when a lane is full).
+	// ================================================================== //
+	public void publish(Transaction transaction, List<Observer> observers) {
+		for (Observer observer : observers) {
+			publish(transaction, observer);
+		}
+	}
+
+	// Queues one notification; see above
+	public void publish(Transaction transaction, Observer observer) {
+		Lane lane = lanes[Math.floorMod(System.identityHashCode(observer), lanes.length)];
+		Delivery delivery = new Delivery(observer, transaction);
+
+		boolean queued = lane.queue.offer(delivery);
+		if (!queued && backpressure == Backpressure.BLOCK) {
+			try {
+				queued = lane.queue.offer(delivery, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if (queued) {
+			publishedCount.incrementAndGet();
+			lane.schedule();
+		} else if (backpressure == Backpressure.CALLER_RUNS) {
+			publishedCount.incrementAndGet();
+			deliver(delivery);
+		} else {
+			deadLetter(delivery, "queue full", null);
+		}
+	}
+
+	// ======================= METHOD: awaitIdle ======================== //
+	// Waits until every queued notification has been delivered, or the
+	// timeout passes. Returns true if the bus is idle.
+	// ================================================================== //
+	public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!isIdle()) {
+			if (System.nanoTime() >= deadline) {
+				return false;
+			}
+			Thread.sleep(1);
+		}
+		return true;
+	}
+
+	// True when no notification is queued or being delivered
+	public boolean isIdle() {
+		for (Lane lane : lanes) {
+			if (lane.scheduled.get() || !lane.queue.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Number of notifications accepted for delivery
+	public long getPublishedCount() {
+		return publishedCount.get();
+	}
+
+	// Number of notifications delivered without error
+	public long getDeliveredCount() {
+		return deliveredCount.get();
+	}
+
+	// Number of notifications dropped or whose observer threw
+	public long getDeadLetterCount() {
+		return deadLetterCount.get();
+	}
+
+	// Latest dead letters, oldest first
+	public List<DeadLetter> getDeadLetters() {
+		synchronized (deadLetters) {
+			return new ArrayList<>(deadLetters);
+		}
+	}
+
+	// Calls the observer; an exception is logged as a dead letter
+	private void deliver(Delivery delivery) {
+		try {
+			delivery.observer.update(delivery.transaction);
+			deliveredCount.incrementAndGet();
+		} catch (RuntimeException e) {
+			deadLetter(delivery, "observer failed", e);
+		}
+	}
+
+	// Logs a notification that was not delivered
+	private void deadLetter(Delivery delivery, String reason, Throwable error) {
+		deadLetterCount.incrementAndGet();
+		DeadLetter letter = new DeadLetter(delivery.observer, delivery.transaction, reason, error, LocalDateTime.now());
+		synchronized (deadLetters) {
+			if (deadLetters.size() == DEAD_LETTERS_KEPT) {
+				deadLetters.removeFirst();
+			}
+			deadLetters.addLast(letter);
+		}
+		System.out.println("Dead letter: " + letter);
+		if (error != null) {
+			error.printStackTrace();
+		}
+	}
+
+	// =========================== CLASS: Lane ========================== //
+	// A bounded queue of deliveries that are made one at a time, in
+	// order. At most one drain task per lane runs on the executor.
+	// ================================================================== //
+	private final class Lane {
+
+		private final BlockingQueue<Delivery> queue;                      // Waiting deliveries
+		private final AtomicBoolean scheduled = new AtomicBoolean();      // True while a drain task is queued or running
+
+		Lane(int capacity) {
+			this.queue = new LinkedBlockingQueue<>(capacity);
+		}
+
+		// Starts a drain task unless one is already queued or running
+		void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					executor.execute(this::drain);
+				} catch (RuntimeException e) {
+					scheduled.set(false);   // Executor shut down: leave the queue as it is
+					throw e;
+				}
+			}
+		}
+
+		// Delivers queued notifications until the queue is empty
+		private void drain() {
+			while (true) {
+				Delivery delivery;
+				while ((delivery = queue.poll()) != null) {
+					deliver(delivery);
+				}
+
+				// Let the next publish start a new drain, unless one slipped in meanwhile
+				scheduled.set(false);
+				if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+					return;
+				}
+			}
+		}
+	}
+
+	// One notification for one observer
+	private static final class Delivery {
+		private final Observer observer;
+		private final Transaction transaction;
+
+		Delivery(Observer observer, Transaction transaction) {
+			this.observer = observer;
+			this.transaction = transaction;
+		}
+	}
+
+	// ======================== CLASS: DeadLetter ======================= //
+	// A notification that was dropped, or whose observer threw
+	// ================================================================== //
+	public static final class DeadLetter {
+
+		private final Observer observer;        // Observer that did not get (or failed on) the notification
+		private final Transaction transaction;  // Transaction of the notification
+		private final String reason;            // "queue full" or "observer failed"
+		private final Throwable error;          // Exception thrown by the observer (null if dropped)
+		private final LocalDateTime time;       // When it happened
+
+		DeadLetter(Observer observer, Transaction transaction, String reason, Throwable error, LocalDateTime time) {
+			this.observer = observer;
+			this.transaction = transaction;
+			this.reason = reason;
+			this.error = error;
+			this.time = time;
+		}
+
+		public Observer getObserver() {
+			return observer;
+		}
+
+		public Transaction getTransaction() {
+			return transaction;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+
+		public Throwable getError() {
+			return error;
+		}
+
+		public LocalDateTime getTime() {
+			return time;
+		}
+
+		@Override
+		public String toString() {
+			return reason + " for " + observer.getClass().getSimpleName() + " on transaction "
+					+ (transaction != null ? transaction.getTransactionID() : "null")
+					+ (error != null ? " (" + error + ")" : "") + " at " + time;
+		}
+	}
+}
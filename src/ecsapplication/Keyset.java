@@ -0,0 +1,112 @@
+/**
+ * Keyset.java
+ * Position in a list of rows sorted by a column and then by ID, used for
+ * keyset pagination: the next page starts after the last row of the
+ * page before it (a larger sort key, or the same key and a larger ID)
+ * instead of skipping rows with OFFSET, so a page deep in the list costs
+ * the same as the first one, whichever column the list is sorted by.
+ *
+ * The sort key may be NULL (e.g., a transaction's return condition).
+ * NULLs sort before every other value in ascending order and after them
+ * in descending order, as they do in both MySQL and H2.
+ *
+ * Used by TransactionDAO and OrderDAO for the pages of the Transactions
+ * and Orders tables (see PagedTableModel).
+ */
+
+package ecsapplication;
+
+// Import JDBC classes for binding the position
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+public final class Keyset {
+
+	private final Object key;   // Sort key of the last row read (may be null)
+	private final int id;       // ID of the last row read
+
+	// Constructor for the position after a row with this sort key and ID
+	public Keyset(Object key, int id) {
+		this.key = key;
+		this.id = id;
+	}
+
+	// Getters
+	public Object getKey() {
+		return key;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	// ======================= METHOD: orderBy ======================= //
+	// ORDER BY clause for a list sorted by the key and then by ID. When
+	// the key is the ID itself, the list is sorted by the ID alone.
+	// =============================================================== //
+	static String orderBy(String keyExpression, String idExpression, boolean ascending) {
+		String direction = ascending ? " ASC" : " DESC";
+		if (keyExpression.equals(idExpression)) {
+			return " ORDER BY " + idExpression + direction;
+		}
+		return " ORDER BY " + keyExpression + direction + ", " + idExpression + direction;
+	}
+
+	// ====================== METHOD: condition ====================== //
+	// WHERE condition selecting the rows that come after this position
+	// in the order of orderBy(). Its parameters are bound by bind().
+	// =============================================================== //
+	String condition(String keyExpression, String idExpression, boolean ascending) {
+		String after = ascending ? " > ?" : " < ?";
+
+		// Sorted by ID alone
+		if (keyExpression.equals(idExpression)) {
+			return idExpression + after;
+		}
+
+		// NULL keys come first when ascending and last when descending
+		if (key == null) {
+			return ascending
+					? "((" + keyExpression + " IS NULL AND " + idExpression + after + ") OR " + keyExpression + " IS NOT NULL)"
+					: "(" + keyExpression + " IS NULL AND " + idExpression + after + ")";
+		}
+		return "(" + keyExpression + after + " OR (" + keyExpression + " = ? AND " + idExpression + after + ")"
+				+ (ascending ? "" : " OR " + keyExpression + " IS NULL") + ")";
+	}
+
+	// Binds the parameters of condition() starting at 'index'; returns the next free index
+	int bind(PreparedStatement stmt, int index, String keyExpression, String idExpression) throws SQLException {
+		if (!keyExpression.equals(idExpression) && key != null) {
+			bindKey(stmt, index++);
+			bindKey(stmt, index++);
+		}
+		stmt.setInt(index++, id);
+		return index;
+	}
+
+	// Binds the sort key (dates as SQL dates, like the rest of the DAOs)
+	private void bindKey(PreparedStatement stmt, int index) throws SQLException {
+		if (key instanceof LocalDate) {
+			stmt.setDate(index, Date.valueOf((LocalDate) key));
+		} else {
+			stmt.setObject(index, key);
+		}
+	}
+
+	// Reads the position of the current row of a query that selects the sort key and then the ID
+	static Keyset read(ResultSet rs) throws SQLException {
+		Object key = rs.getObject(1);
+		if (key instanceof Date) {
+			key = ((Date) key).toLocalDate();
+		}
+		return new Keyset(key, rs.getInt(2));
+	}
+
+	@Override
+	public String toString() {
+		return "Keyset[" + key + ", " + id + "]";
+	}
+}
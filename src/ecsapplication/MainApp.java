@@ -13,14 +13,23 @@
  * The program adheres to the following design patterns:
  * 1. Singleton: DBConnect class
  *   -Ensures only one instance of DBConnect exist throughout the application.
- *   -Provides a global access point to the database connection.
- *   -Helps manage resources efficiently and prevents multiple connection.
+ *   -Provides a global access point to the database connection pool.
+ *   -Helps manage resources efficiently by reusing pooled connections.
  *   
  * 2. Observer: Reminder class (Observer) and Transaction class (Subject)
  *   -Reminder objects observe changes in Transaction objects.
  *   -When a Transaction is updated (e.g., Borrowed or Returned), all registered
  *    Reminders are notified.
  *  
+ * Database work started from the UI (e.g., checkout, return, reminders, exports)
+ * runs in the background through AsyncService, so the window stays responsive
+ * while the database is slow. Results are applied on the Event Dispatch Thread.
+ * The checkout and order dialogs list equipment from EquipmentCache instead
+ * of querying the equipment table each time they open.
+ * Ctrl+Shift+D shows a hidden Diagnostics tab with live metrics (see
+ * Diagnostics and MetricsRegistry), including the EDT stalls caught by
+ * EdtWatchdog with the listener that was running (e.g., FillTable).
+ *
  * This class launches the GUI that's built using the Java Swing toolkit.
  * The Swing components include:
  *   JFrame: main application window
@@ -42,7 +51,15 @@ import java.awt.EventQueue;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Vector;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
@@ -63,15 +80,19 @@ import javax.swing.JFileChooser;
 
 import java.awt.event.ActionListener;
 import java.io.File;
-import java.io.IOException;
+import java.nio.file.Paths;
 import java.awt.event.ActionEvent;
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Cursor;
 
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.ListSelectionModel;
 import javax.swing.JComboBox;
+import javax.swing.ComboBoxModel;
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JProgressBar;
 import javax.swing.JDialog;
 
 import java.awt.FlowLayout;
@@ -79,6 +100,11 @@ import java.awt.Font;
 
 import javax.swing.JSplitPane;
 import javax.swing.JTabbedPane;
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.KeyStroke;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.ChangeEvent;
 
@@ -103,10 +129,14 @@ public class MainApp extends JFrame {
 	private JTabbedPane tabbedPane;
 	private JSplitPane splitPane;
 	private JTable tblEmployee;
+	private TransactionTableModel transactionsModel;   // Lazily loaded model for tblEmployee
 	private JTextArea txtReminder;
 	private JTable tblOrders;
+	private OrderTableModel ordersModel;               // Lazily loaded model for tblOrders
 	private JScrollPane scrollPane_1;
 	private JTable tblViewRecord;
+	private CompletableFuture<List<Transaction>> viewRecordLoad;   // Latest View Record load (cancelled when superseded)
+	private DiagnosticsPanel diagnosticsPanel;                     // Hidden Diagnostics tab (created on first use)
 
 	/**
 	 * Launch the application.
@@ -178,11 +208,19 @@ public class MainApp extends JFrame {
 		        JFileChooser fileChooser = new JFileChooser();
 		        
 		        // Set title of the file chooser dialog
-		        fileChooser.setDialogTitle("Save Transactions CSV");
+		        fileChooser.setDialogTitle("Save Transactions");
 		        
-		        // Restrict file type to CSV only
-		        FileNameExtensionFilter filter = new FileNameExtensionFilter("CSV Files", "csv");
-		        fileChooser.setFileFilter(filter);
+		        // One file type per export format (plain CSV, gzip-compressed CSV, columnar); CSV by default
+		        fileChooser.setAcceptAllFileFilterUsed(false);
+		        Map<FileNameExtensionFilter, CSVExporter.ExportFormat> formats = new LinkedHashMap<>();
+		        for (CSVExporter.ExportFormat format : CSVExporter.ExportFormat.values()) {
+		        	String extension = format.getExtension();
+		        	FileNameExtensionFilter filter = new FileNameExtensionFilter(format.getDescription() + " (*" + extension + ")",
+		        			extension.substring(extension.lastIndexOf('.') + 1));
+		        	formats.put(filter, format);
+		        	fileChooser.addChoosableFileFilter(filter);
+		        }
+		        fileChooser.setFileFilter(formats.keySet().iterator().next());
 
 		        // Show save dialog and capture user selection
 		        int userSelection = fileChooser.showSaveDialog(null);
@@ -196,28 +234,15 @@ public class MainApp extends JFrame {
 		            // Extract file path
 		            String filePath = fileToSave.getAbsolutePath();
 		            
-		            // Append ".csv" if user did not include extension
-		            if (!filePath.toLowerCase().endsWith(".csv")) {
-		                filePath += ".csv";
-		            }
-		            try {
-		            	
-		            	// Export JTable data to CSV file
-		                CSVExporter.exportToCSV(tblEmployee, filePath);
-		                
-		                // Show success message dialog to user
-		                JOptionPane.showMessageDialog(null, "Successfully exported Transactions to:\n" + filePath);
-		            } catch (IOException ex) {
-		            	
-		            	// Print error stack trace for debugging
-		                ex.printStackTrace();
-		                
-		                // Print failure message to console
-		                System.out.println("Failed to export Transactions.");
-		                
-		                // Show failure dialog to user
-		                JOptionPane.showMessageDialog(null, "Failed to export Transactions.\nPlease try again.");
+		            // Append the extension of the chosen format if user did not include it
+		            CSVExporter.ExportFormat format = formats.getOrDefault(fileChooser.getFileFilter(), CSVExporter.ExportFormat.CSV);
+		            if (!filePath.toLowerCase().endsWith(format.getExtension())) {
+		                filePath += format.getExtension();
 		            }
+		            final String exportPath = filePath;
+		            
+		            // Stream the transaction history from the database to the file in the background
+		            exportTransactions(exportPath, format);
 		        }
 		    }
 		});
@@ -254,19 +279,26 @@ public class MainApp extends JFrame {
 		            if (!filePath.toLowerCase().endsWith(".csv")) {
 		                filePath += ".csv";
 		            }
-		            try {
-		            	// Export the orders table to the selected CSV file
-		                CSVExporter.exportToCSV(tblOrders, filePath);
-		                
-		                // Notify the user of a successful export
-		                JOptionPane.showMessageDialog(null, "Successfully exported Orders to:\n" + filePath);
-		            } catch (IOException ex) {
-		                ex.printStackTrace();
-		                System.out.println("Failed to export Orders.");
-		                
-		                // Notify the user if export fails
-		                JOptionPane.showMessageDialog(null, "Failed to export Orders.\nPlease try again.");
-		            }
+		            final String exportPath = filePath;
+		            
+		            // Capture the orders table here on the EDT, then write the CSV file in the background
+		            CSVExporter.TableSnapshot orders = CSVExporter.snapshot(tblOrders);
+		            AsyncService.getInstance().call(() -> {
+		            	orders.writeTo(exportPath);
+		            	return null;
+		            }).whenCompleteAsync((result, ex) -> {
+		            	if (ex == null) {
+		            		
+		            		// Notify the user of a successful export
+		            		JOptionPane.showMessageDialog(null, "Successfully exported Orders to:\n" + exportPath);
+		            	} else if (!(ex instanceof CancellationException)) {
+		            		ex.printStackTrace();
+		            		System.out.println("Failed to export Orders.");
+		            		
+		            		// Notify the user if export fails
+		            		JOptionPane.showMessageDialog(null, "Failed to export Orders.\nPlease try again.");
+		            	}
+		            }, AsyncService.EDT);
 		        }
 		    }
 		});
@@ -274,6 +306,30 @@ public class MainApp extends JFrame {
 		// Add the export orders button  to the bottom panel
 		bottomPanel.add(btnExportOrders);
 
+		// ============================
+		// BUSY INDICATOR SECTION
+		// ============================
+		
+		// Indeterminate progress bar shown while database work runs in the background
+		JProgressBar busyBar = new JProgressBar();
+		busyBar.setIndeterminate(true);
+		busyBar.setVisible(false);
+		bottomPanel.add(busyBar);
+		
+		// Button that cancels the running background work
+		JButton btnCancelWork = new JButton("Cancel");
+		btnCancelWork.setVisible(false);
+		btnCancelWork.addActionListener(e -> AsyncService.getInstance().cancelAll());
+		bottomPanel.add(btnCancelWork);
+		
+		// Show the indicator (and a wait cursor) whenever the async service is busy
+		AsyncService.getInstance().addBusyListener(busy -> {
+			busyBar.setVisible(busy);
+			btnCancelWork.setVisible(busy);
+			setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+			bottomPanel.revalidate();
+		});
+
 		// Add the bottom panel (with export buttons) to the SOUTH region of the content pane
 		contentPane.add(bottomPanel, BorderLayout.SOUTH);
 		
@@ -301,15 +357,15 @@ public class MainApp extends JFrame {
 					return;
 				}
 				
-				try(Connection conn = DBConnect.getInstance().getConnection()){
+				// Generate the reminders in the background; only the text area update runs on the EDT
+				AsyncService.getInstance().submit(conn -> {
 					
 					// 1. Retrieve all BORROWED transactions for the selected employee
 					List<Transaction> borrowedTransaction = TransactionDAO.getBorrowedTransactionsByEmployee(selectedEmployee.getEmpID(), conn);
 					
 					// 2. If no borrowed transaction exists, show message
 					if(borrowedTransaction.isEmpty()) {
-						txtReminder.setText("No borrowed equipment for " + selectedEmployee.getEmpName());
-						return;
+						return "No borrowed equipment for " + selectedEmployee.getEmpName();
 					}
 					
 					// StringBuilder to hold all reminder messages generated before being displayed them in the text area
@@ -318,24 +374,28 @@ public class MainApp extends JFrame {
 					// 3. Iterate through all borrowed transactions
 					for(Transaction t : borrowedTransaction) {
 						
-						// 3a. Create a reminder object and register it as observer
-						Reminder reminder = new Reminder();
+						// 3a. Create a reminder object (its message is generated now) and register it as observer
+						Reminder reminder = new Reminder(t.getEmployee(), t, LocalDate.now());
 						t.registerObserver(reminder);
 						
-						// 3b. Notify Observer to generate reminder
+						// 3b. Notify Observer to save the reminder (delivered in the background by the event bus)
 						t.notifyObservers();
 						
 						// 3c. Append the reminder message to the string builder
 						remindersText.append(reminder.getReminderMSG()).append("\n");
 					}
+					return remindersText.toString();
 					
-					// 4. Display all reminder in the txtReminder text area
-					txtReminder.setText(remindersText.toString());
-					
-				}catch (SQLException ex) {
-					ex.printStackTrace();
-					txtReminder.setText("Error loading reminders.");
-				}
+				}).whenCompleteAsync((text, ex) -> {
+					if (ex == null) {
+						
+						// 4. Display all reminder in the txtReminder text area
+						txtReminder.setText(text);
+					} else if (!(ex instanceof CancellationException)) {
+						ex.printStackTrace();
+						txtReminder.setText("Error loading reminders.");
+					}
+				}, AsyncService.EDT);
 			}
 		});
 		
@@ -345,6 +405,15 @@ public class MainApp extends JFrame {
 		// Add the "Check Reminder" button to the top panel
 		panel.add(btnCheckReminder);
 		
+		// Start the scheduled reminder runs for all open loans (on a background thread)
+		ReminderEngine.getInstance();
+
+		// Apply checkouts, returns and orders saved by other clerks to the equipment cache
+		OutboxRelay.getInstance().subscribe(EquipmentCache.getInstance()::applyEvent);
+
+		// Start collecting metrics for the hidden Diagnostics tab
+		Diagnostics.install();
+		
 		// ============================
 		// EMPLOYEE SELECTION COMBO BOX
 		// ============================
@@ -356,9 +425,8 @@ public class MainApp extends JFrame {
 		// Add the combo box to the top panel
 		panel.add(comboEmployees);
 		
-		// Load all employees into the combo box
+		// Load all employees into the combo box (in the background, with no selection by default)
 		loadEmployeesIntoComboBox();
-		comboEmployees.setSelectedIndex(-1);  // No selection by default
 		
 		// ==================================
 		// CHECK OUT EQUIPMENT BUTTON SECTION
@@ -460,20 +528,31 @@ public class MainApp extends JFrame {
 				
 			    if (selectedRow >= 0) {
 			    	
-			        // Retrieve the orderID from the first column of the selected row
-			        int orderID = (int) tblOrders.getValueAt(selectedRow, 0);
+			        // Retrieve the order of the selected row (null while its page is still loading)
+			        Order selectedOrder = ordersModel.getRow(selectedRow);
+			        if (selectedOrder == null) {
+			        	return;
+			        }
+			        int orderID = selectedOrder.getOrderID();
 
 			        // Get the currently selected employee from the combo box
 			        Employee currentEmployee = (Employee) comboEmployees.getSelectedItem();
 
 			        if (currentEmployee != null) {
 			        	
-			        	// Call the cancelOrder() method of Employee and display the result
-			            String resultMSG = currentEmployee.cancelOrder(orderID);
-			            JOptionPane.showMessageDialog(MainApp.this, resultMSG);
-
-			            // Refresh the orders table to reflect changes
-			            refreshOrdersTable();
+			        	// Call the cancelOrder() method of Employee in the background and display the result
+			        	AsyncService.getInstance().save(() -> currentEmployee.cancelOrder(orderID))
+			        		.whenCompleteAsync((resultMSG, ex) -> {
+			        			if (ex != null) {
+			        				ex.printStackTrace();
+			        				JOptionPane.showMessageDialog(MainApp.this, "Failed to cancel order: " + ex.getMessage());
+			        				return;
+			        			}
+			        			JOptionPane.showMessageDialog(MainApp.this, resultMSG);
+
+			        			// Refresh the orders table to reflect changes
+			        			refreshOrdersTable();
+			        		}, AsyncService.EDT);
 			   
 			        } else {
 			        	
@@ -530,7 +609,9 @@ public class MainApp extends JFrame {
 		splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT);
 
 		// --- Employee Table ---
-		tblEmployee = new JTable();      // Table for employee transactions
+		transactionsModel = new TransactionTableModel();
+		tblEmployee = new JTable(transactionsModel);      // Table for employee transactions
+		PagedTableModel.installSortHeader(tblEmployee, transactionsModel);  // Sort on the server by column
 		JScrollPane scrollTblEmployee = new JScrollPane(tblEmployee);
 		splitPane.setTopComponent(scrollTblEmployee);
 
@@ -563,7 +644,9 @@ public class MainApp extends JFrame {
 		orderPanel.add(scrollPane_1, BorderLayout.CENTER);
 
 		// Table for displaying orders
-		tblOrders = new JTable();
+		ordersModel = new OrderTableModel();
+		tblOrders = new JTable(ordersModel);
+		PagedTableModel.installSortHeader(tblOrders, ordersModel);  // Sort on the server by column
 		scrollPane_1.setViewportView(tblOrders);  // Attach table to scroll pane
 
 		// ================ VIEW RECORD PANEL =============== //
@@ -626,22 +709,30 @@ public class MainApp extends JFrame {
 						filePath += ".csv";
 					}
 
-					try {
-						// Use the CSVExporter utility class to write the JTable data to a CSV file
-						CSVExporter.exportToCSV(tblViewRecord, filePath);
-						
-						// Notify the user that export was successful
-						JOptionPane.showMessageDialog(null, 
-								"Successfully exported View Record to:\n" + filePath);
-					} catch (IOException ex) {
-						
-						// Print the stack trace for debugging
-						ex.printStackTrace();
-						
-						// Notify the user that export failed
-						JOptionPane.showMessageDialog(null, 
-								"Failed to export View Record.\nError: " + ex.getMessage());
-					}
+					final String exportPath = filePath;
+					
+					// Use the CSVExporter utility class to capture the JTable data here on the EDT,
+					// then write it to a CSV file in the background
+					CSVExporter.TableSnapshot record = CSVExporter.snapshot(tblViewRecord);
+					AsyncService.getInstance().call(() -> {
+						record.writeTo(exportPath);
+						return null;
+					}).whenCompleteAsync((result, ex) -> {
+						if (ex == null) {
+							
+							// Notify the user that export was successful
+							JOptionPane.showMessageDialog(null, 
+									"Successfully exported View Record to:\n" + exportPath);
+						} else if (!(ex instanceof CancellationException)) {
+							
+							// Print the stack trace for debugging
+							ex.printStackTrace();
+							
+							// Notify the user that export failed
+							JOptionPane.showMessageDialog(null, 
+									"Failed to export View Record.\nError: " + ex.getMessage());
+						}
+					}, AsyncService.EDT);
 				}
 			}
 
@@ -675,9 +766,44 @@ public class MainApp extends JFrame {
 			}
 		});
 
+		// ========== HIDDEN DIAGNOSTICS TAB ========== //
+		// Ctrl+Shift+D shows or hides a tab with live
+		// metrics (pool, caches, checkouts, EDT stalls)
+		// ============================================ //
+		getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(
+				KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK),
+				"toggleDiagnostics");
+		getRootPane().getActionMap().put("toggleDiagnostics", new AbstractAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				toggleDiagnosticsTab();
+			}
+		});
+
 		// Initial population of tables
 		FillTable();
 	}
+
+	// ================ TOGGLE DIAGNOSTICS TAB ================ //
+	// Adds the Diagnostics tab (and selects it) if it is hidden,
+	// otherwise removes it. The panel only refreshes while the
+	// tab is open.
+	// ======================================================== //
+	private void toggleDiagnosticsTab() {
+		int index = tabbedPane.indexOfTab("Diagnostics");
+		if (index >= 0) {
+			tabbedPane.removeTabAt(index);
+			return;
+		}
+		if (diagnosticsPanel == null) {
+			diagnosticsPanel = new DiagnosticsPanel(MetricsRegistry.getInstance(),
+					EdtWatchdog.isEnabledByDefault() ? EdtWatchdog.getInstance() : null);
+		}
+		tabbedPane.addTab("Diagnostics", diagnosticsPanel);
+		tabbedPane.setSelectedComponent(diagnosticsPanel);
+	}
 	
 	// =========== POPULATE VIEW RECORD TABLE ======== //
 	// Retrieves all transactions for a given employee
@@ -685,8 +811,30 @@ public class MainApp extends JFrame {
 	// =============================================== //
 	private void refreshViewRecordTable(Employee emp) {
 		
-		// Get all transactions for the employee using the Employee's viewRecord() method
-		List<Transaction> transactions = emp.viewRecord();
+		// Cancel a load that is still running for a previously selected employee
+		if (viewRecordLoad != null) {
+			viewRecordLoad.cancel(true);
+		}
+		
+		// Get all transactions for the employee using the Employee's viewRecord() method (in the background)
+		CompletableFuture<List<Transaction>> load = AsyncService.getInstance().call(emp::viewRecord);
+		viewRecordLoad = load;
+		load.whenCompleteAsync((transactions, ex) -> {
+			
+			// Ignore cancelled or superseded loads
+			if (load != viewRecordLoad || ex instanceof CancellationException) {
+				return;
+			}
+			if (ex != null) {
+				ex.printStackTrace();
+				return;
+			}
+			fillViewRecordTable(transactions);
+		}, AsyncService.EDT);
+	}
+	
+	// Displays an employee's transactions in the View Record table (runs on the EDT)
+	private void fillViewRecordTable(List<Transaction> transactions) {
 		
 		// If no transaction exists, notify the user
 		if(transactions.isEmpty()) {
@@ -744,8 +892,32 @@ public class MainApp extends JFrame {
 	// ========================================================= //
 	
 	// Order dialog is invoked after the employee clicks the "Order" button
+	// The orderable equipment is loaded in the background before the dialog opens
 	private void openOrderDialog(Employee employee) {
 		
+		// Retrieve a list of orderable equipment matching the employee's skill
+		// (served from the equipment cache; only the first load queries the database)
+		AsyncService.getInstance()
+			.call(() -> EquipmentCache.getInstance().getOrderableEquipmentBySkill(employee.getSkillClassification()))
+			.whenCompleteAsync((equipment, ex) -> {
+				if (ex instanceof CancellationException) {
+					return;
+				}
+				if (ex != null) {
+					
+					// Log technical error
+					ex.printStackTrace();
+					
+					// Inform user of failure
+					JOptionPane.showMessageDialog(this, "Failed to load equipment.", "Error", JOptionPane.ERROR_MESSAGE);
+				}
+				showOrderDialog(employee, ex == null ? equipment : List.of());
+			}, AsyncService.EDT);
+	}
+	
+	// Shows the order dialog for the loaded equipment
+	private void showOrderDialog(Employee employee, List<Equipment> equipment) {
+		
 		// Create a modal dialog with the employees name in the title
 	    JDialog dialog = new JDialog(this, "Order Equipment for " + employee.getEmpName(), true);
 	    dialog.setSize(600, 400);
@@ -754,28 +926,14 @@ public class MainApp extends JFrame {
 	    // Table model for displaying equipment data (ID, Name, Skill Required)
 	    DefaultTableModel tableModel = new DefaultTableModel(new Object[]{"ID", "Name", "Skill Required"}, 0);
 	    JTable table = new JTable(tableModel);
-
-	    // Establish a database connection
-	    try (Connection conn = DBConnect.getInstance().getConnection()) {
-	    	
-	    	// Retrieve a list of orderable equipment matching the employee's skill
-	        List<Equipment> equipment = EquipmentDAO.getOrderableEquipmentBySkill(conn, employee.getSkillClassification());
-	        
-	        // Add each equipment as a row in the table model
-	        for (Equipment eq : equipment) {
-	            tableModel.addRow(new Object[]{
-	            		eq.getEquipmentID(),     // Unique identifier of the equipment
-	            		eq.getEquipmentName(),   // Name of the equipment
-	            		eq.getRequiredSkill()    // Skill required to use the equipment
-	            });
-	        }
-	    } catch (SQLException ex) {
-	    	
-	    	// Log technical error
-	        ex.printStackTrace();
-	        
-	        // Inform user of failure
-	        JOptionPane.showMessageDialog(dialog, "Failed to load equipment.", "Error", JOptionPane.ERROR_MESSAGE);
+	    
+	    // Add each equipment as a row in the table model
+	    for (Equipment eq : equipment) {
+	    	tableModel.addRow(new Object[]{
+	    			eq.getEquipmentID(),     // Unique identifier of the equipment
+	    			eq.getEquipmentName(),   // Name of the equipment
+	    			eq.getRequiredSkill()    // Skill required to use the equipment
+	    	});
 	    }
 
 	    // Confirm button to process order
@@ -786,13 +944,23 @@ public class MainApp extends JFrame {
 	        	
 	        	// Get the selected equipment ID from the table
 	            int equipmentId = (int) tableModel.getValueAt(selectedRow, 0);
-	            try (Connection conn = DBConnect.getInstance().getConnection()) {
+	            
+	            // Prevent a second click while the order is being placed
+	            btnConfirm.setEnabled(false);
+	            AsyncService.getInstance().submit(conn -> {
 	            	
 	            	// Retrieve the equipment object by ID
-	                Equipment equipment = EquipmentDAO.getEquipmentByID(conn, equipmentId);
+	                Equipment selected = EquipmentDAO.getEquipmentByID(conn, equipmentId);
 	                
 	                // Call the orderEquipment method from the Employee class to place an order
-	                String result = employee.orderEquipment(equipment);
+	                return employee.orderEquipment(selected);
+	            }).whenCompleteAsync((result, ex) -> {
+	            	btnConfirm.setEnabled(true);
+	            	if (ex != null) {
+	            		ex.printStackTrace();
+	            		JOptionPane.showMessageDialog(dialog, "Failed to place order: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+	            		return;
+	            	}
 	                JOptionPane.showMessageDialog(dialog, result);
 	                
 	                // Refresh the Orders panel to show updated data
@@ -800,9 +968,7 @@ public class MainApp extends JFrame {
 	                
 	                // Close the dialog after a successful order
 	                dialog.dispose();
-	            } catch (SQLException ex) {
-	                ex.printStackTrace();
-	            }
+	            }, AsyncService.EDT);
 	        } else {
 	        	
 	        	// Alert if no equipment is selected
@@ -824,10 +990,39 @@ public class MainApp extends JFrame {
 	// return button is pressed. This dialog allows
 	// employees to to view all borrowed equipment
 	// and return them by selecting the equipment
-	// condition.
+	// condition. Several rows can be selected to
+	// return them together in one save.
 	// ============================================ //
+	
+	// Return dialog is invoked after the employee clicks the "Return" button
+	// The borrowed equipment is loaded in the background before the dialog opens
 	private void openReturnDialog(Employee employee) {
 		
+		// Load the employee's open loans into a new Employee owned by the dialog,
+		// so the employee shown in the combo box is never changed off the EDT
+		AsyncService.getInstance().submit(conn -> {
+			Employee returner = new Employee(employee.getEmpID(), employee.getEmpName(), employee.getSkillClassification());
+			returner.setEmpTransaction(TransactionDAO.getBorrowedTransactionsByEmployee(employee.getEmpID(), conn));
+			return returner;
+		}).whenCompleteAsync((returner, ex) -> {
+			if (ex instanceof CancellationException) {
+				return;
+			}
+			if (ex != null) {
+				ex.printStackTrace();
+				
+				// Inform user of failure
+				JOptionPane.showMessageDialog(this, "Failed to load borrowed equipment.", "Error", JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			showReturnDialog(employee, returner);
+		}, AsyncService.EDT);
+	}
+	
+	// Shows the return dialog for the loaded open loans. 'returner' holds the
+	// loans and records the return; 'employee' is the combo box item to refresh
+	private void showReturnDialog(Employee employee, Employee returner) {
+		
 		// Create a modal dialog window to for returning equipment
 		// The title dynamically includes the employees name
 	    JDialog dialog = new JDialog(MainApp.this, "Return Equipment for " + employee.getEmpName(), true);
@@ -837,10 +1032,8 @@ public class MainApp extends JFrame {
 	    // Define the table columns headers
 	    String[] columns = {"Transaction ID", "Equipment ID", "Equipment Name", "Borrow Date", "Expected Return Date"};
 	    
-	    // Get only the employee's transactions that are currently Borrowed
-	    List<Transaction> borrowedTxns = employee.getEmpTransaction().stream()
-	        .filter(t -> t.getTransactionStatus() == TransactionStatus.Borrowed)
-	        .toList();
+	    // The employee's transactions that are currently Borrowed
+	    List<Transaction> borrowedTxns = List.copyOf(returner.getEmpTransaction());
 	    
 	    // Convert the list of borrowed transactions into a 2D array for the JTable
 	    Object[][] data = new Object[borrowedTxns.size()][columns.length];
@@ -853,9 +1046,9 @@ public class MainApp extends JFrame {
 	        data[i][4] = t.getExpectedReturnDate();              // Expected Return Date
 	    }
 	    
-	    // Create the table and enable single row selection
+	    // Create the table and enable multiple row selection (e.g., end-of-shift returns)
 	    JTable table = new JTable(data, columns);
-	    table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+	    table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
 	    
 	    // Add table inside a scroll panel so the data is scrollable
 	    JScrollPane scrollPane = new JScrollPane(table);
@@ -864,20 +1057,19 @@ public class MainApp extends JFrame {
 	    JButton btnConfirmReturn = new JButton("Confirm Return");
 	    btnConfirmReturn.addActionListener(e -> {
 	    	
-	    	// Check if the user has selected a row
-	        int selectedRow = table.getSelectedRow();
-	        if (selectedRow == -1) {
+	    	// Check if the user has selected at least one row
+	        int[] selectedRows = table.getSelectedRows();
+	        if (selectedRows.length == 0) {
 	            JOptionPane.showMessageDialog(dialog, "Please select equipment to return.");
 	            return;
 	        }
 	        
-	        // Extract the transaction ID from the selected row
-	        int transactionID = (int) table.getValueAt(selectedRow, 0);
-	        
 	        // Ask employees to specify the condition of the returned equipment
+	        // (applies to every selected item)
 	        EquipmentCondition condition = (EquipmentCondition) JOptionPane.showInputDialog(
 	            dialog,
-	            "Select condition of the equipment:",
+	            selectedRows.length == 1 ? "Select condition of the equipment:"
+	            		: "Select condition of the " + selectedRows.length + " selected items:",
 	            "Equipment Condition",
 	            JOptionPane.QUESTION_MESSAGE,
 	            null,
@@ -891,46 +1083,51 @@ public class MainApp extends JFrame {
 	            return;
 	        }
 	        
-	        // Call returnEquipment() method in Employee class
-	        // This method updates the Transaction object and Equipment object
-	        // both in memory and persists the change to the database.
-	        Transaction returnedTxn = employee.returnEquipment(transactionID, condition);
-	        
-	        // If return fails, notify the user
-	        if (returnedTxn == null) {
-	            JOptionPane.showMessageDialog(dialog, "Return failed. Equipment not found or already returned.");
-	            return;
+	        // Pair each selected transaction ID with the chosen condition
+	        Map<Integer, EquipmentCondition> returns = new LinkedHashMap<>();
+	        for (int row : selectedRows) {
+	        	returns.put((int) table.getValueAt(row, 0), condition);
 	        }
 	        
-	        // Perform database operations inside a try-with-resources block
-	        try (Connection conn = DBConnect.getInstance().getConnection()) {
-	            conn.setAutoCommit(false);  // Begin transaction
-
-	            // Update the transaction record in the database (e.g., set status = Returned)
-	            TransactionDAO.updateTransactionReturn(conn, returnedTxn);
-	            
-	            // Update the equipment status (e.g., Loaned) based on condition
-	            EquipmentDAO.updateEquipment(conn, returnedTxn.getEquipment());
-
-	            // Commit both updates to the database
-	            conn.commit();
-
-	            // Inform the user and close the dialog
-	            JOptionPane.showMessageDialog(dialog, "Equipment returned successfully.");
-	            dialog.dispose();
-
-	            // Update the Transaction panel
-	            FillTable();
-	            
-	            // Update the View Record panel
-	            refreshViewRecordTable(employee);
-
-	        } catch (Exception ex) {
-	            ex.printStackTrace();
-	            
-	            // Show error message to user
-	            JOptionPane.showMessageDialog(dialog, "Return failed: " + ex.getMessage());
-	        }
+	        // Prevent a second click while the return is being saved
+	        btnConfirmReturn.setEnabled(false);
+	        
+	        // Save the return in the background (saves are not cancelled by the Cancel button)
+	        AsyncService.getInstance().save(() -> {
+	        	
+	        	// Call returnEquipment() method in Employee class
+	        	// This method updates the Transaction and Equipment objects in memory
+	        	// and saves every selected return in one database transaction
+	        	return !returner.returnEquipment(returns).isEmpty();
+	        }).whenCompleteAsync((returned, ex) -> {
+	        	btnConfirmReturn.setEnabled(true);
+	        	
+	        	// A failed save was rolled back; reload the equipment cache
+	        	if (ex != null) {
+	        		EquipmentCache.getInstance().invalidate();
+	        		ex.printStackTrace();
+	        		
+	        		// Show error message to user
+	        		JOptionPane.showMessageDialog(dialog, "Return failed: " + ex.getMessage());
+	        		return;
+	        	}
+	        	
+	        	// If return fails, notify the user
+	        	if (!returned) {
+	        		JOptionPane.showMessageDialog(dialog, "Return failed. Equipment not found or already returned.");
+	        		return;
+	        	}
+	        	
+	        	// Inform the user and close the dialog
+	        	JOptionPane.showMessageDialog(dialog, "Equipment returned successfully.");
+	        	dialog.dispose();
+	        	
+	        	// Update the Transaction panel
+	        	FillTable();
+	        	
+	        	// Update the View Record panel
+	        	refreshViewRecordTable(employee);
+	        }, AsyncService.EDT);
 	    });
 	    
 	    // Add components into a panel (table in center, button at bottom)
@@ -943,14 +1140,106 @@ public class MainApp extends JFrame {
 	    dialog.setVisible(true);
 	}
 	
+	// ============== EXPORT TRANSACTIONS WITH PROGRESS ============== //
+	// Streams every transaction from the database to a file in the chosen
+	// format in the background, showing a progress bar and a Cancel
+	// button. Memory use does not grow with the size of the history.
+	// ============================================================== //
+	private void exportTransactions(String exportPath, CSVExporter.ExportFormat format) {
+		
+		// Small progress window with a Cancel button
+		JDialog progressDialog = new JDialog(this, "Exporting Transactions", false);
+		JProgressBar progressBar = new JProgressBar();
+		progressBar.setIndeterminate(true);
+		progressBar.setStringPainted(true);
+		progressBar.setString("Starting...");
+		JButton btnCancelExport = new JButton("Cancel");
+		JPanel progressPanel = new JPanel(new BorderLayout(5, 5));
+		progressPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+		progressPanel.add(progressBar, BorderLayout.CENTER);
+		progressPanel.add(btnCancelExport, BorderLayout.SOUTH);
+		progressDialog.setContentPane(progressPanel);
+		progressDialog.setSize(350, 110);
+		progressDialog.setLocationRelativeTo(this);
+		progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+		
+		// Count the rows first so the bar can show a percentage, then stream them to the file
+		CompletableFuture<Long> export = AsyncService.getInstance().submit(conn -> {
+			int total = TransactionDAO.countTransactions(conn);
+			AsyncService.EDT.execute(() -> {
+				progressBar.setIndeterminate(false);
+				progressBar.setMaximum(Math.max(total, 1));
+			});
+			return CSVExporter.exportTransactions(conn, Paths.get(exportPath), format, rows ->
+				AsyncService.EDT.execute(() -> {
+					progressBar.setValue((int) rows);
+					progressBar.setString(rows + " of " + total + " rows");
+				}));
+		});
+		btnCancelExport.addActionListener(e -> export.cancel(true));
+		
+		export.whenCompleteAsync((rows, ex) -> {
+			progressDialog.dispose();
+			if (ex == null) {
+				
+				// Show success message dialog to user
+				JOptionPane.showMessageDialog(null, "Successfully exported " + rows + " Transactions to:\n" + exportPath);
+			} else if (ex instanceof CancellationException) {
+				JOptionPane.showMessageDialog(null, "Export cancelled.");
+			} else {
+				
+				// Print error stack trace for debugging
+				ex.printStackTrace();
+				
+				// Print failure message to console
+				System.out.println("Failed to export Transactions.");
+				
+				// Show failure dialog to user
+				JOptionPane.showMessageDialog(null, "Failed to export Transactions.\nPlease try again.");
+			}
+		}, AsyncService.EDT);
+		progressDialog.setVisible(true);
+	}
+	
 	// ================ EMPLOYEE CHECKOUT DIALOG =============== //
 	// Employee checkout dialog invoke after the checkout button
 	// is pressed. This dialog allows an employee to view all 
 	// available equipment for their skill classification and
-	// check out one piece of equipment.
+	// check out one piece of equipment, or several at once.
 	// ========================================================= //
 	private void openCheckoutDialog(Employee employee) {
 		
+		// Retrieve all available equipment matching the employee's skill in the background
+		// (served from the equipment cache; only the first load queries the database)
+		AsyncService.getInstance()
+			.call(() -> EquipmentCache.getInstance().getAvailableEquipmentBySkill(employee.getSkillClassification()))
+			.whenCompleteAsync((equipmentList, ex) -> {
+				if (ex instanceof CancellationException) {
+					return;
+				}
+				if (ex != null) {
+					ex.printStackTrace();
+					
+					// Display a failure message to the user
+					JOptionPane.showMessageDialog(this, "Failed to load equipment data");
+					return;
+				}
+				
+				// If no equipment is available for an employees skill, show message and exit
+				if (equipmentList.isEmpty()) {
+					JOptionPane.showMessageDialog(null, 
+							"No available equipment for: " + employee.getSkillClassification(),
+							"No equipment found",
+							JOptionPane.INFORMATION_MESSAGE);
+					return;
+				}
+				showCheckoutDialog(employee, equipmentList);
+			}, AsyncService.EDT);
+	}
+	
+	// Shows the checkout dialog for the loaded equipment
+	private void showCheckoutDialog(Employee employee, List<Equipment> equipmentList) {
+		
 	    // Create a modal dialog window for equipment checkout
 		// The title dynamically includes the employee's name
 	    JDialog dialog = new JDialog(this, "Check Out Equipment for " + employee.getEmpName(), true);
@@ -962,51 +1251,34 @@ public class MainApp extends JFrame {
 	    String[] columnNames = {"ID", "Name", "Condition", "Status", "Required Skill"};
 	    
 	    // Initialize a 2D array for JTable data
-	    Object[][] data = new Object[0][];
+	    // Rows = number of equipment, Columns = 5 (ID, Name, Condition, Status, Required Skill)
+	    Object[][] data = new Object[equipmentList.size()][5];
 	    
-	    try (Connection conn = DBConnect.getInstance().getConnection()) {
-	    	
-	    	// Retrieve all available equipment matching the employee's skill
-	    	List<Equipment> equipmentList = EquipmentDAO.getAvailableEquipmentBySkill(conn, employee.getSkillClassification());
-	    	
-	    	// Re-initialize the 2D array to the correct size based on the number of retrieved equipment
-	    	// Rows = number of equipment, Columns = 5 (ID, Name, Condition, Status, Required Skill)
-	    	data = new Object[equipmentList.size()][5];
-	    	
-	    	// If no equipment is available for an employees skill, show message and exit
-	    	if(equipmentList.isEmpty()) {
-	    		JOptionPane.showMessageDialog(null, 
-	    				"No available equipment for: " + employee.getSkillClassification(),
-	    				"No equipment found",
-	    				JOptionPane.INFORMATION_MESSAGE);
-	    		return;
-	    	}
-	    	// Populate data array with equipment attributes for JTable
-	    	for(int i=0; i < equipmentList.size(); i++) {
-	    		Equipment eq = equipmentList.get(i);
-	    		data[i][0] = eq.getEquipmentID();                 // Equipment ID
-	    		data[i][1] = eq.getEquipmentName();               // Equipment Name
-	    		data[i][2] = eq.getEquipmentCondition().name();   // Equipment Condition (enum as string)
-	    		data[i][3] = eq.getStatus().name();               // Equipment Status (enum as string)
-	    		data[i][4] = eq.getRequiredSkill().name();        // Required Skill (enum as string)
-	    	}
-	    	
-	    } catch (Exception e){
-	    	e.printStackTrace();
-	    	
-	    	// Display a failure message to the user
-	    	JOptionPane.showMessageDialog(dialog, "Failed to load equipment data");
+	    // Populate data array with equipment attributes for JTable
+	    for(int i=0; i < equipmentList.size(); i++) {
+	    	Equipment eq = equipmentList.get(i);
+	    	data[i][0] = eq.getEquipmentID();                 // Equipment ID
+	    	data[i][1] = eq.getEquipmentName();               // Equipment Name
+	    	data[i][2] = eq.getEquipmentCondition().name();   // Equipment Condition (enum as string)
+	    	data[i][3] = eq.getStatus().name();               // Equipment Status (enum as string)
+	    	data[i][4] = eq.getRequiredSkill().name();        // Required Skill (enum as string)
 	    }
 	    
 	    // Create table with retrieved equipment data
 	    JTable table = new JTable(data, columnNames);
-	    table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);  // Single selection only
+	    table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);  // Ctrl/Shift-click to check out a kit
 	    JScrollPane scrollPane = new JScrollPane(table);   // Make table scrollable
 
 	    // Button to confirm checkout of selected equipment
 	    JButton btnConfirm = new JButton("Confirm Checkout");
 	    btnConfirm.addActionListener(e -> {
 	    	
+	    	// Several rows selected: check them all out together
+	        if (table.getSelectedRowCount() > 1) {
+	        	checkOutSelected(dialog, btnConfirm, employee, table, equipmentList);
+	        	return;
+	        }
+	        
 	    	// Check if row is selected
 	        int selectedRow = table.getSelectedRow();
 	        if (selectedRow == -1) {
@@ -1042,88 +1314,62 @@ public class MainApp extends JFrame {
     		        "Are you sure you want to check out:\n" + equipmentName + " (ID: " + equipmentID + ")",
     		        "Confirm Checkout", JOptionPane.YES_NO_OPTION);
 	        
+	        // Show detailed attributes of selected equipment for confirmation, then close the dialog
+	        Runnable showDetails = () -> {
+	        	JOptionPane.showMessageDialog(dialog,
+	        			"Selected Equipment:\nID: " + equipmentID + "\nName: " + equipmentName + "\n" + "Equipment Condition: "
+	        					+ equipmentCondition +"\n" + "Equipment Status: " + equipmentStatus + "\n" + "Required Skill: "
+	        					+ requiredSkill);
+	        	dialog.dispose();
+	        };
+	        
 	        if(confirm == JOptionPane.YES_OPTION) {
 	        	
 	        	// Call Employee's checkOut() method to create a new transaction in memory
 	        	Transaction newTxn = employee.checkOut(selectedEquipment);
 	        	
-	        	// Establish a database connection
-	        	try (Connection conn = DBConnect.getInstance().getConnection()){
-	        		conn.setAutoCommit(false);  // Begin transaction
+	        	// Prevent a second click while the checkout is being saved
+	        	btnConfirm.setEnabled(false);
+	        	
+	        	// Save the checkout in the background. CheckoutService loans the
+	        	// equipment only if it is still available, so two clerks cannot
+	        	// check out the same item, and records the transaction in the
+	        	// same database transaction. Saves are not cancelled by the Cancel button
+	        	AsyncService.getInstance().save(() -> CheckoutService.getInstance().checkOut(newTxn))
+	        	.whenCompleteAsync((result, ex) -> {
+	        		btnConfirm.setEnabled(true);
 	        		
-	        		// Update equipment status to loaned in the database
-	        		String updateSQL = "UPDATE equipment SET equipStatus = 'Loaned' WHERE equipmentID = ?";
-	        		try (PreparedStatement stmtUpdate = conn.prepareStatement(updateSQL)){
-	        			stmtUpdate.setInt(1, equipmentID);
-	        			stmtUpdate.executeUpdate();  // executes statement of DML
+	        		// A failed save was rolled back; reload the equipment cache
+	        		if (ex != null) {
+	        			EquipmentCache.getInstance().invalidate();
 	        		}
-	        		
-	        		// Insert new transaction into transaction table 
-	        		// Records empID, equipmentID, borrow and expected dates, and transaction status
-	        		String insertSQL = "INSERT INTO transaction " +
-	        			    "(empID, equipmentID, borrowDate, expectedReturnDate, transactionStatus, checkoutCondition) " +
-	        			    "VALUES (?, ?, ?, ?, ?, ?)";
-
-	        		// Prepare a SQL statement to insert a new transaction into the database
-	        		// Statement.RETURN_GENERATED_KEYS allows retrieval of the auto-generated transaction ID
-	        		try (PreparedStatement stmtInsert = conn.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)){
+	        		if (ex == null) {
 	        			
-	        			// Set parameters for the prepared statement
-	        			stmtInsert.setInt(1, newTxn.getEmployee().getEmpID());          // Employee ID
-	        			stmtInsert.setInt(2, newTxn.getEquipment().getEquipmentID());   // Equipment ID
-	        			stmtInsert.setDate(3, newTxn.getBorrowDate() != null ? java.sql.Date.valueOf(newTxn.getBorrowDate()) : null);  // Borrow Date
-	        			stmtInsert.setDate(4, newTxn.getExpectedReturnDate() != null ? java.sql.Date.valueOf(newTxn.getExpectedReturnDate()) : null);  // Expected Return Date
-	        			stmtInsert.setString(5, newTxn.getTransactionStatus().name());  // Transaction Status
-	        			stmtInsert.setString(6, newTxn.getCheckoutCondition().name());  // Checkout Condition
+	        			// Notify user of the outcome (e.g., someone else checked the item out first)
+	        			JOptionPane.showMessageDialog(dialog, result.getMessage());
 	        			
-	        			// Execute the insert statement
-	        			stmtInsert.executeUpdate();
-	        			
-	        			// Retrieve auto-generated transaction ID from database
-	        			try(ResultSet rs = stmtInsert.getGeneratedKeys()){
-	        				
-	        				// Check if the ResultSet contains a generated key
-	        				if(rs.next()) {
-	        					
-	        					// Retrieve the auto-generated transaction ID from the first column
-	        					int generatedID = rs.getInt(1);
-	        					
-	        					// Update in-memory Transaction object with the generated transaction ID
-	        					newTxn.setTransactionID(generatedID);
-	        				}
+	        			// Refresh UI tables to reflect the new transaction; the View Record
+	        			// reload also drops the in-memory transaction of a refused checkout
+	        			if (result.isCheckedOut()) {
+	        				FillTable();    // Transaction panel
 	        			}
+	        			refreshViewRecordTable(employee);  // View Record panel
+	        		} else {
+	        			
+	        			// Print stack trace to the console for debugging
+	        			ex.printStackTrace();
+	        			
+	        			// Show a general error message to the user
+	        			JOptionPane.showMessageDialog(dialog, "Checkout failed. Please try again.");
+	        			
+	        			// Show a detailed error message for additional information
+	        			JOptionPane.showMessageDialog(dialog, "SQL Error: " + ex.getMessage());
 	        		}
-	        		conn.commit();  // Commit all changes to database
-	        		
-	        		// Notify user of a successful checkout
-	        		JOptionPane.showMessageDialog(dialog, "Successful checkout for: " + equipmentName);
-	        		dialog.dispose();
-	        		
-	        		// Refresh UI tables to reflect new transaction
-	        		FillTable();        // Transaction panel
-		            refreshViewRecordTable(employee);  // View Record panel
-	        		
-	        	}catch (Exception ex) {
-	        		
-	        		// Print stack trace to the console for debugging
-	        		ex.printStackTrace();
-	        		
-	        		// Show a general error message to the user
-	        		JOptionPane.showMessageDialog(dialog, "Checkout failed. Please try again.");
-	        		
-	        		// Show a detailed error message for additional information
-	        		JOptionPane.showMessageDialog(dialog, "SQL Error: " + ex.getMessage());
-	        	}
+	        		showDetails.run();
+	        	}, AsyncService.EDT);
+	        } else {
+	        	showDetails.run();
 	        }
-	        
-	        // Show detailed attributes of selected equipment for confirmation
-	        JOptionPane.showMessageDialog(dialog,
-	            "Selected Equipment:\nID: " + equipmentID + "\nName: " + equipmentName + "\n" + "Equipment Condition: "
-	            		+ equipmentCondition +"\n" + "Equipment Status: " + equipmentStatus + "\n" + "Required Skill: "
-	            		+ requiredSkill);
-
-	        // Close dialog after confirmation
-	        dialog.dispose();
 	    });
 
 	    // Set up the layout of the dialog using BorderLayout
@@ -1142,199 +1388,140 @@ public class MainApp extends JFrame {
 	    dialog.setVisible(true);
 	}
 	
+	// Checks out every selected row of the checkout dialog in one database
+	// transaction. Either all items are checked out or none are.
+	private void checkOutSelected(JDialog dialog, JButton btnConfirm, Employee employee, JTable table,
+			List<Equipment> equipmentList) {
+		
+		// Rows are in the same order as the equipment list
+		List<Equipment> selected = new ArrayList<>();
+		StringBuilder names = new StringBuilder();
+		for (int row : table.getSelectedRows()) {
+			Equipment eq = equipmentList.get(row);
+			selected.add(eq);
+			names.append("\n").append(eq.getEquipmentName()).append(" (ID: ").append(eq.getEquipmentID()).append(")");
+		}
+		
+		// Ask for confirmation before saving
+		int confirm = JOptionPane.showConfirmDialog(dialog,
+				"Are you sure you want to check out these " + selected.size() + " items:" + names,
+				"Confirm Checkout", JOptionPane.YES_NO_OPTION);
+		if (confirm != JOptionPane.YES_OPTION) {
+			return;
+		}
+		
+		// Prevent a second click while the checkout is being saved
+		btnConfirm.setEnabled(false);
+		
+		// Save all items in the background in a single database transaction
+		// (saves are not cancelled by the Cancel button). The batch adds its
+		// transactions to the employee it is given, so it gets a copy of the
+		// combo box item rather than an object the EDT shares
+		Employee borrower = new Employee(employee.getEmpID(), employee.getEmpName(), employee.getSkillClassification());
+		AsyncService.getInstance().save(() -> CheckoutService.getInstance().checkOutBatch(borrower, selected))
+		.whenCompleteAsync((result, ex) -> {
+			btnConfirm.setEnabled(true);
+			
+			// A failed save was rolled back; reload the equipment cache
+			if (ex != null) {
+				EquipmentCache.getInstance().invalidate();
+				ex.printStackTrace();
+				JOptionPane.showMessageDialog(dialog, "Checkout failed. Please try again.\nSQL Error: " + ex.getMessage());
+				return;
+			}
+			
+			// Notify user of the outcome
+			JOptionPane.showMessageDialog(dialog, result.getMessage());
+			if (result.isCheckedOut()) {
+				
+				// Refresh UI tables to reflect the new transactions, then close the dialog
+				FillTable();                       // Transaction panel
+				refreshViewRecordTable(employee);  // View Record panel
+				dialog.dispose();
+			}
+		}, AsyncService.EDT);
+	}
+	
 	// ============ COMBO BOX FOR EMPLOYEES ============== //
-	// Load employees from the database into the JComboBox
+	// Load employees from the EmployeeDirectory into the
+	// JComboBox. The combo box is reloaded whenever the
+	// directory's background refresh finds a change.
 	// =================================================== //
 	private void loadEmployeesIntoComboBox() {
-	    try (Connection conn = DBConnect.getInstance().getConnection()) {
-	    	
-	    	// Retrieve a list of all employees using the EmployeeDAO
-	        List<Employee> employees = EmployeeDAO.getAllEmployees(conn);
-	        
-	        // Clear existing items from the combo box
-	        comboEmployees.removeAllItems();
-	        
-	        // Iterate through each employee and add them to the combo box
-	        for (Employee emp : employees) {
-	        	
-	        	// Add employee to the JComboBox
-	            comboEmployees.addItem(emp);
-	        }
-	    } catch (Exception e) {
-	    	
-	    	// Print stack trace if an exception is thrown during database access
-	        e.printStackTrace();
-	    }
+		
+		// Retrieve all employees from the shared employee directory in the background
+		// (only the first load queries the database)
+		AsyncService.getInstance().call(() -> EmployeeDirectory.getInstance().getAllEmployees())
+			.whenCompleteAsync((employees, e) -> {
+				if (e != null) {
+					
+					// Print stack trace if an exception is thrown during database access
+					e.printStackTrace();
+					return;
+				}
+				setComboEmployees(employees);
+			}, AsyncService.EDT);
+		
+		// Show employees added or changed later without restarting the application
+		EmployeeDirectory.getInstance().addRefreshListener(snapshot ->
+			AsyncService.EDT.execute(() -> setComboEmployees(snapshot.getAllEmployees())));
+	}
+	
+	// Replaces the combo box items (runs on the EDT). Each item is a copy of the
+	// directory's employee, because checkouts add their transactions to the
+	// selected employee on the EDT; employees already in the combo box are
+	// kept as they are. Dialogs load the transactions they need themselves.
+	private void setComboEmployees(List<Employee> employees) {
+		ComboBoxModel<Employee> current = comboEmployees.getModel();
+		Map<Integer, Employee> existing = new HashMap<>();
+		for (int i = 0; i < current.getSize(); i++) {
+			existing.put(current.getElementAt(i).getEmpID(), current.getElementAt(i));
+		}
+		
+		Vector<Employee> items = new Vector<>();
+		for (Employee emp : employees) {
+			Employee item = existing.get(emp.getEmpID());
+			if (item == null || !Objects.equals(item.getEmpName(), emp.getEmpName())
+					|| item.getSkillClassification() != emp.getSkillClassification()) {
+				item = new Employee(emp.getEmpID(), emp.getEmpName(), emp.getSkillClassification());
+			}
+			items.add(item);
+		}
+		
+		// Replace the items in one step, keeping the selected employee if it is still listed,
+		// otherwise with no employee selected, so the selection listener does not load a View Record
+		Employee selected = (Employee) current.getSelectedItem();
+		DefaultComboBoxModel<Employee> model = new DefaultComboBoxModel<>(items);
+		model.setSelectedItem(selected != null && items.contains(selected) ? selected : null);
+		comboEmployees.setModel(model);
 	}
 
 	// ==================== TRANSACTIONS PANEL DATA ==================== //
 	// This method populates the 'Employee' JTable in the Transactions
-	// panel of the UI. It retrieves all transactions from the database,
-	// formats the data, and loads it into a read-only JTable, which is
-	// displayed to the user.
+	// panel of the UI. The table is backed by a TransactionTableModel,
+	// which counts the transactions in the background and then loads
+	// only the pages the user scrolls to, so the UI never waits for the
+	// whole history to load.
 	// ================================================================= //
 	public void FillTable() {
-		try (Connection conn = DBConnect.getInstance().getConnection()) {
-			
-			// Retrieve all transactions from the database
-	        List<Transaction> transactions = TransactionDAO.getAllTransactions(conn);
-	        
-	        // Define column names for the JTable
-	        String[] columnNames = {
-	        	    "Transaction ID", "Employee Name", "Employee Skill",
-	        	    "Equipment Name", "Required Skill",
-	        	    "Checkout Condition", "Return Condition",
-	        	    "Borrow Date", "Expected Return Date",
-	        	    "Transaction Status"
-	        	};
-	        
-	        // Create a 2D Object array to hold table data
-	        // Rows = number of transactions, Columns = number of columns defined above
-	        Object[][] data = new Object[transactions.size()][columnNames.length];
-	        
-	        // Populate the data array with transaction details
-	        for (int i = 0; i < transactions.size(); i++) {
-	            Transaction t = transactions.get(i);
-	            data[i][0] = t.getTransactionID();          // Column 0: Transaction ID
-	            data[i][1] = t.getEmployee().getEmpName();  // Column 1: Employee Name
-	            data[i][2] = t.getEmployee().getSkillClassification().name();  // Column 2: Employee Skill Classification
-	            data[i][3] = t.getEquipment().getEquipmentName();  // Column 3: Equipment Name
-	            data[i][4] = t.getEquipment().getRequiredSkill().name();  // Column 4: Required Skill for Equipment
-	            
-	            // If t.getCheckoutCondition() is not null, display the enum condition (e.g., Good, Damaged)
-	            // If null, display "N/A"
-	            data[i][5] = t.getCheckoutCondition() != null
-	            		? t.getCheckoutCondition().name() : "N/A";  // Column 5: Checkout Condition for Equipment
-	            
-	            // If t.getReturnCondition() is not null, display the enum condition
-	            // If null, display "N/A"
-	            data[i][6] = t.getReturnCondition() != null
-	            		? t.getReturnCondition().name() : "N/A";   // Column 6: Return Condition for Equipment
-	            data[i][7] = t.getBorrowDate();               // Column 7: Borrow Date
-	            data[i][8] = t.getExpectedReturnDate();       // Column 8: Expected Return Date
-	            data[i][9] = t.getTransactionStatus().name(); // Column 9: Transaction Status (e.g., Returned, Borrowed)
-	        }
-	        
-	        // Create a new DefaultTableModel with the populate data
-	        DefaultTableModel model = new DefaultTableModel(data, columnNames) {
-	            private static final long serialVersionUID = 1L;
-	            @Override
-	            // Make the table read-only
-	            public boolean isCellEditable(int row, int column) {
-	                return false;
-	            }
-	        };
-
-	        // Set the model into the JTable for rendering in the UI
-	        tblEmployee.setModel(model);
-
-	    } catch (Exception e) {
-	    	// Handle any error that occur during DB access or table population
-	        e.printStackTrace();
-	        System.out.println("Failed to load transactions from DB");
-	    }
+		transactionsModel.refresh();
 	}
 	
 	// ==================== ORDERS PANEL DATA ===================== //
 	// This method populates the 'Orders' JTable in the Orders
-	// panel of the UI. It retrieves all employee equipment orders 
-	// from the database and displays them in a read-only JTable.
+	// panel of the UI. Orders are loaded page by page in the
+	// background by the OrderTableModel.
 	// ============================================================ //
 	public void fillOrdersTable() {
-	    try (Connection conn = DBConnect.getInstance().getConnection()) {
-	    	
-	    	// Retrieve all orders from the database via OrderDAO
-	        List<Order> orders = OrderDAO.getAllOrders(conn);
-
-	        // Define column names for the JTable
-	        String[] columnNames = {
-	        		"Order ID", 
-	        		"Employee Name", 
-	        		"Equipment Name", 
-	        		"Order Date", 
-	        		"Status"
-	        };
-	        
-	        // Create a 2D Object array to hold the JTable data
-	        // Row = number of orders, Columns = number of column names as defined above
-	        Object[][] data = new Object[orders.size()][columnNames.length];
-
-	        // Fill the array with data from every order
-	        for (int i = 0; i < orders.size(); i++) {
-	            Order o = orders.get(i);
-	            data[i][0] = o.getOrderID();                // Column 0: Order ID
-	            data[i][1] = o.getEmployee().getEmpName();  // Column 1: Employee Name
-	            data[i][2] = o.getEquipment().getEquipmentName();  // Column 2: Equipment Name
-	            data[i][3] = o.getOrderDate();              // Column 3: Order date
-	            data[i][4] = o.getOrderStatus().name();     // Column 4: Order Status (e.g., Confirmed, Cancelled)
-	        }
-
-	        // Create a DefaultTableModel from the populated data
-	        DefaultTableModel model = new DefaultTableModel(data, columnNames) {
-	        	private static final long serialVersionUID = 1L;
-	            @Override
-	            // Make the table read-only 
-	            public boolean isCellEditable(int row, int column) {
-	                return false;
-	            }
-	        };
-
-	        // Set the new table model to the Orders JTable in the Orders panel
-	        tblOrders.setModel(model);
-
-	    } catch (SQLException e) {
-	    	// Display connection or query errors
-	        e.printStackTrace();
-	    }
+		ordersModel.refresh();
 	}
 	
 	// =================== REFRESH ORDERS TABLE =================== //
     // This method refreshes the 'Orders' JTable in the Orders
-	// panel of the UI. It retrieves the latest list of orders 
-	// from the database and re-populates the table model, ensuring
-	// that the displayed data is always up-to-date.
+	// panel of the UI after an order is placed or cancelled, so 
+	// the displayed data is always up-to-date.
 	// ============================================================ //
 	private void refreshOrdersTable() {
-	    try (Connection conn = DBConnect.getInstance().getConnection()) {
-	    	
-	    	// Retrieve the latest order data from the database
-	        List<Order> orders = OrderDAO.getAllOrders(conn);
-
-	        // Define column names for the Order table
-	        String[] columnNames = { 
-	        		"Order ID", 
-	        		"Employee", 
-	        		"Equipment", 
-	        		"Order Date", 
-	        		"Status", 
-	        		"Pickup Date" 
-	        };
-	        
-	        // Create a new DefaultTableModel with the above column names and without initial rows
-	        // (The parameter 0 means start with 0 rows, later they are manually added via the addRow() method)
-	        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-
-	        // Fill the table with each order
-	        for (Order order : orders) {
-	            Object[] row = {
-	                order.getOrderID(),               // Column 0: Order ID
-	                order.getEmployee().getEmpName(), // Column 1: Employee Name
-	                order.getEquipment().getEquipmentName(),  // Column 2: Equipment Name
-	                order.getOrderDate(),             // Column 3: Order date
-	                order.getOrderStatus(),           // Column 4: Order Status
-	                order.getPickUpDate()             // Column 5: Pick Up Date
-	            };
-	            
-	            // Add rows to the table model
-	            model.addRow(row);
-	        }
-
-	        // Set the new model to the Orders JTable in the Orders panel
-	        tblOrders.setModel(model);
-	    } catch (SQLException e) {
-	    	// Handle any errors that occur during DB connection or queries
-	        e.printStackTrace();
-	        JOptionPane.showMessageDialog(this, "Failed to refresh orders.");
-	    }
+		ordersModel.refresh();
 	}
 }
@@ -0,0 +1,494 @@
+/**
+ * MetricsRegistry.java
+ * In-process registry of the ECS system's metrics, so it is possible to
+ * see where time goes on a warehouse terminal without attaching a
+ * profiler.
+ *
+ * Three kinds of metric are kept, each under a unique name:
+ *   -Counter: a count that only goes up (e.g., returns). A counter either
+ *    counts its own increments, and then also knows how many happened in
+ *    the last minute, or reads a count another class already keeps
+ *    (e.g., CheckoutService.getCheckoutCount()).
+ *   -Timer: how long something took (e.g., a reminder run), as a count,
+ *    total, maximum and latency histogram.
+ *   -Gauge: a value read when the metric is shown (e.g., connections in
+ *    use).
+ *
+ * The metrics are shown in the hidden Diagnostics tab of MainApp (see
+ * Diagnostics), and can be written in the Prometheus text format to a
+ * file (writePrometheus) or served on http://127.0.0.1:<port>/metrics
+ * (startHttpServer). Diagnostics registers the ECS metrics.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect; tests can create their own registry.
+ */
+
+package ecsapplication;
+
+// Import I/O and networking classes for the file dump and the HTTP endpoint
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Import the JDK's built-in HTTP server
+import com.sun.net.httpserver.HttpServer;
+
+// Import collections and concurrency utilities for the metrics
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+public class MetricsRegistry {
+
+	// Upper bounds of the timer histogram buckets, in seconds
+	// (the last bucket holds everything slower than the last bound)
+	static final double[] TIMER_BUCKETS_SECONDS = { 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5,
+			1, 2.5, 5, 10, 30, 60 };
+
+	// Prometheus metric names
+	private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+	// Content type of the Prometheus text format
+	private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static MetricsRegistry instance;   // Singular instance
+
+	// Kind of metric, named as in the Prometheus text format
+	public enum Type {
+		COUNTER, GAUGE, HISTOGRAM;
+
+		String prometheusName() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private final LongSupplier clock;                              // Current time in milliseconds
+	private final Map<String, Metric> metrics = new LinkedHashMap<>();   // In registration order (guarded by itself)
+	private HttpServer server;                                     // Running /metrics endpoint, or null
+
+	// Constructor using the system clock
+	public MetricsRegistry() {
+		this(System::currentTimeMillis);
+	}
+
+	// Constructor with its own clock (used by tests to control the per-minute rates)
+	public MetricsRegistry(LongSupplier clockMillis) {
+		this.clock = clockMillis;
+	}
+
+	// Public method to obtain the single instance used by the application
+	public static synchronized MetricsRegistry getInstance() {
+		if (instance == null) {
+			instance = new MetricsRegistry();
+		}
+		return instance;
+	}
+
+	// ======================================================================
+	// Registration
+	// ======================================================================
+
+	// Returns the counter with this name, creating it if needed.
+	// By Prometheus convention counter names end in "_total".
+	public Counter counter(String name, String help) {
+		return register(name, Counter.class, () -> new Counter(name, help, clock, null));
+	}
+
+	// Registers a counter that reads a count kept elsewhere
+	// (registering the same name again keeps the first source)
+	public Counter counter(String name, String help, LongSupplier source) {
+		return register(name, Counter.class, () -> new Counter(name, help, clock, source));
+	}
+
+	// Returns the timer with this name, creating it if needed.
+	// By Prometheus convention timer names end in "_seconds".
+	public Timer timer(String name, String help) {
+		return register(name, Timer.class, () -> new Timer(name, help));
+	}
+
+	// Registers a gauge that reads its value when shown
+	// (registering the same name again keeps the first source)
+	public Gauge gauge(String name, String help, DoubleSupplier source) {
+		return register(name, Gauge.class, () -> new Gauge(name, help, source));
+	}
+
+	// Returns the existing metric of this name, or registers a new one
+	private <M extends Metric> M register(String name, Class<M> kind, Supplier<M> create) {
+		if (!NAME.matcher(name).matches()) {
+			throw new IllegalArgumentException("Invalid metric name: " + name);
+		}
+		synchronized (metrics) {
+			Metric existing = metrics.get(name);
+			if (existing == null) {
+				M metric = create.get();
+				metrics.put(name, metric);
+				return metric;
+			}
+			if (!kind.isInstance(existing)) {
+				throw new IllegalArgumentException("Metric " + name + " is already registered as a "
+						+ existing.getType().prometheusName());
+			}
+			return kind.cast(existing);
+		}
+	}
+
+	// Metric with this name, or null
+	public Metric get(String name) {
+		synchronized (metrics) {
+			return metrics.get(name);
+		}
+	}
+
+	// All metrics, in registration order
+	public List<Metric> getMetrics() {
+		synchronized (metrics) {
+			return new ArrayList<>(metrics.values());
+		}
+	}
+
+	// ======================================================================
+	// Prometheus export
+	// ======================================================================
+
+	// ====================== METHOD: toPrometheus ====================== //
+	// Formats every metric in the Prometheus text exposition format.
+	// Timers are written as histograms in seconds.
+	// ================================================================== //
+	public String toPrometheus() {
+		StringBuilder text = new StringBuilder();
+		for (Metric metric : getMetrics()) {
+			text.append("# HELP ").append(metric.getName()).append(' ')
+					.append(metric.getHelp().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+			text.append("# TYPE ").append(metric.getName()).append(' ').append(metric.getType().prometheusName()).append('\n');
+			metric.writePrometheus(text);
+		}
+		return text.toString();
+	}
+
+	// Writes the metrics to a file in the Prometheus text format
+	// (e.g., for node_exporter's textfile collector)
+	public void writePrometheus(Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		Files.writeString(file, toPrometheus());
+	}
+
+	// ===================== METHOD: startHttpServer ===================== //
+	// Serves the metrics on http://127.0.0.1:<port>/metrics (only to this
+	// machine) and returns the port (useful with port 0, which picks a
+	// free one). Does nothing if the endpoint is already running.
+	// =================================================================== //
+	public synchronized int startHttpServer(int port) throws IOException {
+		if (server != null) {
+			return server.getAddress().getPort();
+		}
+		HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		http.createContext("/metrics", exchange -> {
+			try (exchange) {
+				byte[] body = toPrometheus().getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", PROMETHEUS_CONTENT_TYPE);
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			}
+		});
+
+		// One daemon thread is plenty for a local scrape and never keeps the JVM alive
+		http.setExecutor(Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "ecs-metrics-http");
+			t.setDaemon(true);
+			return t;
+		}));
+		http.start();
+		server = http;
+		return http.getAddress().getPort();
+	}
+
+	// Port of the running /metrics endpoint, or -1
+	public synchronized int getHttpPort() {
+		return server == null ? -1 : server.getAddress().getPort();
+	}
+
+	// Stops the /metrics endpoint
+	public synchronized void stopHttpServer() {
+		if (server != null) {
+			server.stop(0);
+			server = null;
+		}
+	}
+
+	// Formats a number as Prometheus expects (NaN and infinities by name)
+	static String format(double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		}
+		if (Double.isInfinite(value)) {
+			return value > 0 ? "+Inf" : "-Inf";
+		}
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+
+	// ======================================================================
+	// Metrics
+	// ======================================================================
+
+	// ========================= CLASS: Metric ========================= //
+	// What every metric has: a name, a help text and a type.
+	// ================================================================= //
+	public abstract static class Metric {
+
+		private final String name;
+		private final String help;
+
+		Metric(String name, String help) {
+			this.name = name;
+			this.help = help;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getHelp() {
+			return help;
+		}
+
+		public abstract Type getType();
+
+		// Short description of the current value, as shown in the Diagnostics tab
+		public abstract String describe();
+
+		// Appends the metric's samples in the Prometheus text format
+		abstract void writePrometheus(StringBuilder text);
+	}
+
+	// ========================= CLASS: Counter ========================= //
+	// A count that only goes up. A counter that counts its own increments
+	// also keeps how many happened in each of the last 60 seconds.
+	// ================================================================== //
+	public static final class Counter extends Metric {
+
+		private static final int WINDOW_SECONDS = 60;   // Window of getLastMinute()
+
+		private final LongSupplier clock;
+		private final LongSupplier source;              // Count kept elsewhere, or null
+		private final AtomicLong count = new AtomicLong();
+
+		// Increments per second over the last minute, indexed by second % 60 (guarded by 'this')
+		private final long[] slotSecond = new long[WINDOW_SECONDS];
+		private final long[] slotCount = new long[WINDOW_SECONDS];
+
+		Counter(String name, String help, LongSupplier clock, LongSupplier source) {
+			super(name, help);
+			this.clock = clock;
+			this.source = source;
+		}
+
+		public void increment() {
+			add(1);
+		}
+
+		// Adds n (not allowed on a counter that reads its count from elsewhere)
+		public void add(long n) {
+			if (source != null) {
+				throw new UnsupportedOperationException(getName() + " reads its count from elsewhere");
+			}
+			if (n < 0) {
+				throw new IllegalArgumentException("Counters only go up");
+			}
+			count.addAndGet(n);
+
+			long second = clock.getAsLong() / 1000;
+			int slot = (int) (second % WINDOW_SECONDS);
+			synchronized (this) {
+				if (slotSecond[slot] != second) {
+					slotSecond[slot] = second;
+					slotCount[slot] = 0;
+				}
+				slotCount[slot] += n;
+			}
+		}
+
+		public long getCount() {
+			return source != null ? source.getAsLong() : count.get();
+		}
+
+		// Whether the counter counts its own increments (and so knows getLastMinute())
+		public boolean isCounting() {
+			return source == null;
+		}
+
+		// Increments in the last 60 seconds (-1 for a counter that reads its count from elsewhere)
+		public long getLastMinute() {
+			if (source != null) {
+				return -1;
+			}
+			long now = clock.getAsLong() / 1000;
+			long total = 0;
+			synchronized (this) {
+				for (int i = 0; i < WINDOW_SECONDS; i++) {
+					if (now - slotSecond[i] < WINDOW_SECONDS) {
+						total += slotCount[i];
+					}
+				}
+			}
+			return total;
+		}
+
+		@Override
+		public Type getType() {
+			return Type.COUNTER;
+		}
+
+		@Override
+		public String describe() {
+			return isCounting() ? getCount() + " (" + getLastMinute() + " in the last minute)" : Long.toString(getCount());
+		}
+
+		@Override
+		void writePrometheus(StringBuilder text) {
+			text.append(getName()).append(' ').append(getCount()).append('\n');
+		}
+	}
+
+	// ========================== CLASS: Timer ========================== //
+	// Durations of something that happens repeatedly, with a histogram.
+	// ================================================================== //
+	public static final class Timer extends Metric {
+
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLongArray buckets = new AtomicLongArray(TIMER_BUCKETS_SECONDS.length + 1);
+
+		Timer(String name, String help) {
+			super(name, help);
+		}
+
+		// Records one duration
+		public void record(long duration, TimeUnit unit) {
+			long nanos = Math.max(0, unit.toNanos(duration));
+			count.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+
+			double seconds = nanos / 1e9;
+			int bucket = 0;
+			while (bucket < TIMER_BUCKETS_SECONDS.length && seconds > TIMER_BUCKETS_SECONDS[bucket]) {
+				bucket++;
+			}
+			buckets.incrementAndGet(bucket);
+		}
+
+		public long getCount() {
+			return count.get();
+		}
+
+		public double getTotalMillis() {
+			return totalNanos.get() / 1_000_000.0;
+		}
+
+		public double getMeanMillis() {
+			long n = count.get();
+			return n == 0 ? 0.0 : totalNanos.get() / 1_000_000.0 / n;
+		}
+
+		public double getMaxMillis() {
+			return maxNanos.get() / 1_000_000.0;
+		}
+
+		// Durations per histogram bucket (see TIMER_BUCKETS_SECONDS)
+		public long[] getBucketCounts() {
+			long[] counts = new long[buckets.length()];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = buckets.get(i);
+			}
+			return counts;
+		}
+
+		@Override
+		public Type getType() {
+			return Type.HISTOGRAM;
+		}
+
+		@Override
+		public String describe() {
+			return String.format(Locale.ROOT, "%d, %.1f ms mean, %.1f ms max, %.1f ms total",
+					getCount(), getMeanMillis(), getMaxMillis(), getTotalMillis());
+		}
+
+		@Override
+		void writePrometheus(StringBuilder text) {
+			// Buckets are cumulative: each counts everything up to its bound
+			long[] counts = getBucketCounts();
+			long cumulative = 0;
+			for (int i = 0; i < TIMER_BUCKETS_SECONDS.length; i++) {
+				cumulative += counts[i];
+				text.append(getName()).append("_bucket{le=\"").append(format(TIMER_BUCKETS_SECONDS[i])).append("\"} ")
+						.append(cumulative).append('\n');
+			}
+			cumulative += counts[TIMER_BUCKETS_SECONDS.length];
+			text.append(getName()).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+			text.append(getName()).append("_sum ").append(format(totalNanos.get() / 1e9)).append('\n');
+			text.append(getName()).append("_count ").append(cumulative).append('\n');
+		}
+	}
+
+	// ========================== CLASS: Gauge ========================== //
+	// A value read from elsewhere each time it is shown.
+	// ================================================================== //
+	public static final class Gauge extends Metric {
+
+		private final DoubleSupplier source;
+
+		Gauge(String name, String help, DoubleSupplier source) {
+			super(name, help);
+			this.source = source;
+		}
+
+		// Current value (NaN if it cannot be read)
+		public double getValue() {
+			try {
+				return source.getAsDouble();
+			} catch (RuntimeException e) {
+				return Double.NaN;
+			}
+		}
+
+		@Override
+		public Type getType() {
+			return Type.GAUGE;
+		}
+
+		@Override
+		public String describe() {
+			double value = getValue();
+			return value == Math.rint(value) ? format(value) : String.format(Locale.ROOT, "%.3f", value);
+		}
+
+		@Override
+		void writePrometheus(StringBuilder text) {
+			text.append(getName()).append(' ').append(format(getValue())).append('\n');
+		}
+	}
+}
@@ -75,6 +75,11 @@ public class Order {
 		return orderID;
 	}
 
+	// Set order ID (generated by the database when the order is saved)
+	public void setOrderID(int orderID) {
+		this.orderID = orderID;
+	}
+
 	// Get equipment
 	public Equipment getEquipment() {
 		return equipment;
@@ -14,16 +14,50 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import java.time.LocalDate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import ecsapplication.enums.OrderStatus;
 
 public class OrderDAO {
 
+	// SELECT and joins shared by getAllOrders and the paged order queries
+	private static final String ALL_ORDERS_SELECT =
+			"SELECT o.orderID, o.empID, o.equipmentID, o.orderDate, o.orderStatus, o.pickUpDate, " +
+			"e.empName, eq.equipmentName " +
+			"FROM `order` o " +
+			"JOIN employee e ON o.empID = e.empID " +
+			"JOIN equipment eq ON o.equipmentID = eq.equipmentID";
+
+	// Columns orders can be sorted by on the server,
+	// in the same order as the columns of the Orders table
+	public enum SortColumn {
+		ORDER_ID("o.orderID", o -> o.getOrderID()),
+		EMPLOYEE_NAME("e.empName", o -> o.getEmployee().getEmpName()),
+		EQUIPMENT_NAME("eq.equipmentName", o -> o.getEquipment().getEquipmentName()),
+		ORDER_DATE("o.orderDate", o -> o.getOrderDate()),
+		PICK_UP_DATE("o.pickUpDate", o -> o.getPickUpDate()),
+		ORDER_STATUS("o.orderStatus", o -> o.getOrderStatus().name());
+
+		private final String expression;            // SQL expression used in ORDER BY
+		private final Function<Order, Object> key;  // Same value, read from a loaded order
+
+		SortColumn(String expression, Function<Order, Object> key) {
+			this.expression = expression;
+			this.key = key;
+		}
+
+		// Position after an order in this sort order (see getOrdersPage)
+		public Keyset keysetOf(Order o) {
+			return new Keyset(key.apply(o), o.getOrderID());
+		}
+	}
+
 	// ======================= METHOD: updateOrderStatus ============================= //
 	// Updates the status of an existing order (e.g., from 'Confirmed' to 'Cancelled').
 	// Returns true if the update succeeded, otherwise false
@@ -54,23 +88,21 @@ public class OrderDAO {
 		// SQL query to insert order attributes into the order table
 		String strSQL = "INSERT INTO `order` (empID, equipmentID, orderDate, orderStatus) VALUES (?, ?, ?, ?)";
 
-		Connection conn = null;
-		try {
-			conn = DBConnect.getInstance().getConnection();
-			try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+		// Borrow a pooled connection; try-with-resources returns it to the pool
+		try (Connection conn = DBConnect.getInstance().getConnection();
+				PreparedStatement stmt = conn.prepareStatement(strSQL)) {
 				
-				// Set parameters for the PreparedStatement
-				stmt.setInt(1, order.getEmployee().getEmpID());         // Employee ID
-				stmt.setInt(2, order.getEquipment().getEquipmentID());  // Equipment ID
-				stmt.setDate(3, java.sql.Date.valueOf(order.getOrderDate()));  // Order Date
-				stmt.setString(4, order.getOrderStatus().name());       // Order status as string
-
-				// Execute insertion
-				int affectedRows = stmt.executeUpdate();
-				
-				// Return whether a row were affected
-				return affectedRows > 0;
-			}
+			// Set parameters for the PreparedStatement
+			stmt.setInt(1, order.getEmployee().getEmpID());         // Employee ID
+			stmt.setInt(2, order.getEquipment().getEquipmentID());  // Equipment ID
+			stmt.setDate(3, java.sql.Date.valueOf(order.getOrderDate()));  // Order Date
+			stmt.setString(4, order.getOrderStatus().name());       // Order status as string
+
+			// Execute insertion
+			int affectedRows = stmt.executeUpdate();
+			
+			// Return whether a row were affected
+			return affectedRows > 0;
 		} catch (SQLException e) {
 			
 			// Print stack trace for debugging purposes
@@ -81,15 +113,17 @@ public class OrderDAO {
 	
 	// ================= METHOD: insertOrder ================= //
 	// Inserts a new order into the database using a 
-	// provided connection. Overloaded to accept a Connection
-	// (for H2 tests).
+	// provided connection and sets the generated order ID
+	// on the Order object. Overloaded to accept a Connection
+	// (used by Employee and H2 tests).
 	// ======================================================= //
 	public static boolean insertOrder(Connection conn, Order order) throws SQLException {
 
 		// SQL statement to insert a new order with empID, equipmentID, orderDate, and orderStatus
 		String sql = "INSERT INTO `order` (empID, equipmentID, orderDate, orderStatus) VALUES (?, ?, ?, ?)";
 
-		try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+		// Statement.RETURN_GENERATED_KEYS allows retrieval of the auto-generated order ID
+		try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
 			// Set employee ID for the order
 			pstmt.setInt(1, order.getEmployee().getEmpID());
@@ -103,8 +137,18 @@ public class OrderDAO {
 			// Set order status as string
 			pstmt.setString(4, order.getOrderStatus().name());
 
-			// Execute insert and return true if at least one row was affected
-			return pstmt.executeUpdate() > 0;
+			// Execute insert; stop if no row was added
+			if (pstmt.executeUpdate() == 0) {
+				return false;
+			}
+
+			// Update the in-memory Order object with the generated order ID
+			try (ResultSet rs = pstmt.getGeneratedKeys()) {
+				if (rs.next()) {
+					order.setOrderID(rs.getInt(1));
+				}
+			}
+			return true;
 		}
 	}
 	
@@ -119,11 +163,7 @@ public class OrderDAO {
 		List<Order> orders = new ArrayList<>();
 
 		// SQL query to join order, employee, and equipment tables
-		String strSQL = "SELECT o.orderID, o.empID, o.equipmentID, o.orderDate, o.orderStatus, o.pickUpDate, " +
-				"e.empName, eq.equipmentName " +
-				"FROM `order` o " +
-				"JOIN employee e ON o.empID = e.empID " +
-				"JOIN equipment eq ON o.equipmentID = eq.equipmentID";
+		String strSQL = ALL_ORDERS_SELECT;
 
 		// Prepare a SQL statement and execute the query, automatically closing resources after used
 		try (PreparedStatement stmt = conn.prepareStatement(strSQL);
@@ -131,26 +171,9 @@ public class OrderDAO {
 
 			// Iterate through each row in the result set
 			while (rs.next()) {
-				
-				// Extract data from result set
-				int orderID = rs.getInt("orderID");             // Get order ID
-				int empID = rs.getInt("empID");                 // Get employee ID
-				int equipID = rs.getInt("equipmentID");         // Get equipment ID
-				Date orderDate = rs.getDate("orderDate");       // Get order date
-				String statusStr = rs.getString("orderStatus"); // Get order status 
-				Date pickupDate = rs.getDate("pickUpDate");     // Get pick up date
-
-				// Create Employee and Equipment objects
-				Employee emp = new Employee(empID, rs.getString("empName"));
-				Equipment equip = new Equipment(equipID, rs.getString("equipmentName"));
-
-				// Create Order object from extracted data
-				Order order = new Order(orderID, emp, equip, orderDate.toLocalDate(),
-						OrderStatus.valueOf(statusStr), 
-						pickupDate != null ? pickupDate.toLocalDate() : null);
 
 				// Add order to the orders list
-				orders.add(order);
+				orders.add(mapOrder(rs));
 			}
 		}
 
@@ -158,6 +181,127 @@ public class OrderDAO {
 		return orders;
 	}
 
+	// ====================== METHOD: getOrdersPage ====================== //
+	// Keyset pagination over all orders in ID order. Returns at most
+	// 'limit' orders after 'afterOrderID' (pass 0 for the first page), or
+	// before it when descending (pass Integer.MAX_VALUE for the first page).
+	// =================================================================== //
+	public static List<Order> getOrdersPage(Connection conn, int afterOrderID, int limit, boolean ascending) throws SQLException {
+
+		// SQL query to retrieve the next page of orders after the given key
+		String strSQL = ALL_ORDERS_SELECT +
+				(ascending ? " WHERE o.orderID > ? ORDER BY o.orderID ASC"
+						: " WHERE o.orderID < ? ORDER BY o.orderID DESC") +
+				" LIMIT ?";
+
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+
+			// Bind the keyset position and page size
+			stmt.setInt(1, afterOrderID);
+			stmt.setInt(2, limit);
+			return readPage(stmt, limit);
+		}
+	}
+
+	// ====================== METHOD: getOrdersPage ====================== //
+	// Keyset page for any sortable column, ordered by the column and then
+	// by ID. Returns at most 'limit' orders after the given position (null
+	// for the first page); pass sort.keysetOf() of the last row to get the
+	// next page.
+	// =================================================================== //
+	public static List<Order> getOrdersPage(Connection conn, SortColumn sort, boolean ascending,
+			Keyset after, int limit) throws SQLException {
+
+		// Column expressions come from the SortColumn enum, never from user input
+		String id = SortColumn.ORDER_ID.expression;
+		String strSQL = ALL_ORDERS_SELECT +
+				(after != null ? " WHERE " + after.condition(sort.expression, id, ascending) : "") +
+				Keyset.orderBy(sort.expression, id, ascending) + " LIMIT ?";
+
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+
+			// Bind the keyset position and page size
+			int index = after != null ? after.bind(stmt, 1, sort.expression, id) : 1;
+			stmt.setInt(index, limit);
+			return readPage(stmt, limit);
+		}
+	}
+
+	// ========================= METHOD: seekOrders ======================== //
+	// Walks forward over up to 'rows' orders after the given position (null
+	// for the start) in the order of getOrdersPage(), and returns the
+	// position after every 'every'-th row (see TransactionDAO.seekTransactions).
+	// ===================================================================== //
+	public static List<Keyset> seekOrders(Connection conn, SortColumn sort, boolean ascending,
+			Keyset after, int rows, int every) throws SQLException {
+
+		// Only the sort key and ID are read
+		String id = SortColumn.ORDER_ID.expression;
+		String strSQL = "SELECT " + sort.expression + ", " + id + " FROM `order` o" +
+				(sort.expression.startsWith("e.") ? " JOIN employee e ON o.empID = e.empID" : "") +
+				(sort.expression.startsWith("eq.") ? " JOIN equipment eq ON o.equipmentID = eq.equipmentID" : "") +
+				(after != null ? " WHERE " + after.condition(sort.expression, id, ascending) : "") +
+				Keyset.orderBy(sort.expression, id, ascending) + " LIMIT ?";
+
+		List<Keyset> positions = new ArrayList<>(rows / Math.max(every, 1));
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			int index = after != null ? after.bind(stmt, 1, sort.expression, id) : 1;
+			stmt.setInt(index, rows);
+			stmt.setFetchSize(TransactionDAO.streamingFetchSize(conn));
+			try (ResultSet rs = stmt.executeQuery()) {
+				int read = 0;
+				while (rs.next()) {
+					if (++read % every == 0) {
+						positions.add(Keyset.read(rs));
+					}
+				}
+			}
+		}
+		return positions;
+	}
+
+	// ======================= METHOD: countOrders ======================= //
+	// Returns the number of orders (used to size the Orders table)
+	// =================================================================== //
+	public static int countOrders(Connection conn) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM `order`");
+				ResultSet rs = stmt.executeQuery()) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+
+	// Executes a page query built on ALL_ORDERS_SELECT and maps its rows
+	private static List<Order> readPage(PreparedStatement stmt, int limit) throws SQLException {
+		List<Order> orders = new ArrayList<>(limit);
+		try (ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				orders.add(mapOrder(rs));
+			}
+		}
+		return orders;
+	}
+
+	// Maps a single row selected with ALL_ORDERS_SELECT into an Order
+	private static Order mapOrder(ResultSet rs) throws SQLException {
+
+		// Extract data from result set
+		int orderID = rs.getInt("orderID");             // Get order ID
+		int empID = rs.getInt("empID");                 // Get employee ID
+		int equipID = rs.getInt("equipmentID");         // Get equipment ID
+		Date orderDate = rs.getDate("orderDate");       // Get order date
+		String statusStr = rs.getString("orderStatus"); // Get order status 
+		Date pickupDate = rs.getDate("pickUpDate");     // Get pick up date
+
+		// Create Employee and Equipment objects
+		Employee emp = new Employee(empID, rs.getString("empName"));
+		Equipment equip = new Equipment(equipID, rs.getString("equipmentName"));
+
+		// Create Order object from extracted data
+		return new Order(orderID, emp, equip, orderDate.toLocalDate(),
+				OrderStatus.valueOf(statusStr), 
+				pickupDate != null ? pickupDate.toLocalDate() : null);
+	}
+
 	// ======================= METHOD: getOrderByID ====================== //
 	// Retrieves a single order from the database based on a given orderID
 	// =================================================================== //
@@ -191,7 +335,8 @@ public class OrderDAO {
 					OrderStatus orderStatus = OrderStatus.fromString(rs.getString("orderStatus"));
 
 					// Get employee and equipment objects from their DAOs
-					Employee employee = EmployeeDAO.getEmployeeByID(conn, employeeID);
+					// (the employee comes from the employee directory when it is in use)
+					Employee employee = EmployeeDAO.lookupEmployee(conn, employeeID);
 					Equipment equipment = EquipmentDAO.getEquipmentByID(conn, equipmentID);
 
 					// Create and return a new Order object with retrieved data
@@ -0,0 +1,69 @@
+/**
+ * OrderTableModel.java
+ * Lazily loaded model for the Orders table in MainApp. Pages of orders
+ * are read from OrderDAO as the user scrolls (see PagedTableModel).
+ * Whichever column the table is sorted by, each page continues from the
+ * sort key and ID of the last row of the page before it (keyset paging).
+ */
+
+package ecsapplication;
+
+// Import JDBC classes and collection framework
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class OrderTableModel extends PagedTableModel<Order> {
+
+	private static final long serialVersionUID = 1L;
+
+	// Column names for the Orders table (same order as OrderDAO.SortColumn)
+	private static final String[] COLUMN_NAMES = {
+			"Order ID",
+			"Employee Name",
+			"Equipment Name",
+			"Order Date",
+			"Pickup Date",
+			"Status"
+	};
+
+	// Constructor
+	public OrderTableModel() {
+		super(COLUMN_NAMES, DEFAULT_PAGE_SIZE, DEFAULT_CACHE_PAGES);
+	}
+
+	@Override
+	protected int fetchRowCount(Connection conn) throws SQLException {
+		return OrderDAO.countOrders(conn);
+	}
+
+	@Override
+	protected List<Order> fetchPage(Connection conn, int sortColumn, boolean ascending,
+			Keyset after, int limit) throws SQLException {
+		return OrderDAO.getOrdersPage(conn, OrderDAO.SortColumn.values()[sortColumn], ascending, after, limit);
+	}
+
+	@Override
+	protected List<Keyset> seek(Connection conn, int sortColumn, boolean ascending,
+			Keyset after, int rows, int every) throws SQLException {
+		return OrderDAO.seekOrders(conn, OrderDAO.SortColumn.values()[sortColumn], ascending, after, rows, every);
+	}
+
+	@Override
+	protected Keyset keysetOf(Order o, int sortColumn) {
+		return OrderDAO.SortColumn.values()[sortColumn].keysetOf(o);
+	}
+
+	@Override
+	protected Object columnValue(Order o, int column) {
+		switch (column) {
+		case 0: return o.getOrderID();                        // Order ID
+		case 1: return o.getEmployee().getEmpName();          // Employee Name
+		case 2: return o.getEquipment().getEquipmentName();   // Equipment Name
+		case 3: return o.getOrderDate();                      // Order Date
+		case 4: return o.getPickUpDate();                     // Pick Up Date
+		case 5: return o.getOrderStatus().name();             // Order Status (e.g., Confirmed, Cancelled)
+		default: return null;
+		}
+	}
+}
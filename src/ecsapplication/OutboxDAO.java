@@ -0,0 +1,173 @@
+/**
+ * OutboxDAO.java
+ * Provides methods to write and read the event_outbox table (created by
+ * schema migration V6). Every checkout, return, order and cancellation
+ * appends an OutboxEvent on the same connection, inside the same
+ * database transaction, as the change itself: the event is saved if and
+ * only if the change is. OutboxRelay reads the events back in eventID
+ * order and passes them to in-process subscribers.
+ */
+
+package ecsapplication;
+
+// Import necessary libraries for JDBC operations
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+// Import date/time for the retention cut-off
+import java.time.LocalDateTime;
+
+// Import collection framework
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Import enumerations for the equipment status and condition
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+
+public class OutboxDAO {
+
+	// Table that holds the events
+	public static final String TABLE = "event_outbox";
+
+	// Insert shared by append and appendAll
+	private static final String INSERT_EVENT_SQL =
+			"INSERT INTO " + TABLE + " (eventType, equipmentID, equipStatus, transactionID, orderID, empID, "
+			+ "equipCondition, createdAt) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	// ========================= METHOD: append ========================= //
+	// Appends one event. Call it on the connection of the change it
+	// records, before that transaction commits.
+	// ================================================================== //
+	public static void append(Connection conn, OutboxEvent event) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement(INSERT_EVENT_SQL)) {
+			bindInsert(stmt, event);
+			stmt.executeUpdate();
+		}
+	}
+
+	// ======================== METHOD: appendAll ======================= //
+	// Batch form of append() used by batch checkouts and bulk returns:
+	// appends the events, in list order, with one executeBatch().
+	// ================================================================== //
+	public static void appendAll(Connection conn, List<OutboxEvent> events) throws SQLException {
+		if (events.isEmpty()) {
+			return;
+		}
+		try (PreparedStatement stmt = conn.prepareStatement(INSERT_EVENT_SQL)) {
+			for (OutboxEvent event : events) {
+				bindInsert(stmt, event);
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+		}
+	}
+
+	// ======================== METHOD: readAfter ======================= //
+	// Reads up to 'limit' committed events with an eventID greater than
+	// the given one, in eventID order.
+	// ================================================================== //
+	public static List<OutboxEvent> readAfter(Connection conn, long afterEventID, int limit) throws SQLException {
+		String strSQL = "SELECT eventID, eventType, equipmentID, equipStatus, transactionID, orderID, empID, "
+				+ "equipCondition, createdAt FROM " + TABLE + " WHERE eventID > ? ORDER BY eventID LIMIT ?";
+		List<OutboxEvent> events = new ArrayList<>();
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			stmt.setLong(1, afterEventID);
+			stmt.setInt(2, limit);
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					events.add(mapResultSetToEvent(rs));
+				}
+			}
+		}
+		return events;
+	}
+
+	// ======================== METHOD: readByIDs ======================= //
+	// Reads the committed events with the given eventIDs, in eventID
+	// order. IDs that are not (or not yet) in the outbox are left out.
+	// ================================================================== //
+	public static List<OutboxEvent> readByIDs(Connection conn, Collection<Long> eventIDs) throws SQLException {
+		List<OutboxEvent> events = new ArrayList<>();
+		if (eventIDs.isEmpty()) {
+			return events;
+		}
+		String strSQL = "SELECT eventID, eventType, equipmentID, equipStatus, transactionID, orderID, empID, "
+				+ "equipCondition, createdAt FROM " + TABLE + " WHERE eventID IN ("
+				+ String.join(", ", Collections.nCopies(eventIDs.size(), "?")) + ") ORDER BY eventID";
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+			int index = 1;
+			for (long eventID : eventIDs) {
+				stmt.setLong(index++, eventID);
+			}
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					events.add(mapResultSetToEvent(rs));
+				}
+			}
+		}
+		return events;
+	}
+
+	// ===================== METHOD: getLatestEventID =================== //
+	// Returns the highest committed eventID, or 0 if the outbox is empty
+	// ================================================================== //
+	public static long getLatestEventID(Connection conn) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(eventID) FROM " + TABLE);
+				ResultSet rs = stmt.executeQuery()) {
+			return rs.next() ? rs.getLong(1) : 0;
+		}
+	}
+
+	// ====================== METHOD: deleteOlderThan =================== //
+	// Deletes events created before the cut-off so the outbox does not
+	// grow without bound. Returns the number of events deleted.
+	// ================================================================== //
+	public static int deleteOlderThan(Connection conn, LocalDateTime cutoff) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + TABLE + " WHERE createdAt < ?")) {
+			stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+			return stmt.executeUpdate();
+		}
+	}
+
+	// Sets the insert parameters for one event (IDs of 0 are stored as NULL)
+	private static void bindInsert(PreparedStatement stmt, OutboxEvent event) throws SQLException {
+		stmt.setString(1, event.getType().name());            // Event type
+		stmt.setInt(2, event.getEquipmentID());               // Equipment ID
+		stmt.setString(3, event.getEquipStatus().name());     // New equipment status
+		setOptionalID(stmt, 4, event.getTransactionID());     // Transaction ID
+		setOptionalID(stmt, 5, event.getOrderID());           // Order ID
+		setOptionalID(stmt, 6, event.getEmpID());             // Employee ID
+		stmt.setString(7, event.getCondition() != null ? event.getCondition().name() : null);   // Return condition
+		stmt.setTimestamp(8, Timestamp.valueOf(event.getCreatedAt()));                          // Event time
+	}
+
+	// Sets an ID parameter, or NULL if the ID is 0
+	private static void setOptionalID(PreparedStatement stmt, int index, int id) throws SQLException {
+		if (id != 0) {
+			stmt.setInt(index, id);
+		} else {
+			stmt.setNull(index, java.sql.Types.INTEGER);
+		}
+	}
+
+	// Maps one row of the outbox to an OutboxEvent
+	private static OutboxEvent mapResultSetToEvent(ResultSet rs) throws SQLException {
+		Timestamp createdAt = rs.getTimestamp("createdAt");
+		return new OutboxEvent(
+				rs.getLong("eventID"),
+				OutboxEvent.Type.valueOf(rs.getString("eventType")),
+				rs.getInt("equipmentID"),
+				EquipmentStatus.fromString(rs.getString("equipStatus")),
+				rs.getInt("transactionID"),      // NULL is read as 0
+				rs.getInt("orderID"),
+				rs.getInt("empID"),
+				EquipmentCondition.fromString(rs.getString("equipCondition")),
+				createdAt != null ? createdAt.toLocalDateTime() : null);
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * OutboxEvent.java
+ * One state change recorded in the event_outbox table: a checkout, a
+ * return, an order or an order cancellation, with the equipment's new
+ * status. Events are written by OutboxDAO in the same database
+ * transaction as the change itself, and read back in eventID order by
+ * OutboxRelay, which passes them to its subscribers.
+ */
+
+package ecsapplication;
+
+// Import date/time for the event time
+import java.time.LocalDateTime;
+
+// Import enumerations for the equipment status and condition
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+
+public class OutboxEvent {
+
+	// Kinds of state change, each with the equipment status it leaves behind
+	public enum Type {
+		CHECKED_OUT(EquipmentStatus.Loaned),         // A transaction was created and its item loaned
+		RETURNED(EquipmentStatus.Available),         // A transaction was returned and its item made available
+		ORDERED(EquipmentStatus.Ordered),            // An order was placed and its item set to Ordered
+		ORDER_CANCELLED(EquipmentStatus.Available);  // An order was cancelled and its item made available
+
+		private final EquipmentStatus equipStatus;   // Status of the equipment after this change
+
+		Type(EquipmentStatus equipStatus) {
+			this.equipStatus = equipStatus;
+		}
+
+		public EquipmentStatus getEquipStatus() {
+			return equipStatus;
+		}
+	}
+
+	// Attributes
+	private final long eventID;                  // Position in the outbox (0 until saved and read back)
+	private final Type type;                     // Kind of change
+	private final int equipmentID;               // Equipment whose status changed
+	private final EquipmentStatus equipStatus;   // New status of the equipment
+	private final int transactionID;             // Transaction changed (0 for orders)
+	private final int orderID;                   // Order changed (0 for transactions)
+	private final int empID;                     // Employee who made the change
+	private final EquipmentCondition condition;  // Return condition (returns only)
+	private final LocalDateTime createdAt;       // When the change was made
+
+	// Full constructor (used when reading events back from the database)
+	public OutboxEvent(long eventID, Type type, int equipmentID, EquipmentStatus equipStatus, int transactionID,
+			int orderID, int empID, EquipmentCondition condition, LocalDateTime createdAt) {
+		this.eventID = eventID;
+		this.type = type;
+		this.equipmentID = equipmentID;
+		this.equipStatus = equipStatus;
+		this.transactionID = transactionID;
+		this.orderID = orderID;
+		this.empID = empID;
+		this.condition = condition;
+		this.createdAt = createdAt;
+	}
+
+	// Constructor for a new, unsaved event
+	private OutboxEvent(Type type, int equipmentID, int transactionID, int orderID, int empID, EquipmentCondition condition) {
+		this(0, type, equipmentID, type.getEquipStatus(), transactionID, orderID, empID, condition, LocalDateTime.now());
+	}
+
+	// ======================================================================
+	// Factory methods, one per kind of change
+	// ======================================================================
+
+	// A saved checkout (the transaction must already have its generated ID)
+	public static OutboxEvent checkedOut(Transaction txn) {
+		return new OutboxEvent(Type.CHECKED_OUT, txn.getEquipment().getEquipmentID(), txn.getTransactionID(), 0,
+				empIDOf(txn.getEmployee()), null);
+	}
+
+	// A return, with the condition the item came back in
+	public static OutboxEvent returned(Transaction txn) {
+		return new OutboxEvent(Type.RETURNED, txn.getEquipment().getEquipmentID(), txn.getTransactionID(), 0,
+				empIDOf(txn.getEmployee()), txn.getReturnCondition());
+	}
+
+	// A placed order
+	public static OutboxEvent ordered(Order order) {
+		return new OutboxEvent(Type.ORDERED, order.getEquipment().getEquipmentID(), 0, order.getOrderID(),
+				empIDOf(order.getEmployee()), null);
+	}
+
+	// A cancelled order
+	public static OutboxEvent orderCancelled(Order order) {
+		return new OutboxEvent(Type.ORDER_CANCELLED, order.getEquipment().getEquipmentID(), 0, order.getOrderID(),
+				empIDOf(order.getEmployee()), null);
+	}
+
+	// Employee ID, or 0 if the employee is not known
+	private static int empIDOf(Employee employee) {
+		return employee != null ? employee.getEmpID() : 0;
+	}
+
+	// Getters
+	public long getEventID() {
+		return eventID;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public int getEquipmentID() {
+		return equipmentID;
+	}
+
+	public EquipmentStatus getEquipStatus() {
+		return equipStatus;
+	}
+
+	public int getTransactionID() {
+		return transactionID;
+	}
+
+	public int getOrderID() {
+		return orderID;
+	}
+
+	public int getEmpID() {
+		return empID;
+	}
+
+	public EquipmentCondition getCondition() {
+		return condition;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	// A string representation of the event
+	@Override
+	public String toString() {
+		return "OutboxEvent{" +
+				"eventID=" + eventID +
+				", type=" + type +
+				", equipmentID=" + equipmentID +
+				", equipStatus=" + equipStatus +
+				(transactionID != 0 ? ", transactionID=" + transactionID : "") +
+				(orderID != 0 ? ", orderID=" + orderID : "") +
+				", empID=" + empID +
+				(condition != null ? ", condition=" + condition : "") +
+				", createdAt=" + createdAt +
+				'}';
+	}
+}
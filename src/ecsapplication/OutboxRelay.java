@@ -0,0 +1,354 @@
+/**
+ * OutboxRelay.java
+ * Reads new events from the event_outbox table in the background and
+ * passes them, in eventID order, to in-process subscribers (e.g., the
+ * equipment cache, which applies each status change instead of
+ * reloading the catalog).
+ *
+ * Each poll reads the committed events after the last one delivered.
+ * Event IDs come from an auto-increment column, so two transactions
+ * can commit their events out of ID order: if the next ID is missing,
+ * the relay waits (up to gapWaitMillis) for it to commit before it
+ * delivers anything after it. A gap that is still open after the wait
+ * is most often a rolled-back transaction, so the relay moves on, but
+ * it keeps the skipped IDs and looks for them again at the start of
+ * every poll (for up to rescanMillis, and at most MAX_SKIPPED_IDS of
+ * them): a slow transaction that commits after the wait is delivered
+ * late instead of being lost. Since the skipped IDs are read before
+ * any newer event, a late event still comes before the events of
+ * transactions that committed after it.
+ *
+ * Subscribers are called one at a time on the relay thread, in event
+ * order; a subscriber that throws is logged and does not stop the
+ * others. Each process keeps its own position in memory, so every
+ * running copy of the application sees every change once, starting
+ * from the events committed after it started.
+ *
+ * Events older than RETENTION_DAYS are deleted at most once an hour.
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect; tests create their own instances on H2.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used by a poll
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Import date/time for the retention cut-off
+import java.time.LocalDateTime;
+
+// Import collections and concurrency utilities for the background polls
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class OutboxRelay {
+
+	// Default time between polls
+	public static final long DEFAULT_POLL_INTERVAL_MS = 500;
+
+	// Default time to wait for a missing event ID before delivering the events after it
+	public static final long DEFAULT_GAP_WAIT_MS = 500;
+
+	// Default time a skipped event ID is looked for again before it is given up on
+	public static final long DEFAULT_RESCAN_MS = TimeUnit.MINUTES.toMillis(5);
+
+	// Most skipped event IDs looked for again (the oldest are given up on first)
+	public static final int MAX_SKIPPED_IDS = 1_000;
+
+	// Start position meaning "after the latest event in the outbox"
+	public static final long FROM_LATEST = -1;
+
+	// Events read per query
+	public static final int BATCH_SIZE = 500;
+
+	// Age after which events are deleted from the outbox
+	public static final int RETENTION_DAYS = 7;
+
+	// Time between deletions of old events
+	private static final long PURGE_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+	private static OutboxRelay instance;   // Singular instance
+
+	private final AsyncService.ConnectionSource connections;   // Source of connections for polls
+	private final long gapWaitNanos;                           // Wait for a missing event ID
+	private final long rescanNanos;                            // Time a skipped event ID is looked for again
+	private final ScheduledExecutorService scheduler;          // Background poll thread
+
+	// Subscribers, called in registration order for each event
+	private final List<Consumer<OutboxEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+	// Position (only changed by the thread that polls; see poll())
+	private volatile long lastEventID;     // ID of the last event delivered (FROM_LATEST until the first poll)
+	private long gapAfterEventID;          // lastEventID when the current gap was first seen
+	private long gapSeenAt;                // System.nanoTime() when it was first seen (0 if no gap)
+	private long lastPurgeAt;              // System.nanoTime() of the last deletion of old events (0 if none)
+
+	// Skipped event IDs, oldest first, with the System.nanoTime() they were skipped at
+	// (only used by the thread that polls)
+	private final Map<Long, Long> skippedIDs = new LinkedHashMap<>();
+
+	// Metrics
+	private final AtomicLong deliveredCount = new AtomicLong();     // Events delivered to subscribers
+	private final AtomicLong skippedGapCount = new AtomicLong();    // Missing event IDs skipped after the wait
+	private final AtomicLong lateDeliveredCount = new AtomicLong(); // Skipped events delivered once they committed
+	private final AtomicLong abandonedGapCount = new AtomicLong();  // Skipped event IDs given up on
+	private final AtomicLong subscriberErrorCount = new AtomicLong(); // Subscriber calls that threw
+	private final Map<OutboxEvent.Type, AtomicLong> countsByType = new EnumMap<>(OutboxEvent.Type.class);
+
+	// Constructor for a relay with its own connection source (used by tests).
+	// Delivers the events after startAfterEventID (FROM_LATEST: only new ones).
+	// A poll interval of 0 or less turns the background polls off; poll() still works.
+	public OutboxRelay(AsyncService.ConnectionSource connections, long startAfterEventID,
+			long pollIntervalMillis, long gapWaitMillis) {
+		this(connections, startAfterEventID, pollIntervalMillis, gapWaitMillis, DEFAULT_RESCAN_MS);
+	}
+
+	// Same as above, with the time a skipped event ID is looked for again
+	public OutboxRelay(AsyncService.ConnectionSource connections, long startAfterEventID,
+			long pollIntervalMillis, long gapWaitMillis, long rescanMillis) {
+		this.connections = connections;
+		this.lastEventID = startAfterEventID;
+		this.gapWaitNanos = TimeUnit.MILLISECONDS.toNanos(gapWaitMillis);
+		this.rescanNanos = TimeUnit.MILLISECONDS.toNanos(rescanMillis);
+		for (OutboxEvent.Type type : OutboxEvent.Type.values()) {
+			countsByType.put(type, new AtomicLong());
+		}
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ecs-outbox-relay");
+			t.setDaemon(true);
+			return t;
+		});
+		if (pollIntervalMillis > 0) {
+			scheduler.scheduleWithFixedDelay(this::pollQuietly, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// Public method to obtain the single instance used by the application.
+	// The first call starts the background polls from the latest event.
+	public static synchronized OutboxRelay getInstance() {
+		if (instance == null) {
+			instance = new OutboxRelay(() -> DBConnect.getInstance().getConnection(),
+					FROM_LATEST, DEFAULT_POLL_INTERVAL_MS, DEFAULT_GAP_WAIT_MS);
+		}
+		return instance;
+	}
+
+	// Registers a subscriber that is called, on the relay thread, for each event
+	public void subscribe(Consumer<OutboxEvent> subscriber) {
+		subscribers.add(subscriber);
+	}
+
+	// ========================== METHOD: poll ========================== //
+	// Delivers skipped events that have committed since, then the
+	// committed events after the last one delivered, in order, and
+	// returns how many were delivered. Runs on the calling
+	// thread; use pollNow() from other threads while polls are scheduled.
+	// ================================================================== //
+	public synchronized int poll() throws SQLException {
+		int delivered = 0;
+
+		try (Connection conn = connections.getConnection()) {
+
+			// First poll of a relay that starts at the end of the outbox
+			if (lastEventID == FROM_LATEST) {
+				lastEventID = OutboxDAO.getLatestEventID(conn);
+			}
+
+			// Late commits of the IDs skipped by earlier polls
+			delivered += rescanSkipped(conn);
+
+			List<OutboxEvent> events;
+			do {
+				events = OutboxDAO.readAfter(conn, lastEventID, BATCH_SIZE);
+				for (OutboxEvent event : events) {
+
+					// A missing ID may belong to a transaction that has not committed yet
+					if (event.getEventID() != lastEventID + 1) {
+						if (!gapExpired()) {
+							return delivered;
+						}
+						skip(lastEventID + 1, event.getEventID() - 1);
+					}
+
+					deliver(event);
+					lastEventID = event.getEventID();
+					gapSeenAt = 0;
+					delivered++;
+				}
+			} while (events.size() == BATCH_SIZE);
+
+			purgeIfDue(conn);
+		}
+		return delivered;
+	}
+
+	// ======================== METHOD: pollNow ========================= //
+	// Queues a poll on the relay's thread and returns the number of
+	// events it delivered when it is done.
+	// ================================================================== //
+	public CompletableFuture<Integer> pollNow() {
+		CompletableFuture<Integer> result = new CompletableFuture<>();
+		scheduler.execute(() -> {
+			try {
+				result.complete(poll());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	// Stops the background polls
+	public void shutdown() {
+		scheduler.shutdownNow();
+	}
+
+	// True once the gap after lastEventID has been open longer than the wait
+	private boolean gapExpired() {
+		long now = System.nanoTime();
+		if (gapSeenAt == 0 || gapAfterEventID != lastEventID) {
+			gapAfterEventID = lastEventID;
+			gapSeenAt = now;
+		}
+		return now - gapSeenAt >= gapWaitNanos;
+	}
+
+	// Remembers the missing IDs from 'first' to 'last' so later polls look for them again
+	private void skip(long first, long last) {
+		long now = System.nanoTime();
+
+		// Only the newest MAX_SKIPPED_IDS of a very long gap are kept
+		long from = Math.max(first, last - MAX_SKIPPED_IDS + 1);
+		abandonedGapCount.addAndGet(from - first);
+		for (long eventID = from; eventID <= last; eventID++) {
+			if (skippedIDs.size() >= MAX_SKIPPED_IDS) {
+				Iterator<Long> oldest = skippedIDs.keySet().iterator();
+				oldest.next();
+				oldest.remove();
+				abandonedGapCount.incrementAndGet();
+			}
+			skippedIDs.put(eventID, now);
+		}
+		skippedGapCount.addAndGet(last - first + 1);
+		System.out.println("Outbox relay skipped missing events " + first + " to " + last + " for now");
+	}
+
+	// Delivers the skipped events that have committed since they were
+	// skipped, and gives up on the IDs skipped longer than rescanMillis ago
+	private int rescanSkipped(Connection conn) throws SQLException {
+		if (skippedIDs.isEmpty()) {
+			return 0;
+		}
+
+		// Give up on the oldest IDs (most likely rolled back)
+		long now = System.nanoTime();
+		Iterator<Map.Entry<Long, Long>> oldest = skippedIDs.entrySet().iterator();
+		while (oldest.hasNext()) {
+			Map.Entry<Long, Long> entry = oldest.next();
+			if (now - entry.getValue() < rescanNanos) {
+				break;
+			}
+			oldest.remove();
+			abandonedGapCount.incrementAndGet();
+		}
+
+		int delivered = 0;
+		for (OutboxEvent event : OutboxDAO.readByIDs(conn, skippedIDs.keySet())) {
+			deliver(event);
+			skippedIDs.remove(event.getEventID());
+			lateDeliveredCount.incrementAndGet();
+			delivered++;
+		}
+		return delivered;
+	}
+
+	// Passes one event to every subscriber
+	private void deliver(OutboxEvent event) {
+		for (Consumer<OutboxEvent> subscriber : subscribers) {
+			try {
+				subscriber.accept(event);
+			} catch (RuntimeException e) {
+				subscriberErrorCount.incrementAndGet();
+				e.printStackTrace();
+				System.out.println("Outbox subscriber failed on " + event);
+			}
+		}
+		deliveredCount.incrementAndGet();
+		countsByType.get(event.getType()).incrementAndGet();
+	}
+
+	// Deletes events older than the retention period, at most once an hour
+	private void purgeIfDue(Connection conn) throws SQLException {
+		long now = System.nanoTime();
+		if (lastPurgeAt != 0 && now - lastPurgeAt < PURGE_INTERVAL_NANOS) {
+			return;
+		}
+		lastPurgeAt = now;
+		int deleted = OutboxDAO.deleteOlderThan(conn, LocalDateTime.now().minusDays(RETENTION_DAYS));
+		if (deleted > 0) {
+			System.out.println("Outbox relay deleted " + deleted + " events older than " + RETENTION_DAYS + " days");
+		}
+	}
+
+	// Scheduled poll; errors are logged and the next poll tries again
+	private void pollQuietly() {
+		try {
+			poll();
+		} catch (SQLException | RuntimeException e) {
+			// An uncaught exception would cancel the scheduled polls
+			e.printStackTrace();
+			System.out.println("Outbox relay poll failed");
+		}
+	}
+
+	// ======================================================================
+	// Metrics
+	// ======================================================================
+
+	// ID of the last event delivered (FROM_LATEST before the first poll)
+	public long getLastEventID() {
+		return lastEventID;
+	}
+
+	// Number of events delivered to subscribers
+	public long getDeliveredCount() {
+		return deliveredCount.get();
+	}
+
+	// Number of events of one type delivered to subscribers
+	public long getDeliveredCount(OutboxEvent.Type type) {
+		return countsByType.get(type).get();
+	}
+
+	// Number of missing event IDs that were skipped after the wait
+	public long getSkippedGapCount() {
+		return skippedGapCount.get();
+	}
+
+	// Number of skipped events delivered after they committed late
+	public long getLateDeliveredCount() {
+		return lateDeliveredCount.get();
+	}
+
+	// Number of skipped event IDs no longer looked for
+	public long getAbandonedGapCount() {
+		return abandonedGapCount.get();
+	}
+
+	// Number of subscriber calls that threw
+	public long getSubscriberErrorCount() {
+		return subscriberErrorCount.get();
+	}
+}
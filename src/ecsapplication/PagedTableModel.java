@@ -0,0 +1,384 @@
+/**
+ * PagedTableModel.java
+ * A read-only, lazily loaded table model for large result sets such as
+ * the transaction history. Instead of copying every row into a
+ * DefaultTableModel up front, the model only knows the row count and
+ * loads a page of rows in the background the first time the JTable asks
+ * for a cell on that page (i.e., as the user scrolls). Recently viewed
+ * pages are kept in a small LRU cache, so memory stays flat no matter
+ * how many rows the table has.
+ *
+ * Sorting is done by the database: clicking a column header (see
+ * installSortHeader()) reloads the pages in the new order instead of
+ * sorting rows in memory.
+ *
+ * Pages are read with keyset pagination in every sort order: a page
+ * starts after the last row of the page before it (see Keyset). The
+ * model remembers where each page it has read ends, even after the page
+ * itself leaves the cache; a jump to a page further down first walks
+ * from the nearest known page end, reading only the sort key and ID of
+ * the rows in between, so no query ever skips rows with OFFSET.
+ *
+ * All page bookkeeping happens on the Event Dispatch Thread (EDT);
+ * only the database queries run in the background, through the
+ * AsyncService. Refreshes requested while one is still queued are
+ * coalesced into a single count query.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used by page queries
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Import collection framework and functional interface for row callbacks
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+// Import Swing classes for the table model, header clicks and background loading
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	// Default page size and number of pages kept in memory
+	public static final int DEFAULT_PAGE_SIZE = 200;
+	public static final int DEFAULT_CACHE_PAGES = 10;
+
+	private final String[] columnNames;   // Column headers
+	private final int pageSize;           // Rows fetched per query
+	private final int cachePages;         // Maximum number of cached pages
+
+	// Loaded pages by page index, in access order (least recently used first)
+	private final LinkedHashMap<Integer, List<T>> pages;
+
+	// Pages currently being loaded in the background
+	private final Set<Integer> loading = new HashSet<>();
+
+	// Position after the last row of each page read in the current order,
+	// by page index (kept when the page leaves the cache)
+	private final TreeMap<Integer, Keyset> pageEnds = new TreeMap<>();
+
+	private int rowCount;            // Total number of rows in the database
+	private int sortColumn;          // Column the rows are sorted by
+	private boolean ascending = true;
+
+	// Incremented on every refresh or sort so late results of older loads are ignored
+	private int generation;
+
+	// Constructor
+	protected PagedTableModel(String[] columnNames, int pageSize, int cachePages) {
+		this.columnNames = columnNames;
+		this.pageSize = pageSize;
+		this.cachePages = cachePages;
+
+		// Access-ordered map that drops the least recently used page when full
+		this.pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+				return size() > PagedTableModel.this.cachePages;
+			}
+		};
+	}
+
+	// ======================================================================
+	// Database access implemented by each table
+	// ======================================================================
+
+	// Returns the total number of rows
+	protected abstract int fetchRowCount(Connection conn) throws SQLException;
+
+	// Returns up to 'limit' rows after the given position (null for the
+	// first page) in the given sort order
+	protected abstract List<T> fetchPage(Connection conn, int sortColumn, boolean ascending,
+			Keyset after, int limit) throws SQLException;
+
+	// Walks over up to 'rows' rows after the given position (null for the
+	// start) and returns the position after every 'every'-th row
+	protected abstract List<Keyset> seek(Connection conn, int sortColumn, boolean ascending,
+			Keyset after, int rows, int every) throws SQLException;
+
+	// Returns the position after a row in the given sort order
+	protected abstract Keyset keysetOf(T row, int sortColumn);
+
+	// Returns the value shown in the given column for a row
+	protected abstract Object columnValue(T row, int column);
+
+	// Borrows the connection used for a query (the pooled MySQL connection by default)
+	protected Connection openConnection() throws SQLException {
+		return DBConnect.getInstance().getConnection();
+	}
+
+	// ======================================================================
+	// TableModel
+	// ======================================================================
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+
+	// Header text for a column, with an arrow on the sorted column
+	public String getHeaderText(int column) {
+		if (column == sortColumn) {
+			return columnNames[column] + (ascending ? " ▲" : " ▼");
+		}
+		return columnNames[column];
+	}
+
+	@Override
+	public boolean isCellEditable(int row, int column) {
+		// Make the table read-only
+		return false;
+	}
+
+	@Override
+	public Object getValueAt(int row, int column) {
+
+		// Rows that are not loaded yet are shown empty until their page arrives
+		T item = getRow(row);
+		return item != null ? columnValue(item, column) : null;
+	}
+
+	// ========================= METHOD: getRow ========================= //
+	// Returns the object for a row, or null if its page is not loaded yet.
+	// Asking for a row on a missing page starts loading that page.
+	// ================================================================== //
+	public T getRow(int row) {
+		int pageIndex = row / pageSize;
+		List<T> page = pages.get(pageIndex);
+		if (page == null) {
+			requestPage(pageIndex);
+			return null;
+		}
+		int index = row % pageSize;
+		return index < page.size() ? page.get(index) : null;
+	}
+
+	// ========================= METHOD: refresh ======================== //
+	// Reloads the row count in the background and then discards every
+	// cached page, so the visible rows are fetched again. Rows keep
+	// showing their old values until the new count arrives.
+	// ================================================================== //
+	public void refresh() {
+		final int gen = ++generation;
+
+		// Page ends found in the old order or data no longer apply
+		pageEnds.clear();
+
+		// Keyed by this model so queued refreshes share one count query
+		AsyncService.getInstance().call(this, () -> {
+			try (Connection conn = openConnection()) {
+				return fetchRowCount(conn);
+			}
+		}).whenCompleteAsync((count, error) -> {
+
+			// A newer refresh or sort has started, or the count was cancelled; drop this result
+			if (gen != generation || error instanceof CancellationException) {
+				return;
+			}
+			if (error != null) {
+				error.printStackTrace();
+				System.out.println("Failed to count table rows");
+			} else {
+				rowCount = count;
+			}
+			pages.clear();
+			loading.clear();
+			fireTableDataChanged();
+		}, AsyncService.EDT);
+	}
+
+	// ========================= METHOD: sortBy ========================= //
+	// Sorts by the given column on the server. Selecting the column that
+	// is already sorted reverses the direction.
+	// ================================================================== //
+	public void sortBy(int column) {
+		if (column < 0 || column >= columnNames.length) {
+			return;
+		}
+		if (column == sortColumn) {
+			ascending = !ascending;
+		} else {
+			sortColumn = column;
+			ascending = true;
+		}
+		refresh();
+	}
+
+	// Getters for the current sort order
+	public int getSortColumn() {
+		return sortColumn;
+	}
+
+	public boolean isAscending() {
+		return ascending;
+	}
+
+	// Number of pages currently held in memory
+	public int getCachedPageCount() {
+		return pages.size();
+	}
+
+	// ====================== METHOD: forEachRow ======================= //
+	// Reads every row in the given sort order, one keyset page at a time,
+	// without going through the page cache, and passes the column values
+	// of each row to the action. Used to export the full table (only the
+	// visible pages are ever loaded into the model itself). The sort order
+	// is passed in so it can be read on the EDT (getSortColumn() and
+	// isAscending()) before this runs in the background.
+	// Runs on the calling thread and returns the number of rows read.
+	// ================================================================= //
+	public long forEachRow(int sortColumn, boolean ascending, Consumer<Object[]> action) throws SQLException {
+		long count = 0;
+		try (Connection conn = openConnection()) {
+			Keyset after = null;
+			while (true) {
+				List<T> page = fetchPage(conn, sortColumn, ascending, after, pageSize);
+				for (T item : page) {
+					Object[] values = new Object[columnNames.length];
+					for (int col = 0; col < values.length; col++) {
+						values[col] = columnValue(item, col);
+					}
+					action.accept(values);
+				}
+				count += page.size();
+				if (page.size() < pageSize) {
+					return count;
+				}
+				after = keysetOf(page.get(page.size() - 1), sortColumn);
+			}
+		}
+	}
+
+	// Loads a page in the background unless it is already loading
+	private void requestPage(final int pageIndex) {
+		if (!loading.add(pageIndex)) {
+			return;
+		}
+
+		// Capture the current query so a later sort or refresh does not mix orders
+		final int gen = generation;
+		final int sortCol = sortColumn;
+		final boolean asc = ascending;
+
+		// Start from the end of the nearest page read before this one (or from the first row)
+		Map.Entry<Integer, Keyset> known = pageIndex > 0 ? pageEnds.floorEntry(pageIndex - 1) : null;
+		final int firstUnknown = known != null ? known.getKey() + 1 : 0;
+		final Keyset knownEnd = known != null ? known.getValue() : null;
+
+		AsyncService.getInstance().call(() -> {
+			try (Connection conn = openConnection()) {
+
+				// Find where the pages in between end, reading only their keys
+				List<Keyset> skipped = Collections.emptyList();
+				Keyset after = knownEnd;
+				if (firstUnknown < pageIndex) {
+					skipped = seek(conn, sortCol, asc, knownEnd, (pageIndex - firstUnknown) * pageSize, pageSize);
+					if (skipped.size() < pageIndex - firstUnknown) {
+						return new LoadedPage<T>(skipped, Collections.emptyList());   // Past the last row
+					}
+					after = skipped.get(skipped.size() - 1);
+				}
+				return new LoadedPage<T>(skipped, fetchPage(conn, sortCol, asc, after, pageSize));
+			}
+		}).whenCompleteAsync((loaded, error) -> {
+
+			// Ignore pages loaded for an older sort order or row count
+			if (gen != generation) {
+				return;
+			}
+			loading.remove(pageIndex);
+
+			// Cancelled (e.g., by the Cancel button); the page is requested again when next shown
+			if (error instanceof CancellationException) {
+				return;
+			}
+			if (error != null) {
+				error.printStackTrace();
+				System.out.println("Failed to load table page " + pageIndex);
+				return;
+			}
+
+			// Remember where this page and the ones walked over end
+			for (int i = 0; i < loaded.skipped.size(); i++) {
+				pageEnds.put(firstUnknown + i, loaded.skipped.get(i));
+			}
+			List<T> page = loaded.rows;
+			if (page.size() == pageSize) {
+				pageEnds.put(pageIndex, keysetOf(page.get(pageSize - 1), sortCol));
+			}
+			pages.put(pageIndex, page);
+
+			// Repaint the rows of this page
+			int first = pageIndex * pageSize;
+			int last = Math.min(rowCount, first + pageSize) - 1;
+			if (last >= first) {
+				fireTableRowsUpdated(first, last);
+			}
+		}, AsyncService.EDT);
+	}
+
+	// Result of a background page load: the page ends walked over and the page's rows
+	private static final class LoadedPage<T> {
+		private final List<Keyset> skipped;
+		private final List<T> rows;
+
+		LoadedPage(List<Keyset> skipped, List<T> rows) {
+			this.skipped = skipped;
+			this.rows = rows;
+		}
+	}
+
+	// ==================== METHOD: installSortHeader =================== //
+	// Makes clicks on the table's column headers sort the model on the
+	// server. The table must not use a client-side RowSorter.
+	// ================================================================== //
+	public static void installSortHeader(final JTable table, final PagedTableModel<?> model) {
+		final JTableHeader header = table.getTableHeader();
+		header.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				int viewColumn = header.columnAtPoint(e.getPoint());
+				if (viewColumn < 0 || table.getModel() != model) {
+					return;
+				}
+				model.sortBy(table.convertColumnIndexToModel(viewColumn));
+				updateHeaderText(table, model);
+			}
+		});
+		updateHeaderText(table, model);
+	}
+
+	// Shows the sort arrow in the table's header
+	private static void updateHeaderText(JTable table, PagedTableModel<?> model) {
+		for (int col = 0; col < table.getColumnCount(); col++) {
+			table.getColumnModel().getColumn(col)
+					.setHeaderValue(model.getHeaderText(table.convertColumnIndexToModel(col)));
+		}
+		table.getTableHeader().repaint();
+	}
+}
@@ -0,0 +1,773 @@
+/**
+ * QueryMonitor.java
+ * Times every SQL statement the DAOs run, so slow queries can be found
+ * without a profiler.
+ *
+ * DBConnect.getConnection() hands out connections wrapped by wrap().
+ * The wrapper is transparent to the DAOs: the statements it prepares
+ * (and their result sets) are proxies that forward every call, and
+ * record for each execute:
+ *   -The time the execute call took, in a latency histogram
+ *   -The rows it returned (counted as the result set is read) or changed
+ *   -Whether it failed
+ * Statistics are kept per statement and tagged with the DAO method that
+ * prepared it (e.g., "TransactionDAO.getTransactionsPage"), found from
+ * the call stack the first time its SQL is prepared and remembered for
+ * that SQL, so later prepares do not walk the stack (SQL shared by two
+ * methods keeps the tag of the first). Statements prepared outside a
+ * DAO are tagged with the first ECS method on the stack.
+ *
+ * Any execute that takes at least the slow-query threshold is printed to
+ * the console and kept in a log of the latest slow queries, with its
+ * bind parameters redacted: only their types are shown, never values
+ * such as employee names.
+ *
+ * Summaries can be exported as a text table (toText) or JSON (toJson),
+ * or written to a file with writeSummary().
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect; tests can create their own monitor.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes for the wrapped connection, statements and result sets
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import reflection classes used to build the wrappers
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+// Import file classes for writeSummary()
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Import date/time for the slow-query log
+import java.time.LocalDateTime;
+
+// Import collections and concurrency utilities for the statistics
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class QueryMonitor {
+
+	// Default slow-query threshold
+	public static final long DEFAULT_SLOW_QUERY_MS = 250;
+
+	// Upper bounds of the latency histogram buckets, in microseconds
+	// (the last bucket holds everything slower than the last bound)
+	static final long[] BUCKET_BOUNDS_MICROS = { 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000,
+			50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000 };
+
+	// Number of slow queries kept for getSlowQueries()
+	private static final int SLOW_QUERIES_KEPT = 100;
+
+	// Longest SQL text shown in the text summary
+	private static final int TEXT_SQL_LENGTH = 120;
+
+	// Walks the call stack to find the DAO method that prepared a statement
+	private static final StackWalker STACK = StackWalker.getInstance();
+
+	// Most SQL strings whose tag is remembered (the cache starts over when full)
+	private static final int PREPARED_CACHE_SIZE = 10_000;
+
+	private static QueryMonitor instance;   // Singular instance
+
+	private volatile boolean enabled = true;    // Whether wrap() instruments connections
+	private volatile long slowQueryNanos;       // Slow-query threshold
+
+	// Statistics per (tag, SQL), and the latest slow queries, oldest first (guarded by itself)
+	private final ConcurrentMap<String, StatementStats> statistics = new ConcurrentHashMap<>();
+	private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+	private final AtomicLong slowQueryCount = new AtomicLong();
+
+	// Normalized SQL and tag per SQL string prepared, so each is worked out once
+	private final ConcurrentMap<String, PreparedSql> preparedCache = new ConcurrentHashMap<>();
+
+	// Constructor for a monitor with its own threshold (used by tests)
+	public QueryMonitor(long slowQueryMillis) {
+		setSlowQueryMillis(slowQueryMillis);
+	}
+
+	// Public method to obtain the single instance used by DBConnect
+	public static synchronized QueryMonitor getInstance() {
+		if (instance == null) {
+			instance = new QueryMonitor(DEFAULT_SLOW_QUERY_MS);
+		}
+		return instance;
+	}
+
+	// ========================== METHOD: wrap ========================== //
+	// Returns a connection that records every statement prepared on it.
+	// Closing it closes the given connection (e.g., returns it to the
+	// pool). When the monitor is disabled the connection is returned
+	// as it is.
+	// ================================================================== //
+	public Connection wrap(Connection conn) {
+		if (!enabled) {
+			return conn;
+		}
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new ConnectionHandler(conn));
+	}
+
+	// Turns instrumentation of newly wrapped connections on or off
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	// Executes at least this long are logged as slow queries
+	public void setSlowQueryMillis(long slowQueryMillis) {
+		this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+	}
+
+	public long getSlowQueryMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(slowQueryNanos);
+	}
+
+	// Statistics of every statement run so far, slowest in total first
+	public List<StatementStats> getStatementStats() {
+		List<StatementStats> all = new ArrayList<>(statistics.values());
+		all.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+		return all;
+	}
+
+	// Statistics of the statements prepared by one DAO method (e.g., "OrderDAO.insertOrder")
+	public List<StatementStats> getStatementStats(String tag) {
+		List<StatementStats> tagged = new ArrayList<>();
+		for (StatementStats stats : getStatementStats()) {
+			if (stats.getTag().equals(tag)) {
+				tagged.add(stats);
+			}
+		}
+		return tagged;
+	}
+
+	// Latest slow queries, oldest first
+	public List<SlowQuery> getSlowQueries() {
+		synchronized (slowQueries) {
+			return new ArrayList<>(slowQueries);
+		}
+	}
+
+	// Number of slow queries since the last reset
+	public long getSlowQueryCount() {
+		return slowQueryCount.get();
+	}
+
+	// Forgets all statistics and slow queries
+	public void reset() {
+		statistics.clear();
+		preparedCache.clear();
+		synchronized (slowQueries) {
+			slowQueries.clear();
+		}
+		slowQueryCount.set(0);
+	}
+
+	// ======================= METHOD: record ======================= //
+	// Adds one execute of a statement to its statistics and logs it if
+	// it reached the slow-query threshold.
+	// ============================================================== //
+	private void record(StatementStats stats, long nanos, long rows, boolean failed, String binds) {
+		stats.record(nanos, rows, failed);
+		if (nanos < slowQueryNanos) {
+			return;
+		}
+
+		SlowQuery slow = new SlowQuery(stats.getTag(), stats.getSql(), nanos, binds, failed, LocalDateTime.now());
+		slowQueryCount.incrementAndGet();
+		synchronized (slowQueries) {
+			if (slowQueries.size() == SLOW_QUERIES_KEPT) {
+				slowQueries.removeFirst();
+			}
+			slowQueries.addLast(slow);
+		}
+		System.out.println(slow);
+	}
+
+	// Statistics for a statement, created on its first use
+	private StatementStats statsFor(String tag, String sql) {
+		return statistics.computeIfAbsent(tag + '\n' + sql, key -> new StatementStats(tag, sql));
+	}
+
+	// Normalized SQL and tag of a statement being prepared, from the cache when the SQL was seen before
+	private PreparedSql preparedSql(String sql) {
+		PreparedSql prepared = preparedCache.get(sql);
+		if (prepared == null) {
+			if (preparedCache.size() >= PREPARED_CACHE_SIZE) {
+				preparedCache.clear();   // e.g., SQL built with literal values
+			}
+			prepared = new PreparedSql(normalize(sql), callerTag());
+			preparedCache.putIfAbsent(sql, prepared);
+		}
+		return prepared;
+	}
+
+	// Normalized SQL of a prepared statement and the tag of the method that first prepared it
+	private record PreparedSql(String sql, String tag) { }
+
+	// ======================= METHOD: callerTag ======================= //
+	// Names the code preparing a statement: the innermost DAO method on
+	// the stack, otherwise the innermost ECS method outside the
+	// connection plumbing (e.g., "ReminderEngine.runOnce").
+	// ================================================================= //
+	static String callerTag() {
+		return STACK.walk(frames -> {
+			String first = null;
+			for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+				String className = frame.getClassName();
+				if (!className.startsWith("ecsapplication.") || className.startsWith("ecsapplication.QueryMonitor")
+						|| className.startsWith("ecsapplication.ConnectionPool")
+						|| className.startsWith("ecsapplication.StatementCache")) {
+					continue;
+				}
+
+				// "ecsapplication.OrderDAO" and "lambda$getOrdersPage$0" become "OrderDAO.getOrdersPage"
+				String simpleName = className.substring(className.lastIndexOf('.') + 1);
+				String methodName = frame.getMethodName();
+				if (methodName.startsWith("lambda$")) {
+					int end = methodName.indexOf('$', 7);
+					methodName = end > 7 ? methodName.substring(7, end) : methodName;
+				}
+				String tag = simpleName + "." + methodName;
+				if (simpleName.endsWith("DAO")) {
+					return tag;
+				}
+				if (first == null) {
+					first = tag;
+				}
+			}
+			return first != null ? first : "unknown";
+		});
+	}
+
+	// Collapses whitespace so the same statement written over several lines has one entry
+	static String normalize(String sql) {
+		return sql == null ? "" : sql.replaceAll("\\s+", " ").trim();
+	}
+
+	// ======================================================================
+	// Summaries
+	// ======================================================================
+
+	// ========================= METHOD: toText ========================= //
+	// Formats the statistics as a table, slowest in total first, with
+	// each statement's SQL on the line below its numbers.
+	// ================================================================== //
+	public String toText() {
+		StringBuilder text = new StringBuilder();
+		text.append(String.format(Locale.ROOT, "%-50s %9s %7s %10s %10s %10s %10s %12s%n", "Statement", "Calls",
+				"Errors", "Rows", "Avg ms", "p95 ms", "Max ms", "Total ms"));
+		for (StatementStats stats : getStatementStats()) {
+			text.append(String.format(Locale.ROOT, "%-50s %9d %7d %10d %10.3f %10.3f %10.3f %12.1f%n", stats.getTag(),
+					stats.getCalls(), stats.getErrors(), stats.getRows(), stats.getAverageMillis(),
+					stats.getPercentileMillis(95), stats.getMaxMillis(), stats.getTotalMillis()));
+			String sql = stats.getSql();
+			text.append("    ").append(sql.length() > TEXT_SQL_LENGTH ? sql.substring(0, TEXT_SQL_LENGTH) + "..." : sql)
+					.append('\n');
+		}
+		text.append(String.format(Locale.ROOT, "Slow queries (>= %d ms): %d%n", getSlowQueryMillis(), getSlowQueryCount()));
+		for (SlowQuery slow : getSlowQueries()) {
+			text.append("    ").append(slow).append('\n');
+		}
+		return text.toString();
+	}
+
+	// ========================= METHOD: toJson ========================= //
+	// Formats the statistics and the slow-query log as a JSON object.
+	// Each histogram lists its bucket upper bounds in microseconds ("le",
+	// null for the last, open-ended bucket) and the executes in each.
+	// ================================================================== //
+	public String toJson() {
+		StringBuilder json = new StringBuilder();
+		json.append("{\n  \"slowQueryMillis\" : ").append(getSlowQueryMillis()).append(",\n");
+		json.append("  \"statements\" : [");
+		List<StatementStats> all = getStatementStats();
+		for (int i = 0; i < all.size(); i++) {
+			StatementStats stats = all.get(i);
+			json.append(i == 0 ? "\n" : ",\n");
+			json.append("    { \"tag\" : ").append(quote(stats.getTag()));
+			json.append(", \"sql\" : ").append(quote(stats.getSql()));
+			json.append(", \"calls\" : ").append(stats.getCalls());
+			json.append(", \"errors\" : ").append(stats.getErrors());
+			json.append(", \"rows\" : ").append(stats.getRows());
+			json.append(String.format(Locale.ROOT, ", \"totalMillis\" : %.3f, \"avgMillis\" : %.3f, \"maxMillis\" : %.3f",
+					stats.getTotalMillis(), stats.getAverageMillis(), stats.getMaxMillis()));
+			json.append(String.format(Locale.ROOT, ", \"p50Millis\" : %.3f, \"p95Millis\" : %.3f, \"p99Millis\" : %.3f",
+					stats.getPercentileMillis(50), stats.getPercentileMillis(95), stats.getPercentileMillis(99)));
+			json.append(", \"histogram\" : { \"le\" : [");
+			for (long bound : BUCKET_BOUNDS_MICROS) {
+				json.append(bound).append(", ");
+			}
+			json.append("null], \"counts\" : [");
+			long[] counts = stats.getBucketCounts();
+			for (int b = 0; b < counts.length; b++) {
+				json.append(b == 0 ? "" : ", ").append(counts[b]);
+			}
+			json.append("] } }");
+		}
+		json.append(all.isEmpty() ? "],\n" : "\n  ],\n");
+
+		json.append("  \"slowQueries\" : [");
+		List<SlowQuery> slow = getSlowQueries();
+		for (int i = 0; i < slow.size(); i++) {
+			SlowQuery query = slow.get(i);
+			json.append(i == 0 ? "\n" : ",\n");
+			json.append("    { \"time\" : ").append(quote(query.getTime().toString()));
+			json.append(", \"tag\" : ").append(quote(query.getTag()));
+			json.append(String.format(Locale.ROOT, ", \"millis\" : %.3f", query.getMillis()));
+			json.append(", \"failed\" : ").append(query.isFailed());
+			json.append(", \"sql\" : ").append(quote(query.getSql()));
+			json.append(", \"binds\" : ").append(quote(query.getBinds())).append(" }");
+		}
+		json.append(slow.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+		return json.toString();
+	}
+
+	// Writes the summary to a file: JSON for a .json file, otherwise the text table
+	public void writeSummary(Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		boolean json = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+		Files.writeString(file, json ? toJson() : toText());
+	}
+
+	// Quotes a string for JSON
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			switch (c) {
+			case '"' -> quoted.append("\\\"");
+			case '\\' -> quoted.append("\\\\");
+			case '\n' -> quoted.append("\\n");
+			case '\r' -> quoted.append("\\r");
+			case '\t' -> quoted.append("\\t");
+			default -> {
+				if (c < 0x20) {
+					quoted.append(String.format("\\u%04x", (int) c));
+				} else {
+					quoted.append(c);
+				}
+			}
+			}
+		}
+		return quoted.append('"').toString();
+	}
+
+	// Calls a method on the wrapped object, rethrowing what it threw
+	private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	// ======================================================================
+	// Wrappers
+	// ======================================================================
+
+	// ===================== CLASS: ConnectionHandler ===================== //
+	// Wraps a connection so that the statements prepared on it are
+	// instrumented and tagged with the DAO method that prepared them.
+	// ==================================================================== //
+	private class ConnectionHandler implements InvocationHandler {
+
+		private final Connection target;   // Wrapped connection (e.g., a pooled connection handle)
+
+		ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "QueryMonitor[" + target + "]";
+			default:
+				break;
+			}
+
+			Object result = forward(target, method, args);
+			if (!(result instanceof Statement)) {
+				return result;
+			}
+
+			// prepareStatement/prepareCall know their SQL now; createStatement learns it on each execute
+			PreparedSql prepared = args != null && args.length > 0 && args[0] instanceof String
+					? preparedSql((String) args[0]) : new PreparedSql(null, callerTag());
+			Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+					: result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+			return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+					new StatementHandler((Statement) result, (Connection) proxy, prepared.tag(), prepared.sql()));
+		}
+	}
+
+	// ===================== CLASS: StatementHandler ===================== //
+	// Times the execute calls of one statement and remembers the types
+	// of its bind parameters for the slow-query log.
+	// =================================================================== //
+	private class StatementHandler implements InvocationHandler {
+
+		private final Statement target;      // Wrapped statement
+		private final Connection owner;      // Wrapped connection that prepared it
+		private final String tag;            // DAO method that prepared it
+		private final StatementStats prepared;   // Statistics of its SQL (null for a plain Statement)
+		private final Map<Integer, String> binds = new TreeMap<>();   // Parameter index -> redacted value
+		private int batchSize;               // Rows added with addBatch()
+
+		StatementHandler(Statement target, Connection owner, String tag, String sql) {
+			this.target = target;
+			this.owner = owner;
+			this.tag = tag;
+			this.prepared = sql != null ? statsFor(tag, sql) : null;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+
+			switch (name) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "QueryMonitor[" + target + "]";
+			case "getConnection":
+				return owner;
+			case "clearParameters":
+				binds.clear();
+				break;
+			case "addBatch":
+				batchSize++;
+				break;
+			case "clearBatch":
+				batchSize = 0;
+				break;
+			case "getResultSet":
+				return wrapResults(forward(target, method, args), prepared, proxy);
+			default:
+				break;
+			}
+
+			// setInt(1, id), setString(2, name), setNull(3, type)...: keep only the type
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+				binds.put((Integer) args[0], name.equals("setNull") || args[1] == null ? "NULL"
+						: "<" + args[1].getClass().getSimpleName() + ">");
+				return forward(target, method, args);
+			}
+
+			if (!name.startsWith("execute")) {
+				return forward(target, method, args);
+			}
+
+			// Statement.execute(sql) and friends carry their SQL with each call
+			StatementStats stats = prepared;
+			if (args != null && args.length > 0 && args[0] instanceof String) {
+				stats = statsFor(tag, normalize((String) args[0]));
+			} else if (stats == null) {
+				stats = statsFor(tag, "(statement batch)");
+			}
+
+			long start = System.nanoTime();
+			Object result;
+			try {
+				result = forward(target, method, args);
+			} catch (Throwable e) {
+				record(stats, System.nanoTime() - start, 0, true, describeBinds());
+				batchSize = 0;
+				throw e;
+			}
+			long elapsed = System.nanoTime() - start;
+
+			// Rows changed are known now; rows read are counted as the result set is read
+			long rows = 0;
+			if (result instanceof Integer || result instanceof Long) {
+				rows = Math.max(0, ((Number) result).longValue());
+			} else if (result instanceof int[]) {
+				for (int count : (int[]) result) {
+					rows += Math.max(0, count);
+				}
+			} else if (result instanceof long[]) {
+				for (long count : (long[]) result) {
+					rows += Math.max(0, count);
+				}
+			}
+			record(stats, elapsed, rows, false, describeBinds());
+			if (name.startsWith("executeBatch") || name.startsWith("executeLargeBatch")) {
+				batchSize = 0;
+			}
+			return result instanceof ResultSet ? wrapResults(result, stats, proxy) : result;
+		}
+
+		// Redacted bind parameters, e.g. "[1=<Integer>, 2=<String>] (batch of 20)"
+		private String describeBinds() {
+			StringBuilder text = new StringBuilder("[");
+			for (Map.Entry<Integer, String> bind : binds.entrySet()) {
+				text.append(text.length() > 1 ? ", " : "").append(bind.getKey()).append('=').append(bind.getValue());
+			}
+			text.append(']');
+			if (batchSize > 1) {
+				text.append(" (batch of ").append(batchSize).append(')');
+			}
+			return text.toString();
+		}
+
+		// Wraps a result set so the rows read from it are counted
+		private Object wrapResults(Object results, StatementStats stats, Object statement) {
+			if (!(results instanceof ResultSet) || stats == null) {
+				return results;
+			}
+			return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+					new ResultSetHandler((ResultSet) results, stats, (Statement) statement));
+		}
+	}
+
+	// ===================== CLASS: ResultSetHandler ===================== //
+	// Counts the rows read from a result set.
+	// =================================================================== //
+	private static class ResultSetHandler implements InvocationHandler {
+
+		private final ResultSet target;       // Wrapped result set
+		private final StatementStats stats;   // Statistics the rows are added to
+		private final Statement owner;        // Wrapped statement that returned it
+
+		ResultSetHandler(ResultSet target, StatementStats stats, Statement owner) {
+			this.target = target;
+			this.stats = stats;
+			this.owner = owner;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "next":
+				Object hasRow = forward(target, method, args);
+				if (Boolean.TRUE.equals(hasRow)) {
+					stats.addRows(1);
+				}
+				return hasRow;
+			case "getStatement":
+				return owner;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return forward(target, method, args);
+			}
+		}
+	}
+
+	// ======================================================================
+	// Statistics
+	// ======================================================================
+
+	// ====================== CLASS: StatementStats ====================== //
+	// Call, error, row and latency statistics of one statement prepared
+	// by one DAO method.
+	// =================================================================== //
+	public static final class StatementStats {
+
+		private final String tag;   // DAO method (e.g., "TransactionDAO.getTransactionsPage")
+		private final String sql;   // Statement text with whitespace collapsed
+
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+		private final AtomicLong rows = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+
+		StatementStats(String tag, String sql) {
+			this.tag = tag;
+			this.sql = sql;
+		}
+
+		// Adds one execute
+		void record(long nanos, long rowCount, boolean failed) {
+			calls.incrementAndGet();
+			if (failed) {
+				errors.incrementAndGet();
+			}
+			rows.addAndGet(rowCount);
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+
+			long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+			int bucket = 0;
+			while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+				bucket++;
+			}
+			buckets.incrementAndGet(bucket);
+		}
+
+		// Adds rows read from a result set
+		void addRows(long rowCount) {
+			rows.addAndGet(rowCount);
+		}
+
+		public String getTag() {
+			return tag;
+		}
+
+		public String getSql() {
+			return sql;
+		}
+
+		// Number of executes (including failed ones)
+		public long getCalls() {
+			return calls.get();
+		}
+
+		// Number of executes that threw
+		public long getErrors() {
+			return errors.get();
+		}
+
+		// Rows read from the results plus rows changed
+		public long getRows() {
+			return rows.get();
+		}
+
+		public long getTotalNanos() {
+			return totalNanos.get();
+		}
+
+		public double getTotalMillis() {
+			return totalNanos.get() / 1_000_000.0;
+		}
+
+		public double getAverageMillis() {
+			long count = calls.get();
+			return count == 0 ? 0.0 : totalNanos.get() / 1_000_000.0 / count;
+		}
+
+		public double getMaxMillis() {
+			return maxNanos.get() / 1_000_000.0;
+		}
+
+		// Executes per histogram bucket (see BUCKET_BOUNDS_MICROS)
+		public long[] getBucketCounts() {
+			long[] counts = new long[buckets.length()];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = buckets.get(i);
+			}
+			return counts;
+		}
+
+		// Estimates a latency percentile (0-100) as the upper bound of the
+		// bucket it falls in, never more than the slowest execute
+		public double getPercentileMillis(double percentile) {
+			long[] counts = getBucketCounts();
+			long total = 0;
+			for (long count : counts) {
+				total += count;
+			}
+			if (total == 0) {
+				return 0.0;
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+			long seen = 0;
+			for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return Math.min(BUCKET_BOUNDS_MICROS[i] / 1000.0, getMaxMillis());
+				}
+			}
+			return getMaxMillis();
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%s: %d calls, %d errors, %d rows, %.3f ms avg, %.3f ms max",
+					tag, getCalls(), getErrors(), getRows(), getAverageMillis(), getMaxMillis());
+		}
+	}
+
+	// ======================== CLASS: SlowQuery ======================== //
+	// One execute that reached the slow-query threshold. The bind
+	// parameters are redacted to their types.
+	// ================================================================== //
+	public static final class SlowQuery {
+
+		private final String tag;
+		private final String sql;
+		private final long nanos;
+		private final String binds;
+		private final boolean failed;
+		private final LocalDateTime time;
+
+		SlowQuery(String tag, String sql, long nanos, String binds, boolean failed, LocalDateTime time) {
+			this.tag = tag;
+			this.sql = sql;
+			this.nanos = nanos;
+			this.binds = binds;
+			this.failed = failed;
+			this.time = time;
+		}
+
+		public String getTag() {
+			return tag;
+		}
+
+		public String getSql() {
+			return sql;
+		}
+
+		public double getMillis() {
+			return nanos / 1_000_000.0;
+		}
+
+		// Redacted bind parameters, e.g. "[1=<Integer>, 2=<String>]"
+		public String getBinds() {
+			return binds;
+		}
+
+		// Whether the execute threw
+		public boolean isFailed() {
+			return failed;
+		}
+
+		public LocalDateTime getTime() {
+			return time;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "Slow query (%.1f ms%s) in %s: %s binds %s", getMillis(),
+					failed ? ", failed" : "", tag, sql, binds);
+		}
+	}
+}
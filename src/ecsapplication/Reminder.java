@@ -32,12 +32,13 @@ import java.time.temporal.ChronoUnit;
 // Observer in Observer design pattern
 public class Reminder implements Observer{
 
-	// Attributes
-	private int reminderID;            // Unique identifier for the reminder
-	private Employee employee;         // The employee to whom to reminder is addressed
-	private Transaction transaction;   // The transaction associated with this reminder
-	private LocalDate reminderDate;    // The date when the reminder should be sent
-	private String reminderMSG;        // The message content of the reminder
+	// Attributes (update() writes the volatile ones on an EventBus lane thread;
+	// volatile makes those writes visible to the threads that read them)
+	private int reminderID;                     // Unique identifier for the reminder
+	private volatile Employee employee;         // The employee to whom to reminder is addressed
+	private volatile Transaction transaction;   // The transaction associated with this reminder
+	private volatile LocalDate reminderDate;    // The date when the reminder should be sent
+	private volatile String reminderMSG;        // The message content of the reminder
 	
 	// Constructors
 	public Reminder() {
@@ -65,6 +66,8 @@ public class Reminder implements Observer{
 	 * Called when this observer is notified by the Subject (Transaction).
 	 * Updates internal state with the latest transaction and employee information,
 	 * generates a new reminder message, and persists it to the database.
+	 * Runs on an EventBus thread, so the database save never blocks the
+	 * thread that changed the transaction.
 	 */
 	// ========================================================================== //
 	@Override
@@ -157,6 +160,10 @@ public class Reminder implements Observer{
 	// ====================================================== //
 	public void generateReminder() {
 		
+		// Read each field once, so one message is built from one transaction and employee
+		Transaction transaction = this.transaction;
+		Employee employee = this.employee;
+
 		// Validate to ensure transaction or employee is not null
 		if (transaction == null || employee == null) {
 			reminderMSG = "Reminder Error: Transaction or Employee is missing.";
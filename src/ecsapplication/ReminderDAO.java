@@ -5,6 +5,14 @@
  * provides methods to insert or update reminder records in the
  * database, ensuring separation between persistence logic and
  * business logic.
+ *
+ * There is at most one reminder per transaction (a unique key on
+ * reminder.transactionID, see SchemaMigrator V5). Reminders are saved
+ * with a single upsert statement in the database's own dialect:
+ * INSERT ... ON DUPLICATE KEY UPDATE on MySQL (with a row alias for the
+ * new values, MySQL 8.0.19 and later), MERGE on H2. The database
+ * decides between insert and update, so concurrent saves for the same
+ * transaction can never create duplicate rows.
  */
 
 package ecsapplication;
@@ -12,58 +20,124 @@ package ecsapplication;
 // Import required JDBC libraries for connection and data manipulation in the database
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 
+// Import collections for batched saves
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 public class ReminderDAO {
 
+	// Attempts of a batched save when the database reports a deadlock or a duplicate key race
+	private static final int MAX_ATTEMPTS = 3;
+
+	// MySQL error code for a duplicate key (ER_DUP_ENTRY, SQLState 23000)
+	private static final int MYSQL_DUPLICATE_KEY = 1062;
+
+	// MySQL: insert, or update the reminder that has the same transactionID
+	// (the new values are read through the row alias; VALUES(col) is deprecated)
+	private static final String MYSQL_UPSERT_SQL =
+			"INSERT INTO reminder (transactionID, empID, reminderDate, reminderMSG) VALUES (?, ?, ?, ?) AS new " +
+			"ON DUPLICATE KEY UPDATE empID = new.empID, reminderDate = new.reminderDate, " +
+			"reminderMSG = new.reminderMSG";
+
+	// H2: MERGE keyed on transactionID (same parameters as above)
+	private static final String H2_UPSERT_SQL =
+			"MERGE INTO reminder (transactionID, empID, reminderDate, reminderMSG) KEY (transactionID) " +
+			"VALUES (?, ?, ?, ?)";
+
 	// =================== METHOD: saveReminder ==================== //
-	// Inserts a new reminder or updates an existing one for a given
-	// transaction. Checks first to see if a reminder already exists
-	// for that transaction: if exists, update the reminder details;
-	// otherwise, insert a new reminder record.
+	// Inserts a new reminder or updates the existing one for its
+	// transaction, in one statement (one round trip).
 	// ============================================================= //
 	public static void saveReminder(Reminder reminder, Connection conn) throws SQLException {
-		
-		// SQL statement to check if a reminder already exists for this transaction
-		String checkSql = "SELECT reminderID FROM reminder WHERE transactionID = ?";
-
-		try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-			
-			// Set the transaction ID parameter
-			checkStmt.setInt(1, reminder.getTransaction().getTransactionID());
-			ResultSet rs = checkStmt.executeQuery();
-
-			// If reminder exists, update it
-			if (rs.next()) {
-				int reminderID = rs.getInt("reminderID");  // Retrieve the reminder ID
-				
-				// SQL statement to update existing reminder for a given reminder ID
-				// Updated columns: employee ID, reminder date, and reminder message
-				String updateSql = "UPDATE reminder SET empID = ?, reminderDate = ?, reminderMSG = ? WHERE reminderID = ?";
-				try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {  
-					updateStmt.setInt(1, reminder.getEmployee().getEmpID());     // Set employee ID
-					updateStmt.setDate(2, java.sql.Date.valueOf(reminder.getReminderDate()));  // Set reminder date
-					updateStmt.setString(3, reminder.getReminderMSG());          // Set message content
-					updateStmt.setInt(4, reminderID);  // Target the correct reminder ID
-					updateStmt.executeUpdate();        // Execute the update
-				}
-			} else {
-				// If a reminder for a transaction does not exist, create one
-				// SQL statement to insert new record into the reminder table with transaction ID, employee ID, reminder date, and reminder message
-				String insertSql = "INSERT INTO reminder (transactionID, empID, reminderDate, reminderMSG) VALUES (?, ?, ?, ?)";
-				try (PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
-					
-					// Set parameters for the PreparedStatement from the Reminder object
-					insertStmt.setInt(1, reminder.getTransaction().getTransactionID());
-					insertStmt.setInt(2, reminder.getEmployee().getEmpID());
-					insertStmt.setDate(3, java.sql.Date.valueOf(reminder.getReminderDate()));
-					insertStmt.setString(4, reminder.getReminderMSG());
-					
-					// Execute the insert statement
-					insertStmt.executeUpdate();
+		try (PreparedStatement stmt = conn.prepareStatement(upsertSql(conn))) {
+			bindUpsert(stmt, reminder);
+			stmt.executeUpdate();
+		}
+	}
+
+	// ==================== METHOD: saveReminders ==================== //
+	// Saves many reminders at once (used by ReminderEngine), one per
+	// transaction, with one batched upsert in a single database
+	// transaction. Rows are written in transactionID order so concurrent
+	// batches lock them in the same order. If the connection is in
+	// auto-commit mode the batch runs in its own transaction: a deadlock
+	// or duplicate key race reported by the database rolls it back and
+	// retries it, other failures roll back and are rethrown. Otherwise
+	// the batch joins the caller's transaction and any failure is
+	// rethrown for the caller to roll back. Returns the number of
+	// reminders saved.
+	// ============================================================= //
+	public static int saveReminders(Connection conn, List<Reminder> reminders) throws SQLException {
+		if (reminders.isEmpty()) {
+			return 0;
+		}
+		List<Reminder> sorted = new ArrayList<>(reminders);
+		sorted.sort(Comparator.comparingInt(r -> r.getTransaction().getTransactionID()));
+
+		// Part of the caller's transaction: the caller commits or rolls back
+		if (!conn.getAutoCommit()) {
+			upsertBatch(conn, sorted);
+			return sorted.size();
+		}
+
+		conn.setAutoCommit(false);  // start transaction
+		try {
+			for (int attempt = 1; ; attempt++) {
+				try {
+					upsertBatch(conn, sorted);
+					conn.commit();
+					return sorted.size();
+				} catch (SQLException e) {
+					conn.rollback();
+					if (attempt >= MAX_ATTEMPTS || !isRetryable(e)) {
+						throw e;
+					}
 				}
 			}
+		} finally {
+			conn.setAutoCommit(true);
+		}
+	}
+
+	// Writes the reminders with one batched upsert
+	private static void upsertBatch(Connection conn, List<Reminder> reminders) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement(upsertSql(conn))) {
+			for (Reminder reminder : reminders) {
+				bindUpsert(stmt, reminder);
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+		}
+	}
+
+	// Returns the upsert statement for the connected database
+	private static String upsertSql(Connection conn) throws SQLException {
+		String product = conn.getMetaData().getDatabaseProductName();
+		return "MySQL".equalsIgnoreCase(product) ? MYSQL_UPSERT_SQL : H2_UPSERT_SQL;
+	}
+
+	// Sets the upsert parameters from a reminder
+	private static void bindUpsert(PreparedStatement stmt, Reminder reminder) throws SQLException {
+		stmt.setInt(1, reminder.getTransaction().getTransactionID());
+		stmt.setInt(2, reminder.getEmployee().getEmpID());
+		stmt.setDate(3, java.sql.Date.valueOf(reminder.getReminderDate()));
+		stmt.setString(4, reminder.getReminderMSG());
+	}
+
+	// True for deadlocks (SQLState 40001) and for the duplicate key a
+	// concurrent upsert can hit when both sides insert (SQLState 23505,
+	// or MySQL error 1062). Other constraint violations (23xxx) would
+	// fail the same way again, so they are not retried.
+	private static boolean isRetryable(SQLException e) {
+		for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+			String state = cause.getSQLState();
+			if ("40001".equals(state) || "23505".equals(state) || cause.getErrorCode() == MYSQL_DUPLICATE_KEY) {
+				return true;
+			}
 		}
+		return false;
 	}
 }
@@ -0,0 +1,233 @@
+/**
+ * ReminderEngine.java
+ * Generates and saves reminders for every open loan on a schedule, so
+ * reminders no longer depend on someone clicking "Check Reminder".
+ *
+ * Each run:
+ *   1. Finds every Borrowed transaction that is overdue or due within
+ *      the next daysAhead days, for all employees, with one indexed
+ *      query (TransactionDAO.getBorrowedTransactionsDueBy).
+ *   2. Builds a Reminder for each and runs Reminder.generateReminder()
+ *      over the whole batch in parallel.
+ *   3. Saves the reminders with one batched upsert
+ *      (ReminderDAO.saveReminders), in a single transaction.
+ * It then reports how many reminders it processed and how long the run
+ * took (see RunStats), to the console and to any run listeners.
+ *
+ * Runs happen on a background daemon thread at a fixed delay (the
+ * cadence), and can also be started on demand with runNow().
+ *
+ * This class is implemented using a Singleton design pattern, like
+ * DBConnect; tests create their own instances on H2.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used by a run
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Import date classes for the due date cut-off
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Import collections and concurrency utilities for the scheduled runs
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class ReminderEngine {
+
+	// Default time between runs
+	public static final long DEFAULT_INTERVAL_MS = 3_600_000;
+
+	// Default number of days ahead a loan must be due to get a reminder. Same
+	// window as Reminder.generateReminder(), which treats loans due by
+	// tomorrow as due soon, so every saved reminder asks for a return.
+	public static final int DEFAULT_DAYS_AHEAD = 1;
+
+	private static ReminderEngine instance;   // Singular instance
+
+	private final AsyncService.ConnectionSource connections;   // Source of connections for runs
+	private final int daysAhead;                               // Loans due within this many days get reminders
+	private final ScheduledExecutorService scheduler;          // Background run thread
+
+	// Listeners told about each finished run
+	private final List<Consumer<RunStats>> runListeners = new CopyOnWriteArrayList<>();
+
+	// Metrics
+	private final AtomicLong runCount = new AtomicLong();         // Runs finished
+	private final AtomicLong processedCount = new AtomicLong();   // Reminders saved over all runs
+	private volatile RunStats lastRun;                            // Stats of the latest run (null before the first)
+
+	// Constructor for an engine with its own connection source (used by tests).
+	// An interval of 0 or less turns the scheduled runs off; runNow() still works.
+	public ReminderEngine(AsyncService.ConnectionSource connections, int daysAhead, long intervalMillis) {
+		this.connections = connections;
+		this.daysAhead = daysAhead;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ecs-reminder-engine");
+			t.setDaemon(true);
+			return t;
+		});
+		if (intervalMillis > 0) {
+			scheduler.scheduleWithFixedDelay(this::runQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// Public method to obtain the single instance used by the application.
+	// The first call starts the scheduled runs.
+	public static synchronized ReminderEngine getInstance() {
+		if (instance == null) {
+			instance = new ReminderEngine(() -> DBConnect.getInstance().getConnection(),
+					DEFAULT_DAYS_AHEAD, DEFAULT_INTERVAL_MS);
+		}
+		return instance;
+	}
+
+	// ========================== METHOD: run =========================== //
+	// Runs the engine once on the calling thread and returns its stats.
+	// ================================================================== //
+	public RunStats run() throws SQLException {
+		long start = System.nanoTime();
+		LocalDate today = LocalDate.now();
+
+		try (Connection conn = connections.getConnection()) {
+
+			// 1. Every open loan that is overdue or due soon, in one query
+			List<Transaction> due = TransactionDAO.getBorrowedTransactionsDueBy(conn, today.plusDays(daysAhead));
+
+			// 2. One reminder per loan, messages generated in parallel
+			List<Reminder> reminders = new ArrayList<>(due.size());
+			for (Transaction txn : due) {
+				Reminder reminder = new Reminder(txn.getEmployee(), txn);
+				reminder.setReminderDate(today);
+				reminders.add(reminder);
+			}
+			reminders.parallelStream().forEach(Reminder::generateReminder);
+
+			// 3. Save them all in one transaction
+			int saved = ReminderDAO.saveReminders(conn, reminders);
+
+			int overdue = 0;
+			for (Transaction txn : due) {
+				if (txn.getExpectedReturnDate().isBefore(today)) {
+					overdue++;
+				}
+			}
+
+			RunStats stats = new RunStats(saved, overdue,
+					(System.nanoTime() - start) / 1_000_000, LocalDateTime.now());
+			finish(stats);
+			return stats;
+		}
+	}
+
+	// ========================= METHOD: runNow ========================= //
+	// Queues a run on the engine's thread (after any run in progress)
+	// and returns its stats when it is done.
+	// ================================================================== //
+	public CompletableFuture<RunStats> runNow() {
+		CompletableFuture<RunStats> result = new CompletableFuture<>();
+		scheduler.execute(() -> {
+			try {
+				result.complete(run());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	// Registers a listener that is called, on the running thread, after each run
+	public void addRunListener(Consumer<RunStats> listener) {
+		runListeners.add(listener);
+	}
+
+	// Stats of the latest run, or null if the engine has not run yet
+	public RunStats getLastRun() {
+		return lastRun;
+	}
+
+	// Number of runs finished so far
+	public long getRunCount() {
+		return runCount.get();
+	}
+
+	// Number of reminders saved over all runs
+	public long getProcessedCount() {
+		return processedCount.get();
+	}
+
+	// Stops the scheduled runs
+	public void shutdown() {
+		scheduler.shutdownNow();
+	}
+
+	// Records a finished run and tells the listeners
+	private void finish(RunStats stats) {
+		lastRun = stats;
+		runCount.incrementAndGet();
+		processedCount.addAndGet(stats.getProcessed());
+		System.out.println(stats);
+		for (Consumer<RunStats> listener : runListeners) {
+			listener.accept(stats);
+		}
+	}
+
+	// Scheduled run; errors are logged and the next run tries again (an
+	// exception escaping here would cancel every later scheduled run)
+	private void runQuietly() {
+		try {
+			run();
+		} catch (SQLException | RuntimeException e) {
+			e.printStackTrace();
+			System.out.println("Reminder run failed");
+		}
+	}
+
+	// ======================== CLASS: RunStats ======================== //
+	// What one run of the engine did
+	// ================================================================= //
+	public static class RunStats {
+
+		private final int processed;            // Reminders generated and saved
+		private final int overdue;              // Of those, loans already overdue
+		private final long durationMillis;      // Time the run took
+		private final LocalDateTime finishedAt; // When the run finished
+
+		RunStats(int processed, int overdue, long durationMillis, LocalDateTime finishedAt) {
+			this.processed = processed;
+			this.overdue = overdue;
+			this.durationMillis = durationMillis;
+			this.finishedAt = finishedAt;
+		}
+
+		public int getProcessed() {
+			return processed;
+		}
+
+		public int getOverdue() {
+			return overdue;
+		}
+
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		public LocalDateTime getFinishedAt() {
+			return finishedAt;
+		}
+
+		@Override
+		public String toString() {
+			return "Reminder run: " + processed + " reminders (" + overdue + " overdue) in " + durationMillis + " ms";
+		}
+	}
+}
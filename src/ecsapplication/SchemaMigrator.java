@@ -0,0 +1,455 @@
+/**
+ * SchemaMigrator.java
+ * Applies versioned schema changes to the ECS database on startup.
+ *
+ * The base schema comes from the MySQL dump in the sql folder. Every
+ * change made after that dump is listed here as a numbered migration.
+ * The versions that have been applied are recorded in the
+ * schema_version table, so each migration runs exactly once per
+ * database, in version order. DBConnect runs the migrator when the
+ * connection pool is created; tests run it against H2 the same way.
+ *
+ * Migrations are written in SQL that both MySQL and H2 understand.
+ * To change the schema, add a new migration with the next version
+ * number; never edit one that has already been released.
+ *
+ * Several copies of the application may start at the same time, so
+ * migrate() holds a database lock while it applies migrations: a named
+ * lock (GET_LOCK) on MySQL, which the server releases if the connection
+ * drops, and a row in the schema_lock table on other databases (H2).
+ * A copy that finds the lock taken waits for it, then re-reads
+ * schema_version and applies only what is still missing.
+ *
+ * MySQL commits every DDL statement on its own, so a migration that
+ * fails halfway cannot be rolled back. Each step is therefore safe to
+ * run again: tables, columns and indexes are only created if they do
+ * not exist yet, and data changes (backfills, clean-ups) give the same
+ * result when repeated. After a failure, fix the cause and restart;
+ * the failed migration runs again from its first step. If an H2 copy
+ * died while migrating and left its lock row behind, delete the row
+ * from schema_lock.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes used to run and record migrations
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+// Import collection framework
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class SchemaMigrator {
+
+	// Table that records which migrations have been applied
+	public static final String VERSION_TABLE = "schema_version";
+
+	// Table holding the migration lock row on databases other than MySQL
+	public static final String LOCK_TABLE = "schema_lock";
+
+	// Name of the MySQL lock held while migrating
+	private static final String MYSQL_LOCK_NAME = "ecs_schema_migration";
+
+	// Longest wait for another copy of the application to finish migrating
+	public static final int LOCK_WAIT_SECONDS = 60;
+
+	// ======================================================================
+	// Migrations, in version order
+	// ======================================================================
+	private static final List<Migration> MIGRATIONS = List.of(
+
+		// Keep each item's last known return condition on the equipment row
+		// (read by EquipmentDAO.getAvailableEquipmentBySkill) and backfill it
+		// from the most recent returned transaction
+		new Migration(1, "equipment last return condition",
+			addColumn("equipment", "lastReturnCondition",
+				"ALTER TABLE equipment ADD COLUMN lastReturnCondition ENUM('Good','Damaged','Lost') NULL"),
+			sql("""
+			UPDATE equipment eq
+			SET lastReturnCondition = (
+			    SELECT t.returnCondition
+			    FROM transaction t
+			    WHERE t.equipmentID = eq.equipmentID
+			      AND t.transactionStatus = 'Returned'
+			    ORDER BY t.transactionID DESC
+			    LIMIT 1
+			)
+			""")),
+
+		// Composite indexes for the hot query predicates:
+		//   available equipment by skill (checkout and order dialogs),
+		//   an employee's open loans (reminders, view record),
+		//   an item's loans by status (latest return / open loan checks)
+		// (loans due by a date are indexed by V4)
+		new Migration(2, "hot query indexes",
+			createIndex("equipment", "idx_equipment_status_skill",
+				"CREATE INDEX idx_equipment_status_skill ON equipment (equipStatus, requiredSkill)"),
+			createIndex("transaction", "idx_transaction_emp_status",
+				"CREATE INDEX idx_transaction_emp_status ON transaction (empID, transactionStatus)"),
+			createIndex("transaction", "idx_transaction_equipment_status",
+				"CREATE INDEX idx_transaction_equipment_status ON transaction (equipmentID, transactionStatus, transactionID)")),
+
+		// Row version for optimistic concurrency on checkout (see CheckoutService);
+		// every write to an equipment row increments it
+		new Migration(3, "equipment row version",
+			addColumn("equipment", "rowVersion",
+				"ALTER TABLE equipment ADD COLUMN rowVersion INT NOT NULL DEFAULT 0")),
+
+		// Open loans due by a date (see ReminderEngine), status first so only
+		// the open loans are read, not the returned history
+		new Migration(4, "open loans due index",
+			createIndex("transaction", "idx_transaction_status_due",
+				"CREATE INDEX idx_transaction_status_due ON transaction (transactionStatus, expectedReturnDate)")),
+
+		// At most one reminder per transaction, so ReminderDAO can upsert on it.
+		// Duplicates left by the old select-then-insert save keep their newest row.
+		new Migration(5, "unique reminder per transaction",
+			sql("""
+			DELETE FROM reminder
+			WHERE reminderID NOT IN (
+			    SELECT keepID FROM (
+			        SELECT MAX(reminderID) AS keepID FROM reminder GROUP BY transactionID
+			    ) newest
+			)
+			"""),
+			createIndex("reminder", "uq_reminder_transaction",
+				"CREATE UNIQUE INDEX uq_reminder_transaction ON reminder (transactionID)")),
+
+		// Outbox of state changes, written in the same database transaction as
+		// each checkout, return, order and cancellation (see OutboxDAO) and read
+		// in eventID order by OutboxRelay; createdAt is indexed for the clean-up
+		new Migration(6, "event outbox",
+			createTable("event_outbox", """
+			CREATE TABLE event_outbox (
+			    eventID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+			    eventType VARCHAR(20) NOT NULL,
+			    equipmentID INT NOT NULL,
+			    equipStatus VARCHAR(20) NOT NULL,
+			    transactionID INT NULL,
+			    orderID INT NULL,
+			    empID INT NULL,
+			    equipCondition VARCHAR(15) NULL,
+			    createdAt TIMESTAMP NOT NULL
+			)
+			"""),
+			createIndex("event_outbox", "idx_event_outbox_created",
+				"CREATE INDEX idx_event_outbox_created ON event_outbox (createdAt)"))
+	);
+
+	// ========================= METHOD: migrate ======================== //
+	// Applies every migration that has not been applied to this database
+	// yet, in version order, and records each one in schema_version.
+	// Returns the number of migrations applied. Stops at the first
+	// failure and throws, leaving it and later migrations for the next
+	// start. Waits (up to LOCK_WAIT_SECONDS) while another connection
+	// is migrating the same database.
+	// ================================================================== //
+	public static int migrate(Connection conn) throws SQLException {
+
+		// Create the version table the first time the app starts on a database
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " ("
+					+ "version INT NOT NULL PRIMARY KEY, "
+					+ "description VARCHAR(200) NOT NULL, "
+					+ "appliedOn TIMESTAMP NOT NULL)");
+		}
+
+		// Only one connection migrates at a time; the versions are read under the lock
+		acquireLock(conn);
+		try {
+			return applyPending(conn);
+		} finally {
+			releaseLock(conn);
+		}
+	}
+
+	// Applies the migrations missing from schema_version (called under the lock)
+	private static int applyPending(Connection conn) throws SQLException {
+		Set<Integer> applied = getAppliedVersions(conn);
+		int count = 0;
+
+		for (Migration migration : MIGRATIONS) {
+			if (applied.contains(migration.version)) {
+				continue;
+			}
+
+			// Run every step of the migration
+			try {
+				for (Step step : migration.steps) {
+					step.apply(conn);
+				}
+			} catch (SQLException e) {
+				if (!conn.getAutoCommit()) {
+					conn.rollback();
+				}
+				throw new SQLException("Schema migration V" + migration.version
+						+ " (" + migration.description + ") failed", e);
+			}
+
+			// Record the migration as applied
+			String insertSQL = "INSERT INTO " + VERSION_TABLE + " (version, description, appliedOn) VALUES (?, ?, ?)";
+			try (PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
+				stmt.setInt(1, migration.version);
+				stmt.setString(2, migration.description);
+				stmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+				stmt.executeUpdate();
+			}
+
+			// Commit if the caller turned auto-commit off
+			commitIfNeeded(conn);
+
+			System.out.println("Applied schema migration V" + migration.version + ": " + migration.description);
+			count++;
+		}
+		return count;
+	}
+
+	// ===================== METHOD: getCurrentVersion ================== //
+	// Returns the highest migration version applied to the database,
+	// or 0 if none has been applied (or the version table is missing).
+	// ================================================================== //
+	public static int getCurrentVersion(Connection conn) throws SQLException {
+		int current = 0;
+		for (int version : getAppliedVersions(conn)) {
+			current = Math.max(current, version);
+		}
+		return current;
+	}
+
+	// Returns the latest version known to this build of the application
+	public static int getLatestVersion() {
+		return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+	}
+
+	// Reads the versions recorded in schema_version
+	private static Set<Integer> getAppliedVersions(Connection conn) throws SQLException {
+		Set<Integer> versions = new HashSet<>();
+
+		// No version table yet means nothing has been applied
+		if (!tableExists(conn, VERSION_TABLE)) {
+			return versions;
+		}
+
+		try (PreparedStatement stmt = conn.prepareStatement("SELECT version FROM " + VERSION_TABLE);
+				ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				versions.add(rs.getInt(1));
+			}
+		}
+		return versions;
+	}
+
+	// ======================================================================
+	// Lock
+	// ======================================================================
+
+	// ======================= METHOD: acquireLock ====================== //
+	// Takes the migration lock, waiting up to LOCK_WAIT_SECONDS for
+	// another connection to release it. Throws if the wait runs out.
+	// ================================================================== //
+	private static void acquireLock(Connection conn) throws SQLException {
+		if (isMySQL(conn)) {
+			try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+				stmt.setString(1, MYSQL_LOCK_NAME);
+				stmt.setInt(2, LOCK_WAIT_SECONDS);
+				try (ResultSet rs = stmt.executeQuery()) {
+					if (rs.next() && rs.getInt(1) == 1) {
+						return;
+					}
+				}
+			}
+			throw new SQLException("Timed out waiting for another schema migration to finish");
+		}
+
+		// Elsewhere the lock is the single row of the lock table (its primary key admits one holder)
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("CREATE TABLE IF NOT EXISTS " + LOCK_TABLE + " ("
+					+ "lockID INT NOT NULL PRIMARY KEY, "
+					+ "lockedAt TIMESTAMP NOT NULL)");
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LOCK_WAIT_SECONDS);
+		String insertSQL = "INSERT INTO " + LOCK_TABLE + " (lockID, lockedAt) VALUES (1, ?)";
+		while (true) {
+			try (PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
+				stmt.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+				stmt.executeUpdate();
+				commitIfNeeded(conn);
+				return;
+			} catch (SQLException e) {
+				if (!conn.getAutoCommit()) {
+					conn.rollback();
+				}
+				String state = e.getSQLState();
+				if (state == null || !state.startsWith("23")) {
+					throw e;
+				}
+			}
+
+			// Taken by another connection: wait and try again
+			if (System.nanoTime() > deadline) {
+				throw new SQLException("Timed out waiting for another schema migration to finish; "
+						+ "if no other copy is starting, delete the row from " + LOCK_TABLE);
+			}
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("Interrupted while waiting for the schema migration lock", e);
+			}
+		}
+	}
+
+	// Releases the migration lock taken by acquireLock()
+	private static void releaseLock(Connection conn) throws SQLException {
+		if (isMySQL(conn)) {
+			try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+				stmt.setString(1, MYSQL_LOCK_NAME);
+				stmt.executeQuery().close();
+			}
+			return;
+		}
+		try (Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate("DELETE FROM " + LOCK_TABLE + " WHERE lockID = 1");
+		}
+		commitIfNeeded(conn);
+	}
+
+	// True if the connection is to MySQL (same check as ReminderDAO)
+	private static boolean isMySQL(Connection conn) throws SQLException {
+		return "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+	}
+
+	// Commits if the caller turned auto-commit off
+	private static void commitIfNeeded(Connection conn) throws SQLException {
+		if (!conn.getAutoCommit()) {
+			conn.commit();
+		}
+	}
+
+	// ======================================================================
+	// Schema lookups (in the connection's own catalog and schema)
+	// ======================================================================
+
+	// True if the table exists
+	private static boolean tableExists(Connection conn, String table) throws SQLException {
+		DatabaseMetaData meta = conn.getMetaData();
+		try (ResultSet rs = meta.getTables(conn.getCatalog(), conn.getSchema(), metadataName(meta, table),
+				new String[] { "TABLE" })) {
+			while (rs.next()) {
+				if (table.equalsIgnoreCase(rs.getString("TABLE_NAME"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// True if the table has the column
+	private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+		DatabaseMetaData meta = conn.getMetaData();
+		try (ResultSet rs = meta.getColumns(conn.getCatalog(), conn.getSchema(), metadataName(meta, table),
+				metadataName(meta, column))) {
+			while (rs.next()) {
+				if (table.equalsIgnoreCase(rs.getString("TABLE_NAME")) && column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// True if the table has an index with this name
+	private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+		DatabaseMetaData meta = conn.getMetaData();
+		try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), conn.getSchema(), metadataName(meta, table), false, true)) {
+			while (rs.next()) {
+				if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// Converts an unquoted name to the case the database stores it in (upper case in H2)
+	private static String metadataName(DatabaseMetaData meta, String name) throws SQLException {
+		if (meta.storesUpperCaseIdentifiers()) {
+			return name.toUpperCase(Locale.ROOT);
+		}
+		if (meta.storesLowerCaseIdentifiers()) {
+			return name.toLowerCase(Locale.ROOT);
+		}
+		return name;
+	}
+
+	// ======================================================================
+	// Steps
+	// ======================================================================
+
+	// Step that always runs (for data changes that are safe to repeat)
+	private static Step sql(String sql) {
+		return conn -> {
+			try (Statement stmt = conn.createStatement()) {
+				stmt.execute(sql);
+			}
+		};
+	}
+
+	// Step that runs the DDL only if the table does not exist yet
+	private static Step createTable(String table, String ddl) {
+		return conn -> {
+			if (!tableExists(conn, table)) {
+				sql(ddl).apply(conn);
+			}
+		};
+	}
+
+	// Step that runs the DDL only if the table does not have the column yet
+	private static Step addColumn(String table, String column, String ddl) {
+		return conn -> {
+			if (!columnExists(conn, table, column)) {
+				sql(ddl).apply(conn);
+			}
+		};
+	}
+
+	// Step that runs the DDL only if the table does not have the index yet
+	private static Step createIndex(String table, String index, String ddl) {
+		return conn -> {
+			if (!indexExists(conn, table, index)) {
+				sql(ddl).apply(conn);
+			}
+		};
+	}
+
+	// One step of a migration; must be safe to run again after a failure
+	@FunctionalInterface
+	private interface Step {
+		void apply(Connection conn) throws SQLException;
+	}
+
+	// ======================= CLASS: Migration ======================= //
+	// One numbered schema change made of one or more steps
+	// ================================================================ //
+	private static final class Migration {
+
+		private final int version;             // Version number (applied in ascending order)
+		private final String description;      // Short description stored in schema_version
+		private final Step[] steps;            // Steps to run, in order
+
+		Migration(int version, String description, Step... steps) {
+			this.version = version;
+			this.description = description;
+			this.steps = steps;
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/**
+ * StatementCache.java
+ * An LRU cache of PreparedStatements that belongs to one pooled physical
+ * connection. Statements are keyed by their SQL text, so a DAO that calls
+ * conn.prepareStatement(sql) with the same SQL again receives the statement
+ * that was already prepared on that connection instead of a new one.
+ *
+ * The cache is transparent to the DAOs: the statement handed out is a
+ * proxy whose close() clears its parameters and puts it back in the cache
+ * rather than closing it. A statement that is still in use when the same
+ * SQL is prepared again (e.g., a nested DAO call) is bypassed, and a fresh,
+ * uncached statement is returned instead.
+ */
+
+package ecsapplication;
+
+// Import JDBC classes for statements and result sets
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Import reflection classes used to build the cached statement handle
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+// Import collection framework and atomic counters
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StatementCache {
+
+	// Value used for autoGeneratedKeys when the plain prepareStatement(sql) variant is used
+	static final int NO_GENERATED_KEYS_FLAG = -1;
+
+	private final Connection physical;   // Connection the statements are prepared on
+	private final int maxSize;           // Maximum number of cached statements
+
+	// Counters shared by every cache in the pool
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private final AtomicLong evictions;
+
+	// Cached statements in access order (least recently used first)
+	private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+	// Constructor
+	StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+		this.physical = physical;
+		this.maxSize = maxSize;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+	}
+
+	// ======================= METHOD: prepare ======================= //
+	// Returns a statement for the given SQL. A cached statement that is
+	// not currently in use is reused (hit); otherwise a new statement is
+	// prepared (miss) and, if the SQL is not cached yet, added to the
+	// cache, evicting the least recently used entry when it is full.
+	// =============================================================== //
+	PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+
+		// Statements prepared with and without generated keys are different statements
+		String key = autoGeneratedKeys == NO_GENERATED_KEYS_FLAG ? sql : autoGeneratedKeys + ":" + sql;
+
+		CachedStatement cached = statements.get(key);
+		if (cached != null && !cached.inUse) {
+			hits.incrementAndGet();
+			cached.inUse = true;
+			return cached.checkOut(owner);
+		}
+
+		misses.incrementAndGet();
+		PreparedStatement stmt = autoGeneratedKeys == NO_GENERATED_KEYS_FLAG
+				? physical.prepareStatement(sql)
+				: physical.prepareStatement(sql, autoGeneratedKeys);
+
+		// Same SQL already checked out (nested call): hand out a plain, uncached statement
+		if (cached != null) {
+			return stmt;
+		}
+
+		CachedStatement entry = new CachedStatement(key, stmt);
+		entry.inUse = true;
+		statements.put(key, entry);
+		evictEldest();
+		return entry.checkOut(owner);
+	}
+
+	// Removes least recently used statements until the cache fits maxSize
+	private void evictEldest() {
+		Iterator<CachedStatement> it = statements.values().iterator();
+		while (statements.size() > maxSize && it.hasNext()) {
+			CachedStatement eldest = it.next();
+			it.remove();
+			evictions.incrementAndGet();
+			eldest.evicted = true;
+
+			// Statements still in use are closed when their borrower closes them
+			if (!eldest.inUse) {
+				closeQuietly(eldest.physical);
+			}
+		}
+	}
+
+	// Closes every cached statement (called when the physical connection is closed)
+	void closeAll() {
+		List<CachedStatement> all = new ArrayList<>(statements.values());
+		statements.clear();
+		for (CachedStatement cs : all) {
+			cs.evicted = true;
+			closeQuietly(cs.physical);
+		}
+	}
+
+	// Number of statements currently cached
+	int size() {
+		return statements.size();
+	}
+
+	// Closes a statement, printing any error
+	private static void closeQuietly(PreparedStatement stmt) {
+		try {
+			stmt.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	// ====================== CLASS: CachedStatement ====================== //
+	// One cached physical statement. Each checkout creates a new handle so
+	// a statement that was closed by one caller cannot be used by mistake
+	// after it has been handed to another.
+	// ==================================================================== //
+	private class CachedStatement {
+
+		private final String key;                  // Cache key (SQL text)
+		private final PreparedStatement physical;  // Underlying statement
+		private boolean inUse;                     // Checked out by a caller
+		private boolean evicted;                   // Removed from the cache while checked out
+
+		CachedStatement(String key, PreparedStatement physical) {
+			this.key = key;
+			this.physical = physical;
+		}
+
+		// Creates a new handle for a caller
+		PreparedStatement checkOut(Connection owner) {
+			return (PreparedStatement) Proxy.newProxyInstance(
+					PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class },
+					new Handle(owner));
+		}
+
+		// Resets the statement and makes it available again
+		void checkIn(List<ResultSet> openResults) {
+			try {
+				for (ResultSet rs : openResults) {
+					rs.close();
+				}
+				physical.clearParameters();
+				physical.clearBatch();
+			} catch (SQLException e) {
+				// A statement that cannot be reset is dropped from the cache
+				e.printStackTrace();
+				statements.remove(key, this);
+				evicted = true;
+			}
+
+			inUse = false;
+			if (evicted) {
+				closeQuietly(physical);
+			}
+		}
+
+		// Handler for a single checkout of this statement
+		private class Handle implements InvocationHandler {
+
+			private final Connection owner;                            // Pooled connection handle
+			private final List<ResultSet> openResults = new ArrayList<>();  // Result sets to close on check-in
+			private boolean returned;
+
+			Handle(Connection owner) {
+				this.owner = owner;
+			}
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				switch (method.getName()) {
+				case "close":
+					// Give the statement back to the cache (only the first close counts)
+					if (!returned) {
+						returned = true;
+						checkIn(openResults);
+					}
+					return null;
+				case "isClosed":
+					return returned || physical.isClosed();
+				case "getConnection":
+					return owner;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "CachedStatement[" + key + "]";
+				default:
+					break;
+				}
+
+				if (returned) {
+					throw new SQLException("Statement has already been closed");
+				}
+
+				// Forward to the physical statement, remembering result sets so they are closed on check-in
+				try {
+					Object result = method.invoke(physical, args);
+					if (result instanceof ResultSet) {
+						openResults.add((ResultSet) result);
+					}
+					return result;
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		}
+	}
+}
@@ -116,11 +116,10 @@ public class Transaction implements Subject {
 	@Override
 	public void notifyObservers() {
 		
-		// Iterate through the list of observers
-		for(Observer observer : observers) {
-			
-			// Notify all related observers of the change in state (e.g., Reminder)
-			observer.update(this);
+		// Notify all related observers of the change in state (e.g., Reminder) through the
+		// event bus, which calls them in the background so this thread never waits for them
+		if (!observers.isEmpty()) {
+			EventBus.getInstance().publish(this, new ArrayList<>(observers));
 		}
 	}
 	
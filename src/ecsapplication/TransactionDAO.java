@@ -16,9 +16,18 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import ecsapplication.enums.EquipmentCondition;
 import ecsapplication.enums.EquipmentStatus;
@@ -28,6 +37,58 @@ import ecsapplication.enums.TransactionStatus;
 
 public class TransactionDAO {
 
+	// Columns selected by joined transaction queries that are mapped with mapJoinedTransaction()
+	// Requires the aliases t (transaction), e (employee), and eq (equipment)
+	static final String JOINED_TRANSACTION_COLUMNS =
+			"t.transactionID, t.empID, t.equipmentID, t.borrowDate, t.expectedReturnDate, t.returnDate, " +
+			"t.transactionStatus, t.returnCondition, t.checkoutCondition, " +
+			"e.empName, e.skillClassification, " +
+			"eq.equipmentName, eq.equipmentCondition, eq.equipStatus, eq.requiredSkill ";
+
+	// SELECT and joins shared by getAllTransactions, getTransactionsPage and streamAllTransactions
+	// Rows are mapped with mapTransactionWithOrder()
+	private static final String ALL_TRANSACTIONS_SELECT =
+			"SELECT t.transactionID, t.empID, t.equipmentID, t.orderID, t.returnDate, " +
+			"t.borrowDate, t.expectedReturnDate, t.transactionStatus, t.returnCondition, t.checkoutCondition, " +
+			"e.empName, e.skillClassification, " +
+			"eq.equipmentName, eq.equipmentCondition, eq.equipStatus, eq.requiredSkill, " +
+			"o.orderDate AS orderDate, o.orderStatus, o.pickUpDate " +
+			"FROM transaction t " +
+			"JOIN employee e ON t.empID = e.empID " +
+			"JOIN equipment eq ON t.equipmentID = eq.equipmentID " +
+			"LEFT JOIN `order` o ON t.orderID = o.orderID ";
+
+	// Rows fetched per network round trip when streaming (drivers other than MySQL)
+	private static final int STREAM_FETCH_SIZE = 500;
+
+	// Columns the transaction history can be sorted by on the server,
+	// in the same order as the columns of the Transactions table
+	public enum SortColumn {
+		TRANSACTION_ID("t.transactionID", t -> t.getTransactionID()),
+		EMPLOYEE_NAME("e.empName", t -> t.getEmployee().getEmpName()),
+		EMPLOYEE_SKILL("e.skillClassification", t -> t.getEmployee().getSkillClassification().name()),
+		EQUIPMENT_NAME("eq.equipmentName", t -> t.getEquipment().getEquipmentName()),
+		REQUIRED_SKILL("eq.requiredSkill", t -> t.getEquipment().getRequiredSkill().name()),
+		CHECKOUT_CONDITION("t.checkoutCondition", t -> t.getCheckoutCondition() != null ? t.getCheckoutCondition().name() : null),
+		RETURN_CONDITION("t.returnCondition", t -> t.getReturnCondition() != null ? t.getReturnCondition().name() : null),
+		BORROW_DATE("t.borrowDate", t -> t.getBorrowDate()),
+		EXPECTED_RETURN_DATE("t.expectedReturnDate", t -> t.getExpectedReturnDate()),
+		TRANSACTION_STATUS("t.transactionStatus", t -> t.getTransactionStatus().name());
+
+		private final String expression;                  // SQL expression used in ORDER BY
+		private final Function<Transaction, Object> key;  // Same value, read from a loaded transaction
+
+		SortColumn(String expression, Function<Transaction, Object> key) {
+			this.expression = expression;
+			this.key = key;
+		}
+
+		// Position after a transaction in this sort order (see getTransactionsPage)
+		public Keyset keysetOf(Transaction t) {
+			return new Keyset(key.apply(t), t.getTransactionID());
+		}
+	}
+
 	// ================ METHOD: getTransactionsByID ================ // 
 	// Get transaction by ID (joins Employee, Equipment, Order data)
 	// ============================================================= //
@@ -116,6 +177,8 @@ public class TransactionDAO {
 	// ====================== METHOD: getAllTransactions ==================== //
 	// Retrieves all transactions along with related employees, equipment,
 	// and order details. Helps provide a complete view of system activity.
+	// Loads every row into memory; use getTransactionsPage() or
+	// streamAllTransactions() when the history may be large.
 	// ====================================================================== //
 	public static List<Transaction> getAllTransactions(Connection conn) throws SQLException {
 
@@ -123,16 +186,10 @@ public class TransactionDAO {
 		List<Transaction> txns = new ArrayList<>();
 
 		// SQL query to retrieve all transaction data
-		String strSQL = "SELECT t.transactionID, t.empID, t.equipmentID, t.orderID, t.returnDate, " +
-				"t.borrowDate, t.expectedReturnDate, t.transactionStatus, t.returnCondition, t.checkoutCondition, " +
-				"e.empName, e.skillClassification, " +
-				"eq.equipmentName, eq.equipmentCondition, eq.equipStatus, eq.requiredSkill, " +
-				"o.orderDate AS orderDate, o.orderStatus, o.pickUpDate " +
-				"FROM transaction t " +
-				"JOIN employee e ON t.empID = e.empID " +
-				"JOIN equipment eq ON t.equipmentID = eq.equipmentID " +
-				"LEFT JOIN `order` o ON t.orderID = o.orderID " +
-				"ORDER BY t.transactionID ASC";
+		String strSQL = ALL_TRANSACTIONS_SELECT + "ORDER BY t.transactionID ASC";
+
+		// Employees already built during this call
+		Map<Integer, Employee> employees = new HashMap<>();
 
 		// Try-with-resources ensures that rs and stmt are auto-closed
 		try (PreparedStatement stmt = conn.prepareStatement(strSQL);
@@ -141,82 +198,369 @@ public class TransactionDAO {
 			// Iterate through every row of the result set (1 row = 1 transaction record)
 			while (rs.next()) {
 
-				// Create a new Employee object from the query results
-				Employee employee = new Employee(
-						rs.getInt("empID"),
-						rs.getString("empName"),
-						SkillClassification.valueOf(rs.getString("skillClassification"))
-						);
+				// Add transaction to list of transactions
+				txns.add(mapTransactionWithOrder(rs, employees));
+			}
+		}
 
-				// Create a new Equipment object
-				Equipment eq = new Equipment(
-						rs.getInt("equipmentID"),
-						rs.getString("equipmentName"),
-						null,       // Equipment condition set to null so it does not overwrite equipment conditions
-						EquipmentStatus.valueOf(rs.getString("equipStatus")),
-						SkillClassification.valueOf(rs.getString("requiredSkill"))
-						);
+		// Return the transactions list
+		return txns;
+	}
 
-				// Order object is optional; default null until proven otherwise
-				Order order = null;
-				int orderID = rs.getInt("orderID");
+	// ===================== METHOD: getTransactionsPage ==================== //
+	// Keyset pagination over all transactions. Returns at most 'limit'
+	// transactions whose ID is greater than 'afterTransactionID', ordered by
+	// ID. Pass 0 for the first page, then the last ID of each page to get
+	// the next one. Unlike OFFSET paging, every page costs the same no
+	// matter how deep into the history it is.
+	// ====================================================================== //
+	public static List<Transaction> getTransactionsPage(Connection conn, int afterTransactionID, int limit) throws SQLException {
+		return getTransactionsPage(conn, afterTransactionID, limit, true);
+	}
 
-				// Only construct Order if order ID is not null in DB
-				if (!rs.wasNull()) {
+	// Keyset page in either direction. When descending, returns transactions
+	// whose ID is less than 'afterTransactionID' (pass Integer.MAX_VALUE for
+	// the first page), newest first.
+	public static List<Transaction> getTransactionsPage(Connection conn, int afterTransactionID, int limit,
+			boolean ascending) throws SQLException {
 
-					// Convert orderDate safely: if DB column is not null, then convert to LocalDate; otherwise stay null
-					LocalDate orderDate = rs.getDate("orderDate") != null
-							? rs.getDate("orderDate").toLocalDate() : null;
+		// SQL query to retrieve the next page of transactions after the given key
+		String strSQL = ALL_TRANSACTIONS_SELECT +
+				(ascending ? "WHERE t.transactionID > ? ORDER BY t.transactionID ASC "
+						: "WHERE t.transactionID < ? ORDER BY t.transactionID DESC ") +
+				"LIMIT ?";
 
-					// Convert orderStatus safely: if DB column is not null, then map to Enum; otherwise stay null
-					OrderStatus orderStatus = rs.getString("orderStatus") != null
-							? OrderStatus.valueOf(rs.getString("orderStatus")) : null;
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
 
-					// Convert pickUpDate safely: if DB column is not null, then convert to LocalDate; otherwise stay null
-					LocalDate pickUpDate = rs.getDate("pickUpDate") != null
-							? rs.getDate("pickUpDate").toLocalDate() : null;
+			// Bind the keyset position and page size
+			stmt.setInt(1, afterTransactionID);
+			stmt.setInt(2, limit);
+			return readPage(stmt, limit);
+		}
+	}
 
-					// Create the Order object with relevant fields
-					order = new Order(orderID, eq, null, orderDate, orderStatus, pickUpDate, null);
-				}
+	// ===================== METHOD: getTransactionsPage ==================== //
+	// Keyset page for any sortable column. Rows are ordered by the column
+	// and then by ID, so the order is stable between pages. Returns at most
+	// 'limit' transactions after the given position (null for the first
+	// page); pass sort.keysetOf() of the last row to get the next page.
+	// ====================================================================== //
+	public static List<Transaction> getTransactionsPage(Connection conn, SortColumn sort, boolean ascending,
+			Keyset after, int limit) throws SQLException {
 
-				// Create a new Transaction object composed of employee, equipment, and optional order
-				// Defensive checks ensure safe conversion of DB fields to Java types
-				Transaction txn = new Transaction(
-						rs.getInt("transactionID"),     // Transaction ID from DB
-						employee,                       // Associated Employee object
-						eq,                             // Associated Equipment object
-						order,                          // Associated Order object (may be null)
-						rs.getDate("orderDate") != null ? rs.getDate("orderDate").toLocalDate() : null,   // Convert to LocalDate if not null
-						rs.getDate("borrowDate") != null ? rs.getDate("borrowDate").toLocalDate() : null, // Borrow date (nullable)
-						rs.getDate("expectedReturnDate") != null ? rs.getDate("expectedReturnDate").toLocalDate() : null,  // Expected return date (nullable)
-						TransactionStatus.valueOf(rs.getString("transactionStatus")),                     // Transaction status
-						rs.getString("returnCondition") != null ? EquipmentCondition.valueOf(rs.getString("returnCondition")) : null,    // Return condition (nullable)
-						rs.getString("checkoutCondition") != null ? EquipmentCondition.valueOf(rs.getString("checkoutCondition")) : null // Checkout condition (nullable)
-						);
+		// Column expressions come from the SortColumn enum, never from user input
+		String id = SortColumn.TRANSACTION_ID.expression;
+		String strSQL = ALL_TRANSACTIONS_SELECT +
+				(after != null ? "WHERE " + after.condition(sort.expression, id, ascending) : "") +
+				Keyset.orderBy(sort.expression, id, ascending) + " LIMIT ?";
 
-				// Set returnDate if exists
-				if (rs.getDate("returnDate") != null) {
-					txn.setReturnDate(rs.getDate("returnDate").toLocalDate());
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+
+			// Bind the keyset position and page size
+			int index = after != null ? after.bind(stmt, 1, sort.expression, id) : 1;
+			stmt.setInt(index, limit);
+			return readPage(stmt, limit);
+		}
+	}
+
+	// ======================= METHOD: seekTransactions ===================== //
+	// Walks forward over up to 'rows' transactions after the given position
+	// (null for the start) in the order of getTransactionsPage(), reading
+	// only the sort key and ID, and returns the position after every
+	// 'every'-th row. Used to find where a page starts when the table jumps
+	// to it without having loaded the pages before it.
+	// ====================================================================== //
+	public static List<Keyset> seekTransactions(Connection conn, SortColumn sort, boolean ascending,
+			Keyset after, int rows, int every) throws SQLException {
+
+		// Only the sort key and ID are read, so the joins are kept only when the key needs them
+		String id = SortColumn.TRANSACTION_ID.expression;
+		String strSQL = "SELECT " + sort.expression + ", " + id + " " +
+				"FROM transaction t " +
+				(sort.expression.startsWith("e.") ? "JOIN employee e ON t.empID = e.empID " : "") +
+				(sort.expression.startsWith("eq.") ? "JOIN equipment eq ON t.equipmentID = eq.equipmentID " : "") +
+				(after != null ? "WHERE " + after.condition(sort.expression, id, ascending) : "") +
+				Keyset.orderBy(sort.expression, id, ascending) + " LIMIT ?";
+
+		List<Keyset> positions = new ArrayList<>(rows / Math.max(every, 1));
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			int index = after != null ? after.bind(stmt, 1, sort.expression, id) : 1;
+			stmt.setInt(index, rows);
+			stmt.setFetchSize(streamingFetchSize(conn));
+			try (ResultSet rs = stmt.executeQuery()) {
+				int read = 0;
+				while (rs.next()) {
+					if (++read % every == 0) {
+						positions.add(Keyset.read(rs));
+					}
 				}
+			}
+		}
+		return positions;
+	}
 
-				// Add transaction to list of transactions
-				txns.add(txn);
+	// ===================== METHOD: countTransactions ====================== //
+	// Returns the number of rows in the transaction history
+	// (used by the Transactions table to size its scroll bar)
+	// ====================================================================== //
+	public static int countTransactions(Connection conn) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM transaction");
+				ResultSet rs = stmt.executeQuery()) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+
+	// Executes a page query built on ALL_TRANSACTIONS_SELECT and maps its rows
+	private static List<Transaction> readPage(PreparedStatement stmt, int limit) throws SQLException {
+
+		// Initialize a list sized for one page
+		List<Transaction> txns = new ArrayList<>(limit);
+
+		// Employees already built during this call
+		Map<Integer, Employee> employees = new HashMap<>();
+
+		// Map each row of the page
+		try (ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				txns.add(mapTransactionWithOrder(rs, employees));
 			}
 		}
 
-		// Return the transactions list
+		// Return the page
 		return txns;
 	}
 
+	// ==================== METHOD: streamAllTransactions =================== //
+	// Streams all transactions in ID order from a forward-only, read-only
+	// ResultSet, so only the rows currently being processed are held in
+	// memory. The stream must be closed (e.g., with try-with-resources) to
+	// release the statement; the connection stays busy until then.
+	// ====================================================================== //
+	public static Stream<Transaction> streamAllTransactions(Connection conn) throws SQLException {
+
+		// SQL query to retrieve all transaction data
+		String strSQL = ALL_TRANSACTIONS_SELECT + "ORDER BY t.transactionID ASC";
+
+		// Forward-only, read-only statement so the driver can stream rows
+		PreparedStatement stmt = conn.prepareStatement(strSQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		ResultSet rs;
+		try {
+			stmt.setFetchSize(streamingFetchSize(conn));
+			rs = stmt.executeQuery();
+		} catch (SQLException e) {
+			stmt.close();
+			throw e;
+		}
+
+		// Employees already built while streaming (bounded by the number of employees)
+		Map<Integer, Employee> employees = new HashMap<>();
+
+		// Spliterator that maps one row each time the stream asks for the next element
+		Spliterator<Transaction> rows = new Spliterators.AbstractSpliterator<Transaction>(
+				Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+			@Override
+			public boolean tryAdvance(Consumer<? super Transaction> action) {
+				try {
+					if (!rs.next()) {
+						return false;
+					}
+					action.accept(mapTransactionWithOrder(rs, employees));
+					return true;
+				} catch (SQLException e) {
+					throw new RuntimeException("Failed to read transaction row", e);
+				}
+			}
+		};
+
+		// Close the result set and statement when the stream is closed
+		return StreamSupport.stream(rows, false).onClose(() -> {
+			try {
+				rs.close();
+				stmt.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		});
+	}
+
+	// ===================== METHOD: forEachTransaction ===================== //
+	// Callback variant of streamAllTransactions(). Passes every transaction
+	// to the given action in ID order and returns the number of rows read.
+	// ====================================================================== //
+	public static long forEachTransaction(Connection conn, Consumer<Transaction> action) throws SQLException {
+		long count = 0;
+		try (Stream<Transaction> txns = streamAllTransactions(conn)) {
+			for (Transaction txn : (Iterable<Transaction>) txns::iterator) {
+				action.accept(txn);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Returns the fetch size used for streaming queries
+	// MySQL only streams rows one at a time when the fetch size is Integer.MIN_VALUE;
+	// other drivers (e.g., H2) fetch rows in batches of STREAM_FETCH_SIZE
+	static int streamingFetchSize(Connection conn) throws SQLException {
+		String product = conn.getMetaData().getDatabaseProductName();
+		return "MySQL".equalsIgnoreCase(product) ? Integer.MIN_VALUE : STREAM_FETCH_SIZE;
+	}
+
+	// =================== METHOD: mapTransactionWithOrder ================== //
+	// Maps a single row selected with ALL_TRANSACTIONS_SELECT into a
+	// Transaction with its Employee, Equipment and optional Order.
+	// Employees are shared through the given map.
+	// ====================================================================== //
+	private static Transaction mapTransactionWithOrder(ResultSet rs, Map<Integer, Employee> employees) throws SQLException {
+
+		// Reuse the Employee object if this employee was already mapped
+		int empID = rs.getInt("empID");
+		Employee employee = employees.get(empID);
+		if (employee == null) {
+			employee = new Employee(
+					empID,
+					rs.getString("empName"),
+					SkillClassification.valueOf(rs.getString("skillClassification"))
+					);
+			employees.put(empID, employee);
+		}
+
+		// Create a new Equipment object
+		Equipment eq = new Equipment(
+				rs.getInt("equipmentID"),
+				rs.getString("equipmentName"),
+				null,       // Equipment condition set to null so it does not overwrite equipment conditions
+				EquipmentStatus.valueOf(rs.getString("equipStatus")),
+				SkillClassification.valueOf(rs.getString("requiredSkill"))
+				);
+
+		// Order object is optional; default null until proven otherwise
+		Order order = null;
+		int orderID = rs.getInt("orderID");
+
+		// Only construct Order if order ID is not null in DB
+		if (!rs.wasNull()) {
+
+			// Convert orderDate safely: if DB column is not null, then convert to LocalDate; otherwise stay null
+			LocalDate orderDate = rs.getDate("orderDate") != null
+					? rs.getDate("orderDate").toLocalDate() : null;
+
+			// Convert orderStatus safely: if DB column is not null, then map to Enum; otherwise stay null
+			OrderStatus orderStatus = rs.getString("orderStatus") != null
+					? OrderStatus.valueOf(rs.getString("orderStatus")) : null;
+
+			// Convert pickUpDate safely: if DB column is not null, then convert to LocalDate; otherwise stay null
+			LocalDate pickUpDate = rs.getDate("pickUpDate") != null
+					? rs.getDate("pickUpDate").toLocalDate() : null;
+
+			// Create the Order object with relevant fields
+			order = new Order(orderID, eq, null, orderDate, orderStatus, pickUpDate, null);
+		}
+
+		// Create a new Transaction object composed of employee, equipment, and optional order
+		// Defensive checks ensure safe conversion of DB fields to Java types
+		Transaction txn = new Transaction(
+				rs.getInt("transactionID"),     // Transaction ID from DB
+				employee,                       // Associated Employee object
+				eq,                             // Associated Equipment object
+				order,                          // Associated Order object (may be null)
+				rs.getDate("orderDate") != null ? rs.getDate("orderDate").toLocalDate() : null,   // Convert to LocalDate if not null
+				rs.getDate("borrowDate") != null ? rs.getDate("borrowDate").toLocalDate() : null, // Borrow date (nullable)
+				rs.getDate("expectedReturnDate") != null ? rs.getDate("expectedReturnDate").toLocalDate() : null,  // Expected return date (nullable)
+				TransactionStatus.valueOf(rs.getString("transactionStatus")),                     // Transaction status
+				rs.getString("returnCondition") != null ? EquipmentCondition.valueOf(rs.getString("returnCondition")) : null,    // Return condition (nullable)
+				rs.getString("checkoutCondition") != null ? EquipmentCondition.valueOf(rs.getString("checkoutCondition")) : null // Checkout condition (nullable)
+				);
+
+		// Set returnDate if exists
+		if (rs.getDate("returnDate") != null) {
+			txn.setReturnDate(rs.getDate("returnDate").toLocalDate());
+		}
+		return txn;
+	}
+
+	// SQL statement to insert a new checkout transaction into the transaction table
+	private static final String INSERT_TRANSACTION_SQL = "INSERT INTO transaction " +
+			"(empID, equipmentID, borrowDate, expectedReturnDate, transactionStatus, checkoutCondition) " +
+			"VALUES (?, ?, ?, ?, ?, ?)";
+
+	// ====================== METHOD: insertTransaction ====================== //
+	// Inserts a new checkout transaction (employee, equipment, borrow and
+	// expected return dates, status, and checkout condition) and sets the
+	// generated transaction ID on the Transaction object.
+	// ======================================================================= //
+	public static void insertTransaction(Connection conn, Transaction txn) throws SQLException {
+
+		// Statement.RETURN_GENERATED_KEYS allows retrieval of the auto-generated transaction ID
+		try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRANSACTION_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+			// Set parameters and execute the insert statement
+			bindInsert(stmt, txn);
+			stmt.executeUpdate();
+
+			// Update the in-memory Transaction object with the generated transaction ID
+			try (ResultSet rs = stmt.getGeneratedKeys()) {
+				if (rs.next()) {
+					txn.setTransactionID(rs.getInt(1));
+				}
+			}
+		}
+	}
+
+	// ====================== METHOD: insertTransactions ===================== //
+	// Batch form of insertTransaction() used by batch checkouts: inserts all
+	// transactions with one executeBatch() and sets each generated
+	// transaction ID, in list order. Returns the generated IDs.
+	// ======================================================================= //
+	public static List<Integer> insertTransactions(Connection conn, List<Transaction> txns) throws SQLException {
+		List<Integer> ids = new ArrayList<>();
+		try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRANSACTION_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+			// Queue one insert per transaction
+			for (Transaction txn : txns) {
+				bindInsert(stmt, txn);
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+
+			// Generated keys are returned in the order the rows were added
+			try (ResultSet rs = stmt.getGeneratedKeys()) {
+				for (Transaction txn : txns) {
+					if (!rs.next()) {
+						throw new SQLException("Missing generated key for equipment " + txn.getEquipment().getEquipmentID());
+					}
+					txn.setTransactionID(rs.getInt(1));
+					ids.add(txn.getTransactionID());
+				}
+			}
+		}
+		return ids;
+	}
+
+	// Sets the insert parameters for one checkout transaction
+	private static void bindInsert(PreparedStatement stmt, Transaction txn) throws SQLException {
+		stmt.setInt(1, txn.getEmployee().getEmpID());          // Employee ID
+		stmt.setInt(2, txn.getEquipment().getEquipmentID());   // Equipment ID
+		stmt.setDate(3, txn.getBorrowDate() != null ? Date.valueOf(txn.getBorrowDate()) : null);                   // Borrow Date
+		stmt.setDate(4, txn.getExpectedReturnDate() != null ? Date.valueOf(txn.getExpectedReturnDate()) : null);   // Expected Return Date
+		stmt.setString(5, txn.getTransactionStatus().name());  // Transaction Status
+		stmt.setString(6, txn.getCheckoutCondition() != null ? txn.getCheckoutCondition().name() : null);   // Checkout Condition
+	}
+
 	// ==================== METHOD: updateTransactionReturn ================== //
 	// Updates a transaction marked as 'Returned' and records the return date
 	// and condition in the database. Invoked when an employee returns equipment.
+	// Only a transaction still Borrowed in the database is updated; returns
+	// false if it was not (e.g., already returned from another terminal).
+	// The return condition is also copied to the equipment row
+	// (lastReturnCondition) on the same connection, so callers that run this
+	// inside a database transaction update both atomically.
 	// ======================================================================= //
-	public static void updateTransactionReturn(Connection conn, Transaction txn) throws SQLException {
+	public static boolean updateTransactionReturn(Connection conn, Transaction txn) throws SQLException {
 
-		// SQL statement to update transaction status, return date, and return condition
-		String strSQL = "UPDATE transaction SET transactionStatus = ?, returnDate = ?, returnCondition = ? WHERE transactionID = ?";
+		// SQL statement to update transaction status, return date, and return condition of a borrowed transaction
+		String strSQL = "UPDATE transaction SET transactionStatus = ?, returnDate = ?, returnCondition = ? "
+				+ "WHERE transactionID = ? AND transactionStatus = 'Borrowed'";
 
 		// Use try-with-resources to automatically close the PreparedStatement
 		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
@@ -235,9 +579,52 @@ public class TransactionDAO {
 			// Set the transaction ID parameter (fourth '?') for WHERE clause
 			stmt.setInt(4, txn.getTransactionID());
 
-			// Execute the SQL statement
-			stmt.executeUpdate();
+			// Execute the SQL statement; nothing else changes if the loan was already returned
+			if (stmt.executeUpdate() != 1) {
+				return false;
+			}
 		}
+
+		// Keep the equipment's last known condition in step with this return
+		if (txn.getReturnCondition() != null) {
+			EquipmentDAO.updateLastReturnCondition(conn, txn.getEquipment().getEquipmentID(), txn.getReturnCondition());
+		}
+		return true;
+	}
+
+	// =================== METHOD: updateTransactionReturns ================== //
+	// Batch form of updateTransactionReturn() used by bulk returns: marks
+	// every transaction Returned with its return date and condition, sending
+	// all updates with one executeBatch(). Only transactions still Borrowed
+	// in the database are updated; the IDs of any others (e.g., already
+	// returned from another screen) are returned so the caller can roll
+	// back. Unlike updateTransactionReturn(), the equipment rows are left to
+	// EquipmentDAO.markReturnedEquipment() so they take one batch as well.
+	// ======================================================================= //
+	public static List<Integer> updateTransactionReturns(Connection conn, List<Transaction> txns) throws SQLException {
+		String strSQL = "UPDATE transaction SET transactionStatus = ?, returnDate = ?, returnCondition = ? "
+				+ "WHERE transactionID = ? AND transactionStatus = 'Borrowed'";
+		List<Integer> notUpdated = new ArrayList<>();
+		try (PreparedStatement stmt = conn.prepareStatement(strSQL)) {
+
+			// Queue one update per transaction
+			for (Transaction txn : txns) {
+				stmt.setString(1, txn.getTransactionStatus().name());
+				stmt.setDate(2, Date.valueOf(txn.getReturnDate()));
+				stmt.setString(3, txn.getReturnCondition() != null ? txn.getReturnCondition().name() : null);
+				stmt.setInt(4, txn.getTransactionID());
+				stmt.addBatch();
+			}
+
+			// Each update must have changed exactly one row
+			int[] counts = stmt.executeBatch();
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] != 1) {
+					notUpdated.add(txns.get(i).getTransactionID());
+				}
+			}
+		}
+		return notUpdated;
 	}
 
 	// =================== METHOD: getTransactionsByEmployeeID =================== //
@@ -306,15 +693,26 @@ public class TransactionDAO {
 	// ============== METHOD: getBorrowedTransactionsByEmployee ============= //
 	// Retrieves all transactions for a given employee ID that are currently
 	// 'Borrowed'. Returns a list of Transaction objects with Employee and
-	// Equipment objects populated. 
+	// Equipment objects populated. Employee and equipment data are joined
+	// in the same query, so this is a single round trip regardless of how
+	// many items the employee has on loan.
 	// ====================================================================== //
 	public static List<Transaction> getBorrowedTransactionsByEmployee(int empID, Connection conn) throws SQLException {
 
 		// Initialize a list to store borrowed transactions
 		List<Transaction> transactions = new ArrayList<>();
 
-		// SQL query to select all transaction for employee ID with status 'Borrowed'
-		String strSQL = "SELECT * FROM Transaction WHERE empID = ? AND transactionStatus = 'Borrowed'";
+		// SQL query to select all transactions for employee ID with status 'Borrowed',
+		// joined with the employee and equipment rows they reference
+		String strSQL = "SELECT " + JOINED_TRANSACTION_COLUMNS +
+				"FROM transaction t " +
+				"JOIN employee e ON t.empID = e.empID " +
+				"JOIN equipment eq ON t.equipmentID = eq.equipmentID " +
+				"WHERE t.empID = ? AND t.transactionStatus = 'Borrowed' " +
+				"ORDER BY t.transactionID ASC";
+
+		// Employees already built during this call (all rows share the same employee here)
+		Map<Integer, Employee> employees = new HashMap<>();
 
 		// Use try-with-resources for PreparedStatement to ensure automatic closing
 		try(PreparedStatement ps = conn.prepareStatement(strSQL)){
@@ -325,33 +723,92 @@ public class TransactionDAO {
 			// Execute the query and obtain the results
 			try(ResultSet rs = ps.executeQuery()){
 
-				// Iterate through each row in the result set
+				// Map each row to a Transaction object and add it to the list
 				while(rs.next()) {
+					transactions.add(mapJoinedTransaction(rs, employees));
+				}
+			}
+		}
 
-					// Create a new Transaction object
-					Transaction t = new Transaction();
-
-					// Populate fields of the Transaction object
-					t.setTransactionID(rs.getInt("transactionID"));                        // Set transaction ID
-					t.setEmployee(EmployeeDAO.getEmployeeByID(conn, rs.getInt("empID")));  // Retrieve Employee object from DAO
-					t.setEquipment(EquipmentDAO.getEquipmentByID(conn, rs.getInt("equipmentID")));  // Retrieve Equipment object from DAO
+		// Return list of borrowed transactions for the employee
+		return transactions;
+	}
 
-					// Set expected return date
-					t.setExpectedReturnDate(rs.getDate("expectedReturnDate").toLocalDate());
+	// ================= METHOD: getBorrowedTransactionsDueBy ================ //
+	// Retrieves every 'Borrowed' transaction, for all employees, whose
+	// expected return date is on or before the given date (i.e., due by
+	// then or already overdue), with Employee and Equipment populated.
+	// One joined query; the status/due-date index keeps it from reading
+	// the returned history.
+	// ====================================================================== //
+	public static List<Transaction> getBorrowedTransactionsDueBy(Connection conn, LocalDate dueBy) throws SQLException {
+		List<Transaction> transactions = new ArrayList<>();
+		String strSQL = "SELECT " + JOINED_TRANSACTION_COLUMNS +
+				"FROM transaction t " +
+				"JOIN employee e ON t.empID = e.empID " +
+				"JOIN equipment eq ON t.equipmentID = eq.equipmentID " +
+				"WHERE t.transactionStatus = 'Borrowed' AND t.expectedReturnDate <= ? " +
+				"ORDER BY t.transactionID ASC";
 
-					// Set transaction status
-					t.setTransactionStatus(TransactionStatus.valueOf(rs.getString("transactionStatus")));
+		// Employees already built during this call
+		Map<Integer, Employee> employees = new HashMap<>();
 
-					// Add transaction to list of transactions
-					transactions.add(t);
+		try (PreparedStatement ps = conn.prepareStatement(strSQL)) {
+			ps.setDate(1, Date.valueOf(dueBy));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					transactions.add(mapJoinedTransaction(rs, employees));
 				}
 			}
 		}
-
-		// Return list of borrowed transactions for the employee
 		return transactions;
 	}
 
+	// ==================== METHOD: mapJoinedTransaction ==================== //
+	// Maps a single row selected with JOINED_TRANSACTION_COLUMNS into a
+	// Transaction with its Employee and Equipment. Employees are looked up
+	// in (and added to) the given map, so an employee that appears on many
+	// rows is only built once per query.
+	// ====================================================================== //
+	public static Transaction mapJoinedTransaction(ResultSet rs, Map<Integer, Employee> employees) throws SQLException {
+
+		// Reuse the Employee object if this employee was already mapped
+		int empID = rs.getInt("empID");
+		Employee employee = employees.get(empID);
+		if (employee == null) {
+			employee = EmployeeDAO.mapResultSetToEmployee(rs);
+			employees.put(empID, employee);
+		}
+
+		// Map the equipment columns using the shared equipment mapper
+		Equipment equipment = EquipmentDAO.mapResultSetToEquipment(rs);
+
+		// Convert nullable dates and conditions
+		Date borrowDate = rs.getDate("borrowDate");
+		Date expectedReturnDate = rs.getDate("expectedReturnDate");
+		Date returnDate = rs.getDate("returnDate");
+
+		// Create the Transaction object (no order data is selected by joined queries)
+		Transaction txn = new Transaction(
+				rs.getInt("transactionID"),   // Transaction ID
+				employee,                     // Associated employee
+				equipment,                    // Associated equipment
+				null,                         // Order not selected
+				null,                         // Order date not selected
+				borrowDate != null ? borrowDate.toLocalDate() : null,                   // Borrow date (nullable)
+				expectedReturnDate != null ? expectedReturnDate.toLocalDate() : null,   // Expected return date (nullable)
+				TransactionStatus.fromString(rs.getString("transactionStatus")),        // Transaction status
+				EquipmentCondition.fromString(rs.getString("returnCondition")),         // Return condition (nullable)
+				EquipmentCondition.fromString(rs.getString("checkoutCondition"))        // Checkout condition (nullable)
+				);
+
+		// Set return date if exists
+		if (returnDate != null) {
+			txn.setReturnDate(returnDate.toLocalDate());
+		}
+		return txn;
+	}
+
 	// ===================== METHOD: returnEquipment ===================== //
 	// Handles the return of a borrowed equipment in the H2 in-memory
 	// database for unit testing. Updates transaction status and return
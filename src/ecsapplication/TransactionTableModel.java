@@ -0,0 +1,78 @@
+/**
+ * TransactionTableModel.java
+ * Lazily loaded model for the Transactions table in MainApp. Pages of
+ * the transaction history are read from TransactionDAO as the user
+ * scrolls (see PagedTableModel), so the window opens immediately even
+ * when the history holds millions of rows.
+ *
+ * Whichever column the table is sorted by, each page continues from the
+ * sort key and ID of the last row of the page before it (keyset paging).
+ */
+
+package ecsapplication;
+
+// Import JDBC classes and collection framework
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class TransactionTableModel extends PagedTableModel<Transaction> {
+
+	private static final long serialVersionUID = 1L;
+
+	// Column names for the Transactions table (same order as TransactionDAO.SortColumn)
+	private static final String[] COLUMN_NAMES = {
+			"Transaction ID", "Employee Name", "Employee Skill",
+			"Equipment Name", "Required Skill",
+			"Checkout Condition", "Return Condition",
+			"Borrow Date", "Expected Return Date",
+			"Transaction Status"
+	};
+
+	// Constructor
+	public TransactionTableModel() {
+		super(COLUMN_NAMES, DEFAULT_PAGE_SIZE, DEFAULT_CACHE_PAGES);
+	}
+
+	@Override
+	protected int fetchRowCount(Connection conn) throws SQLException {
+		return TransactionDAO.countTransactions(conn);
+	}
+
+	@Override
+	protected List<Transaction> fetchPage(Connection conn, int sortColumn, boolean ascending,
+			Keyset after, int limit) throws SQLException {
+		return TransactionDAO.getTransactionsPage(conn, TransactionDAO.SortColumn.values()[sortColumn], ascending, after, limit);
+	}
+
+	@Override
+	protected List<Keyset> seek(Connection conn, int sortColumn, boolean ascending,
+			Keyset after, int rows, int every) throws SQLException {
+		return TransactionDAO.seekTransactions(conn, TransactionDAO.SortColumn.values()[sortColumn], ascending, after, rows, every);
+	}
+
+	@Override
+	protected Keyset keysetOf(Transaction t, int sortColumn) {
+		return TransactionDAO.SortColumn.values()[sortColumn].keysetOf(t);
+	}
+
+	@Override
+	protected Object columnValue(Transaction t, int column) {
+		switch (column) {
+		case 0: return t.getTransactionID();                             // Transaction ID
+		case 1: return t.getEmployee().getEmpName();                     // Employee Name
+		case 2: return t.getEmployee().getSkillClassification().name();  // Employee Skill Classification
+		case 3: return t.getEquipment().getEquipmentName();              // Equipment Name
+		case 4: return t.getEquipment().getRequiredSkill().name();       // Required Skill for Equipment
+
+		// Conditions display the enum name, or "N/A" if not recorded
+		case 5: return t.getCheckoutCondition() != null ? t.getCheckoutCondition().name() : "N/A";
+		case 6: return t.getReturnCondition() != null ? t.getReturnCondition().name() : "N/A";
+
+		case 7: return t.getBorrowDate();                  // Borrow Date
+		case 8: return t.getExpectedReturnDate();          // Expected Return Date
+		case 9: return t.getTransactionStatus().name();    // Transaction Status (e.g., Returned, Borrowed)
+		default: return null;
+		}
+	}
+}
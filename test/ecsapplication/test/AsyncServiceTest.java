@@ -0,0 +1,265 @@
+/**
+ * AsyncServiceTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the AsyncService that moves database
+ *   work off the Swing Event Dispatch Thread. An H2 in-memory database is
+ *   used as the connection source. The following is tested:
+ *
+ *   1. Database tasks run on a background thread with a borrowed connection.
+ *   2. Keyed tasks submitted while an identical one is queued are coalesced.
+ *   3. Cancelling a running task interrupts it and discards its result.
+ *   4. Busy listeners are told when work starts and when it ends.
+ *   5. A keyed request made while its key's task runs queues one
+ *      follow-up behind it, which later requests share.
+ *   6. Saves are not cancelled by cancelAll() and report their result.
+ *   7. A cancelled task counts as busy, and holds back the follow-up for
+ *      its key, until its work has actually stopped.
+ *
+ * Test Case ID: TC-UI-001-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import concurrency utilities
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Import Swing utility used to flush the Event Dispatch Thread
+import javax.swing.SwingUtilities;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import the ECS async service
+import ecsapplication.AsyncService;
+
+class AsyncServiceTest {
+
+	private AsyncService service;   // Service under test
+
+	@BeforeEach
+	void setup() throws Exception {
+
+		// Single worker thread so queued tasks wait behind the running one
+		Class.forName("org.h2.Driver");
+		service = new AsyncService(Executors.newSingleThreadExecutor(),
+				() -> DriverManager.getConnection("jdbc:h2:mem:async;DB_CLOSE_DELAY=-1", "sa", ""));
+	}
+
+	@AfterEach
+	void teardown() {
+		service.shutdown();
+	}
+
+	@Test
+	@DisplayName("Database tasks run in the background on a borrowed connection")
+	void testSubmitRunsInBackground() throws Exception {
+		Thread caller = Thread.currentThread();
+		AtomicBoolean otherThread = new AtomicBoolean();
+
+		// Run a query through the service and wait for its result
+		CompletableFuture<Integer> result = service.submit(conn -> {
+			otherThread.set(Thread.currentThread() != caller);
+			try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT 41 + 1")) {
+				rs.next();
+				return rs.getInt(1);
+			}
+		});
+
+		assertEquals(42, result.get(5, TimeUnit.SECONDS));
+		assertTrue(otherThread.get(), "Task should not run on the calling thread");
+	}
+
+	@Test
+	@DisplayName("Queued refreshes with the same key are coalesced")
+	void testCoalescing() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger refreshes = new AtomicInteger();
+
+		// Occupy the only worker so the refreshes below stay queued
+		CompletableFuture<Object> blocker = service.call(() -> release.await(5, TimeUnit.SECONDS));
+
+		// Three refresh requests while the worker is busy become one task
+		CompletableFuture<Integer> first = service.call("refresh", refreshes::incrementAndGet);
+		CompletableFuture<Integer> second = service.call("refresh", refreshes::incrementAndGet);
+		CompletableFuture<Integer> third = service.call("refresh", refreshes::incrementAndGet);
+		assertSame(first, second, "Queued refresh should be shared");
+		assertSame(first, third, "Queued refresh should be shared");
+
+		release.countDown();
+		blocker.get(5, TimeUnit.SECONDS);
+		assertEquals(1, first.get(5, TimeUnit.SECONDS));
+		assertEquals(1, refreshes.get(), "Refresh should have run once");
+
+		// Once the refresh has run, a new request queues a new task
+		assertEquals(2, service.call("refresh", refreshes::incrementAndGet).get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("Cancelling a running task interrupts it")
+	void testCancellation() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		// Long-running task that records being interrupted
+		CompletableFuture<String> slow = service.call(() -> {
+			started.countDown();
+			try {
+				Thread.sleep(10_000);
+				return "finished";
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+				throw e;
+			}
+		});
+
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertEquals(1, service.cancelAll(), "Running task should be cancelled");
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Worker thread should be interrupted");
+		assertThrows(CancellationException.class, () -> slow.get(), "Cancelled task should not return a result");
+
+		// The worker is free for new work afterwards
+		assertEquals("next", service.call(() -> "next").get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("Busy listeners follow the running work")
+	void testBusyIndicator() throws Exception {
+		List<Boolean> states = new CopyOnWriteArrayList<>();
+		service.addBusyListener(states::add);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// Busy while a task runs
+		CompletableFuture<Object> task = service.call(() -> release.await(5, TimeUnit.SECONDS));
+		assertTrue(service.isBusy(), "Service should be busy while a task runs");
+		SwingUtilities.invokeAndWait(() -> { });
+		assertEquals(List.of(true), states, "Listener should see the service become busy");
+
+		// Idle again once it finishes
+		release.countDown();
+		task.get(5, TimeUnit.SECONDS);
+		SwingUtilities.invokeAndWait(() -> { });
+		assertFalse(service.isBusy(), "Service should be idle after the task");
+		assertEquals(List.of(true, false), states, "Listener should see busy, then idle");
+	}
+
+	@Test
+	@DisplayName("A keyed request made mid-query queues one follow-up")
+	void testFollowUpQueued() throws Exception {
+		// Several workers, so only the service can keep the tasks for a key apart
+		service.shutdown();
+		service = new AsyncService(Executors.newCachedThreadPool(),
+				() -> DriverManager.getConnection("jdbc:h2:mem:async;DB_CLOSE_DELAY=-1", "sa", ""));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger concurrent = new AtomicInteger();
+		AtomicInteger followUps = new AtomicInteger();
+
+		// A slow load for the first selection is already running
+		CompletableFuture<String> first = service.call("viewRecord", () -> {
+			concurrent.incrementAndGet();
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			concurrent.decrementAndGet();
+			return "first employee";
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// Requests for the next selections queue one follow-up instead of sharing the running task
+		CompletableFuture<String> second = service.call("viewRecord", () -> {
+			followUps.incrementAndGet();
+			return concurrent.get() == 0 ? "second employee" : "overlapped";
+		});
+		CompletableFuture<String> third = service.call("viewRecord", () -> "third employee");
+		assertNotSame(first, second, "A running task should not be shared");
+		assertSame(second, third, "The queued follow-up should be shared");
+		assertFalse(second.isDone(), "The follow-up should wait for the running task");
+		assertEquals(2, service.getActiveCount());
+
+		// The running query delivers its result, then the follow-up runs once on its own
+		release.countDown();
+		assertEquals("first employee", first.get(5, TimeUnit.SECONDS));
+		assertEquals("second employee", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, followUps.get(), "The follow-up should have run once");
+	}
+
+	@Test
+	@DisplayName("Saves are not cancelled by cancelAll and report their outcome")
+	void testSaveNotCancelled() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<String> save = service.save(() -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return "committed";
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// Neither the Cancel button nor the future itself stops a save
+		assertEquals(0, service.cancelAll(), "A save should not be cancelled");
+		assertFalse(save.cancel(true), "A save should not be cancelled");
+
+		release.countDown();
+		assertEquals("committed", save.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("A cancelled task stays tracked until its work stops")
+	void testCancelledTaskTracked() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+
+		// A query that only notices the interrupt once the database answers
+		CompletableFuture<String> slow = service.call("refresh", () -> {
+			started.countDown();
+			while (true) {
+				try {
+					release.await();
+					return "stale";
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> next = service.call("refresh", () -> "fresh");
+
+		// Cancelling the query only cancels its future; its connection is still in use
+		assertEquals(2, service.cancelAll());
+		assertTrue(slow.isCancelled());
+		assertTrue(service.isBusy(), "Work still running should keep the service busy");
+		assertEquals(1, service.getActiveCount());
+
+		// A new request waits behind the cancelled query rather than running beside it
+		CompletableFuture<String> fresh = service.call("refresh", () -> "fresh");
+		assertNotSame(next, fresh);
+		assertFalse(fresh.isDone(), "The follow-up should wait for the cancelled work to stop");
+
+		release.countDown();
+		assertEquals("fresh", fresh.get(5, TimeUnit.SECONDS));
+		assertTrue(interrupted.get(), "The cancelled query should have been interrupted");
+		SwingUtilities.invokeAndWait(() -> { });
+		assertFalse(service.isBusy(), "Service should be idle once the work has stopped");
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * BorrowedTransactionsRoundTripTest.java
+ * JUnit 5 Test Case (regression benchmark)
+ *
+ * Purpose:
+ *   This test guards TransactionDAO.getBorrowedTransactionsByEmployee()
+ *   against N+1 queries. An H2 in-memory database is seeded with 10, 100,
+ *   and 1000 open loans for one employee, and the number of statements
+ *   executed per call is counted through a wrapped connection.
+ *
+ *   The previous implementation issued 1 + 3N statements (one lookup of the
+ *   employee, the employee's transactions, and the equipment for every row).
+ *   The joined query must stay at a single round trip for every size, and
+ *   every row must share one Employee object.
+ *
+ * Test Case ID: TC-REM-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+// Import collections and counters
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// Import ECS classes and enums
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+import ecsapplication.enums.TransactionStatus;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BorrowedTransactionsRoundTripTest {
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@BeforeAll
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this benchmark
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection("jdbc:h2:mem:roundtrips;DB_CLOSE_DELAY=-1", "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Drop tables from a previous run
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+
+			// Create the tables used by the joined query
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+		}
+	}
+
+	@AfterAll
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Seeds one employee (empID = loans) with the given number of open loans and one returned loan
+	private void seed(int loans) throws Exception {
+		try (PreparedStatement emp = conn.prepareStatement("INSERT INTO employee VALUES (?, ?, 'Welder')");
+				PreparedStatement eq = conn.prepareStatement("INSERT INTO equipment VALUES (?, ?, 'Good', 'Welder', 'Loaned')");
+				PreparedStatement txn = conn.prepareStatement("INSERT INTO transaction "
+						+ "(empID, equipmentID, borrowDate, expectedReturnDate, transactionStatus, checkoutCondition) "
+						+ "VALUES (?, ?, CURRENT_DATE, DATEADD('DAY', 7, CURRENT_DATE), ?, 'Good')")) {
+
+			emp.setInt(1, loans);
+			emp.setString(2, "Emp" + loans);
+			emp.executeUpdate();
+
+			// Equipment IDs are offset by the size so every run has its own items
+			for (int i = 0; i <= loans; i++) {
+				int equipmentID = loans * 10_000 + i;
+				eq.setInt(1, equipmentID);
+				eq.setString(2, "Torch " + i);
+				eq.addBatch();
+
+				txn.setInt(1, loans);
+				txn.setInt(2, equipmentID);
+				txn.setString(3, i < loans ? "Borrowed" : "Returned");   // Last row is not an open loan
+				txn.addBatch();
+			}
+			eq.executeBatch();
+			txn.executeBatch();
+		}
+	}
+
+	@ParameterizedTest(name = "{0} open loans")
+	@ValueSource(ints = { 10, 100, 1000 })
+	@DisplayName("Borrowed transactions are loaded in a single round trip")
+	void testSingleRoundTrip(int loans) throws Exception {
+
+		// Seed the open loans for this size
+		seed(loans);
+
+		// Call the DAO through the counting connection
+		AtomicInteger executions = new AtomicInteger();
+		List<Transaction> borrowed = TransactionDAO.getBorrowedTransactionsByEmployee(loans,
+				StatementCounting.counting(conn, executions));
+
+		// Every open loan is returned, and the returned loan is not
+		assertEquals(loans, borrowed.size(), "All open loans should be returned");
+		assertTrue(borrowed.stream().allMatch(t -> t.getTransactionStatus() == TransactionStatus.Borrowed));
+
+		// Exactly one statement is executed regardless of the number of loans (previously 1 + 3N)
+		assertEquals(1, executions.get(), "Query should be a single round trip");
+
+		// Employee and equipment are populated, with one shared Employee object
+		assertTrue(borrowed.stream().allMatch(t -> t.getEmployee() == borrowed.get(0).getEmployee()),
+				"Every row should share one Employee object");
+		assertEquals("Emp" + loans, borrowed.get(0).getEmployee().getEmpName());
+		assertNotNull(borrowed.get(0).getEquipment().getEquipmentName());
+		assertNotNull(borrowed.get(0).getExpectedReturnDate());
+	}
+}
@@ -0,0 +1,215 @@
+/**
+ * BulkReturnTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the bulk return of equipment
+ *   (Employee.returnEquipment with several transaction ID / condition
+ *   pairs) against an H2 in-memory database where one employee has 60
+ *   open loans. The following is tested:
+ *
+ *   1. An end-of-shift return of 60 items updates both tables and the
+ *      event outbox in one round trip per table (previously 2 per item
+ *      plus one per condition).
+ *   2. Transactions and equipment in memory and in the database are
+ *      returned, with one RETURNED event per loan in the outbox.
+ *   3. A return containing an unknown or already-returned loan saves nothing.
+ *   4. A single return of a loan already returned from another terminal
+ *      is refused and leaves the first return as it was.
+ *
+ * Test Case ID: TC-RET-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import collections and counters
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes and enums
+import ecsapplication.DBConnect;
+import ecsapplication.Employee;
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.TransactionStatus;
+
+class BulkReturnTest {
+
+	private static final int LOANS = 60;   // Open loans seeded for the employee
+
+	// Shared with DBConnect for the returns that borrow their own connection
+	private static final String URL = "jdbc:h2:mem:bulkreturn;DB_CLOSE_DELAY=-1";
+
+	private Connection conn;      // H2 in-memory database connection
+	private Employee employee;    // Employee holding the loans
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection(URL, "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Rebuild the tables for each test
+			stmt.execute("DROP TABLE IF EXISTS event_outbox");
+			stmt.execute("DROP TABLE IF EXISTS reminder");
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20), "
+					+ "lastReturnCondition VARCHAR(15), rowVersion INT NOT NULL DEFAULT 0)");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+			stmt.execute("CREATE TABLE event_outbox (eventID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, eventType VARCHAR(20) NOT NULL, "
+					+ "equipmentID INT NOT NULL, equipStatus VARCHAR(20) NOT NULL, transactionID INT, orderID INT, empID INT, "
+					+ "equipCondition VARCHAR(15), createdAt TIMESTAMP NOT NULL)");
+			stmt.execute("CREATE TABLE reminder (reminderID INT PRIMARY KEY AUTO_INCREMENT, empID INT, transactionID INT, "
+					+ "reminderDate DATE, reminderMSG VARCHAR(255))");
+			stmt.execute("INSERT INTO employee VALUES (1, 'Lead', 'Welder')");
+
+			// One loaned item and one open loan per ID
+			for (int id = 1; id <= LOANS; id++) {
+				stmt.execute("INSERT INTO equipment (equipmentID, equipmentName, equipmentCondition, requiredSkill, equipStatus) "
+						+ "VALUES (" + id + ", 'Item" + id + "', 'Good', 'Welder', 'Loaned')");
+				stmt.execute("INSERT INTO transaction (empID, equipmentID, borrowDate, expectedReturnDate, transactionStatus, "
+						+ "checkoutCondition) VALUES (1, " + id + ", CURRENT_DATE, CURRENT_DATE, 'Borrowed', 'Good')");
+			}
+		}
+
+		// Load the employee's loans as the Return dialog does
+		employee = new Employee(1, "Lead");
+		employee.setEmpTransaction(TransactionDAO.getTransactionsByEmployeeID(conn, 1));
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Runs one query that returns a single string
+	private String queryString(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+
+	// Runs one query that returns a single number
+	private int queryInt(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	@Test
+	@DisplayName("End-of-shift return takes one round trip per table")
+	void testBulkReturn() throws Exception {
+
+		// Return every loan; every fifth item came back damaged
+		Map<Integer, EquipmentCondition> returns = new LinkedHashMap<>();
+		for (Transaction txn : employee.getEmpTransaction()) {
+			returns.put(txn.getTransactionID(),
+					txn.getEquipment().getEquipmentID() % 5 == 0 ? EquipmentCondition.Damaged : EquipmentCondition.Good);
+		}
+
+		AtomicInteger executions = new AtomicInteger();
+		List<Transaction> returned = employee.returnEquipment(StatementCounting.counting(conn, executions), returns);
+		assertEquals(LOANS, returned.size());
+		assertEquals(3, executions.get(), "One batch each for transaction, equipment and the outbox");
+
+		// In memory: every transaction and item is returned
+		for (Transaction txn : employee.getEmpTransaction()) {
+			assertEquals(TransactionStatus.Returned, txn.getTransactionStatus());
+			assertNotNull(txn.getReturnDate());
+			assertEquals(EquipmentStatus.Available, txn.getEquipment().getStatus());
+		}
+
+		// In the database: loans closed, equipment available with its return condition
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM transaction WHERE transactionStatus = 'Borrowed'"));
+		assertEquals(LOANS / 5, queryInt("SELECT COUNT(*) FROM transaction WHERE returnCondition = 'Damaged'"));
+		assertEquals(LOANS, queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Available'"));
+		assertEquals(LOANS / 5, queryInt("SELECT COUNT(*) FROM equipment WHERE lastReturnCondition = 'Damaged'"));
+		assertEquals(LOANS, queryInt("SELECT COUNT(*) FROM event_outbox WHERE eventType = 'RETURNED' AND equipStatus = 'Available'"));
+		assertEquals(LOANS / 5, queryInt("SELECT COUNT(*) FROM event_outbox WHERE equipCondition = 'Damaged'"));
+		assertTrue(conn.getAutoCommit(), "Auto-commit should be restored");
+	}
+
+	@Test
+	@DisplayName("Returns with an unknown or already-returned loan save nothing")
+	void testAllOrNothing() throws Exception {
+		int first = employee.getEmpTransaction().get(0).getTransactionID();
+		int second = employee.getEmpTransaction().get(1).getTransactionID();
+
+		// An ID that is not one of the employee's loans cancels the whole return
+		Map<Integer, EquipmentCondition> returns = new LinkedHashMap<>();
+		returns.put(first, EquipmentCondition.Good);
+		returns.put(9999, EquipmentCondition.Good);
+		assertTrue(employee.returnEquipment(conn, returns).isEmpty());
+
+		// A loan returned from another screen meanwhile rolls back the whole return
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("UPDATE transaction SET transactionStatus = 'Returned' WHERE transactionID = " + second);
+		}
+		returns.remove(9999);
+		returns.put(second, EquipmentCondition.Damaged);
+		assertTrue(employee.returnEquipment(conn, returns).isEmpty());
+
+		// Nothing changed besides the outside update, in the database or in memory
+		assertEquals(LOANS - 1, queryInt("SELECT COUNT(*) FROM transaction WHERE transactionStatus = 'Borrowed'"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Available'"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM event_outbox"), "Rolled-back returns leave no events");
+		Transaction firstTxn = employee.getEmpTransaction().get(0);
+		assertEquals(TransactionStatus.Borrowed, firstTxn.getTransactionStatus());
+		assertEquals(EquipmentStatus.Loaned, firstTxn.getEquipment().getStatus());
+		assertNull(firstTxn.getReturnDate());
+	}
+
+	@Test
+	@DisplayName("A loan returned from another terminal cannot be returned again")
+	void testSecondSingleReturnRefused() throws Exception {
+		DBConnect.configure(URL, "sa", "");
+		int loanID = employee.getEmpTransaction().get(0).getTransactionID();
+
+		// A second terminal loaded the same loans before the first return was saved
+		Employee otherTerminal = new Employee(1, "Lead");
+		otherTerminal.setEmpTransaction(TransactionDAO.getTransactionsByEmployeeID(conn, 1));
+
+		assertNotNull(employee.returnEquipment(loanID, EquipmentCondition.Damaged));
+		assertNull(otherTerminal.returnEquipment(loanID, EquipmentCondition.Good), "The second return should be refused");
+
+		// The first return is kept, with a single RETURNED event
+		assertEquals("Damaged", queryString("SELECT returnCondition FROM transaction WHERE transactionID = " + loanID));
+		assertEquals("Damaged", queryString("SELECT lastReturnCondition FROM equipment WHERE equipmentID = "
+				+ "(SELECT equipmentID FROM transaction WHERE transactionID = " + loanID + ")"));
+		assertEquals(1, queryInt("SELECT COUNT(*) FROM event_outbox WHERE transactionID = " + loanID));
+
+		// The refused return left the other terminal's copy as it was
+		Transaction stale = otherTerminal.getEmpTransaction().get(0);
+		assertEquals(TransactionStatus.Borrowed, stale.getTransactionStatus());
+		assertNull(stale.getReturnCondition());
+	}
+}
@@ -0,0 +1,425 @@
+/**
+ * CheckoutServiceTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies that CheckoutService never loans the
+ *   same equipment twice, against an H2 in-memory database with many
+ *   threads checking out at the same time. The following is tested:
+ *
+ *   1. A checkout loans the item, records the transaction and bumps the row version.
+ *   2. Loaned and unknown equipment are refused without changing the database.
+ *   3. Many threads racing for one item: exactly one checkout succeeds.
+ *   4. Stress test: 16 threads over 20 items never record two open
+ *      transactions for one item.
+ *   5. Batch checkout saves every item with its generated key, or nothing.
+ *   6. Overlapping batches racing each other never share an item.
+ *   7. Orders placed from a stale listing, and their cancellations, race
+ *      checkouts without ever overwriting a loan.
+ *
+ * Test Case ID: TC-CHK-005-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import date and concurrency utilities
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes
+import ecsapplication.CheckoutService;
+import ecsapplication.Employee;
+import ecsapplication.Equipment;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.Transaction;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.SkillClassification;
+import ecsapplication.enums.TransactionStatus;
+
+class CheckoutServiceTest {
+
+	private static final String URL = "jdbc:h2:mem:checkoutstress;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+	private static final int EQUIPMENT_COUNT = 20;   // Rows seeded into equipment
+	private static final int THREADS = 16;           // Concurrent clerks in the stress test
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection(URL, "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Rebuild the tables for each test
+			stmt.execute("DROP TABLE IF EXISTS event_outbox");
+			stmt.execute("DROP TABLE IF EXISTS `order`");
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20), "
+					+ "lastReturnCondition VARCHAR(15), rowVersion INT NOT NULL DEFAULT 0)");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+			stmt.execute("CREATE TABLE `order` (orderID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderDate DATE, pickUpDate DATE, orderStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE event_outbox (eventID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, eventType VARCHAR(20) NOT NULL, "
+					+ "equipmentID INT NOT NULL, equipStatus VARCHAR(20) NOT NULL, transactionID INT, orderID INT, empID INT, "
+					+ "equipCondition VARCHAR(15), createdAt TIMESTAMP NOT NULL)");
+
+			// Clerks who place orders, and all equipment starts available
+			stmt.execute("INSERT INTO employee SELECT X, 'Emp' || X, 'Welder' FROM SYSTEM_RANGE(1, " + THREADS + ")");
+			for (int id = 1; id <= EQUIPMENT_COUNT; id++) {
+				stmt.execute("INSERT INTO equipment (equipmentID, equipmentName, equipmentCondition, requiredSkill, equipStatus) "
+						+ "VALUES (" + id + ", 'Item" + id + "', 'Good', 'Welder', 'Available')");
+			}
+		}
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Creates a service that saves to this test's database
+	private static CheckoutService newService(int maxAttempts) {
+		return new CheckoutService(() -> DriverManager.getConnection(URL, "sa", ""), maxAttempts);
+	}
+
+	// Creates an unsaved checkout of one item, as Employee.checkOut() does
+	private static Transaction newCheckout(int empID, int equipmentID) {
+		Employee emp = new Employee(empID, "Emp" + empID, SkillClassification.Welder);
+		Equipment eq = new Equipment(equipmentID, "Item" + equipmentID, EquipmentCondition.Good,
+				EquipmentStatus.Available, SkillClassification.Welder);
+		return new Transaction(0, emp, eq, null, null, LocalDate.now(), LocalDate.now().plusDays(7),
+				TransactionStatus.Borrowed, null, EquipmentCondition.Good);
+	}
+
+	// Runs one query that returns a single number
+	private int queryInt(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	// Runs one query that returns a single string
+	private String queryString(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+
+	@Test
+	@DisplayName("Checkout loans the item and records the transaction")
+	void testCheckOut() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+
+		CheckoutService.CheckoutResult result = service.checkOut(newCheckout(1, 5));
+		assertTrue(result.isCheckedOut(), result.getMessage());
+		assertEquals(1, result.getAttempts());
+		assertTrue(result.getTransaction().getTransactionID() > 0, "Generated ID should be set");
+
+		// Equipment is loaned at the next version, and the transaction is saved
+		assertEquals("Loaned", queryString("SELECT equipStatus FROM equipment WHERE equipmentID = 5"));
+		assertEquals(1, queryInt("SELECT rowVersion FROM equipment WHERE equipmentID = 5"));
+		assertEquals(1, queryInt("SELECT COUNT(*) FROM transaction WHERE equipmentID = 5 AND transactionStatus = 'Borrowed'"));
+		assertEquals(1, service.getCheckoutCount());
+	}
+
+	@Test
+	@DisplayName("Loaned and unknown equipment are refused")
+	void testRefused() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+		assertTrue(service.checkOut(newCheckout(1, 3)).isCheckedOut());
+
+		// The same item again is unavailable
+		CheckoutService.CheckoutResult again = service.checkOut(newCheckout(2, 3));
+		assertEquals(CheckoutService.Outcome.UNAVAILABLE, again.getOutcome());
+		assertEquals(0, again.getTransaction().getTransactionID(), "Refused checkout should not be saved");
+
+		// An unknown item is not found
+		assertEquals(CheckoutService.Outcome.NOT_FOUND, service.checkOut(newCheckout(1, 999)).getOutcome());
+
+		// Only the first checkout changed the database
+		assertEquals(1, queryInt("SELECT COUNT(*) FROM transaction"));
+		assertEquals(1, queryInt("SELECT rowVersion FROM equipment WHERE equipmentID = 3"));
+		assertEquals(1, service.getUnavailableCount());
+	}
+
+	@Test
+	@DisplayName("Threads racing for one item: exactly one wins")
+	void testRaceForOneItem() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+
+		// Every thread waits at the gate, then checks out item 1
+		List<Future<CheckoutService.CheckoutResult>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int empID = t + 1;
+			futures.add(pool.submit(() -> {
+				start.await();
+				return service.checkOut(newCheckout(empID, 1));
+			}));
+		}
+		start.countDown();
+
+		int winners = 0;
+		for (Future<CheckoutService.CheckoutResult> future : futures) {
+			CheckoutService.CheckoutResult result = future.get(30, TimeUnit.SECONDS);
+			if (result.isCheckedOut()) {
+				winners++;
+			} else {
+				assertEquals(CheckoutService.Outcome.UNAVAILABLE, result.getOutcome(), "Losers should see the item loaned");
+			}
+		}
+		pool.shutdown();
+
+		assertEquals(1, winners, "Exactly one checkout should succeed");
+		assertEquals(1, queryInt("SELECT COUNT(*) FROM transaction WHERE equipmentID = 1"));
+		assertEquals(1, queryInt("SELECT rowVersion FROM equipment WHERE equipmentID = 1"));
+	}
+
+	@Test
+	@DisplayName("Stress: no item is ever loaned twice")
+	void testStress() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		int checkoutsPerThread = 50;
+
+		// Each thread checks out random items, so most attempts collide with another thread
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int empID = t + 1;
+			futures.add(pool.submit(() -> {
+				start.await();
+				int won = 0;
+				Random random = new Random(empID);
+				for (int i = 0; i < checkoutsPerThread; i++) {
+					int equipmentID = 1 + random.nextInt(EQUIPMENT_COUNT);
+					if (service.checkOut(newCheckout(empID, equipmentID)).isCheckedOut()) {
+						won++;
+					}
+				}
+				return won;
+			}));
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+
+		int successes = 0;
+		for (Future<Integer> future : futures) {
+			successes += future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+		double millis = (System.nanoTime() - begin) / 1_000_000.0;
+
+		System.out.printf("Checkout stress: %d attempts, %d checked out, %d conflicts, %d retries in %.1f ms%n",
+				THREADS * checkoutsPerThread, successes, service.getConflictCount(), service.getRetryCount(), millis);
+
+		// No item has more than one open transaction
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM (SELECT equipmentID FROM transaction "
+				+ "WHERE transactionStatus = 'Borrowed' GROUP BY equipmentID HAVING COUNT(*) > 1)"));
+
+		// Every success is exactly one transaction and one loaned item
+		assertEquals(successes, queryInt("SELECT COUNT(*) FROM transaction"));
+		assertEquals(successes, queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Loaned'"));
+		assertEquals(successes, queryInt("SELECT SUM(rowVersion) FROM equipment"));
+		assertEquals(EQUIPMENT_COUNT, successes, "Every item should be checked out exactly once");
+	}
+
+	// Creates available equipment objects for a batch checkout
+	private static List<Equipment> items(int... equipmentIDs) {
+		List<Equipment> list = new ArrayList<>();
+		for (int id : equipmentIDs) {
+			list.add(new Equipment(id, "Item" + id, EquipmentCondition.Good, EquipmentStatus.Available, SkillClassification.Welder));
+		}
+		return list;
+	}
+
+	@Test
+	@DisplayName("Batch checkout saves every item with its generated key")
+	void testBatchCheckOut() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+		Employee emp = new Employee(7, "Lead", SkillClassification.Welder);
+
+		CheckoutService.BatchCheckoutResult result = service.checkOutBatch(emp, items(9, 2, 4));
+		assertTrue(result.isCheckedOut(), result.getMessage());
+
+		// One transaction per item, in equipment ID order, each with a distinct generated key
+		List<Integer> ids = result.getTransactionIDs();
+		assertEquals(3, ids.size());
+		assertEquals(3, new HashSet<>(ids).size());
+		assertEquals(List.of(2, 4, 9), result.getTransactions().stream()
+				.map(t -> t.getEquipment().getEquipmentID()).toList());
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals(result.getTransactions().get(i).getEquipment().getEquipmentID(),
+					queryInt("SELECT equipmentID FROM transaction WHERE transactionID = " + ids.get(i)));
+		}
+
+		// Items are loaned and the employee tracks the new transactions
+		assertEquals(3, queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Loaned'"));
+		assertEquals(3, emp.getEmpTransaction().size());
+		assertEquals(3, service.getCheckoutCount());
+	}
+
+	@Test
+	@DisplayName("Batch checkout is all-or-nothing")
+	void testBatchAllOrNothing() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+		assertTrue(service.checkOut(newCheckout(1, 6)).isCheckedOut());
+		Employee emp = new Employee(7, "Lead", SkillClassification.Welder);
+
+		// Item 6 is already loaned and 999 does not exist, so nothing is saved
+		CheckoutService.BatchCheckoutResult result = service.checkOutBatch(emp, items(5, 6, 7, 999));
+		assertEquals(CheckoutService.Outcome.UNAVAILABLE, result.getOutcome());
+		assertEquals(List.of(6, 999), result.getUnavailableIDs());
+		assertTrue(result.getTransactionIDs().isEmpty());
+
+		// Only the earlier single checkout is in the database
+		assertEquals(1, queryInt("SELECT COUNT(*) FROM transaction"));
+		assertEquals(1, queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Loaned'"));
+		assertEquals(0, queryInt("SELECT rowVersion FROM equipment WHERE equipmentID = 5"));
+		assertTrue(emp.getEmpTransaction().isEmpty(), "Failed batch should not be tracked");
+	}
+
+	@Test
+	@DisplayName("Overlapping batches never share an item")
+	void testBatchRace() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+
+		// Each thread wants a kit of 4 consecutive items, overlapping its neighbours
+		List<Future<CheckoutService.BatchCheckoutResult>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int first = 1 + t % (EQUIPMENT_COUNT - 3);
+			Employee emp = new Employee(t + 1, "Lead" + t, SkillClassification.Welder);
+			futures.add(pool.submit(() -> {
+				start.await();
+				return service.checkOutBatch(emp, items(first + 3, first + 2, first + 1, first));
+			}));
+		}
+		start.countDown();
+
+		// Winning kits are disjoint and every loaned item belongs to one of them
+		Set<Integer> loaned = new HashSet<>();
+		for (Future<CheckoutService.BatchCheckoutResult> future : futures) {
+			CheckoutService.BatchCheckoutResult result = future.get(30, TimeUnit.SECONDS);
+			if (result.isCheckedOut()) {
+				for (Transaction txn : result.getTransactions()) {
+					assertTrue(loaned.add(txn.getEquipment().getEquipmentID()), "Item loaned twice");
+				}
+			}
+		}
+		pool.shutdown();
+
+		assertFalse(loaned.isEmpty(), "At least one kit should be checked out");
+		assertEquals(loaned.size(), queryInt("SELECT COUNT(*) FROM transaction"));
+		assertEquals(loaned.size(), queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Loaned'"));
+	}
+
+	@Test
+	@DisplayName("Orders and cancellations never overwrite a loan")
+	void testOrdersRaceCheckouts() throws Exception {
+		CheckoutService service = newService(CheckoutService.DEFAULT_MAX_ATTEMPTS);
+		Employee orderer = new Employee(1, "Emp1", SkillClassification.Welder);
+
+		// Clerk A lists item 1 as available, clerk B loans it, then A confirms the order
+		Equipment listed = EquipmentDAO.getEquipmentByID(conn, 1);
+		assertTrue(service.checkOut(newCheckout(2, 1)).isCheckedOut());
+		assertEquals(Employee.ORDER_CONFLICT, orderer.orderEquipment(conn, listed));
+		assertEquals("Loaned", queryString("SELECT equipStatus FROM equipment WHERE equipmentID = 1"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM `order`"), "The refused order should be rolled back");
+
+		// A cancellation only frees an item its order still holds
+		assertEquals(Employee.ORDER_CONFIRMED, orderer.orderEquipment(conn, EquipmentDAO.getEquipmentByID(conn, 2)));
+		assertEquals(1, queryInt("SELECT rowVersion FROM equipment WHERE equipmentID = 2"));
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("UPDATE equipment SET equipStatus = 'Lost' WHERE equipmentID = 2");
+		}
+		int orderID = queryInt("SELECT MAX(orderID) FROM `order`");
+		assertTrue(orderer.cancelOrder(conn, orderID).startsWith("Failed to cancel order"));
+		assertEquals("Lost", queryString("SELECT equipStatus FROM equipment WHERE equipmentID = 2"));
+		assertEquals("Confirmed", queryString("SELECT orderStatus FROM `order` WHERE orderID = " + orderID));
+
+		// Half the clerks check out items 3 to 7, the others order and cancel them from stale listings
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int empID = t + 1;
+			boolean ordering = t % 2 == 0;
+			futures.add(pool.submit(() -> {
+				start.await();
+				Random random = new Random(empID);
+				Employee clerk = new Employee(empID, "Emp" + empID, SkillClassification.Welder);
+				try (Connection own = DriverManager.getConnection(URL, "sa", "")) {
+					for (int i = 0; i < 30; i++) {
+						int equipmentID = 3 + random.nextInt(5);
+						if (!ordering) {
+							service.checkOut(newCheckout(empID, equipmentID));
+							continue;
+						}
+						Equipment stale = new Equipment(equipmentID, "Item" + equipmentID, EquipmentCondition.Good,
+								EquipmentStatus.Available, SkillClassification.Welder);
+						if (Employee.ORDER_CONFIRMED.equals(clerk.orderEquipment(own, stale))) {
+							int placed;
+							try (Statement stmt = own.createStatement();
+									ResultSet rs = stmt.executeQuery("SELECT MAX(orderID) FROM `order` WHERE empID = " + empID)) {
+								rs.next();
+								placed = rs.getInt(1);
+							}
+							assertEquals("Order successfully cancelled", clerk.cancelOrder(own, placed));
+						}
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		// Every loaned item has exactly one open loan, and no order is left holding an item
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM (SELECT equipmentID FROM transaction "
+				+ "WHERE transactionStatus = 'Borrowed' GROUP BY equipmentID HAVING COUNT(*) > 1) twice"), "Item loaned twice");
+		assertEquals(queryInt("SELECT COUNT(*) FROM transaction"),
+				queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Loaned'"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Ordered'"));
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * ConnectionPoolTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the ConnectionPool used by DBConnect
+ *   against an H2 in-memory database. The following is tested:
+ *
+ *   1. Closing a borrowed connection returns it to the pool for reuse.
+ *   2. The pool never opens more than its maximum size and times out waiting callers.
+ *   3. Uncommitted work is rolled back and auto-commit restored on return.
+ *   4. A closed handle cannot be used again.
+ *   5. Prepared statements are cached per connection and reused by SQL text.
+ *
+ * Test Case ID: TC-DB-001-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for connections and statements
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Import JUnit annotations for setup, teardown, test, and display name
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import the ECS connection pool
+import ecsapplication.ConnectionPool;
+
+class ConnectionPoolTest {
+
+	// Separate H2 database so the pool does not interfere with other test classes
+	private static final String URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+
+	private ConnectionPool pool;   // Pool under test
+
+	@BeforeEach
+	void setup() throws Exception {
+
+		// Load H2 database driver
+		Class.forName("org.h2.Driver");
+
+		// Create a small pool: 1 connection minimum, 2 maximum, 200 ms borrow timeout
+		pool = new ConnectionPool(URL, "sa", "", 1, 2, 200, 60_000, 0);
+
+		// Create a table used to check commit/rollback behavior
+		try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+			stmt.execute("DROP TABLE IF EXISTS pool_check");
+			stmt.execute("CREATE TABLE pool_check (id INT PRIMARY KEY)");
+		}
+	}
+
+	@AfterEach
+	void teardown() {
+		// Close all pooled connections
+		pool.close();
+	}
+
+	// --- Scenario 1: Connections are reused ---
+	@Test
+	@DisplayName("Scenario 1: Closed connections are returned and reused")
+	void testConnectionIsReused() throws Exception {
+
+		// Borrow and return a connection several times
+		for (int i = 0; i < 5; i++) {
+			try (Connection conn = pool.getConnection()) {
+				assertTrue(conn.isValid(1), "Borrowed connection should be valid");
+			}
+		}
+
+		// Only the initial connection should ever have been opened
+		assertEquals(1, pool.getCreatedCount(), "Pool should reuse its connection instead of reconnecting");
+		assertEquals(0, pool.getActiveCount(), "No connection should remain borrowed");
+		assertEquals(1, pool.getIdleCount(), "Returned connection should be idle in the pool");
+	}
+
+	// --- Scenario 2: The pool is bounded ---
+	@Test
+	@DisplayName("Scenario 2: Pool never exceeds its maximum size")
+	void testPoolIsBounded() throws Exception {
+
+		// Borrow every connection the pool allows
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+		assertEquals(2, pool.getOpenCount(), "Pool should open up to its maximum size");
+
+		// A third borrow must wait and then time out
+		assertThrows(SQLException.class, () -> pool.getConnection(), "Borrow should time out when the pool is exhausted");
+		assertEquals(1, pool.getTimeoutCount(), "Timeout should be recorded in the metrics");
+		assertTrue(pool.getMaxWaitMillis() >= 0, "Wait time should be recorded");
+
+		// Returning one connection makes it available again
+		first.close();
+		try (Connection third = pool.getConnection()) {
+			assertNotNull(third);
+		}
+		second.close();
+		assertEquals(2, pool.getOpenCount(), "No extra physical connections should be opened");
+	}
+
+	// --- Scenario 3: Connections are reset when returned ---
+	@Test
+	@DisplayName("Scenario 3: Uncommitted work is rolled back on return")
+	void testUncommittedWorkIsRolledBack() throws Exception {
+
+		// Insert a row without committing, then return the connection
+		try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+			conn.setAutoCommit(false);
+			stmt.execute("INSERT INTO pool_check VALUES (1)");
+		}
+
+		// The next borrower should see auto-commit restored and no leftover row
+		try (Connection conn = pool.getConnection();
+				Statement stmt = conn.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_check")) {
+			assertTrue(conn.getAutoCommit(), "Auto-commit should be restored");
+			assertTrue(rs.next());
+			assertEquals(0, rs.getInt(1), "Uncommitted insert should have been rolled back");
+		}
+	}
+
+	// --- Scenario 4: Closed handles are rejected ---
+	@Test
+	@DisplayName("Scenario 4: A closed handle cannot be used")
+	void testClosedHandleIsRejected() throws Exception {
+
+		// Borrow and return a connection, keeping the old reference
+		Connection conn = pool.getConnection();
+		conn.close();
+
+		// The stale handle reports closed and refuses to run statements
+		assertTrue(conn.isClosed(), "Handle should report closed after being returned");
+		assertThrows(SQLException.class, () -> conn.createStatement(), "Stale handle should not be usable");
+
+		// Closing twice has no effect on the pool
+		conn.close();
+		assertEquals(1, pool.getIdleCount(), "Double close should not return the connection twice");
+	}
+
+	// --- Scenario 5: Prepared statements are cached ---
+	@Test
+	@DisplayName("Scenario 5: Prepared statements are reused from the cache")
+	void testPreparedStatementsAreCached() throws Exception {
+
+		String sql = "SELECT COUNT(*) FROM pool_check WHERE id > ?";
+		long hitsBefore = pool.getStatementCacheHits();
+		long missesBefore = pool.getStatementCacheMisses();
+
+		// Prepare the same SQL on three separate borrows of the pooled connection
+		for (int i = 0; i < 3; i++) {
+			try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+				stmt.setInt(1, i);
+				try (ResultSet rs = stmt.executeQuery()) {
+					assertTrue(rs.next(), "Cached statement should still execute");
+				}
+			}
+		}
+
+		// First prepare is a miss, the following two are hits
+		assertEquals(1, pool.getStatementCacheMisses() - missesBefore, "Only the first prepare should miss");
+		assertEquals(2, pool.getStatementCacheHits() - hitsBefore, "Later prepares should hit the cache");
+
+		// Preparing the same SQL while it is still open (nested call) returns a separate statement
+		try (Connection conn = pool.getConnection();
+				PreparedStatement outer = conn.prepareStatement(sql);
+				PreparedStatement inner = conn.prepareStatement(sql)) {
+			assertNotSame(outer, inner, "Nested prepare should not share the open statement");
+			inner.setInt(1, 0);
+			outer.setInt(1, 0);
+			try (ResultSet rs = inner.executeQuery()) {
+				assertTrue(rs.next());
+			}
+		}
+	}
+}
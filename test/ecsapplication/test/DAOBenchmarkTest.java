@@ -0,0 +1,164 @@
+/**
+ * DAOBenchmarkTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the DAO benchmark harness in the bench
+ *   folder (DAOBenchmark) on a small H2 data set with very short
+ *   iterations. The following is tested:
+ *
+ *   1. Every public method of TransactionDAO, EquipmentDAO, OrderDAO,
+ *      ReminderDAO and EmployeeDAO has a benchmark, apart from the
+ *      accessors and row mappers the harness documents as excluded.
+ *   2. A run writes a JMH-style JSON result with a score for every
+ *      benchmark, and leaves the seeded data as it found it.
+ *   3. Compared with a faster baseline, the run reports regressions and
+ *      returns a failing status; within the threshold it does not.
+ *
+ * Test Case ID: TC-PERF-001-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import file, reflection and JDBC classes
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+
+// Import collections
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Import ECS classes and the benchmark harness
+import ecsapplication.EmployeeDAO;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.OrderDAO;
+import ecsapplication.ReminderDAO;
+import ecsapplication.TransactionDAO;
+import ecsapplication.bench.BenchmarkDatabase;
+import ecsapplication.bench.BenchmarkReport;
+import ecsapplication.bench.BenchmarkRunner;
+import ecsapplication.bench.DAOBenchmark;
+
+class DAOBenchmarkTest {
+
+	// Public methods the harness leaves out on purpose (see DAOBenchmark)
+	private static final Set<String> EXCLUDED = Set.of(
+			"EquipmentDAO.setCache", "EquipmentDAO.getCache", "EquipmentDAO.mapResultSetToEquipment",
+			"EmployeeDAO.setDirectory", "EmployeeDAO.getDirectory", "EmployeeDAO.mapResultSetToEmployee",
+			"TransactionDAO.mapJoinedTransaction", "TransactionDAO.returnEquipment");
+
+	// Small data set and very short iterations
+	private static final String[] SMOKE_RUN = { "--employees", "20", "--equipment", "200", "--transactions", "2000",
+			"--warmup", "0", "--iterations", "2", "--time", "5" };
+
+	@TempDir
+	Path folder;   // Result files
+
+	// Names of the benchmarks the harness defines, on a fresh in-memory data set
+	private static Set<String> benchmarkNames(String database) throws Exception {
+		BenchmarkDatabase db = BenchmarkDatabase.inMemory(database, 20, 200, 2000);
+		db.create();
+
+		Set<String> names = new TreeSet<>();
+		try (Connection conn = db.getConnection(); Connection tx = db.getConnection()) {
+			tx.setAutoCommit(false);
+			for (BenchmarkRunner.Benchmark benchmark : new DAOBenchmark(conn, tx).benchmarks()) {
+				names.add(benchmark.getName());
+			}
+		}
+		return names;
+	}
+
+	// ============================================================
+	// 1. Every public DAO method has a benchmark
+	// ============================================================
+	@Test
+	@DisplayName("Every public DAO method is benchmarked or documented as excluded")
+	void testEveryDaoMethodIsBenchmarked() throws Exception {
+		Set<String> benchmarked = new TreeSet<>();
+		for (String benchmark : benchmarkNames("daobenchmarkcoverage")) {
+
+			// "TransactionDAO.getTransactionsPage.descending" covers TransactionDAO.getTransactionsPage
+			String[] parts = benchmark.split("\\.");
+			benchmarked.add(parts[0] + "." + parts[1]);
+		}
+
+		List<String> missing = new ArrayList<>();
+		for (Class<?> dao : List.of(TransactionDAO.class, EquipmentDAO.class, OrderDAO.class, ReminderDAO.class,
+				EmployeeDAO.class)) {
+			for (Method method : dao.getDeclaredMethods()) {
+				String name = dao.getSimpleName() + "." + method.getName();
+				if (Modifier.isPublic(method.getModifiers()) && !EXCLUDED.contains(name) && !benchmarked.contains(name)) {
+					missing.add(name);
+				}
+			}
+		}
+		assertTrue(missing.isEmpty(), "Public DAO methods without a benchmark: " + missing);
+	}
+
+	// ============================================================
+	// 2 and 3. A run writes the JSON result and flags regressions
+	// ============================================================
+	@Test
+	@DisplayName("A benchmark run writes a score for every benchmark and reports regressions against a baseline")
+	void testRunWritesJsonAndReportsRegressions() throws Exception {
+		Path out = folder.resolve("dao-benchmark.json");
+		Path baseline = folder.resolve("baseline.json");
+
+		// A baseline where every benchmark took one nanosecond: everything regressed
+		String fast = "[ { \"benchmark\" : \"%s\", \"mode\" : \"avgt\", \"primaryMetric\" : { \"score\" : 0.001, "
+				+ "\"scoreUnit\" : \"us/op\" } } ]";
+		List<String> baselineEntries = new ArrayList<>();
+		for (String name : new String[] { "TransactionDAO.countTransactions", "OrderDAO.countOrders" }) {
+			baselineEntries.add(String.format(fast, name));
+		}
+		Files.writeString(baseline, String.join("\n", baselineEntries));
+
+		List<String> args = new ArrayList<>(List.of(SMOKE_RUN));
+		args.addAll(List.of("--out", out.toString(), "--baseline", baseline.toString(), "--fail-on-regression"));
+		assertEquals(1, DAOBenchmark.run(args.toArray(new String[0])), "A slower run must fail with --fail-on-regression");
+
+		// One positive score per benchmark, in the JMH layout
+		Map<String, Double> scores = BenchmarkReport.readScores(out);
+		for (String name : benchmarkNames("daobenchmarknames")) {
+			assertTrue(scores.containsKey(name), "No score for " + name + " in " + scores.keySet());
+		}
+		for (Map.Entry<String, Double> score : scores.entrySet()) {
+			assertTrue(score.getValue() > 0, "Score of " + score.getKey());
+		}
+		String json = Files.readString(out);
+		assertTrue(json.contains("\"mode\" : \"avgt\"") && json.contains("\"scoreUnit\" : \"us/op\"")
+				&& json.contains("\"scorePercentiles\"") && json.contains("\"rawData\""));
+
+		// Updates were rolled back or undone: the seeded rows are unchanged
+		BenchmarkDatabase db = BenchmarkDatabase.inMemory("daobenchmark", 20, 200, 2000);
+		assertEquals(2000, db.queryInt("SELECT COUNT(*) FROM transaction"));
+		assertEquals(db.getOrders(), db.queryInt("SELECT COUNT(*) FROM `order`"));
+		assertEquals(60, db.queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Loaned'"));
+		assertEquals(60, db.queryInt("SELECT COUNT(*) FROM transaction WHERE transactionStatus = 'Borrowed'"));
+		assertEquals(60, db.queryInt("SELECT COUNT(*) FROM reminder"));
+
+		// Against the threshold: 5% faster is not a regression, twice as slow is
+		BenchmarkRunner.Result result = new BenchmarkRunner(0, 2, 1)
+				.run(new BenchmarkRunner.Benchmark("OrderDAO.countOrders", () -> { }));
+		List<BenchmarkReport.Comparison> faster = BenchmarkReport.compare(List.of(result),
+				Map.of("OrderDAO.countOrders", result.getScore() * 1.05), 10.0);
+		List<BenchmarkReport.Comparison> slower = BenchmarkReport.compare(List.of(result),
+				Map.of("OrderDAO.countOrders", result.getScore() / 2), 10.0);
+		assertFalse(faster.get(0).isRegression(), faster.get(0).toString());
+		assertTrue(slower.get(0).isRegression(), slower.get(0).toString());
+	}
+}
@@ -0,0 +1,278 @@
+/**
+ * DataImporterTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the bulk importer (DataImporter) for
+ *   equipment, employees and historical transactions against an H2
+ *   in-memory database. The following is tested:
+ *
+ *   1. A 50,000-row equipment CSV is streamed in chunks with progress
+ *      reports, and invalid rows are skipped with their line numbers.
+ *   2. RFC 4180 quoting (commas, quotes and line breaks in fields).
+ *   3. NDJSON employees and transactions, including case-insensitive enums.
+ *   4. Invalid headers are refused before anything is written.
+ *   5. A chunk rejected by the database is rolled back; earlier chunks stay.
+ *   6. Imported transactions update the equipment's last return condition
+ *      and loaned status, even when a later chunk fails, and the cached
+ *      catalog is dropped.
+ *
+ *   Rows per second for the large import are printed to the console.
+ *
+ * Test Case ID: TC-IMP-001-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import I/O classes for the input files
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Import collections
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Import ECS classes and enums
+import ecsapplication.DataImporter;
+import ecsapplication.EquipmentCache;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.enums.SkillClassification;
+
+class DataImporterTest {
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@TempDir
+	Path tempDir;              // Folder for generated input files
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection("jdbc:h2:mem:importer;DB_CLOSE_DELAY=-1", "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Rebuild the tables for each test
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20) NOT NULL, "
+					+ "skillClassification VARCHAR(20) NOT NULL)");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20) NOT NULL, "
+					+ "equipmentCondition VARCHAR(15) NOT NULL, requiredSkill VARCHAR(20) NOT NULL, "
+					+ "equipStatus VARCHAR(20) DEFAULT 'Available' NOT NULL, lastReturnCondition VARCHAR(15), "
+					+ "rowVersion INT NOT NULL DEFAULT 0)");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+					+ "equipmentID INT NOT NULL, orderID INT, borrowDate DATE NOT NULL, expectedReturnDate DATE, "
+					+ "transactionStatus VARCHAR(20), returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+		}
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		EquipmentDAO.setCache(null);
+		conn.close();
+	}
+
+	// Runs one query that returns a single value as text
+	private String query(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+
+	@Test
+	@DisplayName("Large equipment CSV is imported in chunks with progress")
+	void testLargeCsvImport() throws Exception {
+		int rows = 50_000;
+		Path file = tempDir.resolve("equipment.csv");
+
+		// Every 1000th row has an unknown skill and is rejected
+		try (BufferedWriter out = Files.newBufferedWriter(file)) {
+			out.write("equipmentID,equipmentName,equipmentCondition,requiredSkill,equipStatus\n");
+			for (int id = 1; id <= rows; id++) {
+				String skill = id % 1000 == 0 ? "Astronaut" : (id % 2 == 0 ? "Welder" : "plumber");
+				out.write(id + ",Item" + id + ",Good," + skill + "," + (id % 3 == 0 ? "Loaned" : "Available") + "\n");
+			}
+		}
+
+		List<DataImporter.ImportResult> progress = new CopyOnWriteArrayList<>();
+		DataImporter importer = new DataImporter(1000, progress::add);
+		DataImporter.ImportResult result = importer.importFile(conn, file, DataImporter.Target.EQUIPMENT);
+
+		System.out.println("Equipment import: " + result);
+		int rejected = rows / 1000;
+		assertEquals(rows, result.getRowsRead());
+		assertEquals(rows - rejected, result.getRowsImported());
+		assertEquals(rejected, result.getRowsRejected());
+		assertEquals("Line 1001: requiredSkill has an unknown value: Astronaut", result.getErrors().get(0));
+		assertTrue(result.getRowsPerSecond() > 0);
+
+		// One report per full chunk plus the final one, with growing counts
+		assertEquals((rows - rejected) / 1000 + 1, progress.size());
+		assertEquals(1000, progress.get(0).getRowsImported());
+		assertEquals(rows - rejected, progress.get(progress.size() - 1).getRowsImported());
+
+		// Rows match the file, with enums stored in their canonical spelling
+		assertEquals(String.valueOf(rows - rejected), query("SELECT COUNT(*) FROM equipment"));
+		assertEquals("Plumber", query("SELECT requiredSkill FROM equipment WHERE equipmentID = 1"));
+		assertEquals("Loaned", query("SELECT equipStatus FROM equipment WHERE equipmentID = 3"));
+		assertTrue(conn.getAutoCommit(), "Auto-commit should be restored");
+	}
+
+	@Test
+	@DisplayName("Quoted CSV fields and invalid rows")
+	void testCsvQuotingAndValidation() throws Exception {
+		String csv = "equipmentName,equipmentID,requiredSkill,equipmentCondition\r\n"
+				+ "\"Saw, circular\",1,Carpenter,Good\r\n"
+				+ "\"12\"\" \"\"pipe\"\"\",2,Plumber,Damaged\n"
+				+ "\"Two\nlines\",3,Painter,Good\n"
+				+ "\n"
+				+ ",4,Painter,Good\n"                                  // Missing name
+				+ "Drill,five,Painter,Good\n"                          // Bad ID
+				+ "A name that is far too long,6,Painter,Good\n"       // Name too long
+				+ "Mixer,7,Painter,Broken\n"                           // Unknown condition
+				+ "Ladder,8,Painter\n";                                // Missing field
+
+		DataImporter.ImportResult result = new DataImporter().importData(conn, new StringReader(csv),
+				DataImporter.Target.EQUIPMENT, DataImporter.Format.CSV);
+
+		assertEquals(3, result.getRowsImported());
+		assertEquals(5, result.getRowsRejected());
+		assertEquals(List.of(
+				"Line 7: equipmentName is required",
+				"Line 8: equipmentID is not a whole number: five",
+				"Line 9: equipmentName is longer than 20 characters",
+				"Line 10: equipmentCondition has an unknown value: Broken",
+				"Line 11: Expected 4 fields but found 3"), result.getErrors());
+
+		// Quoted values are stored exactly, and the table default fills equipStatus
+		assertEquals("Saw, circular", query("SELECT equipmentName FROM equipment WHERE equipmentID = 1"));
+		assertEquals("12\" \"pipe\"", query("SELECT equipmentName FROM equipment WHERE equipmentID = 2"));
+		assertEquals("Two\nlines", query("SELECT equipmentName FROM equipment WHERE equipmentID = 3"));
+		assertEquals("Available", query("SELECT equipStatus FROM equipment WHERE equipmentID = 1"));
+	}
+
+	@Test
+	@DisplayName("NDJSON employees and historical transactions")
+	void testNdjsonImport() throws Exception {
+		String employees = "{\"empID\": 1, \"empName\": \"Jorge\", \"skillClassification\": \"ELECTRICIAN\"}\n"
+				+ "{\"empName\": \"Ana \\\"AJ\\\"\", \"empID\": 2, \"skillClassification\": \"Welder\"}\n"
+				+ "{\"empID\": 3, \"empName\": \"Bad\", \"skillClassification\": \"Welder\", \"age\": 40}\n"
+				+ "{\"empID\": 4, \"empName\": \"Broken\"\n";
+		DataImporter.ImportResult empResult = new DataImporter().importData(conn, new StringReader(employees),
+				DataImporter.Target.EMPLOYEE, DataImporter.Format.NDJSON);
+		assertEquals(2, empResult.getRowsImported());
+		assertEquals(2, empResult.getRowsRejected());
+		assertEquals("Line 3: Unexpected field: age", empResult.getErrors().get(0));
+		assertTrue(empResult.getErrors().get(1).startsWith("Line 4: Invalid JSON"));
+		assertEquals("Electrician", query("SELECT skillClassification FROM employee WHERE empID = 1"));
+		assertEquals("Ana \"AJ\"", query("SELECT empName FROM employee WHERE empID = 2"));
+
+		// Historical transactions keep their IDs; absent and null fields are stored as NULL
+		String transactions = "{\"transactionID\": 500, \"empID\": 1, \"equipmentID\": 9, \"borrowDate\": \"2024-01-02\", "
+				+ "\"returnDate\": \"2024-02-01\", \"transactionStatus\": \"returned\", \"returnCondition\": \"Damaged\"}\n"
+				+ "{\"transactionID\": 501, \"empID\": 2, \"equipmentID\": 10, \"borrowDate\": \"2024-03-04\", "
+				+ "\"transactionStatus\": \"Borrowed\", \"returnCondition\": null}\n"
+				+ "{\"transactionID\": 502, \"empID\": 2, \"equipmentID\": 11, \"borrowDate\": \"03/04/2024\"}\n";
+		DataImporter.ImportResult txnResult = new DataImporter().importData(conn, new StringReader(transactions),
+				DataImporter.Target.TRANSACTION, DataImporter.Format.NDJSON);
+		assertEquals(2, txnResult.getRowsImported());
+		assertEquals("Line 3: borrowDate is not a yyyy-MM-dd date: 03/04/2024", txnResult.getErrors().get(0));
+		assertEquals("Returned", query("SELECT transactionStatus FROM transaction WHERE transactionID = 500"));
+		assertEquals("2024-02-01", query("SELECT returnDate FROM transaction WHERE transactionID = 500"));
+		assertNull(query("SELECT returnDate FROM transaction WHERE transactionID = 501"));
+	}
+
+	@Test
+	@DisplayName("Invalid headers are refused")
+	void testInvalidHeader() {
+		DataImporter importer = new DataImporter();
+		IOException unknown = assertThrows(IOException.class, () -> importer.importData(conn,
+				new StringReader("empID,empName,skillClassification,salary\n1,A,Welder,10\n"),
+				DataImporter.Target.EMPLOYEE, DataImporter.Format.CSV));
+		assertEquals("Unknown column for employee: salary", unknown.getMessage());
+
+		IOException missing = assertThrows(IOException.class, () -> importer.importData(conn,
+				new StringReader("empID,empName\n1,A\n"), DataImporter.Target.EMPLOYEE, DataImporter.Format.CSV));
+		assertEquals("Missing required column for employee: skillClassification", missing.getMessage());
+	}
+
+	@Test
+	@DisplayName("A rejected chunk is rolled back and earlier chunks stay")
+	void testChunkFailure() throws Exception {
+
+		// The ID in the 7th data row repeats the 1st, so the second chunk of 5 fails
+		StringBuilder csv = new StringBuilder("empID,empName,skillClassification\n");
+		for (int i = 1; i <= 10; i++) {
+			csv.append(i == 7 ? 1 : i).append(",Emp").append(i).append(",Painter\n");
+		}
+
+		DataImporter importer = new DataImporter(5, null);
+		SQLException e = assertThrows(SQLException.class, () -> importer.importData(conn,
+				new StringReader(csv.toString()), DataImporter.Target.EMPLOYEE, DataImporter.Format.CSV));
+		assertTrue(e.getMessage().startsWith("Import failed in the chunk starting at line 7"), e.getMessage());
+
+		assertEquals("5", query("SELECT COUNT(*) FROM employee"));
+		assertTrue(conn.getAutoCommit(), "Auto-commit should be restored");
+	}
+
+	@Test
+	@DisplayName("Imported transactions update the equipment and drop the cached catalog")
+	void testTransactionsUpdateEquipment() throws Exception {
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("INSERT INTO equipment (equipmentID, equipmentName, equipmentCondition, requiredSkill, equipStatus) "
+					+ "VALUES (1, 'Saw', 'Good', 'Welder', 'Available'), (2, 'Drill', 'Good', 'Welder', 'Available'), "
+					+ "(3, 'Torch', 'Good', 'Welder', 'Lost'), (4, 'Mixer', 'Good', 'Welder', 'Available')");
+		}
+		EquipmentCache cache = new EquipmentCache(() -> DriverManager.getConnection("jdbc:h2:mem:importer", "sa", ""), 60_000);
+		EquipmentDAO.setCache(cache);
+		cache.getAllEquipment();
+		long loads = cache.getLoadCount();
+
+		// Item 1 was returned twice (the later return counts), item 2 and the lost item 3 are still out;
+		// the second chunk repeats transaction 13 and fails
+		String csv = "transactionID,empID,equipmentID,borrowDate,transactionStatus,returnCondition\n"
+				+ "10,1,1,2024-01-02,Returned,Good\n"
+				+ "11,1,1,2024-02-02,Returned,Damaged\n"
+				+ "12,1,2,2024-03-02,Borrowed,\n"
+				+ "13,1,3,2024-03-02,Late,\n"
+				+ "13,1,4,2024-03-02,Borrowed,\n";
+		DataImporter importer = new DataImporter(4, null);
+		assertThrows(SQLException.class, () -> importer.importData(conn, new StringReader(csv),
+				DataImporter.Target.TRANSACTION, DataImporter.Format.CSV));
+
+		assertEquals("Damaged", query("SELECT lastReturnCondition FROM equipment WHERE equipmentID = 1"));
+		assertEquals("Available", query("SELECT equipStatus FROM equipment WHERE equipmentID = 1"));
+		assertEquals("Loaned", query("SELECT equipStatus FROM equipment WHERE equipmentID = 2"));
+		assertEquals("Lost", query("SELECT equipStatus FROM equipment WHERE equipmentID = 3"));
+		assertEquals("Available", query("SELECT equipStatus FROM equipment WHERE equipmentID = 4"));
+		assertTrue(conn.getAutoCommit(), "Auto-commit should be restored");
+
+		// The cache reloads and shows the imported state
+		assertEquals(2, cache.getAvailableEquipmentBySkill(SkillClassification.Welder).size());
+		assertEquals(loads + 1, cache.getLoadCount());
+	}
+}
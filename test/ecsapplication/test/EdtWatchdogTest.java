@@ -0,0 +1,177 @@
+/**
+ * EdtWatchdogTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the EdtWatchdog, which reports events
+ *   that keep the Swing Event Dispatch Thread (EDT) busy, such as a
+ *   MainApp listener running JDBC. The following is tested:
+ *
+ *   1. An event longer than the threshold is logged as a stall, with the
+ *      stack of the listener that was stuck; short events are not.
+ *   2. An event that runs a nested event loop (like a modal dialog) is
+ *      not reported, since the EDT keeps dispatching.
+ *   3. Stalls are counted in the metrics registry and listed in the
+ *      Diagnostics panel.
+ *
+ * Test Case ID: TC-DIAG-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import AWT classes for the event queue
+import java.awt.EventQueue;
+import java.awt.SecondaryLoop;
+import java.awt.Toolkit;
+
+// Import collections and concurrency utilities
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes
+import ecsapplication.Diagnostics;
+import ecsapplication.DiagnosticsPanel;
+import ecsapplication.EdtWatchdog;
+import ecsapplication.MetricsRegistry;
+
+class EdtWatchdogTest {
+
+	private EdtWatchdog watchdog;   // 100 ms threshold, sampled every 10 ms
+
+	// Loads the Swing classes first, so building a panel in a test is not a stall
+	@BeforeAll
+	static void loadSwing() throws Exception {
+		EventQueue.invokeAndWait(() -> new DiagnosticsPanel(new MetricsRegistry(), new EdtWatchdog(100, 10)).refresh());
+	}
+
+	@BeforeEach
+	void setUp() {
+		watchdog = new EdtWatchdog(100, 10);
+		watchdog.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		watchdog.stop();
+	}
+
+	// Runs an event on the EDT and waits until the EDT has finished it
+	// (invokeAndWait returns as soon as the runnable is done, before the
+	// watchdog has logged the event)
+	private static void runOnEdt(Runnable event) throws Exception {
+		EventQueue.invokeAndWait(event);
+		EventQueue.invokeAndWait(() -> { });
+	}
+
+	// Stands in for a listener like MainApp.FillTable that blocks the EDT
+	private static void fillTableSlowly(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// ============================================================
+	// 1. Long events are logged with the stuck listener's stack
+	// ============================================================
+	@Test
+	@DisplayName("An event longer than the threshold is logged with the stack of the stuck listener")
+	void testStallCaptured() throws Exception {
+		List<EdtWatchdog.Stall> heard = new CopyOnWriteArrayList<>();
+		watchdog.addStallListener(heard::add);
+
+		// Short events are counted but are not stalls
+		for (int i = 0; i < 5; i++) {
+			runOnEdt(() -> fillTableSlowly(1));
+		}
+		assertTrue(watchdog.getEventCount() >= 5);
+		assertEquals(0, watchdog.getStallCount());
+
+		runOnEdt(() -> fillTableSlowly(300));
+		assertEquals(1, watchdog.getStallCount());
+		assertEquals(1, heard.size());
+
+		EdtWatchdog.Stall stall = watchdog.getStalls().get(0);
+		assertSame(stall, heard.get(0));
+		assertTrue(stall.getMillis() >= 300, "Stall of " + stall.getMillis() + " ms");
+		assertEquals(stall.getMillis(), watchdog.getMaxStallMillis(), 1e-9);
+		assertTrue(stall.getEvent().startsWith("InvocationEvent"), stall.getEvent());
+
+		// The stack was taken while the listener was stuck in Thread.sleep
+		assertTrue(stall.getEcsFrames().startsWith("EdtWatchdogTest.fillTableSlowly"), stall.getEcsFrames());
+		assertEquals("java.lang.Thread", stall.getStack()[0].getClassName());
+		assertTrue(stall.toString().contains("EDT stall: "), stall.toString());
+	}
+
+	// ============================================================
+	// 2. Nested event loops are not stalls
+	// ============================================================
+	@Test
+	@DisplayName("An event that keeps dispatching through a nested event loop is not reported")
+	void testNestedLoopIgnored() throws Exception {
+		runOnEdt(() -> {
+			// Like a modal dialog: the EDT dispatches other events until the loop exits
+			SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+			Thread closer = new Thread(() -> {
+				fillTableSlowly(300);
+				loop.exit();
+			});
+			closer.start();
+			assertTrue(loop.enter());
+		});
+		assertEquals(0, watchdog.getStallCount());
+
+		// A stall inside the nested loop is still reported
+		runOnEdt(() -> {
+			SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+			EventQueue.invokeLater(() -> {
+				fillTableSlowly(200);
+				loop.exit();
+			});
+			assertTrue(loop.enter());
+		});
+		assertEquals(1, watchdog.getStallCount());
+		assertTrue(watchdog.getStalls().get(0).getEcsFrames().startsWith("EdtWatchdogTest.fillTableSlowly"));
+	}
+
+	// ============================================================
+	// 3. Metrics and the Diagnostics panel
+	// ============================================================
+	@Test
+	@DisplayName("Stalls are counted in the metrics registry and listed in the Diagnostics panel")
+	void testStallMetrics() throws Exception {
+		MetricsRegistry registry = new MetricsRegistry();
+		Diagnostics.registerEdtWatchdog(registry, watchdog);
+
+		DiagnosticsPanel[] panel = new DiagnosticsPanel[1];
+		runOnEdt(() -> panel[0] = new DiagnosticsPanel(registry, watchdog));
+		assertEquals("No EDT stalls over 100 ms.", panel[0].getStallLog());
+
+		runOnEdt(() -> fillTableSlowly(150));
+		runOnEdt(() -> fillTableSlowly(250));
+
+		assertEquals(2, ((MetricsRegistry.Counter) registry.get("ecs_edt_stalls_total")).getCount());
+		assertTrue(((MetricsRegistry.Counter) registry.get("ecs_edt_events_total")).getCount() >= 2);
+		MetricsRegistry.Timer stalls = (MetricsRegistry.Timer) registry.get("ecs_edt_stall_event_seconds");
+		assertEquals(2, stalls.getCount());
+		assertTrue(stalls.getMaxMillis() >= 250);
+
+		// The newest stall comes first
+		String[] lines = panel[0].getStallLog().split("\n");
+		assertEquals(2, lines.length);
+		List<EdtWatchdog.Stall> logged = watchdog.getStalls();
+		assertEquals(logged.get(1).toString(), lines[0]);
+		assertEquals(logged.get(0).toString(), lines[1]);
+		assertTrue(logged.get(1).getMillis() >= 250);
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ * EmployeeDirectoryTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the shared employee directory
+ *   (EmployeeDirectory) that fills the employee combo box and serves
+ *   per-row employee lookups, against an H2 in-memory database seeded
+ *   with 20 employees. The following is tested:
+ *
+ *   1. Lookups by empID and by skill match the employee table.
+ *   2. Snapshots cannot be modified.
+ *   3. invalidate() reloads in the background and notifies listeners of changes.
+ *   4. The periodic refresh picks up new employees on its own.
+ *   5. OrderDAO.getOrderByID() takes the order's employee from the directory.
+ *
+ * Test Case ID: TC-EMP-001-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+// Import collections and concurrency utilities
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes
+import ecsapplication.Employee;
+import ecsapplication.EmployeeDAO;
+import ecsapplication.EmployeeDirectory;
+import ecsapplication.Order;
+import ecsapplication.OrderDAO;
+import ecsapplication.enums.SkillClassification;
+
+class EmployeeDirectoryTest {
+
+	private static final String URL = "jdbc:h2:mem:employeedir;DB_CLOSE_DELAY=-1";
+	private static final int EMPLOYEE_COUNT = 20;   // Rows seeded into employee
+
+	private Connection conn;               // H2 in-memory database connection
+	private EmployeeDirectory directory;   // Directory under test
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection(URL, "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Rebuild the tables for each test
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS `order`");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE `order` (orderID INT PRIMARY KEY, empID INT, equipmentID INT, "
+					+ "orderDate DATE, pickUpDate DATE, orderStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+
+			// Employees alternate between Welder and Electrician
+			for (int id = 1; id <= EMPLOYEE_COUNT; id++) {
+				stmt.execute("INSERT INTO employee VALUES (" + id + ", 'Emp" + id + "', '"
+						+ (id % 2 == 0 ? "Welder" : "Electrician") + "')");
+			}
+			stmt.execute("INSERT INTO equipment VALUES (100, 'Torch', 'Good', 'Welder', 'Ordered')");
+			stmt.execute("INSERT INTO `order` VALUES (1, 4, 100, '2025-08-01', NULL, 'Confirmed')");
+		}
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+
+		// Disconnect the directory so other tests use the plain DAO
+		EmployeeDAO.setDirectory(null);
+		if (directory != null) {
+			directory.shutdown();
+		}
+		conn.close();
+	}
+
+	// Creates a directory that loads from this test's database
+	private static EmployeeDirectory newDirectory(long refreshMillis) {
+		return new EmployeeDirectory(() -> DriverManager.getConnection(URL, "sa", ""), refreshMillis);
+	}
+
+	// Adds an employee without going through the directory
+	private void insertEmployee(int empID, String name, String skill) throws Exception {
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("INSERT INTO employee VALUES (" + empID + ", '" + name + "', '" + skill + "')");
+		}
+	}
+
+	@Test
+	@DisplayName("Lookups by ID and skill match the employee table")
+	void testLookups() throws Exception {
+		directory = newDirectory(0);
+
+		// Every employee, in ID order, loaded with one query
+		List<Employee> all = directory.getAllEmployees();
+		assertEquals(EMPLOYEE_COUNT, all.size());
+		assertEquals(1, all.get(0).getEmpID());
+		assertEquals(1, directory.getRefreshCount(), "Only the first lookup should load");
+
+		// Lookup by ID returns the same shared object every time
+		Employee emp = directory.getEmployee(7);
+		assertEquals("Emp7", emp.getEmpName());
+		assertEquals(SkillClassification.Electrician, emp.getSkillClassification());
+		assertSame(emp, directory.getEmployee(7));
+		assertNull(directory.getEmployee(999), "Unknown IDs should return null");
+
+		// Lookup by skill
+		List<Employee> welders = directory.getEmployeesBySkill(SkillClassification.Welder);
+		assertEquals(EMPLOYEE_COUNT / 2, welders.size());
+		assertTrue(welders.stream().allMatch(e -> e.getEmpID() % 2 == 0));
+		assertTrue(directory.getEmployeesBySkill(SkillClassification.Plumber).isEmpty());
+
+		// Later lookups do not query again, and snapshots cannot be changed
+		assertEquals(1, directory.getRefreshCount());
+		assertThrows(UnsupportedOperationException.class, () -> all.remove(0));
+		assertThrows(UnsupportedOperationException.class, () -> welders.add(emp));
+	}
+
+	@Test
+	@DisplayName("invalidate() reloads in the background and notifies listeners")
+	void testInvalidate() throws Exception {
+		directory = newDirectory(0);
+		EmployeeDirectory.Snapshot before = directory.getSnapshot();
+		List<EmployeeDirectory.Snapshot> notified = new CopyOnWriteArrayList<>();
+		directory.addRefreshListener(notified::add);
+
+		// A new employee is not visible until the directory is invalidated
+		insertEmployee(21, "Newhire", "Plumber");
+		assertNull(directory.getEmployee(21));
+
+		// Reload and wait for the new snapshot
+		EmployeeDirectory.Snapshot after = directory.invalidate().get(5, TimeUnit.SECONDS);
+		assertNotSame(before, after);
+		assertSame(after, directory.getSnapshot());
+		assertEquals("Newhire", directory.getEmployee(21).getEmpName());
+		assertEquals(1, directory.getEmployeesBySkill(SkillClassification.Plumber).size());
+		assertEquals(List.of(after), notified, "Listeners should be told about the changed snapshot");
+
+		// The old snapshot is untouched
+		assertEquals(EMPLOYEE_COUNT, before.size());
+
+		// Reloading unchanged data does not notify listeners
+		directory.invalidate().get(5, TimeUnit.SECONDS);
+		assertEquals(1, notified.size());
+	}
+
+	@Test
+	@DisplayName("Periodic refresh picks up new employees")
+	void testPeriodicRefresh() throws Exception {
+		directory = newDirectory(50);
+		assertNull(directory.getEmployee(30));
+
+		// Wait for a background refresh to find the new employee
+		insertEmployee(30, "Later", "Welder");
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (directory.getEmployee(30) == null && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertNotNull(directory.getEmployee(30), "Background refresh should add the new employee");
+		assertTrue(directory.getRefreshCount() > 1);
+	}
+
+	@Test
+	@DisplayName("Order lookups take the employee from the directory")
+	void testOrderLookupUsesDirectory() throws Exception {
+
+		// Without a directory the employee is loaded from the database
+		Order withoutDirectory = OrderDAO.getOrderByID(conn, 1);
+		assertEquals("Emp4", withoutDirectory.getEmployee().getEmpName());
+
+		// With a directory the order shares the directory's employee object
+		directory = newDirectory(0);
+		EmployeeDAO.setDirectory(directory);
+		Order order = OrderDAO.getOrderByID(conn, 1);
+		assertSame(directory.getEmployee(4), order.getEmployee());
+
+		// Employees missing from the snapshot still come from the database
+		insertEmployee(40, "Missing", "Welder");
+		assertEquals("Missing", EmployeeDAO.lookupEmployee(conn, 40).getEmpName());
+	}
+}
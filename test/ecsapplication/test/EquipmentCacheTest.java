@@ -0,0 +1,287 @@
+/**
+ * EquipmentCacheTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the in-memory equipment catalog
+ *   (EquipmentCache) used by the checkout and order dialogs, against an
+ *   H2 in-memory database seeded with 50 pieces of equipment.
+ *   The following is tested:
+ *
+ *   1. The catalog is loaded once and later reads are hits that match the DAO.
+ *   2. EquipmentDAO updates are written through without reloading.
+ *   3. Changes made outside the DAO appear after the TTL or invalidate().
+ *   4. Cached reads make no database round trips.
+ *   5. The catalog loads outside the lock, once for concurrent readers,
+ *      without losing writes made meanwhile.
+ *   6. Changes made in a database transaction reach the cache only when
+ *      it commits; a rollback invalidates the catalog.
+ *
+ * Test Case ID: TC-CHK-004-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+// Import collections and concurrency utilities
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes
+import ecsapplication.Equipment;
+import ecsapplication.EquipmentCache;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.SkillClassification;
+
+class EquipmentCacheTest {
+
+	private static final String URL = "jdbc:h2:mem:equipcache;DB_CLOSE_DELAY=-1";
+	private static final int EQUIPMENT_COUNT = 50;   // Rows seeded into equipment
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection(URL, "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Rebuild the equipment table for each test
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20), "
+					+ "lastReturnCondition VARCHAR(15), rowVersion INT NOT NULL DEFAULT 0)");
+
+			// Equipment alternates between Welder and Plumber; every third item is loaned
+			for (int id = 1; id <= EQUIPMENT_COUNT; id++) {
+				stmt.execute("INSERT INTO equipment VALUES (" + id + ", 'Item" + id + "', 'Good', '"
+						+ (id % 2 == 0 ? "Welder" : "Plumber") + "', '"
+						+ (id % 3 == 0 ? "Loaned" : "Available") + "', "
+						+ (id % 5 == 0 ? "'Damaged'" : "NULL") + ", 0)");
+			}
+		}
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+
+		// Disconnect the write-through cache so other tests use the plain DAO
+		EquipmentDAO.setCache(null);
+		conn.close();
+	}
+
+	// Creates a cache that loads from this test's database
+	private static EquipmentCache newCache(long ttlMillis) {
+		return new EquipmentCache(() -> DriverManager.getConnection(URL, "sa", ""), ttlMillis);
+	}
+
+	// Extracts equipment IDs from a list of equipment
+	private static List<Integer> ids(List<Equipment> equipment) {
+		return equipment.stream().map(Equipment::getEquipmentID).collect(Collectors.toList());
+	}
+
+	@Test
+	@DisplayName("Catalog loads once and matches the DAO")
+	void testLoadAndHits() throws Exception {
+		EquipmentCache cache = newCache(EquipmentCache.DEFAULT_TTL_MS);
+
+		// First read loads the catalog
+		List<Equipment> available = cache.getAvailableEquipmentBySkill(SkillClassification.Welder);
+		assertEquals(1, cache.getMissCount(), "First read should miss");
+		assertEquals(1, cache.getLoadCount(), "First read should load the catalog");
+
+		// Same rows, order and conditions as the database query
+		List<Equipment> fromDAO = EquipmentDAO.getAvailableEquipmentBySkill(conn, SkillClassification.Welder);
+		assertEquals(ids(fromDAO), ids(available));
+		for (int i = 0; i < fromDAO.size(); i++) {
+			assertEquals(fromDAO.get(i).getEquipmentCondition(), available.get(i).getEquipmentCondition(),
+					"Condition should be the last return condition");
+		}
+		assertEquals(ids(EquipmentDAO.getOrderableEquipmentBySkill(conn, SkillClassification.Plumber)),
+				ids(cache.getOrderableEquipmentBySkill(SkillClassification.Plumber)));
+		assertEquals(EQUIPMENT_COUNT, cache.getAllEquipment().size());
+		assertEquals("Item7", cache.getEquipmentByID(7).getEquipmentName());
+		assertNull(cache.getEquipmentByID(999), "Unknown IDs should return null");
+
+		// Later reads are served from memory
+		assertEquals(1, cache.getLoadCount(), "Later reads should not reload");
+		assertEquals(4, cache.getHitCount());
+		assertEquals(0.8, cache.getHitRatio(), 1e-9);
+
+		// Changing a returned copy does not change the cache
+		cache.getEquipmentByID(2).setStatus(EquipmentStatus.Lost);
+		assertEquals(EquipmentStatus.Available, cache.getEquipmentByID(2).getStatus());
+	}
+
+	@Test
+	@DisplayName("DAO updates are written through without reloading")
+	void testWriteThrough() throws Exception {
+		EquipmentCache cache = newCache(EquipmentCache.DEFAULT_TTL_MS);
+		EquipmentDAO.setCache(cache);
+		cache.getAllEquipment();
+
+		// Status update moves the item out of the available list
+		assertTrue(ids(cache.getAvailableEquipmentBySkill(SkillClassification.Welder)).contains(2));
+		EquipmentDAO.updateEquipmentStatus(conn, 2, EquipmentStatus.Loaned);
+		assertFalse(ids(cache.getAvailableEquipmentBySkill(SkillClassification.Welder)).contains(2));
+		assertEquals(EquipmentStatus.Loaned, cache.getEquipmentByID(2).getStatus());
+
+		// Full update brings it back with a new condition
+		Equipment eq = EquipmentDAO.getEquipmentByID(conn, 2);
+		eq.setStatus(EquipmentStatus.Available);
+		eq.setEquipmentCondition(EquipmentCondition.Damaged);
+		EquipmentDAO.updateEquipment(conn, eq);
+		assertEquals(EquipmentCondition.Damaged, cache.getEquipmentByID(2).getEquipmentCondition());
+		assertTrue(ids(cache.getEquipment(SkillClassification.Welder, EquipmentStatus.Available)).contains(2));
+
+		// Last return condition is what the checkout dialog shows
+		EquipmentDAO.updateLastReturnCondition(conn, 2, EquipmentCondition.Lost);
+		Equipment shown = cache.getAvailableEquipmentBySkill(SkillClassification.Welder).stream()
+				.filter(e -> e.getEquipmentID() == 2).findFirst().orElseThrow();
+		assertEquals(EquipmentCondition.Lost, shown.getEquipmentCondition());
+
+		// Marking a whole skill loaned empties its available list
+		EquipmentDAO.markAllLoaned(conn, SkillClassification.Welder);
+		assertTrue(cache.getAvailableEquipmentBySkill(SkillClassification.Welder).isEmpty());
+		assertFalse(cache.getAvailableEquipmentBySkill(SkillClassification.Plumber).isEmpty());
+
+		// Every change above was applied in memory, and matches the database
+		assertEquals(1, cache.getLoadCount(), "Write-through should not reload the catalog");
+		assertEquals(4, cache.getWriteCount());
+		assertEquals(ids(EquipmentDAO.getAvailableEquipmentBySkill(conn, SkillClassification.Welder)),
+				ids(cache.getAvailableEquipmentBySkill(SkillClassification.Welder)));
+	}
+
+	@Test
+	@DisplayName("External changes appear after the TTL or invalidate()")
+	void testTtlAndInvalidate() throws Exception {
+		EquipmentCache cache = newCache(200);
+		assertEquals(EquipmentStatus.Available, cache.getEquipmentByID(1).getStatus());
+
+		// Change the database without going through the DAO
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("UPDATE equipment SET equipStatus = 'Lost' WHERE equipmentID = 1");
+		}
+
+		// Still the cached value before the TTL, the new value after it
+		assertEquals(EquipmentStatus.Available, cache.getEquipmentByID(1).getStatus());
+		Thread.sleep(300);
+		assertEquals(EquipmentStatus.Lost, cache.getEquipmentByID(1).getStatus());
+		assertEquals(2, cache.getLoadCount(), "Expired catalog should be reloaded once");
+
+		// invalidate() forces a reload before the TTL
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("UPDATE equipment SET equipStatus = 'Available' WHERE equipmentID = 1");
+		}
+		cache.invalidate();
+		assertEquals(EquipmentStatus.Available, cache.getEquipmentByID(1).getStatus());
+		assertEquals(3, cache.getLoadCount());
+	}
+
+	@Test
+	@DisplayName("Cached reads make no database round trips")
+	void testReadsServedFromMemory() throws Exception {
+		AtomicInteger connections = new AtomicInteger();
+		EquipmentCache cache = new EquipmentCache(() -> {
+			connections.incrementAndGet();
+			return DriverManager.getConnection(URL, "sa", "");
+		}, EquipmentCache.DEFAULT_TTL_MS);
+		cache.getAllEquipment();
+
+		// The checkout dialog's query, answered from memory every time
+		int reads = 10_000;
+		for (int i = 0; i < reads; i++) {
+			cache.getAvailableEquipmentBySkill(SkillClassification.Welder);
+		}
+		assertEquals(1, connections.get(), "Only the first load should use the database");
+		assertEquals(1, cache.getLoadCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(reads, cache.getHitCount());
+	}
+
+	@Test
+	@DisplayName("The catalog loads outside the lock, once for concurrent readers")
+	void testLoadOutsideLock() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger connections = new AtomicInteger();
+
+		// A slow database: the first load waits until released
+		EquipmentCache cache = new EquipmentCache(() -> {
+			if (connections.incrementAndGet() == 1) {
+				loading.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return DriverManager.getConnection(URL, "sa", "");
+		}, EquipmentCache.DEFAULT_TTL_MS);
+
+		ExecutorService readers = Executors.newFixedThreadPool(2);
+		try {
+			Future<List<Equipment>> first = readers.submit(() -> cache.getAvailableEquipmentBySkill(SkillClassification.Welder));
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			Future<List<Equipment>> second = readers.submit(() -> cache.getAvailableEquipmentBySkill(SkillClassification.Welder));
+
+			// A write is not blocked by the running load, and is applied to the loaded rows
+			cache.applyStatus(2, EquipmentStatus.Loaned);
+			release.countDown();
+
+			assertFalse(ids(first.get(5, TimeUnit.SECONDS)).contains(2), "Write during the load should not be lost");
+			assertEquals(ids(first.get()), ids(second.get(5, TimeUnit.SECONDS)));
+		} finally {
+			readers.shutdownNow();
+		}
+		assertEquals(1, connections.get(), "Concurrent readers should share one load");
+		assertEquals(1, cache.getLoadCount());
+	}
+
+	@Test
+	@DisplayName("Changes reach the cache only when their database transaction commits")
+	void testWriteThroughAfterCommit() throws Exception {
+		EquipmentCache cache = newCache(EquipmentCache.DEFAULT_TTL_MS);
+		EquipmentDAO.setCache(cache);
+		cache.getAllEquipment();
+
+		// Not shown while the transaction is open, shown once it commits
+		conn.setAutoCommit(false);
+		EquipmentDAO.updateEquipmentStatus(conn, 2, EquipmentStatus.Loaned);
+		assertEquals(EquipmentStatus.Available, cache.getEquipmentByID(2).getStatus(), "Uncommitted change should not show");
+		EquipmentCache.commit(conn);
+		assertEquals(EquipmentStatus.Loaned, cache.getEquipmentByID(2).getStatus());
+		assertEquals(1, cache.getLoadCount(), "A commit should not reload the catalog");
+
+		// Never shown if rolled back; the catalog is reloaded from the database
+		EquipmentDAO.updateEquipmentStatus(conn, 4, EquipmentStatus.Lost);
+		EquipmentCache.rollback(conn);
+		conn.setAutoCommit(true);
+		assertEquals(EquipmentStatus.Available, cache.getEquipmentByID(4).getStatus());
+		assertEquals(EquipmentStatus.Loaned, cache.getEquipmentByID(2).getStatus());
+		assertEquals(2, cache.getLoadCount(), "A rollback should invalidate the catalog");
+	}
+}
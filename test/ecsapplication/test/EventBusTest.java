@@ -0,0 +1,222 @@
+/**
+ * EventBusTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the event bus (EventBus) that delivers
+ *   Transaction notifications to observers in the background.
+ *   The following is tested:
+ *
+ *   1. Changing a transaction does not wait for a slow observer.
+ *   2. Each observer gets its notifications in order, one at a time,
+ *      while many observers are served in parallel.
+ *   3. The DROP, BLOCK and CALLER_RUNS policies for a full queue.
+ *   4. Observers that throw are logged as dead letters and later
+ *      notifications are still delivered.
+ *
+ * Test Case ID: TC-EVT-001-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import collections and concurrency utilities
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes and enums
+import ecsapplication.Employee;
+import ecsapplication.Equipment;
+import ecsapplication.EventBus;
+import ecsapplication.EventBus.Backpressure;
+import ecsapplication.Observer;
+import ecsapplication.Transaction;
+import ecsapplication.enums.TransactionStatus;
+
+class EventBusTest {
+
+	// Builds a transaction with the given ID
+	private static Transaction transaction(int id) {
+		return new Transaction(id, new Employee(1, "Emp"), new Equipment(1, "Item"), TransactionStatus.Borrowed);
+	}
+
+	// Executor that only runs tasks when the test says so
+	private static class ManualExecutor implements java.util.concurrent.Executor {
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		@Override
+		public synchronized void execute(Runnable task) {
+			tasks.add(task);
+		}
+
+		synchronized void runAll() {
+			while (!tasks.isEmpty()) {
+				tasks.remove(0).run();
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Changing a transaction does not wait for a slow observer")
+	void testNonBlocking() throws Exception {
+		CountDownLatch delivered = new CountDownLatch(2);
+		Transaction txn = transaction(1);
+
+		// Observer as slow as a reminder save on a struggling database
+		txn.registerObserver(t -> {
+			try {
+				Thread.sleep(300);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			delivered.countDown();
+		});
+
+		long start = System.nanoTime();
+		txn.setTransactionStatus(TransactionStatus.Returned);
+		txn.setReturnDate(java.time.LocalDate.now());
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue(elapsedMs < 200, "Status change waited " + elapsedMs + " ms for the observer");
+		assertTrue(delivered.await(5, TimeUnit.SECONDS), "Both notifications should still be delivered");
+	}
+
+	@Test
+	@DisplayName("Each observer gets its notifications in order, one at a time")
+	void testOrdering() throws Exception {
+		int observers = 50;
+		int events = 2_000;
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		EventBus bus = new EventBus(pool, 4, 100_000, Backpressure.BLOCK, 5_000);
+
+		List<List<Integer>> received = new ArrayList<>();
+		AtomicInteger overlaps = new AtomicInteger();
+		List<Observer> list = new ArrayList<>();
+		for (int i = 0; i < observers; i++) {
+			List<Integer> ids = new ArrayList<>();
+			AtomicInteger inside = new AtomicInteger();
+			received.add(ids);
+			list.add(t -> {
+				if (inside.incrementAndGet() > 1) {
+					overlaps.incrementAndGet();
+				}
+				ids.add(t.getTransactionID());
+				inside.decrementAndGet();
+			});
+		}
+
+		try {
+			for (int id = 1; id <= events; id++) {
+				bus.publish(transaction(id), list);
+			}
+			assertTrue(bus.awaitIdle(10, TimeUnit.SECONDS), "Bus should drain");
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(0, overlaps.get(), "An observer was called by two threads at once");
+		for (List<Integer> ids : received) {
+			assertEquals(events, ids.size());
+			for (int i = 0; i < events; i++) {
+				assertEquals(i + 1, ids.get(i), "Out of order");
+			}
+		}
+		assertEquals((long) observers * events, bus.getDeliveredCount());
+		assertEquals(0, bus.getDeadLetterCount());
+	}
+
+	@Test
+	@DisplayName("DROP logs notifications that do not fit as dead letters")
+	void testDrop() {
+		ManualExecutor executor = new ManualExecutor();
+		EventBus bus = new EventBus(executor, 1, 10, Backpressure.DROP, 0);
+		List<Integer> ids = new CopyOnWriteArrayList<>();
+		Observer observer = t -> ids.add(t.getTransactionID());
+
+		for (int id = 1; id <= 15; id++) {
+			bus.publish(transaction(id), observer);
+		}
+		assertEquals(10, bus.getPublishedCount());
+		assertEquals(5, bus.getDeadLetterCount());
+		assertEquals("queue full", bus.getDeadLetters().get(0).getReason());
+		assertEquals(11, bus.getDeadLetters().get(0).getTransaction().getTransactionID());
+
+		// The queued ones are delivered, in order, when the executor runs
+		executor.runAll();
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), ids);
+		assertTrue(bus.isIdle());
+	}
+
+	@Test
+	@DisplayName("BLOCK waits for room up to the timeout")
+	void testBlock() {
+		ManualExecutor executor = new ManualExecutor();
+		EventBus bus = new EventBus(executor, 1, 1, Backpressure.BLOCK, 100);
+		Observer observer = t -> { };
+
+		bus.publish(transaction(1), observer);
+		long start = System.nanoTime();
+		bus.publish(transaction(2), observer);   // No room and nobody draining
+		long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue(waitedMs >= 90, "Should wait about the timeout, waited " + waitedMs + " ms");
+		assertEquals(1, bus.getDeadLetterCount());
+	}
+
+	@Test
+	@DisplayName("CALLER_RUNS delivers on the publishing thread when the queue is full")
+	void testCallerRuns() {
+		ManualExecutor executor = new ManualExecutor();
+		EventBus bus = new EventBus(executor, 1, 1, Backpressure.CALLER_RUNS, 0);
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		Observer observer = t -> threads.add(Thread.currentThread());
+
+		bus.publish(transaction(1), observer);   // Queued
+		bus.publish(transaction(2), observer);   // Queue full: runs here
+		assertEquals(List.of(Thread.currentThread()), threads);
+		assertEquals(0, bus.getDeadLetterCount());
+		executor.runAll();
+		assertEquals(2, bus.getDeliveredCount());
+	}
+
+	@Test
+	@DisplayName("An observer that throws becomes a dead letter; later notifications still arrive")
+	void testFailingObserver() throws Exception {
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		EventBus bus = new EventBus(pool, 2, 100, Backpressure.DROP, 0);
+		List<Integer> ids = new CopyOnWriteArrayList<>();
+		Observer observer = t -> {
+			if (t.getTransactionID() == 2) {
+				throw new IllegalStateException("database down");
+			}
+			ids.add(t.getTransactionID());
+		};
+
+		try {
+			for (int id = 1; id <= 3; id++) {
+				bus.publish(transaction(id), observer);
+			}
+			assertTrue(bus.awaitIdle(5, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(List.of(1, 3), ids);
+		assertEquals(1, bus.getDeadLetterCount());
+		EventBus.DeadLetter letter = bus.getDeadLetters().get(0);
+		assertEquals("observer failed", letter.getReason());
+		assertEquals(2, letter.getTransaction().getTransactionID());
+		assertTrue(letter.getError() instanceof IllegalStateException);
+	}
+}
@@ -0,0 +1,188 @@
+/**
+ * ExportFormatBenchmarkTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the compressed and columnar formats of
+ *   the streamed transaction export (CSVExporter.ExportFormat) and
+ *   benchmarks them against plain CSV. An H2 in-memory database is
+ *   seeded with 200 employees, 500 pieces of equipment and 200,000
+ *   transactions. The following is tested:
+ *
+ *   1. Gzip-compressed CSV decompresses to exactly the plain CSV.
+ *   2. The columnar file reads back (ColumnarReader) to the same rows,
+ *      and is much smaller than the plain CSV.
+ *   3. The columnar encoding keeps nulls, decreasing numbers and dates,
+ *      and non-ASCII text, and the reader rejects other files.
+ *   4. The format is picked from the file name.
+ *
+ *   Size and rows per second of each format are printed to the console.
+ *
+ * Test Case ID: TC-EXP-003-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import I/O classes for reading the exported files
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+// Import ECS classes
+import ecsapplication.CSVExporter;
+import ecsapplication.CSVExporter.ExportFormat;
+import ecsapplication.ColumnarReader;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportFormatBenchmarkTest {
+
+	private static final int TRANSACTIONS = 200_000;   // Rows seeded into transaction
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@TempDir
+	Path tempDir;              // Folder for exported files
+
+	@BeforeAll
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection("jdbc:h2:mem:exportformats;DB_CLOSE_DELAY=-1", "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+
+			// Employees and equipment spread over the skill classifications
+			stmt.execute("INSERT INTO employee SELECT X, 'Employee ' || X, "
+					+ "CASEWHEN(MOD(X, 3) = 0, 'Welder', CASEWHEN(MOD(X, 3) = 1, 'Painter', 'Plumber')) FROM SYSTEM_RANGE(1, 200)");
+			stmt.execute("INSERT INTO equipment SELECT X, 'Item ' || X, 'Good', "
+					+ "CASEWHEN(MOD(X, 3) = 0, 'Welder', CASEWHEN(MOD(X, 3) = 1, 'Painter', 'Plumber')), 'Available' "
+					+ "FROM SYSTEM_RANGE(1, 500)");
+
+			// A few years of history: about 150 loans a day, most returned, some still open
+			stmt.execute("INSERT INTO transaction (transactionID, empID, equipmentID, borrowDate, expectedReturnDate, "
+					+ "transactionStatus, returnCondition, checkoutCondition) "
+					+ "SELECT X, MOD(X * 7, 200) + 1, MOD(X * 13, 500) + 1, "
+					+ "DATEADD('DAY', X / 150, DATE '2022-01-01'), DATEADD('DAY', X / 150 + 7, DATE '2022-01-01'), "
+					+ "CASEWHEN(X > " + (TRANSACTIONS - 2_000) + ", 'Borrowed', 'Returned'), "
+					+ "CASEWHEN(X > " + (TRANSACTIONS - 2_000) + ", NULL, CASEWHEN(MOD(X, 20) = 0, 'Damaged', 'Good')), "
+					+ "CASEWHEN(MOD(X, 10) = 0, 'Fair', 'Good') FROM SYSTEM_RANGE(1, " + TRANSACTIONS + ")");
+		}
+	}
+
+	@AfterAll
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Exports the transactions in one format and prints its size and speed
+	private Path export(ExportFormat format, long csvBytes) throws Exception {
+		Path file = tempDir.resolve("transactions" + format.getExtension());
+		long start = System.nanoTime();
+		long rows = CSVExporter.exportTransactions(conn, file, format, null);
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+		long bytes = Files.size(file);
+		System.out.printf("Export %-8s rows=%d bytes=%,d (%.1f%% of CSV, %.1f bytes/row) time=%.2f s (%.0f rows/s)%n",
+				format, rows, bytes, csvBytes > 0 ? 100.0 * bytes / csvBytes : 100.0,
+				(double) bytes / rows, seconds, rows / seconds);
+		assertEquals(TRANSACTIONS, rows);
+		return file;
+	}
+
+	@Test
+	@DisplayName("Gzip CSV and columnar exports hold the same rows as plain CSV, in less space")
+	void testFormats() throws Exception {
+		Path csv = export(ExportFormat.CSV, 0);
+		long csvBytes = Files.size(csv);
+		Path gzip = export(ExportFormat.CSV_GZIP, csvBytes);
+		Path columnar = export(ExportFormat.COLUMNAR, csvBytes);
+
+		// Gzip decompresses to exactly the plain CSV
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+			assertArrayEquals(Files.readAllBytes(csv), in.readAllBytes());
+		}
+
+		// Columnar reads back to the same rows (the seed data needs no CSV quoting)
+		try (BufferedReader lines = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+				ColumnarReader in = new ColumnarReader(columnar)) {
+			assertEquals(lines.readLine(), String.join(",", in.getColumnNames()));
+			String[] row;
+			int count = 0;
+			while ((row = in.next()) != null) {
+				assertEquals(lines.readLine(), String.join(",", row));
+				count++;
+			}
+			assertEquals(TRANSACTIONS, count);
+			assertNull(lines.readLine());
+		}
+
+		// Compressed sizes compared with plain CSV
+		assertTrue(Files.size(gzip) * 3 < csvBytes, "Gzip CSV should be under a third of the CSV");
+		assertTrue(Files.size(columnar) * 5 < csvBytes, "Columnar should be under a fifth of the CSV");
+	}
+
+	@Test
+	@DisplayName("Columnar encoding keeps nulls, decreasing values and non-ASCII text")
+	void testColumnarEncoding() throws Exception {
+		Path file = tempDir.resolve("values.ecsc");
+
+		// Numbers and dates that go down, nulls in every kind of column, and text that is not ASCII
+		String sql = "SELECT * FROM (VALUES "
+				+ "(CAST(100 AS INT), DATE '2024-03-01', CAST('\u00dcn\u00efcode, \"quoted\"' AS VARCHAR(30))), "
+				+ "(CAST(NULL AS INT), CAST(NULL AS DATE), CAST(NULL AS VARCHAR(30))), "
+				+ "(-5, DATE '1999-12-31', '\u00dcn\u00efcode, \"quoted\"'), "
+				+ "(2147483647, DATE '2024-03-01', 'Other')) AS v(num, dt, txt)";
+		assertEquals(4, CSVExporter.exportQuery(conn, sql, null, file, ExportFormat.COLUMNAR, null));
+
+		try (ColumnarReader in = new ColumnarReader(file)) {
+			assertArrayEquals(new String[] { "NUM", "DT", "TXT" }, in.getColumnNames());
+			assertArrayEquals(new String[] { "100", "2024-03-01", "\u00dcn\u00efcode, \"quoted\"" }, in.next());
+			assertArrayEquals(new String[] { null, null, null }, in.next());
+			assertArrayEquals(new String[] { "-5", "1999-12-31", "\u00dcn\u00efcode, \"quoted\"" }, in.next());
+			assertArrayEquals(new String[] { "2147483647", "2024-03-01", "Other" }, in.next());
+			assertNull(in.next());
+		}
+
+		// A CSV file is not a columnar file
+		Path csv = tempDir.resolve("values.csv");
+		CSVExporter.exportQuery(conn, sql, null, csv, null);
+		assertThrows(IOException.class, () -> new ColumnarReader(csv).close());
+	}
+
+	@Test
+	@DisplayName("Format is picked from the file name")
+	void testFormatFromFileName() {
+		assertEquals(ExportFormat.CSV, ExportFormat.fromFileName("history.csv"));
+		assertEquals(ExportFormat.CSV_GZIP, ExportFormat.fromFileName("History.CSV.GZ"));
+		assertEquals(ExportFormat.COLUMNAR, ExportFormat.fromFileName("history.ecsc"));
+		assertEquals(ExportFormat.CSV, ExportFormat.fromFileName("history"));
+	}
+}
@@ -0,0 +1,248 @@
+/**
+ * LastReturnConditionBenchmarkTest.java
+ * JUnit 5 Test Case (regression benchmark)
+ *
+ * Purpose:
+ *   This test compares the previous and current versions of the query
+ *   behind EquipmentDAO.getAvailableEquipmentBySkill() on an H2 in-memory
+ *   database seeded with 1,000 pieces of equipment and 100,000 transactions.
+ *
+ *   The previous query found each item's last return condition with a
+ *   correlated SELECT MAX(transactionID) over the transaction table. The
+ *   current query reads equipment.lastReturnCondition, which is filled by
+ *   the backfill migration and kept up to date by the return path.
+ *
+ *   The following is tested:
+ *   1. The backfilled column gives the same results as the old query.
+ *   2. A new return updates the column in the same database transaction.
+ *   3. The new query is faster; latency of both is printed to the console.
+ *
+ * Test Case ID: TC-CHK-003-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import date and collection classes
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+// Import ECS classes and enums
+import ecsapplication.Equipment;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.SkillClassification;
+import ecsapplication.enums.TransactionStatus;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LastReturnConditionBenchmarkTest {
+
+	private static final int EQUIPMENT_COUNT = 1_000;       // Pieces of equipment
+	private static final int TRANSACTION_COUNT = 100_000;   // Transactions spread over the equipment
+	private static final int RUNS = 3;                      // Timed runs per query
+
+	// Query used before lastReturnCondition existed
+	private static final String OLD_QUERY = """
+			    SELECT eq.equipmentID, t_last.returnCondition
+			    FROM equipment eq
+			    LEFT JOIN (
+			        SELECT t1.equipmentID, t1.returnCondition
+			        FROM transaction t1
+			        WHERE t1.transactionStatus = 'Returned'
+			          AND t1.returnCondition IS NOT NULL
+			          AND t1.transactionID = (
+			              SELECT MAX(t2.transactionID)
+			              FROM transaction t2
+			              WHERE t2.equipmentID = t1.equipmentID
+			                AND t2.transactionStatus = 'Returned'
+			          )
+			    ) AS t_last
+			      ON eq.equipmentID = t_last.equipmentID
+			    WHERE eq.equipStatus = 'Available'
+			      AND eq.requiredSkill = ?
+			    ORDER BY eq.equipmentID ASC
+			""";
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@BeforeAll
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this benchmark
+		// QUERY_CACHE_SIZE=0 stops H2 from reusing the result of an identical earlier query, so every run is timed
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection("jdbc:h2:mem:lastcondition;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=0", "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Drop tables from a previous run
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+
+			// Tables as they were before the migration (equipmentID index mirrors the MySQL foreign key index)
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+			stmt.execute("CREATE INDEX transaction_equipmentID ON transaction (equipmentID)");
+		}
+
+		// Seed equipment (rotating skills, four in five available) and transactions
+		SkillClassification[] skills = SkillClassification.values();
+		EquipmentCondition[] conditions = EquipmentCondition.values();
+		try (PreparedStatement eq = conn.prepareStatement("INSERT INTO equipment VALUES (?, ?, 'Good', ?, ?)");
+				PreparedStatement txn = conn.prepareStatement("INSERT INTO transaction (empID, equipmentID, borrowDate, "
+						+ "expectedReturnDate, transactionStatus, returnDate, returnCondition, checkoutCondition) "
+						+ "VALUES (1, ?, '2025-08-01', '2025-08-08', ?, '2025-08-05', ?, 'Good')")) {
+			for (int id = 1; id <= EQUIPMENT_COUNT; id++) {
+				eq.setInt(1, id);
+				eq.setString(2, "Item " + id);
+				eq.setString(3, skills[id % skills.length].name());
+				eq.setString(4, id % 5 == 0 ? "Loaned" : "Available");
+				eq.addBatch();
+			}
+			eq.executeBatch();
+
+			// Transactions cycle through the equipment; every 7th is still borrowed and every 11th has no condition
+			for (int i = 0; i < TRANSACTION_COUNT; i++) {
+				txn.setInt(1, i % EQUIPMENT_COUNT + 1);
+				txn.setString(2, i % 7 == 0 ? "Borrowed" : "Returned");
+				txn.setString(3, i % 11 == 0 ? null : conditions[(i / EQUIPMENT_COUNT) % conditions.length].name());
+				txn.addBatch();
+				if (i % 10_000 == 9_999) {
+					txn.executeBatch();
+				}
+			}
+			txn.executeBatch();
+		}
+
+		// Apply the migration: add the column and backfill it
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("ALTER TABLE equipment ADD COLUMN lastReturnCondition VARCHAR(15)");
+		}
+		EquipmentDAO.backfillLastReturnCondition(conn);
+	}
+
+	@AfterAll
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Runs the old query and returns "equipmentID:condition" for each row (missing condition = Good)
+	private List<String> oldQuery(SkillClassification skill) throws Exception {
+		List<String> rows = new ArrayList<>();
+		try (PreparedStatement stmt = conn.prepareStatement(OLD_QUERY)) {
+			stmt.setString(1, skill.name());
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					String cond = rs.getString("returnCondition");
+					rows.add(rs.getInt("equipmentID") + ":" + (cond != null ? cond : "Good"));
+				}
+			}
+		}
+		return rows;
+	}
+
+	// Runs the current DAO query in the same "equipmentID:condition" form
+	private List<String> newQuery(SkillClassification skill) throws Exception {
+		List<String> rows = new ArrayList<>();
+		for (Equipment e : EquipmentDAO.getAvailableEquipmentBySkill(conn, skill)) {
+			rows.add(e.getEquipmentID() + ":" + e.getEquipmentCondition().name());
+		}
+		return rows;
+	}
+
+	// Returns the fastest of RUNS timings of a query, in milliseconds
+	private double fastestMillis(Query query) throws Exception {
+		double best = Double.MAX_VALUE;
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			query.run();
+			best = Math.min(best, (System.nanoTime() - start) / 1_000_000.0);
+		}
+		return best;
+	}
+
+	// A query run that can throw
+	@FunctionalInterface
+	private interface Query {
+		void run() throws Exception;
+	}
+
+	@Test
+	@DisplayName("Backfilled column matches the old correlated subquery for every skill")
+	void testBackfillMatchesOldQuery() throws Exception {
+		for (SkillClassification skill : SkillClassification.values()) {
+			assertEquals(oldQuery(skill), newQuery(skill), "Conditions should match for " + skill);
+		}
+	}
+
+	@Test
+	@DisplayName("Returning equipment updates its last known condition")
+	void testReturnUpdatesLastCondition() throws Exception {
+
+		// Borrow equipment 1 and return it as Lost inside one database transaction
+		Equipment item = new Equipment(1, "Item 1");
+		Transaction txn = new Transaction(0, null, item, null, null, LocalDate.now(), LocalDate.now().plusDays(7),
+				TransactionStatus.Borrowed, null, EquipmentCondition.Good);
+		try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO transaction (empID, equipmentID, transactionStatus) "
+				+ "VALUES (1, 1, 'Borrowed')", Statement.RETURN_GENERATED_KEYS)) {
+			stmt.executeUpdate();
+			try (ResultSet keys = stmt.getGeneratedKeys()) {
+				keys.next();
+				txn.setTransactionID(keys.getInt(1));
+			}
+		}
+
+		txn.setTransactionStatus(TransactionStatus.Returned);
+		txn.setReturnDate(LocalDate.now());
+		txn.setReturnCondition(EquipmentCondition.Lost);
+		conn.setAutoCommit(false);
+		try {
+			TransactionDAO.updateTransactionReturn(conn, txn);
+			conn.commit();
+		} finally {
+			conn.setAutoCommit(true);
+		}
+
+		// The new condition is visible to the checkout query and still matches the old query
+		SkillClassification skill = SkillClassification.values()[1 % SkillClassification.values().length];
+		assertTrue(newQuery(skill).contains("1:Lost"), "Last condition should be updated by the return");
+		assertEquals(oldQuery(skill), newQuery(skill));
+	}
+
+	@Test
+	@DisplayName("Reading the maintained column is faster than the correlated subquery")
+	void testLatency() throws Exception {
+		SkillClassification skill = SkillClassification.values()[0];
+
+		// Warm up both queries, then keep the fastest of several runs
+		oldQuery(skill);
+		newQuery(skill);
+		double oldMs = fastestMillis(() -> oldQuery(skill));
+		double newMs = fastestMillis(() -> newQuery(skill));
+
+		System.out.printf("getAvailableEquipmentBySkill: transactions=%d old=%.2f ms new=%.2f ms (%.0fx)%n",
+				TRANSACTION_COUNT, oldMs, newMs, oldMs / newMs);
+		assertTrue(newMs < oldMs, "Maintained column should be faster than the correlated subquery");
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * LoadGeneratorTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the headless load generator in the
+ *   bench folder (LoadGenerator) with a few clerks on a small H2
+ *   database. The following is tested:
+ *
+ *   1. A run with the full mix carries out checkouts, returns, orders,
+ *      cancellations and reminders without errors and reports their
+ *      throughput, latency percentiles and conflict rates.
+ *   2. Clerks racing to check out the same few items never loan one
+ *      item twice: every checkout reported as saved is in the database,
+ *      and the rest are reported as conflicts.
+ *   3. Bad mix settings are rejected.
+ *
+ * Test Case ID: TC-PERF-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes and the load generator
+import ecsapplication.EventBus;
+import ecsapplication.bench.BenchmarkDatabase;
+import ecsapplication.bench.LoadGenerator;
+import ecsapplication.bench.LoadGenerator.Action;
+import ecsapplication.bench.LoadGenerator.Outcome;
+import ecsapplication.bench.LoadGenerator.Report;
+
+class LoadGeneratorTest {
+
+	// Small seeded H2 database (the load generator's in-memory database)
+	private static final String[] SMALL_DATABASE = { "--employees", "30", "--equipment", "300", "--transactions", "3000" };
+
+	// Runs the load generator on the small database with extra options
+	private static Report run(String... options) throws Exception {
+		String[] args = new String[SMALL_DATABASE.length + options.length];
+		System.arraycopy(SMALL_DATABASE, 0, args, 0, SMALL_DATABASE.length);
+		System.arraycopy(options, 0, args, SMALL_DATABASE.length, options.length);
+		return LoadGenerator.run(args);
+	}
+
+	// ============================================================
+	// 1. Full mix
+	// ============================================================
+	@Test
+	@DisplayName("Clerks carry out every action of the mix and the report measures each one")
+	void testFullMixIsReported() throws Exception {
+		Report report = run("--clerks", "10", "--think", "5", "--warmup", "0.2", "--duration", "1.5");
+
+		for (Action action : Action.values()) {
+			assertTrue(report.getAttempts(action) > 0, action + " was never attempted");
+			assertEquals(0, report.getCount(action, Outcome.FAILED), action + " failed: " + report.getFirstError(action));
+			assertTrue(report.getThroughput(action) > 0);
+			assertTrue(report.getLatencyMillis(action, 50) <= report.getLatencyMillis(action, 99));
+			assertTrue(report.getConflictRate(action) >= 0 && report.getConflictRate(action) <= 1);
+		}
+		assertEquals(report.getTotalAttempts() / report.getMeasuredSeconds(), report.getTotalThroughput(), 1e-6);
+		assertEquals(0, report.getPoolTimeouts());
+
+		// Every reminder notification was saved by the event bus
+		assertTrue(report.getRemindersPublished() > 0);
+		assertEquals(0, report.getReminderDeadLetters());
+		assertTrue(EventBus.getInstance().isIdle());
+		assertTrue(report.toString().contains("Conflict%"));
+	}
+
+	// ============================================================
+	// 2. Checkout races
+	// ============================================================
+	@Test
+	@DisplayName("Clerks racing for the same items never loan one twice, and lost races are conflicts")
+	void testCheckoutRacesAreConflicts() throws Exception {
+		Report report = run("--clerks", "16", "--think", "0", "--warmup", "0", "--duration", "1", "--mix", "checkout=1");
+
+		// Every seeded available item can be checked out once (30 per skill, 300 items in all)
+		BenchmarkDatabase db = BenchmarkDatabase.inMemory("loadgenerator", 30, 300, 3000);
+		int newLoans = db.queryInt("SELECT COUNT(*) FROM transaction WHERE transactionID > 3000");
+		long saved = report.getCount(Action.CHECKOUT, Outcome.OK);
+		assertEquals(saved, newLoans, "Each checkout reported as saved is one new loan");
+		assertTrue(saved <= 180, "Only the 180 available items can be loaned");
+		assertEquals(report.getAttempts(Action.CHECKOUT),
+				saved + report.getCount(Action.CHECKOUT, Outcome.CONFLICT) + report.getCount(Action.CHECKOUT, Outcome.FAILED));
+		assertEquals(0, report.getCount(Action.CHECKOUT, Outcome.FAILED), report.getFirstError(Action.CHECKOUT));
+
+		// No item has two open loans, and every open loan is a Loaned item
+		assertEquals(0, db.queryInt("SELECT COUNT(*) FROM (SELECT equipmentID FROM transaction "
+				+ "WHERE transactionStatus = 'Borrowed' GROUP BY equipmentID HAVING COUNT(*) > 1) twice"));
+		assertEquals(db.queryInt("SELECT COUNT(*) FROM transaction WHERE transactionStatus = 'Borrowed'"),
+				db.queryInt("SELECT COUNT(*) FROM equipment WHERE equipStatus = 'Loaned'"));
+	}
+
+	// ============================================================
+	// 3. Mix settings
+	// ============================================================
+	@Test
+	@DisplayName("The mix is parsed by action name and bad mixes are rejected")
+	void testMixParsing() {
+		assertEquals(35, LoadGenerator.parseMix("Checkout=35, return=30").get(Action.CHECKOUT));
+		assertEquals(30, LoadGenerator.parseMix("Checkout=35, return=30").get(Action.RETURN));
+		assertThrows(IllegalArgumentException.class, () -> LoadGenerator.parseMix("checkout"));
+		assertThrows(IllegalArgumentException.class, () -> LoadGenerator.parseMix("teleport=5"));
+		assertThrows(IllegalArgumentException.class,
+				() -> new LoadGenerator(10, LoadGenerator.parseMix("checkout=0"), 0, 0, 1000, 1));
+	}
+}
@@ -0,0 +1,198 @@
+/**
+ * MetricsRegistryTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the MetricsRegistry and the ECS metrics
+ *   registered by Diagnostics, which are shown in the hidden Diagnostics
+ *   tab of MainApp. The following is tested:
+ *
+ *   1. Counters, timers and gauges keep their values, and counters know
+ *      how many increments happened in the last minute.
+ *   2. The metrics are written in the Prometheus text format and served
+ *      on the local /metrics endpoint.
+ *   3. Checkouts, reminder runs and EDT stalls are recorded, and the
+ *      Diagnostics panel shows the live values.
+ *
+ * Test Case ID: TC-DIAG-001-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import I/O, networking and AWT classes
+import java.awt.EventQueue;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Import date/time and concurrency utilities
+import java.time.LocalDate;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Import ECS classes and the seeded benchmark database
+import ecsapplication.CheckoutService;
+import ecsapplication.Diagnostics;
+import ecsapplication.DiagnosticsPanel;
+import ecsapplication.Employee;
+import ecsapplication.Equipment;
+import ecsapplication.MetricsRegistry;
+import ecsapplication.ReminderEngine;
+import ecsapplication.Transaction;
+import ecsapplication.bench.BenchmarkDatabase;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.SkillClassification;
+import ecsapplication.enums.TransactionStatus;
+
+class MetricsRegistryTest {
+
+	@TempDir
+	Path folder;   // Prometheus files
+
+	// ============================================================
+	// 1. Counters, timers and gauges
+	// ============================================================
+	@Test
+	@DisplayName("Counters, timers and gauges keep their values, and counters count the last minute")
+	void testMetricValues() {
+		AtomicLong now = new AtomicLong(1_000_000);
+		MetricsRegistry registry = new MetricsRegistry(now::get);
+
+		// Increments older than 60 seconds leave the last minute, not the total
+		MetricsRegistry.Counter returns = registry.counter("test_returns_total", "Returns");
+		returns.add(3);
+		now.addAndGet(30_000);
+		returns.increment();
+		assertEquals(4, returns.getLastMinute());
+		now.addAndGet(45_000);
+		assertEquals(1, returns.getLastMinute());
+		assertEquals(4, returns.getCount());
+		assertSame(returns, registry.counter("test_returns_total", "Returns"), "Same name, same counter");
+		assertThrows(IllegalArgumentException.class, () -> returns.add(-1));
+
+		// A counter read from elsewhere cannot be incremented
+		AtomicLong kept = new AtomicLong(7);
+		MetricsRegistry.Counter borrowed = registry.counter("test_borrows_total", "Borrows", kept::get);
+		assertEquals(7, borrowed.getCount());
+		assertThrows(UnsupportedOperationException.class, borrowed::increment);
+
+		MetricsRegistry.Timer timer = registry.timer("test_run_seconds", "Runs");
+		timer.record(4, TimeUnit.MILLISECONDS);
+		timer.record(2, TimeUnit.SECONDS);
+		assertEquals(2, timer.getCount());
+		assertEquals(2004.0, timer.getTotalMillis(), 1e-9);
+		assertEquals(2000.0, timer.getMaxMillis(), 1e-9);
+
+		MetricsRegistry.Gauge gauge = registry.gauge("test_ratio", "Ratio", () -> 0.25);
+		assertEquals(0.25, gauge.getValue());
+		assertTrue(Double.isNaN(registry.gauge("test_broken", "Broken", () -> { throw new IllegalStateException(); }).getValue()));
+
+		// Names follow Prometheus rules and keep their type
+		assertThrows(IllegalArgumentException.class, () -> registry.counter("bad name", "Bad"));
+		assertThrows(IllegalArgumentException.class, () -> registry.timer("test_returns_total", "Returns"));
+	}
+
+	// ============================================================
+	// 2. Prometheus text format and /metrics endpoint
+	// ============================================================
+	@Test
+	@DisplayName("Metrics are written in the Prometheus text format and served on /metrics")
+	void testPrometheusExport() throws Exception {
+		MetricsRegistry registry = new MetricsRegistry();
+		registry.counter("test_checkouts_total", "Checkouts").add(5);
+		registry.gauge("test_active", "Active connections", () -> 3);
+		MetricsRegistry.Timer timer = registry.timer("test_run_seconds", "Runs");
+		timer.record(3, TimeUnit.MILLISECONDS);
+		timer.record(200, TimeUnit.MILLISECONDS);
+
+		String text = registry.toPrometheus();
+		assertTrue(text.contains("# HELP test_checkouts_total Checkouts\n# TYPE test_checkouts_total counter\ntest_checkouts_total 5\n"));
+		assertTrue(text.contains("# TYPE test_active gauge\ntest_active 3\n"));
+		assertTrue(text.contains("# TYPE test_run_seconds histogram\n"));
+		assertTrue(text.contains("test_run_seconds_bucket{le=\"0.001\"} 0\n"));
+		assertTrue(text.contains("test_run_seconds_bucket{le=\"0.005\"} 1\n"));
+		assertTrue(text.contains("test_run_seconds_bucket{le=\"0.25\"} 2\n"));
+		assertTrue(text.contains("test_run_seconds_bucket{le=\"+Inf\"} 2\n"));
+		assertTrue(text.contains("test_run_seconds_sum 0.203\n"));
+		assertTrue(text.contains("test_run_seconds_count 2\n"));
+
+		Path file = folder.resolve("metrics").resolve("ecs.prom");
+		registry.writePrometheus(file);
+		assertEquals(text, Files.readString(file));
+
+		// The endpoint only listens on this machine; port 0 picks a free port
+		int port = registry.startHttpServer(0);
+		try (InputStream in = new URL("http://127.0.0.1:" + port + "/metrics").openStream()) {
+			assertEquals(registry.toPrometheus(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		} finally {
+			registry.stopHttpServer();
+		}
+		assertEquals(-1, registry.getHttpPort());
+	}
+
+	// ============================================================
+	// 3. ECS metrics and the Diagnostics panel
+	// ============================================================
+	@Test
+	@DisplayName("Checkouts, reminder runs and EDT stalls are recorded and shown in the Diagnostics panel")
+	void testDiagnosticsMetrics() throws Exception {
+		BenchmarkDatabase db = BenchmarkDatabase.inMemory("metricsregistry", 10, 100, 500);
+		db.create();
+
+		// Reminder runs are timed
+		MetricsRegistry registry = new MetricsRegistry();
+		ReminderEngine engine = new ReminderEngine(db::getConnection, ReminderEngine.DEFAULT_DAYS_AHEAD, 0);
+		Diagnostics.register(registry, engine);
+		engine.runNow().get(30, TimeUnit.SECONDS);
+		MetricsRegistry.Timer reminderRuns = (MetricsRegistry.Timer) registry.get("ecs_reminder_run_seconds");
+		assertEquals(1, reminderRuns.getCount());
+		assertTrue(registry.toPrometheus().contains("ecs_pool_active_connections "));
+
+		// Checkouts are counted in the shared registry (item 5 is available in the seeded data)
+		MetricsRegistry.Counter checkouts = MetricsRegistry.getInstance().counter(Diagnostics.CHECKOUTS, "Checkouts");
+		long before = checkouts.getCount();
+		Employee emp = new Employee(1, "Emp1", SkillClassification.Welder);
+		Equipment eq = new Equipment(5, "Item5", EquipmentCondition.Good, EquipmentStatus.Available, SkillClassification.Welder);
+		Transaction txn = new Transaction(0, emp, eq, null, null, LocalDate.now(), LocalDate.now().plusDays(7),
+				TransactionStatus.Borrowed, null, EquipmentCondition.Good);
+		assertTrue(new CheckoutService(db::getConnection, 3).checkOut(txn).isCheckedOut());
+		assertEquals(before + 1, checkouts.getCount());
+		assertTrue(checkouts.getLastMinute() >= 1);
+
+		// A listener that blocks the EDT shows up as a long stall
+		ScheduledExecutorService probe = Diagnostics.startEdtProbe(registry, 10);
+		try {
+			Thread.sleep(50);
+			EventQueue.invokeAndWait(() -> {
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			Thread.sleep(100);
+		} finally {
+			probe.shutdownNow();
+		}
+		MetricsRegistry.Timer stall = (MetricsRegistry.Timer) registry.get(Diagnostics.EDT_STALL);
+		assertTrue(stall.getCount() > 0);
+		assertTrue(stall.getMaxMillis() >= 150, "Max EDT stall " + stall.getMaxMillis() + " ms");
+
+		// The panel lists every metric with its current value
+		DiagnosticsPanel[] panel = new DiagnosticsPanel[1];
+		EventQueue.invokeAndWait(() -> panel[0] = new DiagnosticsPanel(registry));
+		assertEquals(registry.getMetrics().size(), panel[0].getRowCount());
+		assertTrue(panel[0].getShownValue("ecs_reminder_run_seconds").startsWith("1, "));
+	}
+}
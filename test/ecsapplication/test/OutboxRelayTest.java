@@ -0,0 +1,344 @@
+/**
+ * OutboxRelayTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the event outbox (OutboxDAO) and its
+ *   relay (OutboxRelay) against an H2 in-memory database.
+ *   The following is tested:
+ *
+ *   1. Checkout, return, order and cancellation each record one event in
+ *      the same database transaction, and the relay delivers them to its
+ *      subscribers in order. Changes that are rolled back record nothing.
+ *   2. Events that commit out of ID order are still delivered in order,
+ *      and the ID of a rolled-back event is skipped after the gap wait
+ *      and given up on after the rescan time.
+ *   3. A relay started from the latest event only delivers newer events,
+ *      and a failing subscriber does not stop the others.
+ *   4. The equipment cache applies changes saved by another clerk from
+ *      the relay, without reloading the catalog.
+ *   5. An event that commits after its ID was skipped is still delivered,
+ *      before the newer events of the same poll.
+ *
+ * Test Case ID: TC-EVT-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import collections and concurrency utilities
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes and enums
+import ecsapplication.CheckoutService;
+import ecsapplication.Employee;
+import ecsapplication.Equipment;
+import ecsapplication.EquipmentCache;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.OutboxDAO;
+import ecsapplication.OutboxEvent;
+import ecsapplication.OutboxRelay;
+import ecsapplication.Transaction;
+import ecsapplication.enums.EquipmentCondition;
+import ecsapplication.enums.EquipmentStatus;
+import ecsapplication.enums.SkillClassification;
+import ecsapplication.enums.TransactionStatus;
+
+class OutboxRelayTest {
+
+	private static final String URL = "jdbc:h2:mem:outboxrelay;DB_CLOSE_DELAY=-1";
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection(URL, "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Rebuild the tables for each test
+			stmt.execute("DROP TABLE IF EXISTS event_outbox");
+			stmt.execute("DROP TABLE IF EXISTS `order`");
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20), "
+					+ "lastReturnCondition VARCHAR(15), rowVersion INT NOT NULL DEFAULT 0)");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+			stmt.execute("CREATE TABLE `order` (orderID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderDate DATE, pickUpDate DATE, orderStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE event_outbox (eventID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, eventType VARCHAR(20) NOT NULL, "
+					+ "equipmentID INT NOT NULL, equipStatus VARCHAR(20) NOT NULL, transactionID INT, orderID INT, empID INT, "
+					+ "equipCondition VARCHAR(15), createdAt TIMESTAMP NOT NULL)");
+
+			stmt.execute("INSERT INTO employee VALUES (1, 'Lead', 'Welder')");
+			stmt.execute("INSERT INTO equipment (equipmentID, equipmentName, equipmentCondition, requiredSkill, equipStatus) "
+					+ "SELECT X, 'Item' || X, 'Good', 'Welder', 'Available' FROM SYSTEM_RANGE(1, 10)");
+		}
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Creates a relay for this test's database, without background polls
+	private static OutboxRelay relay(long startAfterEventID, long gapWaitMillis) {
+		return new OutboxRelay(() -> DriverManager.getConnection(URL, "sa", ""), startAfterEventID, 0, gapWaitMillis);
+	}
+
+	// Same, with the time skipped IDs are looked for again
+	private static OutboxRelay relay(long startAfterEventID, long gapWaitMillis, long rescanMillis) {
+		return new OutboxRelay(() -> DriverManager.getConnection(URL, "sa", ""), startAfterEventID, 0, gapWaitMillis,
+				rescanMillis);
+	}
+
+	// Creates an unsaved checkout event for an equipment ID
+	private static OutboxEvent checkoutEvent(int equipmentID) {
+		Transaction txn = new Transaction(equipmentID, new Employee(1, "Lead"), new Equipment(equipmentID, "Item"),
+				TransactionStatus.Borrowed);
+		return OutboxEvent.checkedOut(txn);
+	}
+
+	// Runs one query that returns a single number
+	private int queryInt(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	@Test
+	@DisplayName("Checkout, return, order and cancel each record one event, delivered in order")
+	void testStateChangesRecorded() throws Exception {
+		CheckoutService service = new CheckoutService(() -> DriverManager.getConnection(URL, "sa", ""), 3);
+		Employee employee = new Employee(1, "Lead", SkillClassification.Welder);
+
+		// Checkout of item 1, and a refused checkout of the same item (rolled back)
+		Transaction txn = employee.checkOut(EquipmentDAO.getEquipmentByID(conn, 1));
+		assertTrue(service.checkOut(txn).isCheckedOut());
+		assertFalse(service.checkOut(employee.newCheckout(EquipmentDAO.getEquipmentByID(conn, 1))).isCheckedOut());
+
+		// Batch checkout of items 2 and 3
+		assertTrue(service.checkOutBatch(employee, List.of(EquipmentDAO.getEquipmentByID(conn, 3),
+				EquipmentDAO.getEquipmentByID(conn, 2))).isCheckedOut());
+
+		// Return of item 1, damaged
+		assertEquals(1, employee.returnEquipment(conn, Map.of(txn.getTransactionID(), EquipmentCondition.Damaged)).size());
+
+		// Order of item 4, then its cancellation
+		assertEquals("Order confirmed.", employee.orderEquipment(conn, EquipmentDAO.getEquipmentByID(conn, 4)));
+		int orderID = queryInt("SELECT orderID FROM `order`");
+		assertEquals("Order successfully cancelled", employee.cancelOrder(conn, orderID));
+		assertEquals("Order is already cancelled", employee.cancelOrder(conn, orderID));
+
+		// The relay delivers one event per change, in the order they were made
+		List<OutboxEvent> received = new ArrayList<>();
+		OutboxRelay relay = relay(0, 1_000);
+		relay.subscribe(received::add);
+		try {
+			assertEquals(6, relay.poll());
+		} finally {
+			relay.shutdown();
+		}
+
+		List<OutboxEvent.Type> types = new ArrayList<>();
+		List<Integer> equipmentIDs = new ArrayList<>();
+		for (OutboxEvent event : received) {
+			types.add(event.getType());
+			equipmentIDs.add(event.getEquipmentID());
+		}
+		assertEquals(List.of(OutboxEvent.Type.CHECKED_OUT, OutboxEvent.Type.CHECKED_OUT, OutboxEvent.Type.CHECKED_OUT,
+				OutboxEvent.Type.RETURNED, OutboxEvent.Type.ORDERED, OutboxEvent.Type.ORDER_CANCELLED), types);
+		assertEquals(List.of(1, 2, 3, 1, 4, 4), equipmentIDs);
+
+		// Events carry the keys and the new equipment status
+		assertEquals(txn.getTransactionID(), received.get(0).getTransactionID());
+		assertEquals(EquipmentStatus.Loaned, received.get(0).getEquipStatus());
+		assertEquals(EquipmentCondition.Damaged, received.get(3).getCondition());
+		assertEquals(EquipmentStatus.Available, received.get(3).getEquipStatus());
+		assertEquals(orderID, received.get(4).getOrderID());
+		assertEquals(EquipmentStatus.Ordered, received.get(4).getEquipStatus());
+		assertEquals(1, received.get(5).getEmpID());
+		assertEquals(3, relay.getDeliveredCount(OutboxEvent.Type.CHECKED_OUT));
+		assertEquals(received.get(5).getEventID(), relay.getLastEventID());
+	}
+
+	@Test
+	@DisplayName("Events committed out of ID order are delivered in order; rolled-back IDs are skipped")
+	void testGaps() throws Exception {
+		List<Long> received = new ArrayList<>();
+		OutboxRelay relay = relay(0, 200, 400);
+		relay.subscribe(event -> received.add(event.getEventID()));
+
+		try (Connection first = DriverManager.getConnection(URL, "sa", "");
+				Connection second = DriverManager.getConnection(URL, "sa", "")) {
+			first.setAutoCommit(false);
+			second.setAutoCommit(false);
+
+			// The first transaction takes ID 1, the second takes ID 2 and commits first
+			OutboxDAO.append(first, checkoutEvent(1));
+			OutboxDAO.append(second, checkoutEvent(2));
+			second.commit();
+
+			// Event 2 waits for event 1
+			assertEquals(0, relay.poll());
+			first.commit();
+			assertEquals(2, relay.poll());
+			assertEquals(List.of(1L, 2L), received);
+
+			// ID 3 is rolled back; ID 4 is delivered once the gap wait has passed
+			OutboxDAO.append(first, checkoutEvent(3));
+			OutboxDAO.append(second, checkoutEvent(4));
+			second.commit();
+			first.rollback();
+			assertEquals(0, relay.poll());
+			Thread.sleep(300);
+			assertEquals(1, relay.poll());
+			assertEquals(List.of(1L, 2L, 4L), received);
+			assertEquals(1, relay.getSkippedGapCount());
+
+			// The rolled-back ID is looked for until the rescan time has passed
+			assertEquals(0, relay.poll());
+			assertEquals(0, relay.getAbandonedGapCount());
+			Thread.sleep(500);
+			assertEquals(0, relay.poll());
+			assertEquals(1, relay.getAbandonedGapCount());
+			assertEquals(0, relay.getLateDeliveredCount());
+		} finally {
+			relay.shutdown();
+		}
+	}
+
+	@Test
+	@DisplayName("An event that commits after its ID was skipped is still delivered")
+	void testLateCommit() throws Exception {
+		List<Long> received = new ArrayList<>();
+		OutboxRelay relay = relay(0, 50, 60_000);
+		relay.subscribe(event -> received.add(event.getEventID()));
+
+		try (Connection slow = DriverManager.getConnection(URL, "sa", "");
+				Connection other = DriverManager.getConnection(URL, "sa", "")) {
+			slow.setAutoCommit(false);
+			other.setAutoCommit(false);
+
+			// The slow transaction takes ID 1 and is still open after the gap wait
+			OutboxDAO.append(slow, checkoutEvent(1));
+			OutboxDAO.append(other, checkoutEvent(2));
+			other.commit();
+			assertEquals(0, relay.poll());
+			Thread.sleep(100);
+			assertEquals(1, relay.poll());
+			assertEquals(List.of(2L), received);
+			assertEquals(1, relay.getSkippedGapCount());
+
+			// It commits late, together with a newer event: ID 1 comes first
+			slow.commit();
+			OutboxDAO.append(other, checkoutEvent(3));
+			other.commit();
+			assertEquals(2, relay.poll());
+			assertEquals(List.of(2L, 1L, 3L), received);
+			assertEquals(1, relay.getLateDeliveredCount());
+			assertEquals(0, relay.getAbandonedGapCount());
+
+			// It is delivered only once
+			assertEquals(0, relay.poll());
+			assertEquals(3, relay.getLastEventID());
+		} finally {
+			relay.shutdown();
+		}
+	}
+
+	@Test
+	@DisplayName("A relay from the latest event polls in the background; failing subscribers do not stop others")
+	void testBackgroundPolls() throws Exception {
+
+		// Events saved before the relay starts are not delivered
+		OutboxDAO.append(conn, checkoutEvent(1));
+		OutboxDAO.append(conn, checkoutEvent(2));
+
+		CountDownLatch delivered = new CountDownLatch(3);
+		List<Integer> received = new CopyOnWriteArrayList<>();
+		OutboxRelay relay = new OutboxRelay(() -> DriverManager.getConnection(URL, "sa", ""),
+				OutboxRelay.FROM_LATEST, 20, 1_000);
+		relay.subscribe(event -> {
+			throw new IllegalStateException("subscriber down");
+		});
+		relay.subscribe(event -> {
+			received.add(event.getEquipmentID());
+			delivered.countDown();
+		});
+		try {
+			assertEquals(0, relay.pollNow().get(5, TimeUnit.SECONDS).intValue());
+			for (int id = 3; id <= 5; id++) {
+				OutboxDAO.append(conn, checkoutEvent(id));
+			}
+			assertTrue(delivered.await(5, TimeUnit.SECONDS), "New events should be delivered in the background");
+
+			// Runs after the background poll has recorded its position
+			assertEquals(0, relay.pollNow().get(5, TimeUnit.SECONDS).intValue());
+		} finally {
+			relay.shutdown();
+		}
+		assertEquals(List.of(3, 4, 5), received);
+		assertEquals(3, relay.getSubscriberErrorCount());
+		assertEquals(5, relay.getLastEventID());
+	}
+
+	@Test
+	@DisplayName("The equipment cache applies another clerk's checkout without reloading")
+	void testCacheSubscriber() throws Exception {
+		EquipmentCache cache = new EquipmentCache(() -> DriverManager.getConnection(URL, "sa", ""), 60_000);
+		assertEquals(10, cache.getAvailableEquipmentBySkill(SkillClassification.Welder).size());
+		long loads = cache.getLoadCount();
+
+		OutboxRelay relay = relay(0, 1_000);
+		relay.subscribe(cache::applyEvent);
+		try {
+			// Another clerk checks out items 7 and 8, then returns item 8 damaged
+			CheckoutService otherClerk = new CheckoutService(() -> DriverManager.getConnection(URL, "sa", ""), 3);
+			Employee employee = new Employee(1, "Lead", SkillClassification.Welder);
+			assertTrue(otherClerk.checkOut(employee.checkOut(EquipmentDAO.getEquipmentByID(conn, 7))).isCheckedOut());
+			assertTrue(otherClerk.checkOut(employee.checkOut(EquipmentDAO.getEquipmentByID(conn, 8))).isCheckedOut());
+			int returnID = employee.getEmpTransaction().get(1).getTransactionID();
+			assertEquals(1, employee.returnEquipment(conn, Map.of(returnID, EquipmentCondition.Damaged)).size());
+
+			assertEquals(3, relay.poll());
+		} finally {
+			relay.shutdown();
+		}
+
+		// Item 7 is loaned and item 8 back, shown in its returned condition, without a reload
+		List<Equipment> available = cache.getAvailableEquipmentBySkill(SkillClassification.Welder);
+		assertEquals(9, available.size());
+		assertEquals(EquipmentStatus.Loaned, cache.getEquipmentByID(7).getStatus());
+		Equipment returned = available.stream().filter(eq -> eq.getEquipmentID() == 8).findFirst().orElseThrow();
+		assertEquals(EquipmentCondition.Damaged, returned.getEquipmentCondition());
+		assertEquals(loads, cache.getLoadCount(), "The catalog should not be reloaded");
+	}
+}
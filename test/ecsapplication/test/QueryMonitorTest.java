@@ -0,0 +1,179 @@
+/**
+ * QueryMonitorTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the QueryMonitor that DBConnect wraps
+ *   around every connection, using DAO calls on a small H2 database.
+ *   The following is tested:
+ *
+ *   1. Each statement is counted with its rows and latency, and tagged
+ *      with the DAO method that first prepared its SQL.
+ *   2. Statements over the slow-query threshold are logged with their
+ *      bind parameters redacted, and failed statements are counted.
+ *   3. The summary can be exported as text and as JSON.
+ *
+ * Test Case ID: TC-DB-003-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import file and JDBC classes
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// Import collections
+import java.util.Arrays;
+import java.util.List;
+
+// Import JUnit annotations for setup, test, and display name
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Import ECS classes and the seeded benchmark database
+import ecsapplication.EquipmentDAO;
+import ecsapplication.QueryMonitor;
+import ecsapplication.QueryMonitor.SlowQuery;
+import ecsapplication.QueryMonitor.StatementStats;
+import ecsapplication.TransactionDAO;
+import ecsapplication.bench.BenchmarkDatabase;
+import ecsapplication.enums.EquipmentStatus;
+
+class QueryMonitorTest {
+
+	// Small seeded database shared by the tests (only read, or changed and rolled back)
+	private static final BenchmarkDatabase DB = BenchmarkDatabase.inMemory("querymonitor", 10, 100, 500);
+
+	@TempDir
+	Path folder;   // Summary files
+
+	@BeforeAll
+	static void setup() throws Exception {
+		DB.create();
+	}
+
+	// ============================================================
+	// 1. Statistics per DAO method
+	// ============================================================
+	@Test
+	@DisplayName("Each statement is counted with its rows and latency and tagged with its DAO method")
+	void testStatementsAreTaggedByDaoMethod() throws Exception {
+		QueryMonitor monitor = new QueryMonitor(60_000);
+
+		try (Connection conn = monitor.wrap(DB.getConnection())) {
+			conn.setAutoCommit(false);
+			for (int i = 0; i < 3; i++) {
+				assertEquals(20, TransactionDAO.getTransactionsPage(conn, 0, 20).size());
+			}
+			assertEquals(500, TransactionDAO.countTransactions(conn));
+			assertTrue(EquipmentDAO.updateEquipmentStatus(conn, 1, EquipmentStatus.Lost));
+			conn.rollback();
+		}
+
+		List<StatementStats> pages = monitor.getStatementStats("TransactionDAO.getTransactionsPage");
+		assertEquals(1, pages.size(), "One entry per statement and DAO method");
+		assertEquals(3, pages.get(0).getCalls());
+		assertEquals(60, pages.get(0).getRows(), "Rows read from the result sets");
+		assertTrue(pages.get(0).getSql().startsWith("SELECT"));
+		assertTrue(pages.get(0).getTotalMillis() > 0);
+		assertTrue(pages.get(0).getPercentileMillis(50) <= pages.get(0).getMaxMillis());
+		assertEquals(3, Arrays.stream(pages.get(0).getBucketCounts()).sum());
+
+		StatementStats count = monitor.getStatementStats("TransactionDAO.countTransactions").get(0);
+		assertEquals("SELECT COUNT(*) FROM transaction", count.getSql());
+		assertEquals(1, count.getRows());
+
+		// The tag is remembered per SQL, so the same SQL prepared here is not looked up on the stack again
+		try (Connection conn = monitor.wrap(DB.getConnection());
+				PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM transaction")) {
+			stmt.executeQuery().close();
+		}
+		assertEquals(2, count.getCalls());
+		assertTrue(monitor.getStatementStats("QueryMonitorTest.testStatementsAreTaggedByDaoMethod").isEmpty());
+
+		StatementStats update = monitor.getStatementStats("EquipmentDAO.updateEquipmentStatus").get(0);
+		assertEquals(1, update.getCalls());
+		assertEquals(1, update.getRows(), "Rows changed by the update");
+		assertEquals(0, update.getErrors());
+		assertEquals(0, monitor.getSlowQueryCount());
+
+		// A disabled monitor hands out the connection as it is
+		monitor.setEnabled(false);
+		try (Connection conn = DB.getConnection()) {
+			assertSame(conn, monitor.wrap(conn));
+		}
+	}
+
+	// ============================================================
+	// 2. Slow-query log
+	// ============================================================
+	@Test
+	@DisplayName("Slow statements are logged without their bind values, and failures are counted")
+	void testSlowQueriesAreRedacted() throws Exception {
+		QueryMonitor monitor = new QueryMonitor(0);   // Every statement counts as slow
+
+		try (Connection conn = monitor.wrap(DB.getConnection())) {
+			try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM employee WHERE empName = ? AND empID > ?")) {
+				stmt.setString(1, "Jane Secret");
+				stmt.setInt(2, 424242);
+				stmt.executeQuery().close();
+			}
+			assertThrows(SQLException.class, () -> {
+				try (PreparedStatement stmt = conn.prepareStatement("SELECT CAST(? AS INT) FROM employee")) {
+					stmt.setString(1, "not a number");
+					stmt.executeQuery();
+				}
+			});
+		}
+
+		List<SlowQuery> slow = monitor.getSlowQueries();
+		assertEquals(monitor.getSlowQueryCount(), slow.size());
+		SlowQuery search = slow.stream().filter(q -> q.getSql().contains("empName")).findFirst().orElseThrow();
+		assertEquals("QueryMonitorTest.testSlowQueriesAreRedacted", search.getTag());
+		assertEquals("[1=<String>, 2=<Integer>]", search.getBinds());
+		assertFalse(search.toString().contains("Jane") || search.toString().contains("424242"));
+
+		// The failed statement is counted as an error and logged as failed
+		StatementStats cast = monitor.getStatementStats("QueryMonitorTest.testSlowQueriesAreRedacted").stream()
+				.filter(s -> s.getSql().startsWith("SELECT CAST")).findFirst().orElseThrow();
+		assertEquals(1, cast.getCalls());
+		assertEquals(1, cast.getErrors());
+		assertTrue(slow.stream().anyMatch(q -> q.isFailed() && q.getSql().startsWith("SELECT CAST")));
+	}
+
+	// ============================================================
+	// 3. Text and JSON summaries
+	// ============================================================
+	@Test
+	@DisplayName("The summary is exported as a text table and as JSON")
+	void testSummaries() throws Exception {
+		QueryMonitor monitor = new QueryMonitor(60_000);
+		try (Connection conn = monitor.wrap(DB.getConnection())) {
+			TransactionDAO.countTransactions(conn);
+		}
+
+		String text = monitor.toText();
+		assertTrue(text.contains("TransactionDAO.countTransactions"));
+		assertTrue(text.contains("SELECT COUNT(*) FROM transaction"));
+
+		Path json = folder.resolve("queries.json");
+		monitor.writeSummary(json);
+		String content = Files.readString(json);
+		assertTrue(content.contains("\"tag\" : \"TransactionDAO.countTransactions\""));
+		assertTrue(content.contains("\"calls\" : 1") && content.contains("\"histogram\"") && content.contains("\"slowQueries\" : []"));
+
+		Path table = folder.resolve("queries.txt");
+		monitor.writeSummary(table);
+		assertEquals(text, Files.readString(table));
+
+		monitor.reset();
+		assertTrue(monitor.getStatementStats().isEmpty());
+	}
+}
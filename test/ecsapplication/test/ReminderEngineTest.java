@@ -0,0 +1,235 @@
+/**
+ * ReminderEngineTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the scheduled reminder engine
+ *   (ReminderEngine) against an H2 in-memory database seeded with 5,000
+ *   open loans, due from 30 days ago to 30 days ahead, and 20,000
+ *   returned loans. The following is tested:
+ *
+ *   1. One run saves a reminder for every open loan that is overdue or
+ *      due within the configured number of days, and for no other loan,
+ *      in two round trips (query and batched upsert).
+ *   2. A later run refreshes the same reminders instead of adding rows,
+ *      and reminders that existed before the engine are updated.
+ *   3. Runs happen on the configured cadence and report their stats, and
+ *      a run that fails with an unchecked exception does not stop them.
+ *
+ * Test Case ID: TC-REM-003-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import date and concurrency utilities
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes
+import ecsapplication.ReminderEngine;
+
+class ReminderEngineTest {
+
+	private static final String URL = "jdbc:h2:mem:reminderengine;DB_CLOSE_DELAY=-1";
+	private static final int OPEN_LOANS = 5_000;       // Borrowed transactions, due -30..+30 days from today
+	private static final int RETURNED_LOANS = 20_000;  // Returned transactions, all past due
+	private static final int DAYS_AHEAD = ReminderEngine.DEFAULT_DAYS_AHEAD;   // Reminder window used by the tests
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection(URL, "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Rebuild the tables for each test
+			stmt.execute("DROP TABLE IF EXISTS reminder");
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+			stmt.execute("CREATE TABLE reminder (reminderID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+					+ "transactionID INT NOT NULL, reminderDate DATE NOT NULL, reminderMSG TEXT)");
+			stmt.execute("CREATE INDEX idx_transaction_status_due ON transaction (transactionStatus, expectedReturnDate)");
+			stmt.execute("CREATE UNIQUE INDEX uq_reminder_transaction ON reminder (transactionID)");
+
+			stmt.execute("INSERT INTO employee SELECT X, 'Emp' || X, 'Welder' FROM SYSTEM_RANGE(1, 100)");
+			stmt.execute("INSERT INTO equipment SELECT X, 'Item' || X, 'Good', 'Welder', 'Loaned' FROM SYSTEM_RANGE(1, 1000)");
+
+			// Open loans: due dates spread evenly from 30 days ago to 30 days ahead
+			stmt.execute("INSERT INTO transaction SELECT X, MOD(X, 100) + 1, MOD(X, 1000) + 1, NULL, "
+					+ "DATEADD('DAY', MOD(X, 61) - 37, CURRENT_DATE), DATEADD('DAY', MOD(X, 61) - 30, CURRENT_DATE), "
+					+ "'Borrowed', NULL, NULL, 'Good' FROM SYSTEM_RANGE(1, " + OPEN_LOANS + ")");
+
+			// Returned loans: all past due, and never reminded about
+			stmt.execute("INSERT INTO transaction SELECT X, MOD(X, 100) + 1, MOD(X, 1000) + 1, NULL, "
+					+ "DATEADD('DAY', -100, CURRENT_DATE), DATEADD('DAY', -93, CURRENT_DATE), "
+					+ "'Returned', DATEADD('DAY', -95, CURRENT_DATE), 'Good', 'Good' "
+					+ "FROM SYSTEM_RANGE(" + (OPEN_LOANS + 1) + ", " + (OPEN_LOANS + RETURNED_LOANS) + ")");
+		}
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Open loans whose due date is on or before today + DAYS_AHEAD
+	private static int expectedDueLoans() {
+		int count = 0;
+		for (int x = 1; x <= OPEN_LOANS; x++) {
+			if (x % 61 - 30 <= DAYS_AHEAD) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Open loans whose due date is before today
+	private static int expectedOverdueLoans() {
+		int count = 0;
+		for (int x = 1; x <= OPEN_LOANS; x++) {
+			if (x % 61 - 30 < 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Runs one query that returns a single number
+	private int queryInt(String sql) throws Exception {
+		try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	@Test
+	@DisplayName("One run saves a reminder for every loan due soon or overdue, in two round trips")
+	void testRun() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		ReminderEngine engine = new ReminderEngine(() -> StatementCounting.countingKeptOpen(conn, executions), DAYS_AHEAD, 0);
+
+		ReminderEngine.RunStats stats = engine.run();
+
+		// Stats: every due loan
+		assertEquals(expectedDueLoans(), stats.getProcessed());
+		assertEquals(expectedOverdueLoans(), stats.getOverdue());
+		assertEquals(2, executions.get(), "One query and one batched upsert");
+
+		// Database: one reminder per due open loan, none for later or returned loans
+		assertEquals(expectedDueLoans(), queryInt("SELECT COUNT(*) FROM reminder"));
+		assertEquals(expectedDueLoans(), queryInt("SELECT COUNT(DISTINCT transactionID) FROM reminder"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM reminder r JOIN transaction t ON r.transactionID = t.transactionID "
+				+ "WHERE t.transactionStatus <> 'Borrowed' OR t.expectedReturnDate > DATEADD('DAY', " + DAYS_AHEAD + ", CURRENT_DATE)"));
+
+		// Messages were generated for each loan's own state
+		assertEquals(expectedOverdueLoans(), queryInt("SELECT COUNT(*) FROM reminder WHERE reminderMSG LIKE '%overdue%'"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM reminder WHERE reminderMSG LIKE 'Reminder Error%'"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM reminder WHERE reminderMSG LIKE 'No action needed%'"),
+				"Every saved reminder should ask for a return");
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM reminder WHERE reminderDate <> CURRENT_DATE OR empID IS NULL"));
+		assertEquals(1, engine.getRunCount());
+		assertEquals(stats, engine.getLastRun());
+	}
+
+	@Test
+	@DisplayName("Later runs refresh existing reminders instead of adding rows")
+	void testRerun() throws Exception {
+
+		// A reminder saved earlier by "Check Reminder" for an overdue loan (X = 61: 30 days overdue)
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("INSERT INTO reminder (empID, transactionID, reminderDate, reminderMSG) "
+					+ "VALUES (62, 61, DATEADD('DAY', -5, CURRENT_DATE), 'old message')");
+		}
+
+		ReminderEngine engine = new ReminderEngine(() -> StatementCounting.countingKeptOpen(conn, new AtomicInteger()), DAYS_AHEAD, 0);
+		engine.run();
+		assertEquals(expectedDueLoans(), queryInt("SELECT COUNT(*) FROM reminder"), "The existing reminder should be updated");
+		int firstID = queryInt("SELECT reminderID FROM reminder WHERE transactionID = 61");
+
+		// Second run: nothing new, everything refreshed in place
+		ReminderEngine.RunStats second = engine.run();
+		assertEquals(expectedDueLoans(), second.getProcessed());
+		assertEquals(expectedDueLoans(), queryInt("SELECT COUNT(*) FROM reminder"));
+		assertEquals(firstID, queryInt("SELECT reminderID FROM reminder WHERE transactionID = 61"));
+		assertEquals(0, queryInt("SELECT COUNT(*) FROM reminder WHERE reminderMSG = 'old message' "
+				+ "OR reminderDate <> CURRENT_DATE"));
+		assertEquals(2L * expectedDueLoans(), engine.getProcessedCount());
+	}
+
+	@Test
+	@DisplayName("Runs happen on the configured cadence")
+	void testSchedule() throws Exception {
+		CountDownLatch runs = new CountDownLatch(3);
+
+		// Each scheduled run uses its own connection to the same database
+		ReminderEngine engine = new ReminderEngine(() -> DriverManager.getConnection(URL, "sa", ""), DAYS_AHEAD, 50);
+		engine.addRunListener(stats -> runs.countDown());
+		try {
+			assertTrue(runs.await(10, TimeUnit.SECONDS), "Three runs should finish within 10 seconds");
+		} finally {
+			engine.shutdown();
+		}
+		assertTrue(engine.getRunCount() >= 3);
+		assertEquals(expectedDueLoans(), engine.getLastRun().getProcessed());
+		assertEquals(expectedDueLoans(), queryInt("SELECT COUNT(*) FROM reminder"));
+
+		// An on-demand run reports the same loans
+		ReminderEngine manual = new ReminderEngine(() -> DriverManager.getConnection(URL, "sa", ""), DAYS_AHEAD, 0);
+		try {
+			assertEquals(expectedDueLoans(), manual.runNow().get(10, TimeUnit.SECONDS).getProcessed());
+		} finally {
+			manual.shutdown();
+		}
+		assertEquals(LocalDate.now(), engine.getLastRun().getFinishedAt().toLocalDate());
+	}
+
+	@Test
+	@DisplayName("A run that fails with an unchecked exception does not stop the schedule")
+	void testScheduleSurvivesFailure() throws Exception {
+		CountDownLatch runs = new CountDownLatch(2);
+		AtomicInteger attempts = new AtomicInteger();
+
+		// The first scheduled run fails with a RuntimeException, later ones succeed
+		ReminderEngine engine = new ReminderEngine(() -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new IllegalStateException("Pool is shut down");
+			}
+			return DriverManager.getConnection(URL, "sa", "");
+		}, DAYS_AHEAD, 50);
+		engine.addRunListener(stats -> runs.countDown());
+		try {
+			assertTrue(runs.await(10, TimeUnit.SECONDS), "Runs should continue after a failed run");
+		} finally {
+			engine.shutdown();
+		}
+		assertTrue(attempts.get() >= 3);
+		assertEquals(expectedDueLoans(), engine.getLastRun().getProcessed());
+	}
+}
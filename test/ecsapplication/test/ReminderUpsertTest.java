@@ -0,0 +1,307 @@
+/**
+ * ReminderUpsertTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies that ReminderDAO saves reminders with a
+ *   single upsert statement on a reminder table with a unique key on
+ *   transactionID, using H2 in-memory databases (one in H2's own mode,
+ *   one in MySQL mode). The following is tested:
+ *
+ *   1. saveReminder() inserts, then updates the same row, in one round trip each.
+ *   2. On MySQL the INSERT ... ON DUPLICATE KEY UPDATE form, with a row alias
+ *      for the new values, is used and works.
+ *   3. saveReminders() saves a whole batch with one batched statement.
+ *   4. Concurrent reminder runs over the same loans never create duplicate rows.
+ *   5. A batch rejected by any other constraint is not retried.
+ *   6. saveReminders() joins a transaction the caller has already begun.
+ *
+ * Test Case ID: TC-REM-004-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Import reflection classes used to record executed statements
+import java.lang.reflect.Proxy;
+
+// Import date, collections and concurrency utilities
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Import ECS classes and enums
+import ecsapplication.Employee;
+import ecsapplication.Equipment;
+import ecsapplication.Reminder;
+import ecsapplication.ReminderDAO;
+import ecsapplication.Transaction;
+import ecsapplication.enums.TransactionStatus;
+
+class ReminderUpsertTest {
+
+	private static final String URL = "jdbc:h2:mem:reminderupsert;DB_CLOSE_DELAY=-1";
+	private static final String MYSQL_URL = "jdbc:h2:mem:reminderupsertmysql;MODE=MySQL;DB_CLOSE_DELAY=-1";
+	private static final int LOANS = 500;   // Transactions that can get reminders
+
+	private Connection conn;        // H2 database connection
+	private Connection mysqlConn;   // H2 database connection in MySQL mode
+
+	@BeforeEach
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open separate in-memory databases for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection(URL, "sa", "");
+		mysqlConn = DriverManager.getConnection(MYSQL_URL, "sa", "");
+
+		// Reminder table as migrated by V5: one reminder per transaction
+		for (Connection c : new Connection[] { conn, mysqlConn }) {
+			try (Statement stmt = c.createStatement()) {
+				stmt.execute("DROP TABLE IF EXISTS reminder");
+				stmt.execute("CREATE TABLE reminder (reminderID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+						+ "transactionID INT NOT NULL, reminderDate DATE NOT NULL, reminderMSG TEXT)");
+				stmt.execute("CREATE UNIQUE INDEX uq_reminder_transaction ON reminder (transactionID)");
+			}
+		}
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		conn.close();
+		mysqlConn.close();
+	}
+
+	// Builds a reminder for a transaction ID with the given message
+	private static Reminder reminder(int transactionID, String message) {
+		Employee employee = new Employee(transactionID % 10 + 1, "Emp");
+		Transaction txn = new Transaction(transactionID, employee, new Equipment(transactionID, "Item"),
+				TransactionStatus.Borrowed);
+		Reminder reminder = new Reminder(employee, txn);
+		reminder.setReminderDate(LocalDate.now());
+		reminder.setReminderMSG(message);
+		return reminder;
+	}
+
+	// Wraps a connection so the SQL of every executed statement is recorded;
+	// 'product' (if not null) replaces the database product name the DAO sees.
+	// H2's MySQL mode does not parse the row alias of MySQL 8.0.19, so H2 is
+	// given the same upsert with VALUES(col) while the DAO's SQL is recorded.
+	private static Connection recording(Connection target, List<String> executed, String product) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					Object[] targetArgs = args;
+					if ("MySQL".equals(product) && method.getName().equals("prepareStatement")) {
+						targetArgs = args.clone();
+						targetArgs[0] = ((String) args[0]).replace(") AS new ON DUPLICATE", ") ON DUPLICATE")
+								.replaceAll("new\\.(\\w+)", "VALUES($1)");
+					}
+					Object result = StatementCounting.invokeTarget(target, method, targetArgs);
+					if (result instanceof DatabaseMetaData && product != null) {
+						DatabaseMetaData meta = (DatabaseMetaData) result;
+						return Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+								new Class<?>[] { DatabaseMetaData.class },
+								(p, m, a) -> m.getName().equals("getDatabaseProductName") ? product : StatementCounting.invokeTarget(meta, m, a));
+					}
+					if (result instanceof PreparedStatement) {
+						PreparedStatement stmt = (PreparedStatement) result;
+						String sql = (String) args[0];
+						return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+								new Class<?>[] { PreparedStatement.class },
+								(p, m, a) -> {
+									if (m.getName().startsWith("execute")) {
+										executed.add(sql);
+									}
+									return StatementCounting.invokeTarget(stmt, m, a);
+								});
+					}
+					return result;
+				});
+	}
+
+	// Runs one query that returns a single number
+	private static int queryInt(Connection c, String sql) throws Exception {
+		try (Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	// Runs one query that returns a single text value
+	private static String queryString(Connection c, String sql) throws Exception {
+		try (Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+
+	@Test
+	@DisplayName("saveReminder inserts, then updates the same row, in one round trip each")
+	void testSaveReminder() throws Exception {
+		List<String> executed = new ArrayList<>();
+		Connection recorder = recording(conn, executed, null);
+
+		ReminderDAO.saveReminder(reminder(7, "first"), recorder);
+		int reminderID = queryInt(conn, "SELECT reminderID FROM reminder WHERE transactionID = 7");
+		ReminderDAO.saveReminder(reminder(7, "second"), recorder);
+
+		assertEquals(2, executed.size(), "One statement per save");
+		assertTrue(executed.get(0).startsWith("MERGE INTO reminder"), executed.get(0));
+		assertEquals(1, queryInt(conn, "SELECT COUNT(*) FROM reminder"));
+		assertEquals(reminderID, queryInt(conn, "SELECT reminderID FROM reminder WHERE transactionID = 7"));
+		assertEquals("second", queryString(conn, "SELECT reminderMSG FROM reminder WHERE transactionID = 7"));
+	}
+
+	@Test
+	@DisplayName("MySQL uses INSERT ... ON DUPLICATE KEY UPDATE")
+	void testMySqlDialect() throws Exception {
+		List<String> executed = new ArrayList<>();
+		Connection recorder = recording(mysqlConn, executed, "MySQL");
+
+		ReminderDAO.saveReminder(reminder(7, "first"), recorder);
+		ReminderDAO.saveReminder(reminder(7, "second"), recorder);
+		List<Reminder> batch = new ArrayList<>();
+		for (int id = 1; id <= 20; id++) {
+			batch.add(reminder(id, "batch " + id));
+		}
+		ReminderDAO.saveReminders(recorder, batch);
+
+		assertEquals(3, executed.size());
+		for (String sql : executed) {
+			assertTrue(sql.startsWith("INSERT INTO reminder") && sql.contains(") AS new ON DUPLICATE KEY UPDATE"), sql);
+			assertTrue(sql.contains("reminderMSG = new.reminderMSG") && !sql.contains("VALUES("), sql);
+		}
+		assertEquals(20, queryInt(mysqlConn, "SELECT COUNT(*) FROM reminder"));
+		assertEquals("batch 7", queryString(mysqlConn, "SELECT reminderMSG FROM reminder WHERE transactionID = 7"));
+	}
+
+	@Test
+	@DisplayName("saveReminders saves a batch with one batched statement")
+	void testSaveReminders() throws Exception {
+		List<Reminder> batch = new ArrayList<>();
+		for (int id = 1; id <= LOANS; id++) {
+			batch.add(reminder(id, "first " + id));
+		}
+		List<String> executed = new ArrayList<>();
+		assertEquals(LOANS, ReminderDAO.saveReminders(recording(conn, executed, null), batch));
+		assertEquals(1, executed.size(), "One batched upsert");
+
+		// Saving again with new messages updates every row in place
+		for (Reminder r : batch) {
+			r.setReminderMSG("second " + r.getTransaction().getTransactionID());
+		}
+		ReminderDAO.saveReminders(conn, batch);
+		assertEquals(LOANS, queryInt(conn, "SELECT COUNT(*) FROM reminder"));
+		assertEquals(0, queryInt(conn, "SELECT COUNT(*) FROM reminder WHERE reminderMSG NOT LIKE 'second %'"));
+		assertTrue(conn.getAutoCommit(), "Auto-commit should be restored");
+	}
+
+	@Test
+	@DisplayName("saveReminders joins the caller's transaction")
+	void testSaveRemindersJoinsTransaction() throws Exception {
+		List<Reminder> batch = new ArrayList<>();
+		for (int id = 1; id <= LOANS; id++) {
+			batch.add(reminder(id, "joined " + id));
+		}
+
+		// The caller began a transaction; the batch is neither committed nor rolled back for it
+		conn.setAutoCommit(false);
+		try {
+			assertEquals(LOANS, ReminderDAO.saveReminders(conn, batch));
+			assertFalse(conn.getAutoCommit(), "The caller's transaction should stay open");
+			assertEquals(LOANS, queryInt(conn, "SELECT COUNT(*) FROM reminder"));
+
+			// So the caller can still roll it back
+			conn.rollback();
+			assertEquals(0, queryInt(conn, "SELECT COUNT(*) FROM reminder"));
+		} finally {
+			conn.setAutoCommit(true);
+		}
+	}
+
+	@Test
+	@DisplayName("Concurrent reminder runs never create duplicate rows")
+	void testConcurrentRuns() throws Exception {
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		try {
+			List<Future<?>> runs = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int seed = t;
+				runs.add(pool.submit(() -> {
+					try (Connection c = DriverManager.getConnection(URL, "sa", "")) {
+						for (int round = 0; round < 5; round++) {
+
+							// A batched run over every loan, in a different order per thread
+							List<Reminder> batch = new ArrayList<>();
+							for (int id = 1; id <= LOANS; id++) {
+								batch.add(reminder(id, "run " + seed));
+							}
+							Collections.shuffle(batch, new Random(seed * 31L + round));
+							ReminderDAO.saveReminders(c, batch);
+
+							// And single saves, as "Check Reminder" does
+							for (int id = seed + 1; id <= LOANS; id += 50) {
+								ReminderDAO.saveReminder(reminder(id, "check " + seed), c);
+							}
+						}
+					} catch (Throwable e) {
+						failures.add(e);
+					}
+				}));
+			}
+			for (Future<?> run : runs) {
+				run.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		if (!failures.isEmpty()) {
+			failures.get(0).printStackTrace();
+		}
+		assertTrue(failures.isEmpty(), "Saves failed: " + failures);
+		assertEquals(LOANS, queryInt(conn, "SELECT COUNT(*) FROM reminder"));
+		assertEquals(LOANS, queryInt(conn, "SELECT COUNT(DISTINCT transactionID) FROM reminder"));
+	}
+
+	@Test
+	@DisplayName("A batch rejected by another constraint is not retried")
+	void testConstraintViolationNotRetried() throws Exception {
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("ALTER TABLE reminder ADD CONSTRAINT reminder_msg_length CHECK (LENGTH(reminderMSG) <= 20)");
+		}
+		List<Reminder> batch = List.of(reminder(1, "short"), reminder(2, "a message that is far too long"));
+
+		// The check fails the same way every time, so the batch is tried once
+		List<String> executed = new ArrayList<>();
+		SQLException e = assertThrows(SQLException.class,
+				() -> ReminderDAO.saveReminders(recording(conn, executed, null), batch));
+		assertTrue(e.getSQLState().startsWith("23"), e.getSQLState());
+		assertEquals(1, executed.size(), "A constraint violation should not be retried");
+		assertEquals(0, queryInt(conn, "SELECT COUNT(*) FROM reminder"));
+	}
+}
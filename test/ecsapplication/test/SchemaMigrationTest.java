@@ -0,0 +1,416 @@
+/**
+ * SchemaMigrationTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the schema migrations applied on startup
+ *   by SchemaMigrator and the query plans of the hot DAO queries, using an
+ *   H2 in-memory database built like the MySQL dump (including its
+ *   foreign key indexes) and seeded with 20,000 transactions.
+ *   The following is tested:
+ *
+ *   1. Migrations are applied once, in order, and recorded in schema_version
+ *      (including V5, which removes duplicate reminders before adding a unique key,
+ *      and V6, which creates the event outbox).
+ *   2. The composite indexes for the hot query predicates exist.
+ *   3. No hot DAO query falls back to a full table scan (checked with EXPLAIN).
+ *   4. Copies of the application starting together apply each migration
+ *      once: the others wait for the migration lock.
+ *   5. A migration that stopped halfway runs again from its first step,
+ *      and tables of another schema are not mistaken for this one's.
+ *
+ * Test Case ID: TC-DB-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Import reflection classes used to record the SQL run by the DAOs
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+// Import collections and concurrency utilities
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+// Import ECS classes
+import ecsapplication.Employee;
+import ecsapplication.EmployeeDAO;
+import ecsapplication.Equipment;
+import ecsapplication.EquipmentDAO;
+import ecsapplication.OrderDAO;
+import ecsapplication.OutboxDAO;
+import ecsapplication.OutboxEvent;
+import ecsapplication.SchemaMigrator;
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+import ecsapplication.enums.SkillClassification;
+import ecsapplication.enums.TransactionStatus;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaMigrationTest {
+
+	private static final int EMPLOYEE_COUNT = 200;         // Rows seeded into employee
+	private static final int EQUIPMENT_COUNT = 2_000;      // Rows seeded into equipment
+	private static final int TRANSACTION_COUNT = 20_000;   // Rows seeded into transaction
+
+	// Available-equipment query, explained before the migrations run
+	private static final String AVAILABLE_BY_SKILL =
+			"SELECT * FROM equipment WHERE equipStatus = 'Available' AND requiredSkill = 'Welder'";
+
+	private Connection conn;           // H2 in-memory database connection
+	private int firstRunApplied;       // Migrations applied by the first run
+	private int secondRunApplied;      // Migrations applied by the second run
+	private String planBeforeMigration;
+
+	// A query run by a DAO: its SQL and bind parameters by index
+	private record RecordedQuery(String sql, Map<Integer, Object> params) { }
+
+	@BeforeAll
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection("jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1", "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Tables and foreign key indexes as created by the MySQL dump
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE `order` (orderID INT PRIMARY KEY, empID INT, equipmentID INT, "
+					+ "orderDate DATE, pickUpDate DATE, orderStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+			stmt.execute("CREATE INDEX order_empID ON `order` (empID)");
+			stmt.execute("CREATE INDEX order_ibfk_2 ON `order` (equipmentID)");
+			stmt.execute("CREATE INDEX transaction_empID ON transaction (empID)");
+			stmt.execute("CREATE INDEX transaction_orderID ON transaction (orderID)");
+			stmt.execute("CREATE INDEX transaction_ibfk_2 ON transaction (equipmentID)");
+			stmt.execute("CREATE TABLE reminder (reminderID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+					+ "transactionID INT NOT NULL, reminderDate DATE NOT NULL, reminderMSG TEXT)");
+			stmt.execute("CREATE INDEX reminder_transactionID ON reminder (transactionID)");
+
+			// Employees and equipment spread over the five skills; a quarter of the equipment is available
+			stmt.execute("INSERT INTO employee SELECT X, 'Emp' || X, "
+					+ "CASEWHEN(MOD(X, 5) = 0, 'Electrician', CASEWHEN(MOD(X, 5) = 1, 'Plumber', "
+					+ "CASEWHEN(MOD(X, 5) = 2, 'Painter', CASEWHEN(MOD(X, 5) = 3, 'Welder', 'Carpenter')))) "
+					+ "FROM SYSTEM_RANGE(1, " + EMPLOYEE_COUNT + ")");
+			stmt.execute("INSERT INTO equipment SELECT X, 'Item' || X, 'Good', "
+					+ "CASEWHEN(MOD(X, 5) = 0, 'Electrician', CASEWHEN(MOD(X, 5) = 1, 'Plumber', "
+					+ "CASEWHEN(MOD(X, 5) = 2, 'Painter', CASEWHEN(MOD(X, 5) = 3, 'Welder', 'Carpenter')))), "
+					+ "CASEWHEN(MOD(X, 4) = 0, 'Available', 'Loaned') "
+					+ "FROM SYSTEM_RANGE(1, " + EQUIPMENT_COUNT + ")");
+			stmt.execute("INSERT INTO `order` SELECT X, MOD(X, " + EMPLOYEE_COUNT + ") + 1, X, "
+					+ "'2025-08-01', NULL, 'Confirmed' FROM SYSTEM_RANGE(1, 500)");
+
+			// Transactions: one in ten is still borrowed, the rest are returned
+			stmt.execute("INSERT INTO transaction SELECT X, MOD(X, " + EMPLOYEE_COUNT + ") + 1, "
+					+ "MOD(X, " + EQUIPMENT_COUNT + ") + 1, NULL, DATEADD('DAY', MOD(X, 365), DATE '2025-01-01'), "
+					+ "DATEADD('DAY', MOD(X, 365) + 7, DATE '2025-01-01'), "
+					+ "CASEWHEN(MOD(X, 10) = 0, 'Borrowed', 'Returned'), NULL, "
+					+ "CASEWHEN(MOD(X, 10) = 0, NULL, 'Good'), 'Good' "
+					+ "FROM SYSTEM_RANGE(1, " + TRANSACTION_COUNT + ")");
+
+			// Reminders for 100 loans; the old select-then-insert save left a second row for 10 of them
+			stmt.execute("INSERT INTO reminder (empID, transactionID, reminderDate, reminderMSG) "
+					+ "SELECT 1, X * 10, DATE '2025-08-01', 'old' FROM SYSTEM_RANGE(1, 100)");
+			stmt.execute("INSERT INTO reminder (empID, transactionID, reminderDate, reminderMSG) "
+					+ "SELECT 1, X * 100, DATE '2025-08-02', 'newest' FROM SYSTEM_RANGE(1, 10)");
+		}
+
+		// Plan of the available-equipment query without the composite index
+		planBeforeMigration = explain(new RecordedQuery(AVAILABLE_BY_SKILL, Map.of()));
+
+		// Run the migrator twice, as two application starts would
+		firstRunApplied = SchemaMigrator.migrate(conn);
+		secondRunApplied = SchemaMigrator.migrate(conn);
+
+		// Refresh the optimizer's statistics after seeding
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("ANALYZE");
+		}
+	}
+
+	@AfterAll
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Opens a new empty H2 database with the tables of the MySQL dump the migrations change
+	private static Connection openBaseDatabase(String url) throws Exception {
+		Connection base = DriverManager.getConnection(url, "sa", "");
+		try (Statement stmt = base.createStatement()) {
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY, empID INT, equipmentID INT, "
+					+ "expectedReturnDate DATE, transactionStatus VARCHAR(20), returnCondition VARCHAR(15))");
+			stmt.execute("CREATE TABLE reminder (reminderID INT PRIMARY KEY AUTO_INCREMENT, empID INT NOT NULL, "
+					+ "transactionID INT NOT NULL, reminderDate DATE NOT NULL, reminderMSG TEXT)");
+		}
+		return base;
+	}
+
+	// Runs one query that returns a single number
+	private static int queryInt(Connection target, String sql) throws Exception {
+		try (Statement stmt = target.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	// Returns H2's plan for a recorded query
+	private String explain(RecordedQuery query) throws Exception {
+		try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + query.sql())) {
+			for (Map.Entry<Integer, Object> param : query.params().entrySet()) {
+				stmt.setObject(param.getKey(), param.getValue());
+			}
+			try (ResultSet rs = stmt.executeQuery()) {
+				rs.next();
+				return rs.getString(1);
+			}
+		}
+	}
+
+	// Returns a connection that records every query prepared and executed through it
+	private Connection recording(List<RecordedQuery> queries) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					Object result = invoke(conn, method, args);
+					if (method.getName().equals("prepareStatement")) {
+						return recording((PreparedStatement) result, (String) args[0], queries);
+					}
+					return result;
+				});
+	}
+
+	// Returns a statement that records its SQL and bind parameters when executed
+	private PreparedStatement recording(PreparedStatement target, String sql, List<RecordedQuery> queries) {
+		Map<Integer, Object> params = new TreeMap<>();
+		return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class },
+				(proxy, method, args) -> {
+					String name = method.getName();
+					if (name.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+						params.put((Integer) args[0], args[1]);
+					} else if (name.equals("executeQuery")) {
+						queries.add(new RecordedQuery(sql, new TreeMap<>(params)));
+					}
+					return invoke(target, method, args);
+				});
+	}
+
+	// Calls a method on the real object, unwrapping its exception
+	private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@Test
+	@DisplayName("Migrations are applied once and recorded")
+	void testMigrationsApplied() throws Exception {
+
+		// Every migration runs on the first start and none on the second
+		assertEquals(SchemaMigrator.getLatestVersion(), firstRunApplied, "First run should apply every migration");
+		assertEquals(0, secondRunApplied, "Second run should find nothing to apply");
+		assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.getCurrentVersion(conn));
+
+		// V1 added and backfilled the last return condition
+		try (Statement stmt = conn.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM equipment WHERE lastReturnCondition = 'Good'")) {
+			rs.next();
+			// Items whose ID is 1 more than a multiple of 10 only ever appear on borrowed transactions
+			assertEquals(EQUIPMENT_COUNT - EQUIPMENT_COUNT / 10, rs.getInt(1),
+					"Every item with a returned transaction should be backfilled");
+		}
+
+		// V5 removed duplicate reminders, keeping the newest, and made transactionID unique
+		try (Statement stmt = conn.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT COUNT(*), COUNT(DISTINCT transactionID), "
+						+ "SUM(CASEWHEN(reminderMSG = 'newest', 1, 0)) FROM reminder")) {
+			rs.next();
+			assertEquals(100, rs.getInt(1));
+			assertEquals(100, rs.getInt(2));
+			assertEquals(10, rs.getInt(3));
+		}
+		try (Statement stmt = conn.createStatement()) {
+			assertThrows(java.sql.SQLException.class, () -> stmt.execute("INSERT INTO reminder "
+					+ "(empID, transactionID, reminderDate) VALUES (1, 10, DATE '2025-08-03')"));
+		}
+
+		// V6 created the event outbox, which OutboxDAO can write and read back
+		Transaction txn = new Transaction(7, new Employee(3, "Emp3"), new Equipment(8, "Item8"), TransactionStatus.Borrowed);
+		OutboxDAO.append(conn, OutboxEvent.checkedOut(txn));
+		List<OutboxEvent> events = OutboxDAO.readAfter(conn, 0, 10);
+		assertEquals(1, events.size());
+		assertEquals(OutboxEvent.Type.CHECKED_OUT, events.get(0).getType());
+		assertEquals(7, events.get(0).getTransactionID());
+		assertEquals(0, events.get(0).getOrderID(), "A missing order ID is stored as NULL");
+		assertEquals(events.get(0).getEventID(), OutboxDAO.getLatestEventID(conn));
+	}
+
+	@Test
+	@DisplayName("Composite indexes exist for the hot predicates")
+	void testIndexesCreated() throws Exception {
+
+		// Index names are upper case in H2
+		Set<String> indexes = new HashSet<>();
+		for (String table : new String[] { "EQUIPMENT", "TRANSACTION" }) {
+			try (ResultSet rs = conn.getMetaData().getIndexInfo(null, null, table, false, false)) {
+				while (rs.next()) {
+					indexes.add(rs.getString("INDEX_NAME").toLowerCase());
+				}
+			}
+		}
+		assertTrue(indexes.contains("idx_equipment_status_skill"), "Missing index: " + indexes);
+		assertTrue(indexes.contains("idx_transaction_emp_status"), "Missing index: " + indexes);
+		assertTrue(indexes.contains("idx_transaction_equipment_status"), "Missing index: " + indexes);
+		assertTrue(indexes.contains("idx_transaction_status_due"), "Missing index: " + indexes);
+
+		// One index serves the loans due by a date (status first)
+		assertFalse(indexes.contains("idx_transaction_due_status"), "Redundant index: " + indexes);
+	}
+
+	@Test
+	@DisplayName("Hot DAO queries do not scan whole tables")
+	void testNoFullScans() throws Exception {
+
+		// The check itself: without the index the equipment query was a table scan
+		assertTrue(planBeforeMigration.contains("tableScan"),
+				"Expected a table scan before the migration:\n" + planBeforeMigration);
+
+		// Run the hot DAO queries and record what they send to the database
+		List<RecordedQuery> queries = new ArrayList<>();
+		Connection recorder = recording(queries);
+		EquipmentDAO.getAvailableEquipmentBySkill(recorder, SkillClassification.Welder);
+		EquipmentDAO.getOrderableEquipmentBySkill(recorder, SkillClassification.Welder);
+		EquipmentDAO.getEquipmentByID(recorder, 42);
+		EmployeeDAO.getEmployeeByID(recorder, 7);
+		OrderDAO.getOrderByID(recorder, 3);
+		TransactionDAO.getTransactionByID(recorder, 1234);
+		TransactionDAO.getTransactionsByEmployeeID(recorder, 7);
+		TransactionDAO.getBorrowedTransactionsByEmployee(7, recorder);
+		TransactionDAO.getTransactionsPage(recorder, 5_000, 200);
+		TransactionDAO.getTransactionsPage(recorder, 5_000, 200, false);
+		TransactionDAO.getBorrowedTransactionsDueBy(recorder, java.time.LocalDate.of(2025, 1, 5));
+		assertFalse(queries.isEmpty(), "DAO queries should have been recorded");
+
+		// Lookups used on the return and reminder paths
+		queries.add(new RecordedQuery("SELECT t.returnCondition FROM transaction t WHERE t.equipmentID = ? "
+				+ "AND t.transactionStatus = 'Returned' ORDER BY t.transactionID DESC LIMIT 1", Map.of(1, 42)));
+		queries.add(new RecordedQuery("SELECT t.transactionID FROM transaction t "
+				+ "WHERE t.expectedReturnDate <= ? AND t.transactionStatus = 'Borrowed'",
+				Map.of(1, java.sql.Date.valueOf("2025-01-05"))));
+
+		// Every table in every plan must be read through an index
+		for (RecordedQuery query : queries) {
+			String plan = explain(query);
+			assertFalse(plan.contains("tableScan"), "Full table scan in plan:\n" + plan);
+		}
+	}
+
+	@Test
+	@DisplayName("Copies starting together apply each migration once")
+	void testConcurrentStarts() throws Exception {
+		String url = "jdbc:h2:mem:migrationlock;DB_CLOSE_DELAY=-1";
+		ExecutorService starts = Executors.newFixedThreadPool(4);
+		try (Connection base = openBaseDatabase(url)) {
+
+			// Another copy holds the lock: a starting copy waits for it
+			try (Statement stmt = base.createStatement()) {
+				stmt.execute("CREATE TABLE " + SchemaMigrator.LOCK_TABLE + " (lockID INT NOT NULL PRIMARY KEY, "
+						+ "lockedAt TIMESTAMP NOT NULL)");
+				stmt.execute("INSERT INTO " + SchemaMigrator.LOCK_TABLE + " VALUES (1, CURRENT_TIMESTAMP)");
+			}
+			List<Future<Integer>> applied = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				applied.add(starts.submit(() -> {
+					try (Connection copy = DriverManager.getConnection(url, "sa", "")) {
+						return SchemaMigrator.migrate(copy);
+					}
+				}));
+			}
+			Thread.sleep(300);
+			assertEquals(0, SchemaMigrator.getCurrentVersion(base), "Nothing should run while the lock is held");
+
+			// Once it is released, the migrations are applied once between the four copies
+			try (Statement stmt = base.createStatement()) {
+				stmt.execute("DELETE FROM " + SchemaMigrator.LOCK_TABLE);
+			}
+			int total = 0;
+			for (Future<Integer> copy : applied) {
+				total += copy.get(30, TimeUnit.SECONDS);
+			}
+			assertEquals(SchemaMigrator.getLatestVersion(), total);
+			assertEquals(SchemaMigrator.getLatestVersion(), queryInt(base, "SELECT COUNT(*) FROM " + SchemaMigrator.VERSION_TABLE));
+			assertEquals(0, queryInt(base, "SELECT COUNT(*) FROM " + SchemaMigrator.LOCK_TABLE), "The lock should be released");
+		} finally {
+			starts.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("A migration that stopped halfway runs again; other schemas are ignored")
+	void testRerunAfterPartialMigration() throws Exception {
+		try (Connection base = openBaseDatabase("jdbc:h2:mem:migrationrerun;DB_CLOSE_DELAY=-1")) {
+			try (Statement stmt = base.createStatement()) {
+				stmt.execute("INSERT INTO equipment VALUES (1, 'Saw', 'Good', 'Welder', 'Available')");
+				stmt.execute("INSERT INTO transaction VALUES (1, 1, 1, DATE '2025-01-08', 'Returned', 'Damaged')");
+
+				// V1 added its column, then failed before the backfill (MySQL keeps the DDL)
+				stmt.execute("ALTER TABLE equipment ADD COLUMN lastReturnCondition VARCHAR(15) NULL");
+
+				// V2 created one of its indexes; V6 created its table
+				stmt.execute("CREATE INDEX idx_equipment_status_skill ON equipment (equipStatus, requiredSkill)");
+				stmt.execute("CREATE TABLE event_outbox (eventID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+						+ "eventType VARCHAR(20) NOT NULL, equipmentID INT NOT NULL, equipStatus VARCHAR(20) NOT NULL, "
+						+ "transactionID INT, orderID INT, empID INT, equipCondition VARCHAR(15), createdAt TIMESTAMP NOT NULL)");
+
+				// A fully migrated copy in another schema of the same database
+				stmt.execute("CREATE SCHEMA other");
+				stmt.execute("CREATE TABLE other." + SchemaMigrator.VERSION_TABLE + " (version INT NOT NULL PRIMARY KEY)");
+				stmt.execute("INSERT INTO other." + SchemaMigrator.VERSION_TABLE + " SELECT X FROM SYSTEM_RANGE(1, "
+						+ SchemaMigrator.getLatestVersion() + ")");
+			}
+
+			// Every migration runs, skipping what already exists, and completes the backfill
+			assertEquals(0, SchemaMigrator.getCurrentVersion(base));
+			assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.migrate(base));
+			assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.getCurrentVersion(base));
+			try (Statement stmt = base.createStatement();
+					ResultSet rs = stmt.executeQuery("SELECT lastReturnCondition, rowVersion FROM equipment")) {
+				assertTrue(rs.next());
+				assertEquals("Damaged", rs.getString(1));
+				assertEquals(0, rs.getInt(2));
+			}
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * StatementCounting.java
+ * JUnit 5 test helper (not a test case)
+ *
+ * Purpose:
+ *   Wraps an H2 connection in a proxy that counts every executed
+ *   statement, so a test can assert how many round trips a DAO call or
+ *   a save takes. Shared by the round-trip tests (e.g.,
+ *   BorrowedTransactionsRoundTripTest, BulkReturnTest, ReminderEngineTest).
+ */
+
+package ecsapplication.test;
+
+// Import JDBC classes for the wrapped connection
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+// Import reflection classes used to count executed statements
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+// Import counters
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class StatementCounting {
+
+	private StatementCounting() {
+	}
+
+	// Wraps a connection so every statement execution increments the counter
+	static Connection counting(Connection target, AtomicInteger executions) {
+		return wrap(target, executions, false);
+	}
+
+	// Same as counting(), but closing the wrapper leaves the connection open
+	// (for code that closes the connections it is given, like a pool's)
+	static Connection countingKeptOpen(Connection target, AtomicInteger executions) {
+		return wrap(target, executions, true);
+	}
+
+	// Invokes a method on the real object and unwraps reflection exceptions
+	static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	// Proxies the connection, and each PreparedStatement it creates
+	private static Connection wrap(Connection target, AtomicInteger executions, boolean keepOpen) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					if (keepOpen && method.getName().equals("close")) {
+						return null;   // The test keeps using the connection
+					}
+					Object result = invokeTarget(target, method, args);
+					if (result instanceof PreparedStatement) {
+						PreparedStatement stmt = (PreparedStatement) result;
+						return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+								new Class<?>[] { PreparedStatement.class },
+								(p, m, a) -> {
+									if (m.getName().startsWith("execute")) {
+										executions.incrementAndGet();
+									}
+									return invokeTarget(stmt, m, a);
+								});
+					}
+					return result;
+				});
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * StreamingCSVExportTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the streamed CSV export of the
+ *   transaction history (CSVExporter.exportTransactions), which reads
+ *   straight from the database instead of from the JTable. An H2
+ *   in-memory database is seeded with 200,000 transactions.
+ *   The following is tested:
+ *
+ *   1. Every transaction is written once, in ID order, under the
+ *      Transactions table headers, with progress reports.
+ *   2. RFC 4180 quoting of commas, quotes and line breaks, and CRLF line endings.
+ *   3. Interrupting the export stops it and deletes the partial file.
+ *
+ *   Rows per second for the large export are printed to the console.
+ *
+ * Test Case ID: TC-EXP-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import I/O classes for reading the exported file
+import java.io.BufferedReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+// Import collections
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+// Import ECS classes
+import ecsapplication.CSVExporter;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StreamingCSVExportTest {
+
+	private static final int TRANSACTIONS = 200_000;   // Rows seeded into transaction
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@TempDir
+	Path tempDir;              // Folder for exported files
+
+	@BeforeAll
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection("jdbc:h2:mem:csvstream;DB_CLOSE_DELAY=-1", "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+
+			// Names that need quoting: a comma, a quote, and a line break
+			stmt.execute("INSERT INTO employee VALUES (1, 'Smith, Jo', 'Welder'), (2, 'Al \"Big\" Ray', 'Painter'), "
+					+ "(3, 'Two' || CHAR(10) || 'Lines', 'Plumber')");
+			stmt.execute("INSERT INTO equipment VALUES (1, 'Torch', 'Good', 'Welder', 'Loaned'), "
+					+ "(2, 'Brush', 'Good', 'Painter', 'Available')");
+
+			// Transactions spread over the three employees; only even IDs have a checkout condition
+			stmt.execute("INSERT INTO transaction (transactionID, empID, equipmentID, borrowDate, expectedReturnDate, "
+					+ "transactionStatus, checkoutCondition) "
+					+ "SELECT X, MOD(X, 3) + 1, MOD(X, 2) + 1, DATE '2024-01-01', DATE '2024-02-01', 'Returned', "
+					+ "CASE WHEN MOD(X, 2) = 0 THEN 'Good' END FROM SYSTEM_RANGE(1, " + TRANSACTIONS + ")");
+		}
+	}
+
+	@AfterAll
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	@Test
+	@DisplayName("Every transaction is streamed to the file with progress")
+	void testExportAllRows() throws Exception {
+		Path file = tempDir.resolve("transactions.csv");
+		List<Long> progress = new CopyOnWriteArrayList<>();
+
+		long start = System.nanoTime();
+		long rows = CSVExporter.exportTransactions(conn, file, progress::add);
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+		System.out.printf("Streamed CSV export: rows=%d bytes=%d time=%.2f s (%.0f rows/s)%n",
+				rows, Files.size(file), seconds, rows / seconds);
+
+		// Progress every PROGRESS_INTERVAL rows, then the final count
+		assertEquals(TRANSACTIONS, rows);
+		assertEquals(TRANSACTIONS / CSVExporter.PROGRESS_INTERVAL + 1, progress.size());
+		assertEquals(Long.valueOf(TRANSACTIONS), progress.get(progress.size() - 1));
+
+		// Header, then one record per transaction in ID order
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			assertEquals("Transaction ID,Employee Name,Employee Skill,Equipment Name,Required Skill,"
+					+ "Checkout Condition,Return Condition,Borrow Date,Expected Return Date,Transaction Status", in.readLine());
+			assertEquals("1,\"Al \"\"Big\"\" Ray\",Painter,Brush,Painter,N/A,N/A,2024-01-01,2024-02-01,Returned", in.readLine());
+			assertEquals("2,\"Two", in.readLine());   // Line break inside a quoted field
+			assertEquals("Lines\",Plumber,Torch,Welder,Good,N/A,2024-01-01,2024-02-01,Returned", in.readLine());
+			assertEquals("3,\"Smith, Jo\",Welder,Brush,Painter,N/A,N/A,2024-01-01,2024-02-01,Returned", in.readLine());
+		}
+
+		// Records end with CRLF; the only bare LF is inside the quoted name
+		String content = Files.readString(file, StandardCharsets.UTF_8);
+		long crlf = content.split("\r\n", -1).length - 1;
+		assertEquals(TRANSACTIONS + 1, crlf);
+		long bareLF = content.chars().filter(c -> c == '\n').count() - crlf;
+		assertEquals(TRANSACTIONS / 3 + (TRANSACTIONS % 3 >= 2 ? 1 : 0), bareLF);
+	}
+
+	@Test
+	@DisplayName("Interrupted export stops and deletes the partial file")
+	void testCancel() throws Exception {
+		Path file = tempDir.resolve("cancelled.csv");
+
+		// Interrupt the exporting thread at the first progress report, as cancelling the task does
+		assertThrows(InterruptedIOException.class, () -> CSVExporter.exportTransactions(conn, file,
+				rows -> Thread.currentThread().interrupt()));
+
+		// Clear the interrupt so it does not leak into other tests
+		assertTrue(Thread.interrupted());
+		assertFalse(Files.exists(file), "Partial file should be deleted");
+	}
+}
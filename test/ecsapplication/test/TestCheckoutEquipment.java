@@ -64,11 +64,12 @@ class TestCheckoutEquipment {
                     "equipmentName VARCHAR(100), " +
                     "equipmentCondition VARCHAR(15), " +
                     "equipStatus VARCHAR(20), " +
-                    "requiredSkill VARCHAR(50))");
+                    "requiredSkill VARCHAR(50), " +
+                    "rowVersion INT NOT NULL DEFAULT 0)");
 
             // Insert initial equipment data for testing
-            stmt.execute("INSERT INTO equipment VALUES (101, 'Paint Brush', 'Good', 'Available', 'Painter')");
-            stmt.execute("INSERT INTO equipment VALUES (103, 'Saw', 'Good', 'Available', 'Plumber')");
+            stmt.execute("INSERT INTO equipment VALUES (101, 'Paint Brush', 'Good', 'Available', 'Painter', 0)");
+            stmt.execute("INSERT INTO equipment VALUES (103, 'Saw', 'Good', 'Available', 'Plumber', 0)");
         }
     }
 
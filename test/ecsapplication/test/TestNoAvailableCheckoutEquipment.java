@@ -82,6 +82,9 @@ class TestNoAvailableCheckoutEquipment {
 			stmt.execute("INSERT INTO equipment VALUES (104, 'Hacksaw', 'Loaned', 'Plumber')");
 			stmt.execute("INSERT INTO equipment VALUES (100, 'Hammer', 'Loaned', 'Carpenter')");
 
+			// Add the last known return condition read by getAvailableEquipmentBySkill()
+			stmt.execute("ALTER TABLE equipment ADD COLUMN lastReturnCondition VARCHAR(20)");
+
 			// Insert related transactions
 			stmt.execute("INSERT INTO transaction VALUES (1, 108, 'Borrowed', 'Good')");
 			stmt.execute("INSERT INTO transaction VALUES (2, 106, 'Borrowed', 'Good')");
@@ -60,17 +60,19 @@ class TestOrderEquipment {
             stmt.execute("DROP TABLE IF EXISTS employee");
             stmt.execute("DROP TABLE IF EXISTS equipment");
             stmt.execute("DROP TABLE IF EXISTS `order`");
+            stmt.execute("DROP TABLE IF EXISTS event_outbox");
 
             // Create employee table with employee ID and employee name attributes
             stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(100))");
 
-            // Create equipment table with columns for equipment ID, equipment name, equipment condition, required skill, and equipment status
+            // Create equipment table with columns for equipment ID, equipment name, equipment condition, required skill, equipment status and row version
             stmt.execute("CREATE TABLE equipment (" +
                     "equipmentID INT PRIMARY KEY, " +
                     "equipmentName VARCHAR(100), " +
                     "equipmentCondition VARCHAR(15), " +
                     "requiredSkill VARCHAR(20), " +
-                    "equipStatus VARCHAR(20))");
+                    "equipStatus VARCHAR(20), " +
+                    "rowVersion INT NOT NULL DEFAULT 0)");
 
             // Create orders table with order ID, employee ID, equipment ID, orderDate, pickUpDate, and orderStatus
             stmt.execute("CREATE TABLE `order` (" +
@@ -81,11 +83,23 @@ class TestOrderEquipment {
                     "pickUpDate DATE, " +
                     "orderStatus VARCHAR(20))");
 
+            // Create the event outbox (schema migration V6) that orders are recorded in
+            stmt.execute("CREATE TABLE event_outbox (" +
+                    "eventID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "eventType VARCHAR(20) NOT NULL, " +
+                    "equipmentID INT NOT NULL, " +
+                    "equipStatus VARCHAR(20) NOT NULL, " +
+                    "transactionID INT, " +
+                    "orderID INT, " +
+                    "empID INT, " +
+                    "equipCondition VARCHAR(15), " +
+                    "createdAt TIMESTAMP NOT NULL)");
+
             // Insert sample employee data
             stmt.execute("INSERT INTO employee VALUES (5, 'David')");
 
             // Insert sample equipment data
-            stmt.execute("INSERT INTO equipment VALUES (103, 'Hacksaw', 'Good', 'Plumber', 'Available')");
+            stmt.execute("INSERT INTO equipment VALUES (103, 'Hacksaw', 'Good', 'Plumber', 'Available', 0)");
         }
 
         // Initialize Employee object
@@ -0,0 +1,143 @@
+/**
+ * TransactionPagingTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the keyset-paginated and streaming
+ *   variants of TransactionDAO.getAllTransactions() using an H2 in-memory
+ *   database seeded with 25 transactions. The following is tested:
+ *
+ *   1. getTransactionsPage() walks the history in ID order without gaps or duplicates.
+ *   2. streamAllTransactions() and forEachTransaction() return every row in ID order.
+ *   3. Both variants return the same data as getAllTransactions().
+ *
+ * Test Case ID: TC-VR-002-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+// Import collections and streams
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+// Import ECS classes
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionPagingTest {
+
+	private static final int TRANSACTION_COUNT = 25;   // Rows seeded into the transaction table
+
+	private Connection conn;   // H2 in-memory database connection
+
+	@BeforeAll
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open a separate in-memory database for this test
+		Class.forName("org.h2.Driver");
+		conn = DriverManager.getConnection("jdbc:h2:mem:paging;DB_CLOSE_DELAY=-1", "sa", "");
+
+		try (Statement stmt = conn.createStatement()) {
+
+			// Drop tables from a previous run
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS `order`");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+
+			// Create the tables joined by the transaction queries
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE `order` (orderID INT PRIMARY KEY, empID INT, equipmentID INT, "
+					+ "orderDate DATE, pickUpDate DATE, orderStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+
+			// Two employees, one piece of equipment, one order
+			stmt.execute("INSERT INTO employee VALUES (1, 'Jorge', 'Electrician'), (2, 'Megan', 'Welder')");
+			stmt.execute("INSERT INTO equipment VALUES (100, 'Torch', 'Good', 'Welder', 'Available')");
+			stmt.execute("INSERT INTO `order` VALUES (1, 2, 100, '2025-08-01', NULL, 'Confirmed')");
+
+			// Seed the transactions, alternating employees; the first one references the order
+			for (int i = 1; i <= TRANSACTION_COUNT; i++) {
+				stmt.execute("INSERT INTO transaction (empID, equipmentID, orderID, borrowDate, expectedReturnDate, "
+						+ "transactionStatus, returnDate, returnCondition, checkoutCondition) VALUES ("
+						+ (i % 2 + 1) + ", 100, " + (i == 1 ? "1" : "NULL") + ", '2025-08-01', '2025-08-08', "
+						+ "'Returned', '2025-08-05', 'Good', 'Good')");
+			}
+		}
+	}
+
+	@AfterAll
+	void teardown() throws Exception {
+		conn.close();
+	}
+
+	// Extracts transaction IDs from a list of transactions
+	private static List<Integer> ids(List<Transaction> txns) {
+		return txns.stream().map(Transaction::getTransactionID).collect(Collectors.toList());
+	}
+
+	@Test
+	@DisplayName("Keyset pages cover every transaction exactly once")
+	void testKeysetPaging() throws Exception {
+
+		List<Integer> seen = new ArrayList<>();
+		int after = 0;
+		int pages = 0;
+
+		// Walk the history 10 rows at a time, starting each page after the last ID seen
+		while (true) {
+			List<Transaction> page = TransactionDAO.getTransactionsPage(conn, after, 10);
+			if (page.isEmpty()) {
+				break;
+			}
+			assertTrue(page.size() <= 10, "A page should never exceed the limit");
+			seen.addAll(ids(page));
+			after = page.get(page.size() - 1).getTransactionID();
+			pages++;
+		}
+
+		// 25 rows in pages of 10 = 3 pages, same IDs and order as the full load
+		assertEquals(3, pages, "25 rows should span 3 pages of 10");
+		assertEquals(ids(TransactionDAO.getAllTransactions(conn)), seen, "Pages should match the full list in order");
+	}
+
+	@Test
+	@DisplayName("Streaming returns every transaction in order")
+	void testStreaming() throws Exception {
+
+		// Stream all rows and collect their IDs
+		List<Integer> streamed;
+		try (Stream<Transaction> txns = TransactionDAO.streamAllTransactions(conn)) {
+			streamed = txns.map(Transaction::getTransactionID).collect(Collectors.toList());
+		}
+		assertEquals(ids(TransactionDAO.getAllTransactions(conn)), streamed, "Stream should match the full list in order");
+
+		// Callback variant visits the same rows and maps the order on the first transaction
+		List<Transaction> visited = new ArrayList<>();
+		long count = TransactionDAO.forEachTransaction(conn, visited::add);
+		assertEquals(TRANSACTION_COUNT, count, "Callback should report every row");
+		assertNotNull(visited.get(0).getOrder(), "First transaction should include its order");
+		assertEquals("Megan", visited.get(0).getEmployee().getEmpName());
+	}
+}
@@ -0,0 +1,294 @@
+/**
+ * TransactionTableModelTest.java
+ * JUnit 5 Test Case
+ *
+ * Purpose:
+ *   This JUnit test case verifies the lazily loaded TransactionTableModel
+ *   used by the Transactions table, against an H2 in-memory database
+ *   seeded with 3,000 transactions (15 pages). The following is tested:
+ *
+ *   1. The table opens empty and pages are only loaded when rows are read.
+ *   2. No more than DEFAULT_CACHE_PAGES pages are held in memory while scrolling.
+ *   3. Keyset pages follow the database's order in every sort order, NULL
+ *      keys included, and a jump to a deep page loads only that page.
+ *   4. Server-side sorting orders rows by the chosen column, then by ID.
+ *
+ * Test Case ID: TC-VR-003-A
+ */
+
+package ecsapplication.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Import JDBC classes for the H2 database
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Import collections
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// Import Swing utility used to run checks on the Event Dispatch Thread
+import javax.swing.SwingUtilities;
+
+// Import JUnit annotations
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+// Import ECS classes
+import ecsapplication.Keyset;
+import ecsapplication.PagedTableModel;
+import ecsapplication.Transaction;
+import ecsapplication.TransactionDAO;
+import ecsapplication.TransactionTableModel;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionTableModelTest {
+
+	// Separate H2 database so the model does not interfere with other test classes
+	private static final String URL = "jdbc:h2:mem:lazytable;DB_CLOSE_DELAY=-1";
+
+	private static final int TRANSACTION_COUNT = 3_000;   // Rows seeded into the transaction table
+
+	// Model that reads from the H2 database instead of the MySQL pool
+	private static class H2TransactionTableModel extends TransactionTableModel {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected Connection openConnection() throws SQLException {
+			return DriverManager.getConnection(URL, "sa", "");
+		}
+	}
+
+	@BeforeAll
+	void setupDatabase() throws Exception {
+
+		// Load H2 driver and open the database
+		Class.forName("org.h2.Driver");
+		try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+				Statement stmt = conn.createStatement()) {
+
+			// Drop tables from a previous run
+			stmt.execute("DROP TABLE IF EXISTS transaction");
+			stmt.execute("DROP TABLE IF EXISTS `order`");
+			stmt.execute("DROP TABLE IF EXISTS equipment");
+			stmt.execute("DROP TABLE IF EXISTS employee");
+
+			// Create the tables joined by the transaction queries
+			stmt.execute("CREATE TABLE employee (empID INT PRIMARY KEY, empName VARCHAR(20), skillClassification VARCHAR(20))");
+			stmt.execute("CREATE TABLE equipment (equipmentID INT PRIMARY KEY, equipmentName VARCHAR(20), "
+					+ "equipmentCondition VARCHAR(15), requiredSkill VARCHAR(20), equipStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE `order` (orderID INT PRIMARY KEY, empID INT, equipmentID INT, "
+					+ "orderDate DATE, pickUpDate DATE, orderStatus VARCHAR(20))");
+			stmt.execute("CREATE TABLE transaction (transactionID INT PRIMARY KEY AUTO_INCREMENT, empID INT, equipmentID INT, "
+					+ "orderID INT, borrowDate DATE, expectedReturnDate DATE, transactionStatus VARCHAR(20), "
+					+ "returnDate DATE, returnCondition VARCHAR(15), checkoutCondition VARCHAR(15))");
+
+			// Three employees and one piece of equipment
+			stmt.execute("INSERT INTO employee VALUES (1, 'Megan', 'Welder'), (2, 'Jorge', 'Electrician'), (3, 'Amir', 'Welder')");
+			stmt.execute("INSERT INTO equipment VALUES (100, 'Torch', 'Good', 'Welder', 'Available')");
+
+			// Seed the transactions, rotating through the employees
+			try (PreparedStatement txn = conn.prepareStatement("INSERT INTO transaction (empID, equipmentID, borrowDate, "
+					+ "expectedReturnDate, transactionStatus, returnDate, returnCondition, checkoutCondition) "
+					+ "VALUES (?, 100, '2025-08-01', '2025-08-08', 'Returned', '2025-08-05', ?, 'Good')")) {
+				for (int i = 1; i <= TRANSACTION_COUNT; i++) {
+					txn.setInt(1, i % 3 + 1);
+
+					// Every fifth return has no recorded condition (NULL sort key)
+					txn.setString(2, i % 5 == 0 ? null : (i % 2 == 0 ? "Good" : "Damaged"));
+					txn.addBatch();
+				}
+				txn.executeBatch();
+			}
+		}
+	}
+
+	// Waits until a condition checked on the EDT becomes true
+	private static void awaitOnEdt(BooleanSupplier condition) throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		boolean[] done = new boolean[1];
+		while (System.currentTimeMillis() < deadline) {
+			SwingUtilities.invokeAndWait(() -> done[0] = condition.getAsBoolean());
+			if (done[0]) {
+				return;
+			}
+			Thread.sleep(10);
+		}
+		fail("Timed out waiting for the table model");
+	}
+
+	// Reads every row through forEachRow() in the sort order the model shows (read on the EDT)
+	private static void exportRows(PagedTableModel<?> model, Consumer<Object[]> action) throws Exception {
+		int[] sortColumn = new int[1];
+		boolean[] ascending = new boolean[1];
+		SwingUtilities.invokeAndWait(() -> {
+			sortColumn[0] = model.getSortColumn();
+			ascending[0] = model.isAscending();
+		});
+		model.forEachRow(sortColumn[0], ascending[0], action);
+	}
+
+	// Reads the Transaction ID column of every row through forEachRow()
+	private static List<Integer> exportedIDs(PagedTableModel<?> model) throws Exception {
+		List<Integer> ids = new ArrayList<>();
+		exportRows(model, values -> ids.add((Integer) values[0]));
+		return ids;
+	}
+
+	// IDs of every transaction in a sort order, read in one query (the expected order)
+	private static List<Integer> sortedIDs(Connection conn, String column, boolean ascending) throws SQLException {
+		String direction = ascending ? " ASC" : " DESC";
+		List<Integer> ids = new ArrayList<>();
+		try (Statement stmt = conn.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT t.transactionID FROM transaction t "
+						+ "JOIN employee e ON t.empID = e.empID ORDER BY " + column + direction + ", t.transactionID" + direction)) {
+			while (rs.next()) {
+				ids.add(rs.getInt(1));
+			}
+		}
+		return ids;
+	}
+
+	@Test
+	@DisplayName("Pages are loaded on demand and the page cache stays bounded")
+	void testLazyLoading() throws Exception {
+
+		H2TransactionTableModel model = new H2TransactionTableModel();
+
+		// Nothing is loaded until the model is refreshed
+		assertEquals(0, model.getRowCount(), "Model should open empty");
+		SwingUtilities.invokeAndWait(model::refresh);
+		awaitOnEdt(() -> model.getRowCount() == TRANSACTION_COUNT);
+		assertEquals(0, model.getCachedPageCount(), "Counting rows should not load any page");
+
+		// The first read of a row starts loading its page; the value arrives afterwards
+		Object[] first = new Object[1];
+		SwingUtilities.invokeAndWait(() -> first[0] = model.getValueAt(0, 0));
+		assertNull(first[0], "Unloaded rows should be empty until their page arrives");
+		awaitOnEdt(() -> Integer.valueOf(1).equals(model.getValueAt(0, 0)));
+		assertEquals("Jorge", model.getValueAt(0, 1));
+
+		// Scroll through every page; the cache never holds more than its limit
+		int pageCount = TRANSACTION_COUNT / PagedTableModel.DEFAULT_PAGE_SIZE;
+		for (int page = 0; page < pageCount; page++) {
+			int row = page * PagedTableModel.DEFAULT_PAGE_SIZE;
+			awaitOnEdt(() -> model.getValueAt(row, 0) != null);
+			assertEquals(row + 1, model.getValueAt(row, 0), "Row " + row + " should hold transaction " + (row + 1));
+		}
+		awaitOnEdt(() -> model.getCachedPageCount() <= PagedTableModel.DEFAULT_CACHE_PAGES);
+		assertEquals(PagedTableModel.DEFAULT_CACHE_PAGES, model.getCachedPageCount(), "Page cache should be bounded");
+	}
+
+	@Test
+	@DisplayName("Keyset pages follow the database's order in every sort order")
+	void testKeysetPagesInEverySortOrder() throws Exception {
+		try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+
+			// Walk pages of 70 rows by keyset: by name (no NULLs) and by return condition (NULLs), both ways
+			for (TransactionDAO.SortColumn sort : new TransactionDAO.SortColumn[] {
+					TransactionDAO.SortColumn.EMPLOYEE_NAME, TransactionDAO.SortColumn.RETURN_CONDITION }) {
+				for (boolean ascending : new boolean[] { true, false }) {
+					String order = sort + (ascending ? " ascending" : " descending");
+					List<Integer> walked = new ArrayList<>();
+					List<Keyset> pageEnds = new ArrayList<>();
+					Keyset after = null;
+					List<Transaction> page;
+					do {
+						page = TransactionDAO.getTransactionsPage(conn, sort, ascending, after, 70);
+						page.forEach(t -> walked.add(t.getTransactionID()));
+						if (!page.isEmpty()) {
+							after = sort.keysetOf(page.get(page.size() - 1));
+							pageEnds.add(after);
+						}
+					} while (page.size() == 70);
+					String column = sort == TransactionDAO.SortColumn.EMPLOYEE_NAME ? "e.empName" : "t.returnCondition";
+					assertEquals(sortedIDs(conn, column, ascending), walked, "Pages should follow the " + order);
+
+					// Seeking finds the same page ends while reading only the keys
+					List<Keyset> sought = TransactionDAO.seekTransactions(conn, sort, ascending, null, 2_100, 70);
+					assertEquals(30, sought.size());
+					for (int i = 0; i < sought.size(); i++) {
+						assertEquals(pageEnds.get(i).getId(), sought.get(i).getId(), "Page end " + i + " in " + order);
+						assertEquals(pageEnds.get(i).getKey(), sought.get(i).getKey(), "Page end " + i + " in " + order);
+					}
+				}
+			}
+
+			// Descending keyset by ID starts from the newest transaction
+			assertEquals(TRANSACTION_COUNT,
+					TransactionDAO.getTransactionsPage(conn, Integer.MAX_VALUE, 1, false).get(0).getTransactionID());
+			assertEquals(TRANSACTION_COUNT, TransactionDAO.countTransactions(conn));
+		}
+	}
+
+	@Test
+	@DisplayName("A jump to a deep page of a sorted table loads only that page")
+	void testJumpInSortedTable() throws Exception {
+
+		// Sort by return condition, descending (NULLs last)
+		H2TransactionTableModel model = new H2TransactionTableModel();
+		SwingUtilities.invokeAndWait(() -> {
+			model.sortBy(6);
+			model.sortBy(6);
+		});
+		awaitOnEdt(() -> model.getRowCount() == TRANSACTION_COUNT);
+
+		// Read a row on page 13 without reading the pages before it
+		List<Integer> expected;
+		try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+			expected = sortedIDs(conn, "t.returnCondition", false);
+		}
+		int row = 13 * PagedTableModel.DEFAULT_PAGE_SIZE + 5;
+		awaitOnEdt(() -> model.getValueAt(row, 0) != null);
+		assertEquals(expected.get(row), model.getValueAt(row, 0));
+		assertEquals(1, model.getCachedPageCount(), "Only the page jumped to should be loaded");
+
+		// The page before it now continues from a known page end too
+		int previous = row - PagedTableModel.DEFAULT_PAGE_SIZE;
+		awaitOnEdt(() -> model.getValueAt(previous, 0) != null);
+		assertEquals(expected.get(previous), model.getValueAt(previous, 0));
+	}
+
+	@Test
+	@DisplayName("Sorting is done by the database")
+	void testServerSideSorting() throws Exception {
+
+		H2TransactionTableModel model = new H2TransactionTableModel();
+
+		// Default order is by ID; every row is exported exactly once
+		List<Integer> byID = exportedIDs(model);
+		assertEquals(TRANSACTION_COUNT, byID.size());
+		for (int i = 0; i < byID.size(); i++) {
+			assertEquals(i + 1, byID.get(i), "Rows should be in ID order");
+		}
+
+		// Clicking the ID column again reverses the order
+		SwingUtilities.invokeAndWait(() -> model.sortBy(0));
+		List<Integer> descending = exportedIDs(model);
+		assertEquals(TRANSACTION_COUNT, descending.get(0), "Newest transaction should come first");
+
+		// Sort by employee name: Amir, Jorge, Megan, each block in ID order
+		SwingUtilities.invokeAndWait(() -> model.sortBy(1));
+		List<String> names = new ArrayList<>();
+		List<Integer> ids = new ArrayList<>();
+		exportRows(model, values -> {
+			names.add((String) values[1]);
+			ids.add((Integer) values[0]);
+		});
+		assertEquals(TRANSACTION_COUNT, names.size());
+		assertEquals("Amir", names.get(0));
+		assertEquals("Megan", names.get(names.size() - 1));
+		for (int i = 1; i < names.size(); i++) {
+			int byName = names.get(i - 1).compareTo(names.get(i));
+			assertTrue(byName < 0 || (byName == 0 && ids.get(i - 1) < ids.get(i)), "Rows should be sorted by name, then ID");
+		}
+	}
+}